@@ -0,0 +1,105 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.entity.Business;
+import com.slotsync.entity.ProfessionalAvailability;
+import com.slotsync.entity.User;
+import com.slotsync.enums.Role;
+import com.slotsync.security.JwtTokenProvider;
+
+import java.lang.reflect.Field;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos y objetos de prueba compartidos por los benchmarks (sin contexto Spring)
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "SlotSyncBenchmarkSecretKeyForHs512SignaturesMustBeLongEnough2024!";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtTokenProvider jwtTokenProvider() {
+        return jwtTokenProvider(0L);
+    }
+
+    /**
+     * Proveedor con caché de tokens verificados de {@code verifiedCacheMaxSize} entradas (0 la desactiva)
+     */
+    static JwtTokenProvider jwtTokenProvider(long verifiedCacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        setField(provider, "jwtSecret", JWT_SECRET);
+        setField(provider, "jwtExpirationMs", 86_400_000L);
+        setField(provider, "jwtRefreshExpirationMs", 604_800_000L);
+        setField(provider, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        provider.init();
+        return provider;
+    }
+
+    static User user(long id) {
+        Business business = new Business();
+        business.setId(10L);
+        User user = User.builder()
+                .firstName("Ana")
+                .lastName("García")
+                .email("ana" + id + "@slotsync.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .role(Role.BUSINESS_OWNER)
+                .business(business)
+                .build();
+        user.setId(id);
+        return user;
+    }
+
+    /**
+     * Horario típico: lunes a viernes 9-14 y 16-20, sábado 10-14, una fecha específica y una ausencia
+     */
+    static List<ProfessionalAvailability> weeklyRules(LocalDate around) {
+        List<ProfessionalAvailability> rules = new ArrayList<>();
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+            rules.add(recurring(day, LocalTime.of(9, 0), LocalTime.of(14, 0)));
+            rules.add(recurring(day, LocalTime.of(16, 0), LocalTime.of(20, 0)));
+        }
+        rules.add(recurring(DayOfWeek.SATURDAY, LocalTime.of(10, 0), LocalTime.of(14, 0)));
+        rules.add(ProfessionalAvailability.builder()
+                .specificDate(around.plusDays(3))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(12, 0))
+                .isAvailable(true)
+                .isRecurring(false)
+                .build());
+        rules.add(ProfessionalAvailability.builder()
+                .specificDate(around.plusDays(5))
+                .startTime(LocalTime.of(0, 0))
+                .endTime(LocalTime.of(0, 0))
+                .isAvailable(false)
+                .isRecurring(false)
+                .build());
+        return rules;
+    }
+
+    private static ProfessionalAvailability recurring(DayOfWeek day, LocalTime start, LocalTime end) {
+        return ProfessionalAvailability.builder()
+                .dayOfWeek(day)
+                .startTime(start)
+                .endTime(end)
+                .isAvailable(true)
+                .isRecurring(true)
+                .build();
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("No se pudo inicializar " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.booking.BookingCodeBlockRepository;
+import com.slotsync.booking.BookingCodeGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unicidad y rendimiento de {@link BookingCodeGenerator}: {@code --nodes} generadores independientes (como nodos
+ * distintos) comparten booking_code_blocks y {@code --threads} hilos por nodo piden códigos a la vez. Comprueba que no
+ * se repite ninguno y que caben en 20 caracteres, y lo compara con la alternativa obvia: MAX()+1 sobre la tabla de
+ * códigos con reintento ante violación de unicidad.
+ * Necesita PostgreSQL con las migraciones aplicadas; usa el día 2099-01-01 y borra sus filas al terminar.
+ * <pre>
+ * mvn -Pbenchmark -DskipTests compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.slotsync.benchmark.BookingCodeGeneratorContention \
+ *   -Dexec.args="--url jdbc:postgresql://localhost:5432/slotsync_db --user slotsync --password ..."
+ * </pre>
+ * Opciones: --nodes (2), --threads (8 por nodo), --codes (códigos por hilo, 20000), --block-size (100),
+ * --baseline-codes (códigos por hilo con MAX()+1, 50).
+ */
+public final class BookingCodeGeneratorContention {
+
+    private static final LocalDate DAY = LocalDate.of(2099, 1, 1);
+    private static final String DAY_PREFIX = "BK20990101";
+
+    private BookingCodeGeneratorContention() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int nodes = Integer.parseInt(options.getOrDefault("nodes", "2"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        int codes = Integer.parseInt(options.getOrDefault("codes", "20000"));
+        int blockSize = Integer.parseInt(options.getOrDefault("block-size", "100"));
+        int baselineCodes = Integer.parseInt(options.getOrDefault("baseline-codes", "50"));
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(options.getOrDefault("url", "jdbc:postgresql://localhost:5432/slotsync_db"));
+        config.setUsername(options.getOrDefault("user", "slotsync"));
+        config.setPassword(options.getOrDefault("password", ""));
+        config.setMaximumPoolSize(nodes * threads + 1);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("DELETE FROM booking_code_blocks WHERE code_date = ?", java.sql.Date.valueOf(DAY));
+            System.out.printf("%d nodos x %d hilos%n", nodes, threads);
+
+            BookingCodeBlockRepository blocks =
+                    new BookingCodeBlockRepository(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+            Clock clock = Clock.fixed(Instant.parse("2099-01-01T12:00:00Z"), ZoneOffset.UTC);
+            List<SimpleMeterRegistry> registries = new ArrayList<>();
+            List<BookingCodeGenerator> generators = new ArrayList<>();
+            for (int n = 0; n < nodes; n++) {
+                SimpleMeterRegistry registry = new SimpleMeterRegistry();
+                registries.add(registry);
+                generators.add(new BookingCodeGenerator(blocks, clock, blockSize, registry));
+            }
+
+            Set<String> seen = ConcurrentHashMap.newKeySet();
+            AtomicLong duplicates = new AtomicLong();
+            AtomicLong tooLong = new AtomicLong();
+            long elapsedMs = race(nodes * threads, worker -> {
+                BookingCodeGenerator generator = generators.get(worker % nodes);
+                for (int i = 0; i < codes; i++) {
+                    String code = generator.next();
+                    if (!seen.add(code)) {
+                        duplicates.incrementAndGet();
+                    }
+                    if (code.length() > BookingCodeGenerator.MAX_LENGTH) {
+                        tooLong.incrementAndGet();
+                    }
+                }
+            });
+            long total = (long) nodes * threads * codes;
+            double leases = registries.stream()
+                    .mapToDouble(registry -> registry.get("slotsync.booking.code.leases").counter().count()).sum();
+            System.out.printf("%-14s %10.0f códigos/s  %d códigos, %d repetidos, %d de más de %d caracteres, "
+                            + "%.0f reservas de bloque (%.4f viajes a BD por código)%n", "bloques",
+                    total * 1000.0 / elapsedMs, total, duplicates.get(), tooLong.get(),
+                    BookingCodeGenerator.MAX_LENGTH, leases, leases / total);
+            jdbcTemplate.update("DELETE FROM booking_code_blocks WHERE code_date = ?", java.sql.Date.valueOf(DAY));
+
+            maxPlusOne(dataSource, nodes * threads, baselineCodes);
+        }
+    }
+
+    /**
+     * Un INSERT ... SELECT MAX()+1 por código; si otro hilo se adelanta salta la clave única y se reintenta
+     */
+    private static void maxPlusOne(HikariDataSource dataSource, int workers, int codes) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_booking_codes");
+            statement.execute("CREATE TABLE bench_booking_codes (code VARCHAR(20) PRIMARY KEY)");
+        }
+        AtomicLong retries = new AtomicLong();
+        long elapsedMs = race(workers, worker -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement insert = connection.prepareStatement(
+                         "INSERT INTO bench_booking_codes (code) SELECT '" + DAY_PREFIX + "' || "
+                                 + "LPAD(CAST(COALESCE(MAX(CAST(SUBSTRING(code, 11) AS BIGINT)), 0) + 1 AS TEXT), 3, '0') "
+                                 + "FROM bench_booking_codes")) {
+                connection.setAutoCommit(true);
+                for (int i = 0; i < codes; i++) {
+                    while (true) {
+                        try {
+                            insert.executeUpdate();
+                            break;
+                        } catch (SQLException e) {
+                            if (!"23505".equals(e.getSQLState())) {
+                                throw e;
+                            }
+                            retries.incrementAndGet();
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long total = (long) workers * codes;
+        System.out.printf("%-14s %10.0f códigos/s  %d códigos, %d reintentos por clave repetida%n", "MAX()+1",
+                total * 1000.0 / elapsedMs, total, retries.get());
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_booking_codes");
+        }
+    }
+
+    /**
+     * Arrancar los hilos a la vez y devolver los milisegundos hasta que terminan todos
+     */
+    private static long race(int workers, Worker body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    body.run(worker);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return Math.max((System.nanoTime() - started) / 1_000_000, 1);
+    }
+
+    private interface Worker {
+
+        void run(int worker) throws InterruptedException;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
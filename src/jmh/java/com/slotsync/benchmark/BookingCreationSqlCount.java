@@ -0,0 +1,179 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.SlotSyncApplication;
+import com.slotsync.booking.BookingAdmissionService;
+import com.slotsync.entity.Booking;
+import com.slotsync.entity.Business;
+import com.slotsync.entity.Customer;
+import com.slotsync.entity.Professional;
+import com.slotsync.entity.Service;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.exception.ResourceNotFoundException;
+import com.slotsync.repository.BookingRepository;
+import com.slotsync.repository.BusinessRepository;
+import com.slotsync.repository.CustomerRepository;
+import com.slotsync.repository.ProfessionalRepository;
+import com.slotsync.repository.ServiceRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cuenta las sentencias SQL del camino de alta de una reserva: resolver negocio por slug, servicio,
+ * profesionales reservables, profesional y cliente, y admitir la reserva (con los listeners de alta).
+ * Arranca el contexto completo contra la base de datos indicada; las reservas creadas se borran al terminar.
+ * Comparar una ejecución con la caché de segundo nivel y otra sin ella:
+ * <pre>
+ * mvn -Pbenchmark -DskipTests compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.slotsync.benchmark.BookingCreationSqlCount \
+ *   -Dexec.args="--spring.datasource.url=jdbc:postgresql://localhost:5432/slotsync_db --bench.slug=mi-peluqueria
+ *                --bench.service-id=3 --bench.customer-id=7 --app.jpa.second-level-cache.enabled=false"
+ * </pre>
+ * Opciones: --bench.bookings (200), --bench.warmup (20), --bench.start (2040-01-01T08:00, primera hora libre).
+ */
+public final class BookingCreationSqlCount {
+
+    private BookingCreationSqlCount() {
+    }
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(SlotSyncApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of(
+                "spring.jpa.properties.hibernate.generate_statistics", "true",
+                "spring.devtools.restart.enabled", "false",
+                "app.notifications.outbox.enabled", "false",
+                "app.reminders.enabled", "false",
+                "logging.level.root", "WARN",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener", "WARN"));
+
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment env = context.getEnvironment();
+            Run run = new Run(context,
+                    env.getRequiredProperty("bench.slug"),
+                    env.getRequiredProperty("bench.service-id", Long.class),
+                    env.getRequiredProperty("bench.customer-id", Long.class),
+                    LocalDateTime.parse(env.getProperty("bench.start", "2040-01-01T08:00")));
+            int warmup = env.getProperty("bench.warmup", Integer.class, 20);
+            int bookings = env.getProperty("bench.bookings", Integer.class, 200);
+
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+            try {
+                for (int i = 0; i < warmup; i++) {
+                    run.createBooking();
+                }
+                statistics.clear();
+                long started = System.nanoTime();
+                for (int i = 0; i < bookings; i++) {
+                    run.createBooking();
+                }
+                long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+                System.out.printf("Caché de segundo nivel: %s%n",
+                        env.getProperty("app.jpa.second-level-cache.enabled", "true"));
+                System.out.printf("Reservas: %d, %.2f sentencias SQL por reserva, %.2f ms por reserva%n",
+                        bookings, (double) statistics.getPrepareStatementCount() / bookings,
+                        (double) elapsedMs / bookings);
+                System.out.printf("Entidades cargadas de BD: %d, L2 aciertos/fallos/escrituras: %d/%d/%d, "
+                                + "query cache aciertos/fallos: %d/%d%n",
+                        statistics.getEntityLoadCount(), statistics.getSecondLevelCacheHitCount(),
+                        statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(),
+                        statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+            } finally {
+                run.cleanup();
+            }
+        }
+    }
+
+    private static final class Run {
+
+        private final BusinessRepository businessRepository;
+        private final ServiceRepository serviceRepository;
+        private final ProfessionalRepository professionalRepository;
+        private final CustomerRepository customerRepository;
+        private final BookingRepository bookingRepository;
+        private final BookingAdmissionService admissionService;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+        private final String slug;
+        private final long serviceId;
+        private final long customerId;
+        private final String codePrefix = "SQLB" + Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+        private final List<Long> created = new ArrayList<>();
+        private LocalDateTime nextStart;
+
+        private Run(ConfigurableApplicationContext context, String slug, long serviceId, long customerId,
+                    LocalDateTime start) {
+            this.businessRepository = context.getBean(BusinessRepository.class);
+            this.serviceRepository = context.getBean(ServiceRepository.class);
+            this.professionalRepository = context.getBean(ProfessionalRepository.class);
+            this.customerRepository = context.getBean(CustomerRepository.class);
+            this.bookingRepository = context.getBean(BookingRepository.class);
+            this.admissionService = context.getBean(BookingAdmissionService.class);
+            PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+            this.readOnly = new TransactionTemplate(transactionManager);
+            this.readOnly.setReadOnly(true);
+            this.readWrite = new TransactionTemplate(transactionManager);
+            this.slug = slug;
+            this.serviceId = serviceId;
+            this.customerId = customerId;
+            this.nextStart = start;
+        }
+
+        /**
+         * Lo que hace una petición de reserva: resolver las referencias y admitir la reserva
+         */
+        private void createBooking() {
+            Booking booking = readOnly.execute(status -> {
+                Business business = businessRepository.findBySlug(slug)
+                        .orElseThrow(() -> new ResourceNotFoundException("Negocio no encontrado: " + slug));
+                Service service = serviceRepository.findById(serviceId)
+                        .filter(s -> s.getBusiness().getId().equals(business.getId()))
+                        .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado: " + serviceId));
+                List<Long> professionalIds = professionalRepository.findBookableProfessionalIds(
+                        business.getId(), service.getId());
+                if (professionalIds.isEmpty()) {
+                    throw new ResourceNotFoundException("Ningún profesional ofrece el servicio " + serviceId);
+                }
+                Professional professional = professionalRepository.findById(professionalIds.get(0)).orElseThrow();
+                Customer customer = customerRepository.findById(customerId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + customerId));
+
+                LocalDateTime start = nextStart;
+                nextStart = nextStart.plusMinutes(service.getTotalDuration());
+                return Booking.builder()
+                        .bookingCode(codePrefix + created.size())
+                        .business(business)
+                        .service(service)
+                        .professional(professional)
+                        .customer(customer)
+                        .startTime(start)
+                        .endTime(start.plusMinutes(service.getDuration()))
+                        .status(BookingStatus.PENDING)
+                        .price(service.getPrice())
+                        .totalAmount(service.getPrice())
+                        .build();
+            });
+            created.add(admissionService.admit(booking).getId());
+        }
+
+        /**
+         * Borrar por JPA para que los listeners deshagan lo que hicieron en el alta
+         */
+        private void cleanup() {
+            readWrite.executeWithoutResult(status -> bookingRepository.deleteAllById(created));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.entity.Booking;
+import com.slotsync.entity.ProfessionalAvailability;
+import com.slotsync.enums.BookingStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reglas de dominio evaluadas en los listados y en el cálculo de huecos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingRulesBenchmark {
+
+    private List<ProfessionalAvailability> rules;
+    private LocalDate[] year;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        rules = BenchmarkFixtures.weeklyRules(start);
+        year = new LocalDate[365];
+        for (int i = 0; i < year.length; i++) {
+            year[i] = start.plusDays(i);
+        }
+        booking = Booking.builder()
+                .status(BookingStatus.CONFIRMED)
+                .startTime(LocalDateTime.now().plusDays(2))
+                .endTime(LocalDateTime.now().plusDays(2).plusMinutes(45))
+                .build();
+    }
+
+    /**
+     * appliesTo de todas las reglas de un profesional durante un año
+     */
+    @Benchmark
+    public int appliesToOverYear() {
+        int matches = 0;
+        for (LocalDate date : year) {
+            for (ProfessionalAvailability rule : rules) {
+                if (rule.appliesTo(date)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isCancellable() {
+        return booking.isCancellable(24);
+    }
+}
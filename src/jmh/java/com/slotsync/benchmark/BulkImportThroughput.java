@@ -0,0 +1,351 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.SlotSyncApplication;
+import com.slotsync.bulkimport.BulkImportService;
+import com.slotsync.bulkimport.ImportFormat;
+import com.slotsync.dto.imports.ImportResultResponse;
+import com.slotsync.entity.Booking;
+import com.slotsync.entity.Business;
+import com.slotsync.entity.Customer;
+import com.slotsync.entity.Professional;
+import com.slotsync.entity.Service;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.stats.EntityCounters;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Filas por segundo de {@link BulkImportService} (bloques en su transacción, IDs del secuenciador en bloques de 50,
+ * inserts en lotes JDBC) frente a la forma de insertar que había antes: un persist + flush por fila, es decir, un
+ * viaje a la base de datos por cada INSERT, como con IDENTITY.
+ * Importa {@code --bench.rows} clientes y después otras tantas reservas de esos clientes por cada camino, sobre un
+ * negocio de prueba que crea al empezar y borra (con todo lo importado) al terminar.
+ * <pre>
+ * mvn -Pbenchmark -DskipTests compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.slotsync.benchmark.BulkImportThroughput \
+ *   -Dexec.args="--spring.datasource.url=jdbc:postgresql://localhost:5432/slotsync_db?reWriteBatchedInserts=true
+ *                --spring.datasource.username=slotsync --spring.datasource.password=..."
+ * </pre>
+ * Opciones: --bench.rows (5000), --bench.warmup (500 filas por camino antes de medir), --bench.rtt-ms (0).
+ * En loopback cada viaje cuesta decenas de microsegundos y manda el coste de los INSERT en el servidor; con la base de
+ * datos en otra máquina la diferencia crece con la latencia, porque el camino fila a fila hace un viaje por fila y el
+ * importador uno por lote. Con --bench.rtt-ms la conexión pasa por un proxy local que retrasa cada envío la mitad en
+ * cada sentido, para medir con la latencia de una red real.
+ */
+public final class BulkImportThroughput {
+
+    private BulkImportThroughput() {
+    }
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(SlotSyncApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of(
+                "spring.devtools.restart.enabled", "false",
+                "app.notifications.outbox.enabled", "false",
+                "app.reminders.enabled", "false",
+                "app.booking.lifecycle.enabled", "false",
+                "logging.level.root", "WARN"));
+        // application.yml saca el SQL en DEBUG; las propiedades del sistema pesan más que él y menos que los args
+        System.setProperty("logging.level.org.hibernate.SQL", "WARN");
+        System.setProperty("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        int rttMs = Integer.parseInt(Objects.requireNonNullElse(options.getProperty("bench.rtt-ms"), "0"));
+        String url = options.getProperty("spring.datasource.url");
+        if (rttMs > 0 && url != null) {
+            String proxied = DelayProxy.start(url, rttMs);
+            args = Arrays.stream(args)
+                    .map(arg -> arg.startsWith("--spring.datasource.url=") ? "--spring.datasource.url=" + proxied : arg)
+                    .toArray(String[]::new);
+            System.out.printf("Latencia añadida: %d ms por viaje%n", rttMs);
+        }
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment env = context.getEnvironment();
+            int rows = env.getProperty("bench.rows", Integer.class, 5000);
+            int warmup = env.getProperty("bench.warmup", Integer.class, 500);
+            Fixture fixture = new Fixture(context.getBean(JdbcTemplate.class));
+            try {
+                Run run = new Run(context, fixture);
+                run.measure("clientes", "fila a fila", warmup, rows, run::customersRowByRow);
+                run.measure("clientes", "BulkImportService", warmup, rows, run::customersImport);
+                run.measure("reservas", "fila a fila", warmup, rows, run::bookingsRowByRow);
+                run.measure("reservas", "BulkImportService", warmup, rows, run::bookingsImport);
+            } finally {
+                // Vaciar los contadores de clientes antes de borrar: su UPDATE programado competiría con el DELETE
+                context.getBean(EntityCounters.class).flush();
+                fixture.drop();
+            }
+        }
+    }
+
+    /**
+     * Proxy TCP que retrasa cada bloque leído rttMs / 2 antes de reenviarlo, en los dos sentidos
+     */
+    private static final class DelayProxy {
+
+        private static final Pattern HOST_PORT = Pattern.compile("//([^/:?]+)(?::(\\d+))?");
+
+        private static String start(String url, int rttMs) {
+            Matcher matcher = HOST_PORT.matcher(url);
+            if (!matcher.find()) {
+                throw new IllegalArgumentException("URL sin host: " + url);
+            }
+            String host = matcher.group(1);
+            int port = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 5432;
+            try {
+                ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+                Thread.ofPlatform().daemon().name("delay-proxy").start(() -> {
+                    while (true) {
+                        try {
+                            Socket client = server.accept();
+                            Socket upstream = new Socket(host, port);
+                            client.setTcpNoDelay(true);
+                            upstream.setTcpNoDelay(true);
+                            pump(client, upstream, rttMs / 2);
+                            pump(upstream, client, rttMs - rttMs / 2);
+                        } catch (IOException e) {
+                            return;
+                        }
+                    }
+                });
+                return url.substring(0, matcher.start()) + "//127.0.0.1:" + server.getLocalPort()
+                        + url.substring(matcher.end());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void pump(Socket from, Socket to, int delayMs) {
+            Thread.ofVirtual().start(() -> {
+                byte[] buffer = new byte[64 * 1024];
+                try (from; to) {
+                    int read;
+                    while ((read = from.getInputStream().read(buffer)) >= 0) {
+                        Thread.sleep(delayMs);
+                        to.getOutputStream().write(buffer, 0, read);
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // La otra mitad cierra la conexión
+                }
+            });
+        }
+    }
+
+    private static final class Run {
+
+        private final BulkImportService importService;
+        private final EntityManagerFactory entityManagerFactory;
+        private final Fixture fixture;
+        private final Map<String, Double> rowsPerSecond = new java.util.HashMap<>();
+        private int nextCustomer;
+        private int nextBooking;
+
+        private Run(ConfigurableApplicationContext context, Fixture fixture) {
+            this.importService = context.getBean(BulkImportService.class);
+            this.entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            this.fixture = fixture;
+        }
+
+        private void measure(String entity, String path, int warmup, int rows, IntConsumer body) {
+            if (warmup > 0) {
+                body.accept(warmup);
+            }
+            long started = System.nanoTime();
+            body.accept(rows);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            double throughput = rows / seconds;
+            Double baseline = rowsPerSecond.putIfAbsent(entity, throughput);
+            System.out.printf("%-9s %-18s %8.0f filas/s  (%d filas en %.2f s)%s%n", entity, path, throughput,
+                    rows, seconds, baseline != null ? String.format("  %.1fx", throughput / baseline) : "");
+        }
+
+        /**
+         * Antes del importador: con IDENTITY cada persist era un INSERT inmediato. Aquí, sin lotes JDBC, un flush por
+         * fila; el clear evita que el flush recorra todo lo anterior y mida otra cosa.
+         */
+        private void customersRowByRow(int rows) {
+            inSession(entityManager -> {
+                for (int i = 0; i < rows; i++) {
+                    Customer customer = new Customer();
+                    customer.setEmail(fixture.customerEmail(nextCustomer++));
+                    customer.setFirstName("Bench");
+                    customer.setLastName("Cliente " + i);
+                    customer.setPhoneNumber("600000000");
+                    entityManager.persist(customer);
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            });
+        }
+
+        private void customersImport(int rows) {
+            StringBuilder csv = new StringBuilder("firstName,lastName,email,phoneNumber\n");
+            for (int i = 0; i < rows; i++) {
+                csv.append("Bench,Cliente ").append(i).append(',').append(fixture.customerEmail(nextCustomer++))
+                        .append(",600000000\n");
+            }
+            check(importService.importCustomers(stream(csv), ImportFormat.CSV), rows);
+        }
+
+        private void bookingsRowByRow(int rows) {
+            List<Long> customerIds = fixture.customerIds();
+            inSession(entityManager -> {
+                for (int i = 0; i < rows; i++) {
+                    LocalDateTime start = fixture.slot(nextBooking);
+                    Booking booking = new Booking();
+                    booking.setBookingCode(fixture.bookingCode(nextBooking++));
+                    booking.setBusiness(entityManager.getReference(Business.class, fixture.businessId));
+                    booking.setCustomer(entityManager.getReference(Customer.class,
+                            customerIds.get(i % customerIds.size())));
+                    booking.setProfessional(entityManager.getReference(Professional.class,
+                            fixture.professionalId));
+                    booking.setService(entityManager.getReference(Service.class, fixture.serviceId));
+                    booking.setStartTime(start);
+                    booking.setEndTime(start.plusMinutes(30));
+                    booking.setStatus(BookingStatus.COMPLETED);
+                    booking.setPrice(BigDecimal.TEN);
+                    booking.setTotalAmount(BigDecimal.TEN);
+                    entityManager.persist(booking);
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            });
+        }
+
+        private void bookingsImport(int rows) {
+            List<String> emails = fixture.customerEmails();
+            StringBuilder csv = new StringBuilder(
+                    "bookingCode,customerEmail,professionalId,serviceId,startTime,endTime,status,price,totalAmount\n");
+            for (int i = 0; i < rows; i++) {
+                LocalDateTime start = fixture.slot(nextBooking);
+                csv.append(fixture.bookingCode(nextBooking++)).append(',').append(emails.get(i % emails.size()))
+                        .append(',').append(fixture.professionalId).append(',').append(fixture.serviceId)
+                        .append(',').append(start).append(',').append(start.plusMinutes(30))
+                        .append(",COMPLETED,10,10\n");
+            }
+            check(importService.importBookings(fixture.businessId, stream(csv), ImportFormat.CSV), rows);
+        }
+
+        private void inSession(java.util.function.Consumer<EntityManager> work) {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            try {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+                entityManager.getTransaction().begin();
+                work.accept(entityManager);
+                entityManager.getTransaction().commit();
+            } finally {
+                if (entityManager.getTransaction().isActive()) {
+                    entityManager.getTransaction().rollback();
+                }
+                entityManager.close();
+            }
+        }
+
+        private static ByteArrayInputStream stream(StringBuilder csv) {
+            return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static void check(ImportResultResponse result, int rows) {
+            if (result.getImported() != rows) {
+                throw new IllegalStateException("Importadas " + result.getImported() + " de " + rows + ": "
+                        + result.getErrors());
+            }
+        }
+    }
+
+    /**
+     * Negocio, profesional y servicio de prueba; todo lo que se importa cuelga de él y se borra en {@link #drop()}
+     */
+    private static final class Fixture {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final String tag = Long.toString(System.currentTimeMillis(), 36);
+        private final long userId;
+        private final long businessId;
+        private final long professionalId;
+        private final long serviceId;
+
+        private Fixture(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+            userId = nextId();
+            businessId = nextId();
+            professionalId = nextId();
+            serviceId = nextId();
+            jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, password, role, created_at, "
+                    + "is_active) VALUES (?, 'Bench', 'Import', ?, 'x', 'BUSINESS_OWNER', now(), true)",
+                    userId, "bench-owner-" + tag + "@bench.slotsync");
+            jdbcTemplate.update("INSERT INTO businesses (id, name, slug, subscription_plan, owner_id, created_at, "
+                    + "is_active) VALUES (?, 'Bench import', ?, 'BUSINESS', ?, now(), true)",
+                    businessId, "bench-import-" + tag, userId);
+            jdbcTemplate.update("INSERT INTO services (id, name, price, duration, business_id, created_at, "
+                    + "is_active) VALUES (?, 'Corte', 10, 30, ?, now(), true)", serviceId, businessId);
+            jdbcTemplate.update("INSERT INTO professionals (id, user_id, business_id, rating_average, total_reviews, "
+                    + "created_at, is_active) VALUES (?, ?, ?, 0, 0, now(), true)", professionalId, userId, businessId);
+        }
+
+        private String customerEmail(int index) {
+            return "bench-" + tag + "-" + index + "@bench.slotsync";
+        }
+
+        private String bookingCode(int index) {
+            return "BI" + tag + index;
+        }
+
+        /**
+         * Huecos consecutivos de 30 minutos desde 2090: nunca se solapan entre sí
+         */
+        private LocalDateTime slot(int index) {
+            return LocalDateTime.of(2090, 1, 1, 0, 0).plusMinutes(30L * index);
+        }
+
+        private List<Long> customerIds() {
+            return jdbcTemplate.queryForList("SELECT id FROM customers WHERE email LIKE ? ORDER BY id",
+                    Long.class, "bench-" + tag + "-%");
+        }
+
+        private List<String> customerEmails() {
+            return jdbcTemplate.queryForList("SELECT email FROM customers WHERE email LIKE ? ORDER BY id",
+                    String.class, "bench-" + tag + "-%");
+        }
+
+        private void drop() {
+            jdbcTemplate.update("DELETE FROM notification_outbox WHERE booking_id IN "
+                    + "(SELECT id FROM bookings WHERE business_id = ?)", businessId);
+            jdbcTemplate.update("DELETE FROM booking_daily_stats WHERE business_id = ?", businessId);
+            jdbcTemplate.update("DELETE FROM bookings WHERE business_id = ?", businessId);
+            jdbcTemplate.update("DELETE FROM customers WHERE email LIKE ?", "bench-" + tag + "-%");
+            jdbcTemplate.update("DELETE FROM professionals WHERE id = ?", professionalId);
+            jdbcTemplate.update("DELETE FROM services WHERE id = ?", serviceId);
+            jdbcTemplate.update("DELETE FROM businesses WHERE id = ?", businessId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+
+        private long nextId() {
+            return jdbcTemplate.queryForObject("SELECT nextval('slotsync_id_seq')", Long.class);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.slotsync.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga en proceso: {@code requests} peticiones que hacen un paso corto de base de datos
+ * (una de las {@code poolSize} conexiones durante {@code dbMillis}) y después una llamada bloqueante
+ * a un proveedor externo de {@code latencyMillis}, fuera de la transacción.
+ * Compara el pool de 200 hilos de plataforma de Tomcat con un hilo virtual por petición, con y sin
+ * el bulkhead de {@code downstreamPermits} llamadas concurrentes. El tiempo medio por operación es lo
+ * que tarda en atenderse el lote completo: throughput = requests / tiempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DownstreamLatencyBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"2000"})
+    private int requests;
+
+    @Param({"100"})
+    private int latencyMillis;
+
+    @Param({"10"})
+    private int poolSize;
+
+    @Param({"2"})
+    private int dbMillis;
+
+    @Param({"100"})
+    private int downstreamPermits;
+
+    private Semaphore connections;
+    private Semaphore downstream;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        connections = new Semaphore(poolSize, true);
+        downstream = new Semaphore(downstreamPermits, true);
+    }
+
+    @Benchmark
+    public int platformThreads() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)) {
+            return runAll(executor, false);
+        }
+    }
+
+    @Benchmark
+    public int virtualThreads() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return runAll(executor, false);
+        }
+    }
+
+    @Benchmark
+    public int virtualThreadsWithBulkhead() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return runAll(executor, true);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void checkReleased() {
+        if (connections.availablePermits() != poolSize) {
+            throw new IllegalStateException("Conexiones sin devolver");
+        }
+    }
+
+    private int runAll(ExecutorService executor, boolean bulkhead) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> handle(bulkhead)));
+        }
+        int completed = 0;
+        for (Future<Integer> future : futures) {
+            completed += future.get();
+        }
+        return completed;
+    }
+
+    private int handle(boolean bulkhead) throws InterruptedException {
+        connections.acquire();
+        try {
+            Thread.sleep(dbMillis);
+        } finally {
+            connections.release();
+        }
+        if (bulkhead) {
+            downstream.acquire();
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } finally {
+            if (bulkhead) {
+                downstream.release();
+            }
+        }
+        return 1;
+    }
+}
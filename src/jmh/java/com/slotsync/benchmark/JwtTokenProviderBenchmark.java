@@ -0,0 +1,67 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.security.JwtClaims;
+import com.slotsync.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por request de la autenticación JWT en JwtAuthenticationFilter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenProvider cachingTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = BenchmarkFixtures.jwtTokenProvider();
+        cachingTokenProvider = BenchmarkFixtures.jwtTokenProvider(10_000L);
+        token = tokenProvider.generateTokenFromUserId(42L, "ana@slotsync.com", "BUSINESS_OWNER", 10L);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return tokenProvider.getUserIdFromToken(token);
+    }
+
+    /**
+     * Secuencia anterior del filtro: validar y después extraer el usuario (dos parseos)
+     */
+    @Benchmark
+    public Long validateThenGetUserId() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getUserIdFromToken(token) : null;
+    }
+
+    /**
+     * Secuencia actual del filtro: un solo parseo con el JwtParser compartido
+     */
+    @Benchmark
+    public JwtClaims resolveToken() {
+        return tokenProvider.resolveToken(token).orElse(null);
+    }
+
+    /**
+     * Token repetido con la caché de tokens verificados: huella SHA-256 en lugar de la firma HS512
+     */
+    @Benchmark
+    public JwtClaims resolveTokenCached() {
+        return cachingTokenProvider.resolveToken(token).orElse(null);
+    }
+}
@@ -0,0 +1,299 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.SlotSyncApplication;
+import com.slotsync.notification.ReminderScheduler;
+import com.twilio.Twilio;
+import com.twilio.http.HttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recordatorios por segundo de principio a fin: {@link ReminderScheduler} reclama las reservas que tocan y encola
+ * sus avisos, y NotificationOutboxRelay los entrega a un servidor SMTP local que responde a todo con 250 y a un
+ * cliente HTTP de Twilio falso que tarda --bench.sms-latency-ms en cada mensaje.
+ * Crea un negocio de prueba con --bench.bookings reservas confirmadas que empiezan dentro de su antelación de
+ * recordatorio, mide desde la pasada del planificador hasta que el outbox no tiene avisos pendientes, y lo borra todo
+ * al terminar. El relay usa la configuración de app.notifications.outbox (workers, lote, intervalo de sondeo), que se
+ * puede cambiar con los mismos argumentos.
+ * <pre>
+ * mvn -Pbenchmark -DskipTests compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.slotsync.benchmark.ReminderThroughput \
+ *   -Dexec.args="--spring.datasource.url=jdbc:postgresql://localhost:5432/slotsync_db
+ *                --spring.datasource.username=slotsync --spring.datasource.password=... --bench.sms=true"
+ * </pre>
+ * Opciones: --bench.bookings (5000), --bench.sms (false: solo email), --bench.sms-latency-ms (50),
+ * --bench.smtp-latency-ms (0, por mensaje), --bench.timeout-seconds (300).
+ */
+public final class ReminderThroughput {
+
+    private ReminderThroughput() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SmtpSink smtp = SmtpSink.start();
+        SpringApplication application = new SpringApplication(SlotSyncApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of(
+                "spring.devtools.restart.enabled", "false",
+                "app.twilio.account-sid", "ACbench",
+                "app.twilio.auth-token", "bench",
+                "app.twilio.phone-number", "+34600000000",
+                // La pasada se lanza a mano: que el planificador no se adelante
+                "app.reminders.initial-delay-ms", "3600000"));
+        // application.yml pide SMTP autenticado con STARTTLS y saca el SQL en DEBUG; las propiedades del sistema
+        // pesan más que él y menos que los argumentos
+        System.setProperty("spring.mail.host", "127.0.0.1");
+        System.setProperty("spring.mail.port", Integer.toString(smtp.port()));
+        System.setProperty("spring.mail.properties.mail.smtp.auth", "false");
+        System.setProperty("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        System.setProperty("spring.mail.properties.mail.smtp.starttls.required", "false");
+        System.setProperty("logging.level.root", "WARN");
+        System.setProperty("logging.level.org.hibernate.SQL", "WARN");
+        System.setProperty("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        boolean sms = Arrays.asList(args).contains("--bench.sms=true");
+        System.setProperty("app.twilio.enabled", Boolean.toString(sms));
+
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment env = context.getEnvironment();
+            int bookings = env.getProperty("bench.bookings", Integer.class, 5000);
+            int smtpLatencyMs = env.getProperty("bench.smtp-latency-ms", Integer.class, 0);
+            int smsLatencyMs = env.getProperty("bench.sms-latency-ms", Integer.class, 50);
+            int timeoutSeconds = env.getProperty("bench.timeout-seconds", Integer.class, 300);
+            smtp.latencyMs = smtpLatencyMs;
+            SmsStub smsStub = new SmsStub(smsLatencyMs);
+            if (sms) {
+                // NotificationDispatcher ya llamó a Twilio.init: sustituir solo el transporte HTTP
+                Twilio.setRestClient(new TwilioRestClient.Builder("ACbench", "bench").httpClient(smsStub).build());
+            }
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            Fixture fixture = new Fixture(jdbcTemplate, bookings, sms);
+            try {
+                long started = System.nanoTime();
+                context.getBean(ReminderScheduler.class).enqueueDueReminders();
+                long enqueuedMs = (System.nanoTime() - started) / 1_000_000;
+                long deadline = started + timeoutSeconds * 1_000_000_000L;
+                int pending;
+                while ((pending = fixture.pendingNotices()) > 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(20);
+                }
+                double seconds = (System.nanoTime() - started) / 1e9;
+                Map<String, Object> outcome = fixture.outcome();
+                System.out.printf("%s: %d reservas, pasada del planificador %d ms%n",
+                        sms ? "email + SMS" : "solo email", bookings, enqueuedMs);
+                System.out.printf("%.0f recordatorios/s (%d reservas en %.2f s), %d emails y %d SMS recibidos, "
+                                + "outbox %s, %d pendientes al terminar%n",
+                        fixture.reminded() / seconds, fixture.reminded(), seconds, smtp.received.get(),
+                        smsStub.received.get(), outcome, pending);
+            } finally {
+                fixture.drop();
+                smtp.close();
+            }
+        }
+    }
+
+    /**
+     * Negocio, profesional, servicio, cliente y reservas de prueba, creados y borrados con SQL
+     */
+    private static final class Fixture {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final String tag = Long.toString(System.currentTimeMillis(), 36);
+        private final long userId;
+        private final long businessId;
+        private final long professionalId;
+        private final long serviceId;
+        private final long customerId;
+
+        private Fixture(JdbcTemplate jdbcTemplate, int bookings, boolean sms) {
+            this.jdbcTemplate = jdbcTemplate;
+            userId = nextId();
+            businessId = nextId();
+            professionalId = nextId();
+            serviceId = nextId();
+            customerId = nextId();
+            jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, password, role, created_at, "
+                    + "is_active) VALUES (?, 'Bench', 'Reminders', ?, 'x', 'BUSINESS_OWNER', now(), true)",
+                    userId, "bench-reminders-" + tag + "@bench.slotsync");
+            jdbcTemplate.update("INSERT INTO businesses (id, name, slug, subscription_plan, owner_id, timezone, "
+                    + "reminder_hours_before, send_email_notifications, send_sms_notifications, created_at, "
+                    + "is_active) VALUES (?, 'Bench reminders', ?, 'BUSINESS', ?, 'Europe/Madrid', 24, true, ?, "
+                    + "now(), true)", businessId, "bench-reminders-" + tag, userId, sms);
+            jdbcTemplate.update("INSERT INTO services (id, name, price, duration, business_id, created_at, "
+                    + "is_active) VALUES (?, 'Corte', 10, 30, ?, now(), true)", serviceId, businessId);
+            jdbcTemplate.update("INSERT INTO professionals (id, user_id, business_id, rating_average, total_reviews, "
+                    + "created_at, is_active) VALUES (?, ?, ?, 0, 0, now(), true)", professionalId, userId, businessId);
+            jdbcTemplate.update("INSERT INTO customers (id, first_name, email, phone_number, total_bookings, "
+                    + "total_no_shows, total_cancellations, loyalty_points, created_at, is_active) "
+                    + "VALUES (?, 'Bench', ?, '+34600000001', 0, 0, 0, 0, now(), true)",
+                    customerId, "bench-reminders-" + tag + "-customer@bench.slotsync");
+            // Huecos de 15 s a partir de dentro de una hora (hora local del negocio): todas tocan ya y no se solapan
+            jdbcTemplate.update("INSERT INTO bookings (booking_code, business_id, customer_id, professional_id, "
+                    + "service_id, start_time, end_time, status, price, total_amount, created_at, is_active) "
+                    + "SELECT 'RT' || ? || g, ?, ?, ?, ?, "
+                    + "  (now() AT TIME ZONE 'Europe/Madrid') + interval '1 hour' + g * interval '15 seconds', "
+                    + "  (now() AT TIME ZONE 'Europe/Madrid') + interval '1 hour' + (g + 1) * interval '15 seconds', "
+                    + "  'CONFIRMED', 10, 10, now(), true FROM generate_series(1, ?) g",
+                    tag, businessId, customerId, professionalId, serviceId, bookings);
+        }
+
+        private int pendingNotices() {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox WHERE business_id = ? "
+                    + "AND status IN ('PENDING', 'PROCESSING')", Integer.class, businessId);
+        }
+
+        private int reminded() {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE business_id = ? "
+                    + "AND reminder_sent_at IS NOT NULL", Integer.class, businessId);
+        }
+
+        private Map<String, Object> outcome() {
+            Map<String, Object> byStatus = new TreeMap<>();
+            jdbcTemplate.query("SELECT channel || ' ' || status, COUNT(*) FROM notification_outbox "
+                    + "WHERE business_id = ? GROUP BY 1", rs -> {
+                byStatus.put(rs.getString(1), rs.getLong(2));
+            }, businessId);
+            return byStatus;
+        }
+
+        private void drop() {
+            jdbcTemplate.update("DELETE FROM notification_outbox WHERE business_id = ?", businessId);
+            jdbcTemplate.update("DELETE FROM booking_daily_stats WHERE business_id = ?", businessId);
+            jdbcTemplate.update("DELETE FROM bookings WHERE business_id = ?", businessId);
+            jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customerId);
+            jdbcTemplate.update("DELETE FROM professionals WHERE id = ?", professionalId);
+            jdbcTemplate.update("DELETE FROM services WHERE id = ?", serviceId);
+            jdbcTemplate.update("DELETE FROM businesses WHERE id = ?", businessId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+
+        private long nextId() {
+            return jdbcTemplate.queryForObject("SELECT nextval('slotsync_id_seq')", Long.class);
+        }
+    }
+
+    /**
+     * Servidor SMTP mínimo: acepta cualquier remitente y destinatario y cuenta los mensajes recibidos
+     */
+    private static final class SmtpSink implements AutoCloseable {
+
+        private final ServerSocket server;
+        private final AtomicLong received = new AtomicLong();
+        private volatile int latencyMs;
+
+        private SmtpSink(ServerSocket server) {
+            this.server = server;
+        }
+
+        private static SmtpSink start() throws IOException {
+            SmtpSink sink = new SmtpSink(new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+            Thread.ofPlatform().daemon().name("smtp-sink").start(() -> {
+                while (!sink.server.isClosed()) {
+                    try {
+                        Socket socket = sink.server.accept();
+                        // Hilos de plataforma: JavaMail bloquea dentro de synchronized y fija los portadores de
+                        // los hilos virtuales, que dejarían sin CPU a un servidor virtual
+                        Thread.ofPlatform().daemon().start(() -> sink.serve(socket));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            return sink;
+        }
+
+        private int port() {
+            return server.getLocalPort();
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                         StandardCharsets.US_ASCII));
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+                reply(out, "220 smtp-sink ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 smtp-sink");
+                        case "DATA" -> {
+                            reply(out, "354 fin con <CRLF>.<CRLF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // Cuerpo descartado
+                            }
+                            if (latencyMs > 0) {
+                                Thread.sleep(latencyMs);
+                            }
+                            received.incrementAndGet();
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 adiós");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // Conexión cerrada por el cliente
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    /**
+     * Transporte HTTP de Twilio que no sale de la máquina: espera la latencia indicada y responde 201
+     */
+    private static final class SmsStub extends HttpClient {
+
+        private final int latencyMs;
+        private final AtomicLong received = new AtomicLong();
+
+        private SmsStub(int latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public Response makeRequest(Request request) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new IOException("interrumpido", e));
+            }
+            long n = received.incrementAndGet();
+            return new Response("{\"sid\":\"SM" + n + "\",\"status\":\"queued\"}", 201);
+        }
+    }
+}
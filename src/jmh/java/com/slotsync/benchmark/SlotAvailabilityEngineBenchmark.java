@@ -0,0 +1,80 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.availability.AvailableSlot;
+import com.slotsync.availability.BookingInterval;
+import com.slotsync.availability.DayBitmap;
+import com.slotsync.availability.SlotAvailabilityEngine;
+import com.slotsync.availability.SlotSpec;
+import com.slotsync.entity.ProfessionalAvailability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo en memoria de huecos: N profesionales durante D días con reservas repartidas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SlotAvailabilityEngineBenchmark {
+
+    @Param({"30"})
+    private int professionals;
+
+    @Param({"14", "60"})
+    private int days;
+
+    private final SlotAvailabilityEngine engine = new SlotAvailabilityEngine();
+    private final SlotSpec spec = new SlotSpec(45, 0, 15, 30);
+    private LocalDate from;
+    private List<ProfessionalAvailability> rules;
+    private List<List<BookingInterval>> bookings;
+
+    @Setup
+    public void setUp() {
+        from = LocalDate.of(2024, 1, 15);
+        rules = BenchmarkFixtures.weeklyRules(from);
+        bookings = new ArrayList<>();
+        long bookingId = 1;
+        for (int p = 0; p < professionals; p++) {
+            List<BookingInterval> professionalBookings = new ArrayList<>();
+            for (int d = 0; d < days; d++) {
+                // Cuatro reservas por día en horas que varían por profesional
+                for (int b = 0; b < 4; b++) {
+                    LocalDateTime start = from.plusDays(d).atTime(9 + ((p + b * 3) % 10), (b % 2) * 30);
+                    professionalBookings.add(new BookingInterval(bookingId++, (long) p, start, start.plusMinutes(45)));
+                }
+            }
+            bookings.add(professionalBookings);
+        }
+    }
+
+    @Benchmark
+    public int computeSlots() {
+        List<AvailableSlot> sink = new ArrayList<>(1024);
+        for (int p = 0; p < professionals; p++) {
+            List<BookingInterval> professionalBookings = bookings.get(p);
+            for (int d = 0; d < days; d++) {
+                LocalDate date = from.plusDays(d);
+                DayBitmap day = engine.buildWorkingDay(rules, date);
+                if (day.isEmpty()) {
+                    continue;
+                }
+                engine.subtractBookings(day, date, professionalBookings);
+                engine.collectSlots((long) p, day, date, spec, null, Integer.MAX_VALUE, sink);
+            }
+        }
+        return sink.size();
+    }
+}
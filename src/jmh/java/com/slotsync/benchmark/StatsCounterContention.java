@@ -0,0 +1,270 @@
+package com.slotsync.benchmark;
+
+import com.slotsync.stats.DeltaAccumulator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contención de contadores: {@code --threads} hilos suman 1 al contador de una de {@code --rows} filas (pocas filas =
+ * clientes o profesionales muy activos) con tres estrategias, y al final se compara la suma en la tabla con las
+ * operaciones hechas:
+ * <ul>
+ *     <li>read-modify-write: SELECT y UPDATE con el valor nuevo, como hacían Customer.incrementBookings y
+ *     Professional.updateRating; pierde incrementos concurrentes.</li>
+ *     <li>atomic-sql: UPDATE ... SET n = n + 1 por operación; exacto, pero cada suma bloquea la fila hasta el commit.</li>
+ *     <li>accumulated: {@link DeltaAccumulator} en memoria y un hilo que vacía lotes agregados cada
+ *     {@code --flush-ms}, como EntityCounters.</li>
+ * </ul>
+ * Por defecto usa H2 en memoria; para medir bloqueos y viajes de red reales usar PostgreSQL:
+ * <pre>
+ * mvn -Pbenchmark -DskipTests compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.slotsync.benchmark.StatsCounterContention \
+ *   -Dexec.args="--url jdbc:postgresql://localhost:5432/slotsync_db --user slotsync --password ... --threads 16"
+ * </pre>
+ * Opciones: --threads (8), --rows (4), --ops (operaciones por hilo, 2000), --flush-ms (200).
+ */
+public final class StatsCounterContention {
+
+    private StatsCounterContention() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "jdbc:h2:mem:counters;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        String user = options.getOrDefault("user", "sa");
+        String password = options.getOrDefault("password", "");
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "4"));
+        int ops = Integer.parseInt(options.getOrDefault("ops", "2000"));
+        long flushMs = Long.parseLong(options.getOrDefault("flush-ms", "200"));
+
+        try (Connection admin = DriverManager.getConnection(url, user, password)) {
+            try (Statement statement = admin.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS bench_counters");
+                statement.execute("CREATE TABLE bench_counters (id BIGINT PRIMARY KEY, total INTEGER NOT NULL)");
+            }
+
+            System.out.printf("%d hilos x %d operaciones sobre %d filas%n", threads, ops, rows);
+            run("read-modify-write", admin, rows, threads, ops, () -> new ReadModifyWrite(url, user, password));
+            run("atomic-sql", admin, rows, threads, ops, () -> new AtomicSql(url, user, password));
+            Accumulated accumulated = new Accumulated(url, user, password, flushMs);
+            try {
+                run("accumulated", admin, rows, threads, ops, () -> accumulated);
+            } finally {
+                accumulated.shutdown();
+            }
+
+            try (Statement statement = admin.createStatement()) {
+                statement.execute("DROP TABLE bench_counters");
+            }
+        }
+    }
+
+    private static void run(String name, Connection admin, int rows, int threads, int ops,
+                            SqlSupplier<Strategy> strategies) throws Exception {
+        try (Statement statement = admin.createStatement()) {
+            statement.execute("DELETE FROM bench_counters");
+            for (int id = 1; id <= rows; id++) {
+                statement.execute("INSERT INTO bench_counters (id, total) VALUES (" + id + ", 0)");
+            }
+        }
+
+        List<Strategy> perThread = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            perThread.add(strategies.get());
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        AtomicLong failures = new AtomicLong();
+        for (Strategy strategy : perThread) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ops; i++) {
+                        strategy.increment(ThreadLocalRandom.current().nextLong(1, rows + 1));
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (Strategy strategy : perThread) {
+            strategy.close();
+        }
+        long elapsedMs = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+
+        long total;
+        try (Statement statement = admin.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(SUM(total), 0) FROM bench_counters")) {
+            result.next();
+            total = result.getLong(1);
+        }
+        long expected = (long) threads * ops;
+        System.out.printf("%-18s %8.0f ops/s  esperados %d, en tabla %d, perdidos %d%s%n", name,
+                expected * 1000.0 / elapsedMs, expected, total, expected - total,
+                failures.get() > 0 ? " (" + failures.get() + " hilos con error)" : "");
+    }
+
+    private interface Strategy extends AutoCloseable {
+
+        void increment(long id) throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    private interface SqlSupplier<T> {
+
+        T get() throws SQLException;
+    }
+
+    private static final class ReadModifyWrite implements Strategy {
+
+        private final Connection connection;
+        private final PreparedStatement select;
+        private final PreparedStatement update;
+
+        private ReadModifyWrite(String url, String user, String password) throws SQLException {
+            connection = DriverManager.getConnection(url, user, password);
+            connection.setAutoCommit(false);
+            select = connection.prepareStatement("SELECT total FROM bench_counters WHERE id = ?");
+            update = connection.prepareStatement("UPDATE bench_counters SET total = ? WHERE id = ?");
+        }
+
+        @Override
+        public void increment(long id) throws SQLException {
+            int current;
+            select.setLong(1, id);
+            try (ResultSet result = select.executeQuery()) {
+                result.next();
+                current = result.getInt(1);
+            }
+            update.setInt(1, current + 1);
+            update.setLong(2, id);
+            update.executeUpdate();
+            connection.commit();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    private static final class AtomicSql implements Strategy {
+
+        private final Connection connection;
+        private final PreparedStatement update;
+
+        private AtomicSql(String url, String user, String password) throws SQLException {
+            connection = DriverManager.getConnection(url, user, password);
+            connection.setAutoCommit(false);
+            update = connection.prepareStatement("UPDATE bench_counters SET total = total + 1 WHERE id = ?");
+        }
+
+        @Override
+        public void increment(long id) throws SQLException {
+            update.setLong(1, id);
+            update.executeUpdate();
+            connection.commit();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Compartida por todos los hilos; close() solo vacía lo pendiente, el cierre real es {@link #shutdown()}
+     */
+    private static final class Accumulated implements Strategy {
+
+        private final DeltaAccumulator pending = new DeltaAccumulator(1);
+        private final Connection connection;
+        private final PreparedStatement update;
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final Thread flusher;
+
+        private Accumulated(String url, String user, String password, long flushMs) throws SQLException {
+            connection = DriverManager.getConnection(url, user, password);
+            connection.setAutoCommit(false);
+            update = connection.prepareStatement("UPDATE bench_counters SET total = total + ? WHERE id = ?");
+            flusher = Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    try {
+                        Thread.sleep(flushMs);
+                        flush();
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void increment(long id) {
+            pending.add(id, 1);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+        }
+
+        private synchronized void flush() throws SQLException {
+            Map<Long, long[]> deltas = pending.drain();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<Long, long[]> delta : deltas.entrySet()) {
+                update.setLong(1, delta.getValue()[0]);
+                update.setLong(2, delta.getKey());
+                update.addBatch();
+            }
+            update.executeBatch();
+            connection.commit();
+        }
+
+        private void shutdown() throws SQLException, InterruptedException {
+            running.set(false);
+            flusher.interrupt();
+            flusher.join();
+            flush();
+            connection.close();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
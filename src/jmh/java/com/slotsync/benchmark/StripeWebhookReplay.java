@@ -0,0 +1,227 @@
+package com.slotsync.benchmark;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reproduce eventos de Stripe grabados contra el webhook local, haciendo de Stripe: firma cada envío con el secreto
+ * del webhook (cabecera Stripe-Signature, HMAC-SHA256), los entrega en ráfagas concurrentes y desordenadas, reenvía
+ * una parte como duplicados y reintenta las respuestas que no son 2xx.
+ * <p>
+ * Con {@code --copies N} cada evento grabado se multiplica N veces con ids distintos (evt_, pi_, ch_, sub_... con
+ * sufijo _rK); {@code --list-ids} imprime los payment intents y suscripciones resultantes para crear los pagos de
+ * prueba antes de la reproducción.
+ * <pre>
+ * mvn -Pbenchmark -DskipTests compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.slotsync.benchmark.StripeWebhookReplay \
+ *   -Dexec.args="--url http://localhost:8080/api/public/stripe/webhook --secret whsec_... --copies 500"
+ * </pre>
+ * Opciones: --events (directorio de .json, por defecto src/jmh/resources/stripe-events), --concurrency (64),
+ * --duplicates (fracción reenviada, 0.1), --shuffle (true), --seed (42).
+ */
+public final class StripeWebhookReplay {
+
+    private static final Pattern OBJECT_ID = Pattern.compile("\"((?:evt|pi|ch|re|pm|sub|cus)_[A-Za-z0-9]+)\"");
+    private static final Pattern TRACKED_ID = Pattern.compile("\"((?:pi|sub)_[A-Za-z0-9_]+)\"");
+    private static final int MAX_ATTEMPTS = 3;
+
+    private StripeWebhookReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path eventsDir = Path.of(options.getOrDefault("events", "src/jmh/resources/stripe-events"));
+        int copies = Integer.parseInt(options.getOrDefault("copies", "1"));
+        List<String> payloads = expand(load(eventsDir), copies);
+
+        if (options.containsKey("list-ids")) {
+            TreeSet<String> ids = new TreeSet<>();
+            payloads.forEach(payload -> {
+                Matcher matcher = TRACKED_ID.matcher(payload);
+                while (matcher.find()) {
+                    ids.add(matcher.group(1));
+                }
+            });
+            ids.forEach(System.out::println);
+            return;
+        }
+
+        String url = required(options, "url");
+        String secret = required(options, "secret");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        double duplicates = Double.parseDouble(options.getOrDefault("duplicates", "0.1"));
+        Random random = new Random(Long.parseLong(options.getOrDefault("seed", "42")));
+
+        List<String> deliveries = new ArrayList<>(payloads);
+        for (String payload : payloads) {
+            if (random.nextDouble() < duplicates) {
+                deliveries.add(payload);
+            }
+        }
+        if (Boolean.parseBoolean(options.getOrDefault("shuffle", "true"))) {
+            Collections.shuffle(deliveries, random);
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger acknowledged = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicLongArray latencies = new AtomicLongArray(deliveries.size());
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < deliveries.size(); i++) {
+                int index = i;
+                String payload = deliveries.get(i);
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                            long sent = System.nanoTime();
+                            int status = deliver(client, url, secret, payload);
+                            latencies.set(index, System.nanoTime() - sent);
+                            if (status / 100 == 2) {
+                                acknowledged.incrementAndGet();
+                                return;
+                            }
+                            if (attempt < MAX_ATTEMPTS) {
+                                retries.incrementAndGet();
+                                Thread.sleep(100L << attempt);
+                            }
+                        }
+                        failures.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        long[] sorted = new long[latencies.length()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        System.out.printf("Eventos: %d distintos, %d entregas (%d duplicadas), concurrencia %d%n",
+                payloads.size(), deliveries.size(), deliveries.size() - payloads.size(), concurrency);
+        System.out.printf("2xx: %d, reintentos: %d, fallidos: %d%n", acknowledged.get(), retries.get(), failures.get());
+        System.out.printf("Tiempo: %d ms (%.0f entregas/s)%n", elapsedMs,
+                deliveries.size() * 1000.0 / Math.max(elapsedMs, 1));
+        System.out.printf("Respuesta: p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                percentile(sorted, 1.0));
+    }
+
+    private static int deliver(HttpClient client, String url, String secret, String payload)
+            throws InterruptedException {
+        long timestamp = System.currentTimeMillis() / 1000;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json; charset=utf-8")
+                .header("Stripe-Signature", "t=" + timestamp + ",v1=" + sign(secret, timestamp + "." + payload))
+                .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String sign(String secret, String signedPayload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(signedPayload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> load(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<String> payloads = new ArrayList<>();
+            for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                payloads.add(Files.readString(file));
+            }
+            return payloads;
+        }
+    }
+
+    /**
+     * Copia K de cada evento: mismos datos y orden, con todos los ids de objetos de Stripe acabados en _rK
+     */
+    private static List<String> expand(List<String> recorded, int copies) {
+        if (copies <= 1) {
+            return recorded;
+        }
+        List<String> expanded = new ArrayList<>(recorded.size() * copies);
+        for (int copy = 0; copy < copies; copy++) {
+            String suffix = "_r" + copy;
+            for (String payload : recorded) {
+                expanded.add(OBJECT_ID.matcher(payload).replaceAll(match -> "\"" + match.group(1) + suffix + "\""));
+            }
+        }
+        return expanded;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Falta --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,9 @@
+package com.slotsync.availability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hueco libre para un profesional (sin incluir los buffers del servicio)
+ */
+public record AvailableSlot(Long professionalId, LocalDateTime startTime, LocalDateTime endTime) {
+}
@@ -0,0 +1,9 @@
+package com.slotsync.availability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección mínima de una reserva que ocupa la agenda de un profesional
+ */
+public record BookingInterval(Long bookingId, Long professionalId, LocalDateTime startTime, LocalDateTime endTime) {
+}
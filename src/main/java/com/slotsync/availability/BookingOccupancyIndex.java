@@ -0,0 +1,302 @@
+package com.slotsync.availability;
+
+import com.slotsync.event.BookingChangedEvent;
+import com.slotsync.event.BookingSnapshot;
+import com.slotsync.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria de la ocupación de cada profesional por día.
+ * Los días se cargan bajo demanda (una consulta por lote de fallos) y después se mantienen
+ * con los {@link BookingChangedEvent} confirmados en este nodo, de modo que un índice caliente no
+ * vuelve a consultar la base de datos. Los cambios hechos en otros nodos no llegan como eventos:
+ * cada día se vuelve a cargar pasados ttl-seconds desde su carga, lo que acota cuánto tarda en verse
+ * una reserva hecha en otro nodo. Los días menos usados se descartan (LRU).
+ */
+@Component
+public class BookingOccupancyIndex {
+
+    private static final String METRIC_PREFIX = "slotsync.occupancy.index";
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate loadTransaction;
+    private final int maxDays;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<ProfessionalDay, CachedDay> days;
+
+    // Secuencia de cambios para no cachear cargas que se solapan con un evento. Solo se anotan los cambios mientras
+    // hay cargas en curso y se olvidan al acabar la más antigua. Los tres se leen y escriben con lock tomado.
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Map<Long, Long> lastChangeByProfessional = new HashMap<>();
+    private final TreeMap<Long, Integer> loadsInFlight = new TreeMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public BookingOccupancyIndex(BookingRepository bookingRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.availability.occupancy-index.max-days:50000}") int maxDays,
+                                 @Value("${app.availability.occupancy-index.ttl-seconds:60}") long ttlSeconds) {
+        this.bookingRepository = bookingRepository;
+        // Transacción propia y sin readOnly: los días cargados se guardan y solo los corrigen eventos posteriores,
+        // así que deben salir del primario aunque quien consulta esté en una transacción de solo lectura (réplica)
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxDays = maxDays;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.days = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ProfessionalDay, CachedDay> eldest) {
+                if (size() > BookingOccupancyIndex.this.maxDays) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "hit")
+                .description("Consultas de días profesional al índice").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "miss")
+                .description("Consultas de días profesional al índice").register(meterRegistry);
+        this.evictions = Counter.builder(METRIC_PREFIX + ".evictions")
+                .description("Días profesional descartados por LRU").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, BookingOccupancyIndex::size)
+                .description("Días profesional en memoria").register(meterRegistry);
+    }
+
+    /**
+     * Reservas que ocupan la agenda de cada profesional entre {@code fromDate} y {@code toDate} (incluidos).
+     * Una reserva que atraviesa la medianoche aparece una sola vez por profesional.
+     */
+    public Map<Long, List<BookingInterval>> getBookings(Collection<Long> professionalIds,
+                                                        LocalDate fromDate, LocalDate toDate) {
+        Map<Long, Map<Long, BookingInterval>> result = new HashMap<>();
+        Map<Long, LocalDate[]> missingRanges = new HashMap<>();
+
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (Long professionalId : professionalIds) {
+                Map<Long, BookingInterval> bookings = result.computeIfAbsent(professionalId, id -> new LinkedHashMap<>());
+                for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+                    ProfessionalDay key = new ProfessionalDay(professionalId, date);
+                    CachedDay cached = days.get(key);
+                    if (cached != null && cached.isExpired(now, ttlNanos)) {
+                        days.remove(key);
+                        cached = null;
+                    }
+                    if (cached == null) {
+                        LocalDate[] range = missingRanges.computeIfAbsent(professionalId, id -> new LocalDate[2]);
+                        if (range[0] == null) {
+                            range[0] = date;
+                        }
+                        range[1] = date;
+                        misses.increment();
+                    } else {
+                        bookings.putAll(cached.bookings());
+                        hits.increment();
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!missingRanges.isEmpty()) {
+            load(missingRanges, result);
+        }
+
+        Map<Long, List<BookingInterval>> bookingsByProfessional = new HashMap<>();
+        result.forEach((professionalId, bookings) ->
+                bookingsByProfessional.put(professionalId, new ArrayList<>(bookings.values())));
+        return bookingsByProfessional;
+    }
+
+    /**
+     * Aplicar un cambio confirmado a los días que ya estén en memoria
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        lock.lock();
+        try {
+            long sequence = changeSequence.incrementAndGet();
+            if (!loadsInFlight.isEmpty()) {
+                markChanged(event.previous(), sequence);
+                markChanged(event.current(), sequence);
+            }
+
+            if (event.previous() != null) {
+                forEachDay(event.previous(), key -> {
+                    CachedDay cached = days.get(key);
+                    if (cached != null) {
+                        cached.bookings().remove(event.bookingId());
+                    }
+                });
+            }
+            BookingSnapshot current = event.current();
+            if (current != null && current.occupiesSchedule()) {
+                BookingInterval interval = new BookingInterval(
+                        event.bookingId(), current.professionalId(), current.startTime(), current.endTime());
+                forEachDay(current, key -> {
+                    CachedDay cached = days.get(key);
+                    if (cached != null) {
+                        cached.bookings().put(event.bookingId(), interval);
+                    }
+                });
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return days.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            days.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void load(Map<Long, LocalDate[]> missingRanges, Map<Long, Map<Long, BookingInterval>> result) {
+        long sequenceBeforeLoad;
+        lock.lock();
+        try {
+            sequenceBeforeLoad = changeSequence.get();
+            loadsInFlight.merge(sequenceBeforeLoad, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            load(missingRanges, result, sequenceBeforeLoad);
+        } finally {
+            lock.lock();
+            try {
+                loadsInFlight.computeIfPresent(sequenceBeforeLoad, (sequence, count) -> count > 1 ? count - 1 : null);
+                if (loadsInFlight.isEmpty()) {
+                    lastChangeByProfessional.clear();
+                } else {
+                    long oldest = loadsInFlight.firstKey();
+                    lastChangeByProfessional.values().removeIf(sequence -> sequence <= oldest);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void load(Map<Long, LocalDate[]> missingRanges, Map<Long, Map<Long, BookingInterval>> result,
+                      long sequenceBeforeLoad) {
+        LocalDate loadFrom = null;
+        LocalDate loadTo = null;
+        for (LocalDate[] range : missingRanges.values()) {
+            loadFrom = loadFrom == null || range[0].isBefore(loadFrom) ? range[0] : loadFrom;
+            loadTo = loadTo == null || range[1].isAfter(loadTo) ? range[1] : loadTo;
+        }
+
+        LocalDateTime from = loadFrom.atStartOfDay();
+        LocalDateTime to = loadTo.plusDays(1).atStartOfDay();
+        List<BookingInterval> loaded = loadTransaction.execute(status ->
+                bookingRepository.findBookingIntervals(missingRanges.keySet(), from, to));
+
+        Map<ProfessionalDay, Map<Long, BookingInterval>> loadedDays = new HashMap<>();
+        missingRanges.forEach((professionalId, range) -> {
+            for (LocalDate date = range[0]; !date.isAfter(range[1]); date = date.plusDays(1)) {
+                loadedDays.put(new ProfessionalDay(professionalId, date), new LinkedHashMap<>());
+            }
+        });
+        for (BookingInterval booking : loaded) {
+            for (ProfessionalDay key : daysOf(booking.professionalId(), booking.startTime(), booking.endTime())) {
+                Map<Long, BookingInterval> bookings = loadedDays.get(key);
+                if (bookings != null) {
+                    bookings.put(booking.bookingId(), booking);
+                    result.get(key.professionalId()).put(booking.bookingId(), booking);
+                }
+            }
+        }
+
+        // Comprobar y guardar con el mismo lock que onBookingChanged: un evento posterior ya encuentra el día en
+        // memoria y lo corrige; uno anterior deja su secuencia y el día no se guarda
+        lock.lock();
+        try {
+            long loadedAt = System.nanoTime();
+            loadedDays.forEach((key, bookings) -> {
+                Long lastChange = lastChangeByProfessional.get(key.professionalId());
+                if (lastChange == null || lastChange <= sequenceBeforeLoad) {
+                    days.put(key, new CachedDay(bookings, loadedAt));
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markChanged(BookingSnapshot snapshot, long sequence) {
+        if (snapshot != null && snapshot.professionalId() != null) {
+            lastChangeByProfessional.put(snapshot.professionalId(), sequence);
+        }
+    }
+
+    private void forEachDay(BookingSnapshot snapshot, Consumer<ProfessionalDay> action) {
+        if (snapshot.professionalId() == null || snapshot.startTime() == null || snapshot.endTime() == null) {
+            return;
+        }
+        daysOf(snapshot.professionalId(), snapshot.startTime(), snapshot.endTime()).forEach(action);
+    }
+
+    private static List<ProfessionalDay> daysOf(Long professionalId, LocalDateTime start, LocalDateTime end) {
+        List<ProfessionalDay> keys = new ArrayList<>(1);
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        for (LocalDate date = start.toLocalDate(); !date.isAfter(last); date = date.plusDays(1)) {
+            keys.add(new ProfessionalDay(professionalId, date));
+        }
+        return keys;
+    }
+
+    private record ProfessionalDay(Long professionalId, LocalDate date) {
+    }
+
+    /**
+     * Reservas de un día profesional y cuándo se cargaron (System.nanoTime)
+     */
+    private record CachedDay(Map<Long, BookingInterval> bookings, long loadedAt) {
+
+        boolean isExpired(long now, long ttlNanos) {
+            return ttlNanos > 0 && now - loadedAt >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.slotsync.availability;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de bits de un día con un bit por minuto (1 = libre).
+ * Ocupa 23 longs (~184 bytes) por profesional y día.
+ */
+public final class DayBitmap {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final long[] words;
+
+    public DayBitmap() {
+        this.words = new long[WORDS];
+    }
+
+    private DayBitmap(long[] words) {
+        this.words = words;
+    }
+
+    public DayBitmap copy() {
+        return new DayBitmap(Arrays.copyOf(words, WORDS));
+    }
+
+    /**
+     * Marcar como libres los minutos [from, to)
+     */
+    public void open(int from, int to) {
+        apply(clamp(from), clamp(to), true);
+    }
+
+    /**
+     * Marcar como ocupados los minutos [from, to)
+     */
+    public void close(int from, int to) {
+        apply(clamp(from), clamp(to), false);
+    }
+
+    /**
+     * Verificar si todos los minutos [from, to) están libres
+     */
+    public boolean isFree(int from, int to) {
+        if (from < 0 || to > MINUTES_PER_DAY || from >= to) {
+            return false;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = mask(i, from, to);
+            if ((words[i] & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Primer minuto libre a partir de {@code from}, o -1 si no queda ninguno
+     */
+    public int nextFree(int from) {
+        if (from >= MINUTES_PER_DAY) {
+            return -1;
+        }
+        int start = Math.max(from, 0);
+        int index = start >>> 6;
+        long word = words[index] & (-1L << start);
+        while (true) {
+            if (word != 0) {
+                int minute = (index << 6) + Long.numberOfTrailingZeros(word);
+                return minute < MINUTES_PER_DAY ? minute : -1;
+            }
+            if (++index == WORDS) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * Primer minuto ocupado a partir de {@code from}, o {@link #MINUTES_PER_DAY} si no hay ninguno
+     */
+    public int nextBusy(int from) {
+        if (from >= MINUTES_PER_DAY) {
+            return MINUTES_PER_DAY;
+        }
+        int start = Math.max(from, 0);
+        int index = start >>> 6;
+        long word = ~words[index] & (-1L << start);
+        while (true) {
+            if (word != 0) {
+                return Math.min((index << 6) + Long.numberOfTrailingZeros(word), MINUTES_PER_DAY);
+            }
+            if (++index == WORDS) {
+                return MINUTES_PER_DAY;
+            }
+            word = ~words[index];
+        }
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int freeMinutes() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private void apply(int from, int to, boolean free) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = mask(i, from, to);
+            words[i] = free ? words[i] | mask : words[i] & ~mask;
+        }
+    }
+
+    private static long mask(int wordIndex, int from, int to) {
+        int start = wordIndex << 6;
+        long mask = -1L;
+        if (from > start) {
+            mask &= -1L << (from - start);
+        }
+        if (to < start + 64) {
+            mask &= -1L >>> (start + 64 - to);
+        }
+        return mask;
+    }
+
+    private static int clamp(int minute) {
+        return Math.max(0, Math.min(MINUTES_PER_DAY, minute));
+    }
+}
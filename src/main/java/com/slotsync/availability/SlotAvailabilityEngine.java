@@ -0,0 +1,127 @@
+package com.slotsync.availability;
+
+import com.slotsync.entity.ProfessionalAvailability;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Motor de cálculo de huecos libres.
+ * Convierte las reglas de disponibilidad de un profesional en un {@link DayBitmap} por día,
+ * descuenta las reservas existentes y recorre los tramos libres para generar huecos.
+ * No accede a base de datos: todo el cálculo se hace en memoria.
+ */
+@Component
+public class SlotAvailabilityEngine {
+
+    /**
+     * Construir el horario laborable de un día a partir de las reglas del profesional.
+     * Si existe alguna regla de fecha específica disponible para ese día, sustituye
+     * a las reglas recurrentes; las reglas con {@code isAvailable = false} siempre bloquean.
+     */
+    public DayBitmap buildWorkingDay(Collection<ProfessionalAvailability> rules, LocalDate date) {
+        DayBitmap day = new DayBitmap();
+        boolean hasSpecificSchedule = false;
+        for (ProfessionalAvailability rule : rules) {
+            if (isOpening(rule) && !Boolean.TRUE.equals(rule.getIsRecurring()) && rule.appliesTo(date)) {
+                hasSpecificSchedule = true;
+                break;
+            }
+        }
+
+        for (ProfessionalAvailability rule : rules) {
+            if (!isOpening(rule) || !rule.appliesTo(date)) {
+                continue;
+            }
+            if (hasSpecificSchedule && Boolean.TRUE.equals(rule.getIsRecurring())) {
+                continue;
+            }
+            day.open(toMinute(rule.getStartTime()), toEndMinute(rule.getStartTime(), rule.getEndTime()));
+        }
+
+        for (ProfessionalAvailability rule : rules) {
+            if (!isOpening(rule) && rule.appliesTo(date)) {
+                day.close(toMinute(rule.getStartTime()), toEndMinute(rule.getStartTime(), rule.getEndTime()));
+            }
+        }
+        return day;
+    }
+
+    /**
+     * Descontar las reservas del día (se recortan al propio día si lo atraviesan)
+     */
+    public void subtractBookings(DayBitmap day, LocalDate date, Collection<BookingInterval> bookings) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        for (BookingInterval booking : bookings) {
+            if (!booking.startTime().isBefore(dayEnd) || !booking.endTime().isAfter(dayStart)) {
+                continue;
+            }
+            int from = booking.startTime().isBefore(dayStart) ? 0 : toMinute(booking.startTime().toLocalTime());
+            int to = booking.endTime().isBefore(dayEnd) ? toMinute(booking.endTime().toLocalTime()) : DayBitmap.MINUTES_PER_DAY;
+            day.close(from, to);
+        }
+    }
+
+    /**
+     * Generar los huecos de un día. Los inicios se alinean al comienzo de cada tramo libre
+     * (más el buffer previo) y avanzan de {@link SlotSpec#step()} en {@link SlotSpec#step()}.
+     *
+     * @param notBefore primer inicio admisible (p.ej. ahora + antelación mínima), puede ser null
+     * @param limit     máximo de huecos a añadir a {@code sink}
+     * @return número de huecos añadidos
+     */
+    public int collectSlots(Long professionalId, DayBitmap day, LocalDate date, SlotSpec spec,
+                            LocalDateTime notBefore, int limit, List<AvailableSlot> sink) {
+        int minStart = 0;
+        if (notBefore != null) {
+            LocalDate notBeforeDate = notBefore.toLocalDate();
+            if (date.isBefore(notBeforeDate)) {
+                return 0;
+            }
+            if (date.equals(notBeforeDate)) {
+                minStart = toMinute(notBefore.toLocalTime());
+            }
+        }
+
+        LocalDateTime dayStart = date.atStartOfDay();
+        int added = 0;
+        int cursor = 0;
+        int runStart;
+        while (added < limit && (runStart = day.nextFree(cursor)) >= 0) {
+            int runEnd = day.nextBusy(runStart);
+            for (int start = runStart + spec.bufferBefore();
+                 start + spec.duration() + spec.bufferAfter() <= runEnd && added < limit;
+                 start += spec.step()) {
+                if (start < minStart) {
+                    continue;
+                }
+                sink.add(new AvailableSlot(
+                        professionalId,
+                        dayStart.plusMinutes(start),
+                        dayStart.plusMinutes(start + spec.duration())
+                ));
+                added++;
+            }
+            cursor = runEnd;
+        }
+        return added;
+    }
+
+    private static boolean isOpening(ProfessionalAvailability rule) {
+        return !Boolean.FALSE.equals(rule.getIsAvailable());
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int toEndMinute(LocalTime start, LocalTime end) {
+        // Un fin igual o anterior al inicio (p.ej. 00:00) se interpreta como medianoche
+        return end.isAfter(start) ? toMinute(end) : DayBitmap.MINUTES_PER_DAY;
+    }
+}
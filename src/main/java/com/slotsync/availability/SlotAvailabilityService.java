@@ -0,0 +1,100 @@
+package com.slotsync.availability;
+
+import com.slotsync.entity.ProfessionalAvailability;
+import com.slotsync.entity.Service;
+import com.slotsync.repository.ProfessionalAvailabilityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cálculo de huecos libres de un servicio para un conjunto de profesionales.
+ * Carga las reglas de todos los profesionales con una consulta, obtiene las reservas del
+ * {@link BookingOccupancyIndex} y resuelve el resto en memoria con {@link SlotAvailabilityEngine}.
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class SlotAvailabilityService {
+
+    private static final Comparator<AvailableSlot> SLOT_ORDER =
+            Comparator.comparing(AvailableSlot::startTime).thenComparing(AvailableSlot::professionalId);
+
+    private final ProfessionalAvailabilityRepository availabilityRepository;
+    private final BookingOccupancyIndex occupancyIndex;
+    private final SlotAvailabilityEngine engine;
+
+    /**
+     * Huecos libres ordenados por hora de inicio
+     *
+     * @param notBefore primer inicio admisible, puede ser null
+     */
+    @Transactional(readOnly = true)
+    public List<AvailableSlot> findAvailableSlots(Service service, Collection<Long> professionalIds,
+                                                  LocalDate fromDate, int days, LocalDateTime notBefore) {
+        List<AvailableSlot> slots = new ArrayList<>();
+        forEachDay(service, professionalIds, fromDate, days, notBefore, (date, daySlots) -> {
+            slots.addAll(daySlots);
+            return true;
+        });
+        return slots;
+    }
+
+    /**
+     * Recorrer el rango día a día (en orden) entregando los huecos de todos los profesionales
+     * ordenados por hora de inicio. El recorrido termina cuando el consumidor devuelve false.
+     */
+    @Transactional(readOnly = true)
+    public void forEachDay(Service service, Collection<Long> professionalIds, LocalDate fromDate, int days,
+                           LocalDateTime notBefore, DaySlotsConsumer consumer) {
+        if (professionalIds.isEmpty() || days <= 0) {
+            return;
+        }
+        LocalDate toDate = fromDate.plusDays(days - 1L);
+        SlotSpec spec = SlotSpec.of(service, service.getBusiness().getDefaultSlotDuration());
+
+        Map<Long, List<ProfessionalAvailability>> rulesByProfessional = new HashMap<>();
+        for (ProfessionalAvailability rule : availabilityRepository.findApplicableRules(professionalIds, fromDate, toDate)) {
+            rulesByProfessional.computeIfAbsent(rule.getProfessional().getId(), id -> new ArrayList<>()).add(rule);
+        }
+        if (rulesByProfessional.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<BookingInterval>> bookingsByProfessional =
+                occupancyIndex.getBookings(rulesByProfessional.keySet(), fromDate, toDate);
+
+        List<AvailableSlot> daySlots = new ArrayList<>();
+        for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+            daySlots.clear();
+            for (Map.Entry<Long, List<ProfessionalAvailability>> entry : rulesByProfessional.entrySet()) {
+                DayBitmap day = engine.buildWorkingDay(entry.getValue(), date);
+                if (day.isEmpty()) {
+                    continue;
+                }
+                engine.subtractBookings(day, date, bookingsByProfessional.getOrDefault(entry.getKey(), List.of()));
+                engine.collectSlots(entry.getKey(), day, date, spec, notBefore, Integer.MAX_VALUE, daySlots);
+            }
+            daySlots.sort(SLOT_ORDER);
+            if (!consumer.accept(date, daySlots)) {
+                return;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface DaySlotsConsumer {
+
+        /**
+         * @return false para detener el recorrido
+         */
+        boolean accept(LocalDate date, List<AvailableSlot> slots);
+    }
+}
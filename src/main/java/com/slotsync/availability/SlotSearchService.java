@@ -0,0 +1,125 @@
+package com.slotsync.availability;
+
+import com.slotsync.calendar.BusinessClock;
+import com.slotsync.dto.availability.DaySummaryResponse;
+import com.slotsync.dto.availability.SlotResponse;
+import com.slotsync.dto.availability.SlotSearchRequest;
+import com.slotsync.dto.availability.SlotSearchResponse;
+import com.slotsync.dto.availability.SlotSearchView;
+import com.slotsync.entity.Business;
+import com.slotsync.entity.Service;
+import com.slotsync.exception.ResourceNotFoundException;
+import com.slotsync.repository.BusinessRepository;
+import com.slotsync.repository.ProfessionalRepository;
+import com.slotsync.repository.ServiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Búsqueda pública de huecos de un servicio entre todos los profesionales de un negocio.
+ * Resuelve negocio, servicio y profesionales, y recorre el rango en una sola pasada
+ * deteniéndose en cuanto tiene los N primeros huecos.
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class SlotSearchService {
+
+    private final BusinessRepository businessRepository;
+    private final ServiceRepository serviceRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final SlotAvailabilityService slotAvailabilityService;
+
+    @Transactional(readOnly = true)
+    public SlotSearchResponse search(String businessSlug, SlotSearchRequest request) {
+        Business business = businessRepository.findBySlug(businessSlug)
+                .filter(b -> Boolean.TRUE.equals(b.getIsActive()) && !Boolean.FALSE.equals(b.getPublicBookingEnabled()))
+                .orElseThrow(() -> new ResourceNotFoundException("Negocio no encontrado: " + businessSlug));
+
+        Service service = serviceRepository.findById(request.getServiceId())
+                .filter(s -> s.getBusiness().getId().equals(business.getId()) && Boolean.TRUE.equals(s.getIsActive()))
+                .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado: " + request.getServiceId()));
+
+        List<Long> professionalIds = professionalRepository.findBookableProfessionalIds(business.getId(), service.getId());
+        if (request.getProfessionalIds() != null && !request.getProfessionalIds().isEmpty()) {
+            Set<Long> requested = new HashSet<>(request.getProfessionalIds());
+            professionalIds = professionalIds.stream().filter(requested::contains).toList();
+        }
+
+        LocalDateTime now = LocalDateTime.now(BusinessClock.zoneOf(business));
+        LocalDateTime notBefore = now.plusHours(valueOrZero(business.getMinAdvanceBookingHours()));
+        LocalDate from = request.getFrom() != null && request.getFrom().isAfter(now.toLocalDate())
+                ? request.getFrom() : now.toLocalDate();
+        LocalDate to = from.plusDays(request.getDays() - 1L);
+        if (business.getMaxAdvanceBookingDays() != null) {
+            LocalDate lastBookable = now.toLocalDate().plusDays(business.getMaxAdvanceBookingDays());
+            to = to.isAfter(lastBookable) ? lastBookable : to;
+        }
+
+        SlotSearchResponse.SlotSearchResponseBuilder response = SlotSearchResponse.builder()
+                .businessSlug(business.getSlug())
+                .serviceId(service.getId())
+                .serviceDuration(service.getDuration())
+                .from(from)
+                .to(to);
+        if (to.isBefore(from)) {
+            return request.getView() == SlotSearchView.SUMMARY
+                    ? response.days(List.of()).build()
+                    : response.slots(List.of()).build();
+        }
+
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        if (request.getView() == SlotSearchView.SUMMARY) {
+            List<DaySummaryResponse> summary = new ArrayList<>();
+            slotAvailabilityService.forEachDay(service, professionalIds, from, days, notBefore, (date, slots) -> {
+                summary.add(summarize(date, slots));
+                return true;
+            });
+            return response.days(summary).build();
+        }
+
+        int limit = request.getLimit();
+        List<SlotResponse> earliest = new ArrayList<>(limit);
+        slotAvailabilityService.forEachDay(service, professionalIds, from, days, notBefore, (date, slots) -> {
+            for (AvailableSlot slot : slots) {
+                if (earliest.size() == limit) {
+                    break;
+                }
+                earliest.add(toResponse(slot));
+            }
+            return earliest.size() < limit;
+        });
+        return response.slots(earliest).build();
+    }
+
+    private static DaySummaryResponse summarize(LocalDate date, List<AvailableSlot> slots) {
+        Set<Long> professionals = new HashSet<>();
+        for (AvailableSlot slot : slots) {
+            professionals.add(slot.professionalId());
+        }
+        return DaySummaryResponse.builder()
+                .date(date)
+                .availableSlots(slots.size())
+                .availableProfessionals(professionals.size())
+                .firstSlot(slots.isEmpty() ? null : slots.get(0).startTime())
+                .build();
+    }
+
+    private static SlotResponse toResponse(AvailableSlot slot) {
+        return SlotResponse.builder()
+                .professionalId(slot.professionalId())
+                .startTime(slot.startTime())
+                .endTime(slot.endTime())
+                .build();
+    }
+
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
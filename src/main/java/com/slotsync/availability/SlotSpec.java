@@ -0,0 +1,32 @@
+package com.slotsync.availability;
+
+import com.slotsync.entity.Service;
+
+/**
+ * Parámetros de un hueco: duración del servicio, buffers y paso entre inicios
+ */
+public record SlotSpec(int duration, int bufferBefore, int bufferAfter, int step) {
+
+    public SlotSpec {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("La duración debe ser positiva");
+        }
+        if (step <= 0) {
+            throw new IllegalArgumentException("El intervalo entre huecos debe ser positivo");
+        }
+    }
+
+    public static SlotSpec of(Service service, Integer slotStep) {
+        int bufferBefore = service.getBufferTimeBefore() != null ? service.getBufferTimeBefore() : 0;
+        int bufferAfter = service.getBufferTimeAfter() != null ? service.getBufferTimeAfter() : 0;
+        int step = slotStep != null && slotStep > 0 ? slotStep : service.getDuration();
+        return new SlotSpec(service.getDuration(), bufferBefore, bufferAfter, step);
+    }
+
+    /**
+     * Minutos totales que bloquea el hueco (equivalente a {@link Service#getTotalDuration()})
+     */
+    public int totalDuration() {
+        return duration + bufferBefore + bufferAfter;
+    }
+}
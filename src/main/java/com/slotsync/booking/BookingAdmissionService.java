@@ -0,0 +1,95 @@
+package com.slotsync.booking;
+
+import com.slotsync.entity.Booking;
+import com.slotsync.exception.SlotUnavailableException;
+import com.slotsync.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Punto único de alta de reservas sin dobles reservas.
+ * Dentro del nodo serializa las altas por profesional con un {@link StripedLock}
+ * (el lock cubre hasta el commit); entre nodos lo garantiza la restricción de exclusión
+ * {@code ex_booking_professional_overlap} de la base de datos.
+ */
+@Service
+public class BookingAdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingAdmissionService.class);
+
+    static final String OVERLAP_CONSTRAINT = "ex_booking_professional_overlap";
+
+    private final BookingRepository bookingRepository;
+    private final BookingCodeGenerator bookingCodeGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedLock professionalLocks;
+
+    public BookingAdmissionService(BookingRepository bookingRepository,
+                                   BookingCodeGenerator bookingCodeGenerator,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.booking.admission.lock-stripes:256}") int lockStripes) {
+        this.bookingRepository = bookingRepository;
+        this.bookingCodeGenerator = bookingCodeGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.professionalLocks = new StripedLock(lockStripes);
+    }
+
+    /**
+     * Persistir una reserva nueva si el profesional está libre en ese intervalo.
+     * Si no trae código se le asigna uno de {@link BookingCodeGenerator}.
+     *
+     * @throws SlotUnavailableException si el intervalo se solapa con otra reserva activa
+     */
+    public Booking admit(Booking booking) {
+        validate(booking);
+        if (booking.getBookingCode() == null || booking.getBookingCode().isBlank()) {
+            booking.setBookingCode(bookingCodeGenerator.next());
+        }
+        Long professionalId = booking.getProfessional().getId();
+
+        Lock lock = professionalLocks.get(professionalId);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                if (bookingRepository.existsOverlappingBooking(
+                        professionalId, booking.getStartTime(), booking.getEndTime())) {
+                    throw new SlotUnavailableException("El profesional ya tiene una reserva en ese horario");
+                }
+                return bookingRepository.saveAndFlush(booking);
+            });
+        } catch (DataIntegrityViolationException ex) {
+            if (isOverlapViolation(ex)) {
+                logger.info("Reserva rechazada por solapamiento concurrente (profesional {})", professionalId);
+                throw new SlotUnavailableException("El profesional ya tiene una reserva en ese horario", ex);
+            }
+            throw ex;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void validate(Booking booking) {
+        if (booking.getId() != null) {
+            throw new IllegalArgumentException("La reserva ya existe");
+        }
+        if (booking.getProfessional() == null || booking.getProfessional().getId() == null) {
+            throw new IllegalArgumentException("La reserva debe tener un profesional");
+        }
+        if (booking.getStartTime() == null || booking.getEndTime() == null
+                || !booking.getEndTime().isAfter(booking.getStartTime())) {
+            throw new IllegalArgumentException("El intervalo de la reserva no es válido");
+        }
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+}
@@ -0,0 +1,58 @@
+package com.slotsync.booking;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reserva de bloques de contadores de booking_code_blocks.
+ * Cada reserva se confirma en su propia transacción: si la del alta que la provocó se deshace, el bloque sigue siendo
+ * de este nodo y otro nodo nunca puede recibir los mismos contadores.
+ */
+@Repository
+public class BookingCodeBlockRepository {
+
+    // El bloque empieza tras el contador reservado y tras el mayor código del día que ya exista en bookings (reservas
+    // anteriores a esta tabla o importadas con su propio código), así que nunca repite uno ocupado
+    private static final String LEASE_SQL =
+            "INSERT INTO booking_code_blocks (code_date, next_value, updated_at) " +
+            "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(booking_code FROM 11) AS BIGINT)), 0) + ? + 1, now() " +
+            "FROM bookings WHERE booking_code >= ? AND booking_code < ? AND LEFT(booking_code, 10) = ? " +
+            "AND booking_code ~ '^BK[0-9]{11,18}$' " +
+            "ON CONFLICT (code_date) DO UPDATE SET " +
+            "next_value = GREATEST(booking_code_blocks.next_value + ?, EXCLUDED.next_value), " +
+            "updated_at = EXCLUDED.updated_at " +
+            "RETURNING next_value";
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingCodeBlockRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reservar {@code size} contadores del día. Devuelve el primero; el bloque es [primero, primero + size).
+     * Los contadores de cada día empiezan en 1 o tras el mayor código BK de ese día que ya esté en bookings.
+     */
+    public long lease(LocalDate date, int size) {
+        String prefix = BookingCodeGenerator.PREFIX + DATE.format(date);
+        String nextPrefix = BookingCodeGenerator.PREFIX + DATE.format(date.plusDays(1));
+        Long end = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(LEASE_SQL, Long.class,
+                Date.valueOf(date), size, prefix, nextPrefix, prefix, size));
+        if (end == null) {
+            throw new IllegalStateException("No se pudo reservar un bloque de códigos para " + date);
+        }
+        return end - size;
+    }
+}
@@ -0,0 +1,113 @@
+package com.slotsync.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Códigos de reserva legibles y únicos: BK + fecha (zona por defecto de los negocios) + contador del día con al
+ * menos 3 cifras, p. ej. BK20240115001. Como mucho 20 caracteres.
+ * Cada nodo reserva en BD bloques de block-size contadores y los reparte con un AtomicLong: el alta de una reserva
+ * no toca la base de datos ni se bloquea salvo cuando hay que reservar otro bloque (y solo un hilo lo reserva).
+ * Los contadores sin usar de un bloque se pierden al cambiar de día o reiniciar el nodo: hay huecos, no repeticiones.
+ */
+@Component
+public class BookingCodeGenerator {
+
+    public static final String PREFIX = "BK";
+    public static final int MAX_LENGTH = 20;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long MAX_COUNTER = 9_999_999_999L;
+
+    private final BookingCodeBlockRepository blockRepository;
+    private final Clock clock;
+    private final int blockSize;
+    private final Counter leases;
+    private final AtomicReference<Block> current = new AtomicReference<>();
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    @Autowired
+    public BookingCodeGenerator(BookingCodeBlockRepository blockRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.business.default-timezone:Europe/Madrid}") String timezone,
+                                @Value("${app.booking.code.block-size:100}") int blockSize) {
+        this(blockRepository, Clock.system(ZoneId.of(timezone)), blockSize, meterRegistry);
+    }
+
+    public BookingCodeGenerator(BookingCodeBlockRepository blockRepository, Clock clock, int blockSize,
+                                MeterRegistry meterRegistry) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo");
+        }
+        this.blockRepository = blockRepository;
+        this.clock = clock;
+        this.blockSize = blockSize;
+        this.leases = Counter.builder("slotsync.booking.code.leases")
+                .description("Bloques de códigos de reserva reservados en BD").register(meterRegistry);
+    }
+
+    public String next() {
+        while (true) {
+            LocalDate today = LocalDate.now(clock);
+            Block block = current.get();
+            if (block != null && block.date().equals(today)) {
+                long counter = block.next().getAndIncrement();
+                if (counter < block.end()) {
+                    return format(today, counter);
+                }
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Sustituir el bloque agotado (o de otro día) por uno del día actual. Si otro hilo ya lo hizo, no hace nada.
+     * La fecha se vuelve a leer con el lock: un hilo que leyó el reloj antes de medianoche no devuelve el bloque al
+     * día anterior, y si el reloj retrocede de verdad se reserva un bloque de ese día en lugar de esperar.
+     * ReentrantLock y no synchronized: un hilo virtual esperando a la BD no bloquea su hilo portador.
+     */
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            LocalDate today = LocalDate.now(clock);
+            if (current.get() != exhausted || exhausted != null && exhausted.date().equals(today)
+                    && exhausted.next().get() < exhausted.end()) {
+                return;
+            }
+            long first = blockRepository.lease(today, blockSize);
+            leases.increment();
+            current.set(new Block(today, new AtomicLong(first), first + blockSize));
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static String format(LocalDate date, long counter) {
+        if (counter > MAX_COUNTER) {
+            throw new IllegalStateException("Contador de códigos de reserva agotado para " + date);
+        }
+        String digits = Long.toString(counter);
+        StringBuilder code = new StringBuilder(MAX_LENGTH).append(PREFIX).append(DATE.format(date));
+        for (int i = digits.length(); i < 3; i++) {
+            code.append('0');
+        }
+        return code.append(digits).toString();
+    }
+
+    /**
+     * Contadores [next, end) reservados para un día
+     */
+    private record Block(LocalDate date, AtomicLong next, long end) {
+    }
+}
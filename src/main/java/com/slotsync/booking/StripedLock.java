@@ -0,0 +1,35 @@
+package com.slotsync.booking;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de locks repartidos por hash de la clave.
+ * Claves distintas se bloquean en paralelo salvo colisión de franja.
+ */
+public final class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedLock(int minStripes) {
+        if (minStripes <= 0) {
+            throw new IllegalArgumentException("El número de franjas debe ser positivo");
+        }
+        int size = minStripes == 1 ? 1 : Integer.highestOneBit(minStripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock get(Object key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,20 @@
+package com.slotsync.bulkimport;
+
+/**
+ * Fila de importación de reservas. El cliente se identifica por email; profesional y servicio
+ * por ID y deben pertenecer al negocio. Sin bookingCode se genera uno con BookingCodeGenerator.
+ * Los valores llegan como texto y se validan al importar.
+ */
+public record BookingImportRow(
+        String bookingCode,
+        String customerEmail,
+        String professionalId,
+        String serviceId,
+        String startTime,
+        String endTime,
+        String status,
+        String price,
+        String totalAmount,
+        String notes
+) {
+}
@@ -0,0 +1,17 @@
+package com.slotsync.bulkimport;
+
+/**
+ * Fila de importación de clientes. Los valores llegan como texto y se validan al importar.
+ */
+public record CustomerImportRow(
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber,
+        String dateOfBirth,
+        String gender,
+        String notes,
+        String allowMarketingEmails,
+        String allowMarketingSms
+) {
+}
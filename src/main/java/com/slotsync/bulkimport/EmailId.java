@@ -0,0 +1,7 @@
+package com.slotsync.bulkimport;
+
+/**
+ * Email normalizado (minúsculas) y el ID del cliente más antiguo con ese email
+ */
+public record EmailId(String email, Long id) {
+}
@@ -0,0 +1,25 @@
+package com.slotsync.bulkimport;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos aceptados por la importación masiva
+ */
+public enum ImportFormat {
+    CSV,
+    // Array JSON o un objeto JSON por línea (NDJSON)
+    JSON;
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Formato según el Content-Type de la petición
+     */
+    public static ImportFormat fromContentType(MediaType contentType) {
+        if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))) {
+            return CSV;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,65 @@
+package com.slotsync.calendar;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slotsync.entity.Business;
+import com.slotsync.repository.BusinessRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+/**
+ * Hora actual y ventanas de días en la zona horaria de cada negocio ({@link Business#getTimezone()}).
+ * Las zonas se guardan en memoria unos minutos: cambian muy rara vez y así "hoy" no cuesta una consulta.
+ */
+@Component
+public class BusinessClock {
+
+    private final BusinessRepository businessRepository;
+    private final Cache<Long, ZoneId> zones = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public BusinessClock(BusinessRepository businessRepository) {
+        this.businessRepository = businessRepository;
+    }
+
+    public static ZoneId zoneOf(Business business) {
+        return parseZone(business.getTimezone());
+    }
+
+    public ZoneId zoneOf(Long businessId) {
+        return zones.get(businessId, id -> parseZone(businessRepository.findTimezoneById(id).orElse(null)));
+    }
+
+    /**
+     * Hora local actual del negocio
+     */
+    public LocalDateTime now(Long businessId) {
+        return LocalDateTime.now(zoneOf(businessId));
+    }
+
+    public LocalDate today(Long businessId) {
+        return now(businessId).toLocalDate();
+    }
+
+    public DayWindow todayWindow(Long businessId) {
+        return DayWindow.ofDay(today(businessId));
+    }
+
+    public DayWindow monthWindow(Long businessId) {
+        return DayWindow.ofMonth(YearMonth.from(today(businessId)));
+    }
+
+    /**
+     * Zona de un valor de businesses.timezone (null: zona del servidor)
+     */
+    public static ZoneId parseZone(String timezone) {
+        return timezone != null ? ZoneId.of(timezone) : ZoneId.systemDefault();
+    }
+}
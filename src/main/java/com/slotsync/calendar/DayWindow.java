@@ -0,0 +1,29 @@
+package com.slotsync.calendar;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Intervalo semiabierto [start, end) en hora local del negocio, que es como se guardan
+ * start_time/end_time. Las consultas lo usan con {@code >= start AND < end} para poder recorrer
+ * el índice por rango (a diferencia de CAST(start_time AS DATE) o YEAR()/MONTH()).
+ */
+public record DayWindow(LocalDateTime start, LocalDateTime end) {
+
+    public static DayWindow ofDay(LocalDate date) {
+        return new DayWindow(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    public static DayWindow ofDays(LocalDate from, LocalDate toInclusive) {
+        return new DayWindow(from.atStartOfDay(), toInclusive.plusDays(1).atStartOfDay());
+    }
+
+    public static DayWindow ofMonth(YearMonth month) {
+        return new DayWindow(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    public boolean contains(LocalDateTime time) {
+        return !time.isBefore(start) && time.isBefore(end);
+    }
+}
@@ -0,0 +1,85 @@
+package com.slotsync.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor de @Async y de las peticiones asíncronas de Spring MVC (exportaciones en streaming).
+ * Un hilo virtual por tarea con un límite global de tareas simultáneas: al alcanzarlo, quien envía
+ * la tarea espera en lugar de encolarla sin fin. Los límites por proveedor externo los ponen los
+ * {@link com.slotsync.integration.Bulkhead}.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+
+    private static final String METRIC_PREFIX = "slotsync.async";
+
+    private final MeterRegistry meterRegistry;
+    private final int concurrencyLimit;
+    private final long terminationTimeoutMs;
+
+    public AsyncConfig(MeterRegistry meterRegistry,
+                       @Value("${app.async.concurrency-limit:200}") int concurrencyLimit,
+                       @Value("${app.async.termination-timeout-ms:30000}") long terminationTimeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimit = concurrencyLimit;
+        this.terminationTimeoutMs = terminationTimeoutMs;
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public SimpleAsyncTaskExecutor applicationTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(terminationTimeoutMs);
+        executor.setTaskDecorator(instrumented());
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return applicationTaskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) ->
+                log.error("Tarea asíncrona {}.{} fallida", method.getDeclaringClass().getSimpleName(),
+                        method.getName(), ex);
+    }
+
+    private TaskDecorator instrumented() {
+        AtomicInteger active = new AtomicInteger();
+        Timer duration = Timer.builder(METRIC_PREFIX + ".tasks")
+                .description("Duración de las tareas asíncronas").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", active, AtomicInteger::get)
+                .description("Tareas asíncronas en ejecución").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".limit", () -> concurrencyLimit)
+                .description("Tareas asíncronas simultáneas permitidas").register(meterRegistry);
+        return task -> () -> {
+            active.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                active.decrementAndGet();
+            }
+        };
+    }
+}
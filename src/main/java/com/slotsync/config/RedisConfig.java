@@ -0,0 +1,72 @@
+package com.slotsync.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+
+/**
+ * Configuración de Redis para el nivel compartido de la caché de principales y la invalidación entre nodos de la
+ * caché de segundo nivel y de las páginas públicas. La autoconfiguración de Redis está excluida, así que la conexión
+ * solo se crea si se activa alguno de ellos.
+ */
+@Configuration
+@ConditionalOnExpression("${app.security.principal-cache.redis.enabled:false}"
+        + " or ${app.jpa.second-level-cache.redis.enabled:false} or ${app.public-pages.redis.enabled:false}")
+@EnableConfigurationProperties(RedisProperties.class)
+public class RedisConfig {
+
+    @Bean
+    public LettuceConnectionFactory redisConnectionFactory(RedisProperties properties) {
+        if (StringUtils.hasText(properties.getUrl())) {
+            URI uri = URI.create(properties.getUrl());
+            LettuceClientConfiguration clientConfig = "rediss".equals(uri.getScheme())
+                    ? LettuceClientConfiguration.builder().useSsl().build()
+                    : LettuceClientConfiguration.defaultConfiguration();
+            return new LettuceConnectionFactory(fromUri(uri), clientConfig);
+        }
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(properties.getHost(), properties.getPort());
+        config.setDatabase(properties.getDatabase());
+        config.setUsername(properties.getUsername());
+        config.setPassword(RedisPassword.of(properties.getPassword()));
+        return new LettuceConnectionFactory(config);
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(new JdkSerializationRedisSerializer());
+        return template;
+    }
+
+    private static RedisStandaloneConfiguration fromUri(URI uri) {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(uri.getHost(),
+                uri.getPort() > 0 ? uri.getPort() : 6379);
+        if (uri.getUserInfo() != null) {
+            String[] credentials = uri.getUserInfo().split(":", 2);
+            if (credentials.length == 2) {
+                if (StringUtils.hasText(credentials[0])) {
+                    config.setUsername(credentials[0]);
+                }
+                config.setPassword(RedisPassword.of(credentials[1]));
+            } else {
+                config.setPassword(RedisPassword.of(credentials[0]));
+            }
+        }
+        return config;
+    }
+}
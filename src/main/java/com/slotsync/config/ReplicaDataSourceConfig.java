@@ -0,0 +1,125 @@
+package com.slotsync.config;
+
+import com.slotsync.datasource.ReadYourWritesFilter;
+import com.slotsync.datasource.ReadYourWritesListener;
+import com.slotsync.datasource.ReplicaLagMonitor;
+import com.slotsync.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de lectura. Con app.datasource.replicas.enabled las transacciones readOnly se reparten entre las
+ * réplicas y el resto va al primario (spring.datasource); sin activar, la autoconfiguración crea el DataSource
+ * único de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPools replicaPools(DataSourceProperties properties,
+                                     @Value("${app.datasource.replicas.urls}") String urls,
+                                     @Value("${app.datasource.replicas.username:}") String username,
+                                     @Value("${app.datasource.replicas.password:}") String password,
+                                     @Value("${app.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+                                     @Value("${app.datasource.replicas.connection-timeout-ms:2000}") long connectionTimeoutMs) {
+        List<String> jdbcUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(StringUtils::hasText).toList();
+        if (jdbcUrls.isEmpty()) {
+            throw new IllegalStateException("app.datasource.replicas.urls está vacío");
+        }
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < jdbcUrls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(jdbcUrls.get(i));
+            pool.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+            pool.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+            pool.setMaximumPoolSize(maximumPoolSize);
+            // Una réplica caída debe notarse rápido para volver al primario
+            pool.setConnectionTimeout(connectionTimeoutMs);
+            pool.setReadOnly(true);
+            pools.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaPools(pools);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaPools replicaPools,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${app.datasource.replicas.max-lag-ms:5000}") long maxLagMs) {
+        return new ReplicaLagMonitor(new LinkedHashMap<>(replicaPools.pools()), maxLagMs, meterRegistry);
+    }
+
+    /**
+     * DataSource que usan JPA, JdbcTemplate y Flyway. El proxy retrasa la elección de destino hasta la primera
+     * sentencia, cuando ya se sabe si la transacción es de solo lectura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaPools replicaPools,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>(replicaPools.pools());
+        targets.put("primary", primaryDataSource);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagMonitor, meterRegistry);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ReadYourWritesListener readYourWritesListener(
+            @Value("${app.datasource.replicas.read-your-writes-seconds:10}") long stickySeconds) {
+        return new ReadYourWritesListener(Duration.ofSeconds(stickySeconds));
+    }
+
+    /**
+     * Pools de las réplicas. No se publican como DataSource para no competir con el primario en la autoconfiguración.
+     */
+    public record ReplicaPools(Map<String, HikariDataSource> pools) {
+
+        public void close() {
+            pools.values().forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.slotsync.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caché de segundo nivel de Hibernate (entidades de referencia, sus colecciones y consultas marcadas como
+ * cacheables) sobre JCache con Caffeine. Cada región se crea aquí con el tamaño y la caducidad de
+ * app.jpa.second-level-cache.regions; una región que no esté configurada impide arrancar.
+ * La caché es local a cada nodo. Con app.jpa.second-level-cache.redis.enabled los cambios se invalidan en los demás
+ * nodos al confirmar ({@link com.slotsync.datasource.SecondLevelCacheBroadcast}); sin él, la caducidad acota cuánto
+ * tarda en verse un cambio hecho en otro nodo.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheConfig.SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.jpa.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        // El proveedor guarda los gestores por URI en la JVM: uno propio por contexto (los tests levantan varios)
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("slotsync-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.regions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            if (region.maxSize() > 0) {
+                configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+            }
+            if (region.ttl() != null && !region.ttl().isZero()) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+            }
+            configuration.setStatisticsEnabled(true);
+            Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+            JCacheMetrics.monitor(meterRegistry, cache, Tags.of("cacheManager", "hibernate"));
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ObjectProvider<CacheManager> hibernateCacheManager) {
+        return properties -> {
+            CacheManager cacheManager = hibernateCacheManager.getIfAvailable();
+            if (cacheManager == null) {
+                // Con hibernate-jcache en el classpath Hibernate activaría la caché por su cuenta
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+                return;
+            }
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Regiones por nombre: tamaño máximo (0 = sin límite) y caducidad desde la escritura (vacía o 0 = sin caducidad)
+     */
+    @ConfigurationProperties("app.jpa.second-level-cache")
+    public record SecondLevelCacheProperties(Map<String, Region> regions) {
+
+        public SecondLevelCacheProperties {
+            regions = regions != null ? regions : Map.of();
+        }
+
+        public record Region(long maxSize, Duration ttl) {
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.slotsync.config;
 import com.slotsync.security.CustomUserDetailsService;
 import com.slotsync.security.JwtAuthenticationFilter;
 import com.slotsync.security.JwtTokenProvider;
+import com.slotsync.security.UserTokenRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -46,8 +48,8 @@ public class SecurityConfig {
     private String allowedOrigins;
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(tokenProvider, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(ObjectProvider<UserTokenRegistry> tokenRegistry) {
+        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, tokenRegistry.getIfAvailable());
     }
 
     @Bean
@@ -75,7 +77,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
@@ -89,7 +91,9 @@ public class SecurityConfig {
                                 "/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/actuator/**"
+                                "/actuator/**",
+                                // Respuestas de error (400, 404...) que se despachan a /error
+                                "/error"
                         ).permitAll()
 
                         // Endpoints públicos de reservas (solo GET y POST)
@@ -111,7 +115,7 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,45 @@
+package com.slotsync.controller;
+
+import com.slotsync.stats.BookingStatsBackfillJob;
+import com.slotsync.stats.EntityCountersReconciliationJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Mantenimiento de los agregados de estadísticas (solo SUPER_ADMIN, ver SecurityConfig)
+ */
+@RestController
+@RequestMapping("/api/admin/stats")
+@RequiredArgsConstructor
+public class AdminStatsController {
+
+    private final BookingStatsBackfillJob backfillJob;
+    private final EntityCountersReconciliationJob reconciliationJob;
+
+    /**
+     * Reconstruir booking_daily_stats de un negocio, o de todos si no se indica
+     */
+    @PostMapping("/bookings/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildBookingStats(@RequestParam(required = false) Long businessId) {
+        if (businessId == null) {
+            backfillJob.rebuildAll();
+            return ResponseEntity.ok(Map.of("rebuilt", "all"));
+        }
+        return ResponseEntity.ok(Map.of("businessId", businessId, "rows", backfillJob.rebuild(businessId)));
+    }
+
+    /**
+     * Recalcular desde las reservas los contadores de clientes y la valoración de profesionales
+     */
+    @PostMapping("/counters/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileCounters() {
+        reconciliationJob.reconcileAll();
+        return ResponseEntity.ok(Map.of("reconciled", "all"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.slotsync.controller;
+
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.exception.InvalidRequestException;
+import com.slotsync.export.BookingExportService;
+import com.slotsync.export.ExportFormat;
+import com.slotsync.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Exportación de reservas de un negocio. La respuesta se escribe en streaming desde la base de datos.
+ */
+@RestController
+@RequestMapping("/api/businesses/{businessId}/bookings/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('SUPER_ADMIN', 'BUSINESS_OWNER', 'BUSINESS_ADMIN')")
+public class BookingExportController {
+
+    private final BookingExportService bookingExportService;
+
+    /**
+     * Ej: GET /api/businesses/1/bookings/export?format=ndjson&from=2024-01-01&to=2024-12-31&status=COMPLETED
+     * Las fechas son inclusivas; sin fechas se exporta todo el histórico.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable Long businessId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BookingStatus status) {
+        if (principal == null || !principal.canAccessBusiness(businessId)) {
+            throw new AccessDeniedException("No tienes acceso a este negocio");
+        }
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        LocalDate firstDay = from != null ? from : LocalDate.of(1970, 1, 1);
+        LocalDate lastDay = to != null ? to : LocalDate.of(9999, 12, 30);
+        if (lastDay.isBefore(firstDay)) {
+            throw new InvalidRequestException("La fecha final no puede ser anterior a la inicial");
+        }
+
+        StreamingResponseBody body = output -> bookingExportService.export(businessId,
+                firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay(), status, exportFormat, output);
+        String filename = "reservas-" + businessId + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,62 @@
+package com.slotsync.controller;
+
+import com.slotsync.bulkimport.BulkImportService;
+import com.slotsync.bulkimport.ImportFormat;
+import com.slotsync.dto.imports.ImportResultResponse;
+import com.slotsync.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/**
+ * Importación masiva de clientes y reservas al dar de alta un negocio.
+ * El cuerpo se procesa en streaming: CSV con cabecera, array JSON o NDJSON.
+ */
+@RestController
+@RequestMapping("/api/businesses/{businessId}/imports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('SUPER_ADMIN', 'BUSINESS_OWNER', 'BUSINESS_ADMIN')")
+public class BulkImportController {
+
+    private final BulkImportService bulkImportService;
+
+    /**
+     * Ej: curl -X POST -H "Content-Type: text/csv" --data-binary @clientes.csv /api/businesses/1/imports/customers
+     */
+    @PostMapping(value = "/customers",
+            consumes = {ImportFormat.TEXT_CSV, MediaType.APPLICATION_JSON_VALUE, ImportFormat.APPLICATION_NDJSON})
+    public ResponseEntity<ImportResultResponse> importCustomers(@PathVariable Long businessId,
+                                                                @AuthenticationPrincipal UserPrincipal principal,
+                                                                @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                InputStream body) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(bulkImportService.importCustomers(body, ImportFormat.fromContentType(contentType)));
+    }
+
+    @PostMapping(value = "/bookings",
+            consumes = {ImportFormat.TEXT_CSV, MediaType.APPLICATION_JSON_VALUE, ImportFormat.APPLICATION_NDJSON})
+    public ResponseEntity<ImportResultResponse> importBookings(@PathVariable Long businessId,
+                                                               @AuthenticationPrincipal UserPrincipal principal,
+                                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                               InputStream body) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(bulkImportService.importBookings(businessId, body, ImportFormat.fromContentType(contentType)));
+    }
+
+    private static void checkAccess(UserPrincipal principal, Long businessId) {
+        if (principal == null || !principal.canAccessBusiness(businessId)) {
+            throw new AccessDeniedException("No tienes acceso a este negocio");
+        }
+    }
+}
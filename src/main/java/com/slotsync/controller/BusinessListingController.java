@@ -0,0 +1,131 @@
+package com.slotsync.controller;
+
+import com.slotsync.dto.common.CursorPageResponse;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.export.BookingRow;
+import com.slotsync.listing.ListingService;
+import com.slotsync.listing.ProfessionalListItem;
+import com.slotsync.listing.ServiceListItem;
+import com.slotsync.listing.UserListItem;
+import com.slotsync.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Listados del panel de negocio con paginación por cursor.
+ * Cada respuesta incluye {@code nextCursor}; para la página siguiente se repite la petición con ?cursor=...
+ */
+@RestController
+@RequestMapping("/api/businesses/{businessId}")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('SUPER_ADMIN', 'BUSINESS_OWNER', 'BUSINESS_ADMIN', 'PROFESSIONAL')")
+public class BusinessListingController {
+
+    private final ListingService listingService;
+
+    /**
+     * Ej: GET /api/businesses/1/bookings?from=2024-01-15T00:00:00&to=2024-01-22T00:00:00&size=100
+     */
+    @GetMapping("/bookings")
+    public ResponseEntity<CursorPageResponse<BookingRow>> getBookings(
+            @PathVariable Long businessId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.businessBookings(businessId, status, from, to, cursor, size));
+    }
+
+    @GetMapping("/bookings/today")
+    public ResponseEntity<List<BookingRow>> getTodayBookings(@PathVariable Long businessId,
+                                                             @AuthenticationPrincipal UserPrincipal principal) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.todayBookings(businessId));
+    }
+
+    @GetMapping("/bookings/recent")
+    public ResponseEntity<CursorPageResponse<BookingRow>> getRecentBookings(
+            @PathVariable Long businessId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.recentBookings(businessId, cursor, size));
+    }
+
+    @GetMapping("/customers/{customerId}/bookings")
+    public ResponseEntity<CursorPageResponse<BookingRow>> getCustomerBookings(
+            @PathVariable Long businessId,
+            @PathVariable Long customerId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.customerBookings(businessId, customerId, cursor, size));
+    }
+
+    @GetMapping("/professionals/{professionalId}/bookings")
+    public ResponseEntity<CursorPageResponse<BookingRow>> getProfessionalBookings(
+            @PathVariable Long businessId,
+            @PathVariable Long professionalId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.professionalBookings(businessId, professionalId, from, to, cursor, size));
+    }
+
+    @GetMapping("/services")
+    public ResponseEntity<CursorPageResponse<ServiceListItem>> getServices(
+            @PathVariable Long businessId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.services(businessId, cursor, size));
+    }
+
+    @GetMapping("/professionals")
+    public ResponseEntity<CursorPageResponse<ProfessionalListItem>> getProfessionals(
+            @PathVariable Long businessId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.professionals(businessId, cursor, size));
+    }
+
+    @GetMapping("/users")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'BUSINESS_OWNER', 'BUSINESS_ADMIN')")
+    public ResponseEntity<CursorPageResponse<UserListItem>> getUsers(
+            @PathVariable Long businessId,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        checkAccess(principal, businessId);
+        return ResponseEntity.ok(listingService.users(businessId, cursor, size));
+    }
+
+    private static void checkAccess(UserPrincipal principal, Long businessId) {
+        if (principal == null || !principal.canAccessBusiness(businessId)) {
+            throw new AccessDeniedException("No tienes acceso a este negocio");
+        }
+    }
+}
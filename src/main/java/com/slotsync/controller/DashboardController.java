@@ -0,0 +1,35 @@
+package com.slotsync.controller;
+
+import com.slotsync.dto.dashboard.DashboardKpiResponse;
+import com.slotsync.security.UserPrincipal;
+import com.slotsync.stats.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Panel de indicadores del negocio
+ */
+@RestController
+@RequestMapping("/api/businesses/{businessId}/dashboard")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('SUPER_ADMIN', 'BUSINESS_OWNER', 'BUSINESS_ADMIN')")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping
+    public ResponseEntity<DashboardKpiResponse> getKpis(@PathVariable Long businessId,
+                                                        @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null || !principal.canAccessBusiness(businessId)) {
+            throw new AccessDeniedException("No tienes acceso a este negocio");
+        }
+        return ResponseEntity.ok(dashboardService.getKpis(businessId));
+    }
+}
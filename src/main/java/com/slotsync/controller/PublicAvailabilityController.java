@@ -0,0 +1,33 @@
+package com.slotsync.controller;
+
+import com.slotsync.availability.SlotSearchService;
+import com.slotsync.dto.availability.SlotSearchRequest;
+import com.slotsync.dto.availability.SlotSearchResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Consulta pública de disponibilidad para el widget y la página de reservas
+ */
+@RestController
+@RequestMapping("/api/bookings/public")
+@RequiredArgsConstructor
+public class PublicAvailabilityController {
+
+    private final SlotSearchService slotSearchService;
+
+    /**
+     * Huecos libres de un servicio entre todos los profesionales del negocio.
+     * Ej: GET /api/bookings/public/mi-peluqueria/slots?serviceId=3&amp;from=2024-01-15&amp;days=14&amp;view=SUMMARY
+     */
+    @GetMapping("/{slug}/slots")
+    public ResponseEntity<SlotSearchResponse> searchSlots(@PathVariable String slug,
+                                                          @Valid SlotSearchRequest request) {
+        return ResponseEntity.ok(slotSearchService.search(slug, request));
+    }
+}
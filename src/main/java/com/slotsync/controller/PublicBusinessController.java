@@ -0,0 +1,81 @@
+package com.slotsync.controller;
+
+import com.slotsync.publicpage.EncodedJson;
+import com.slotsync.publicpage.PublicPageCache;
+import com.slotsync.publicpage.PublicPageSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Página pública del negocio y sus listados de servicios y profesionales, servidos desde {@link PublicPageCache}.
+ * Las respuestas llevan ETag: si el cliente ya tiene la versión actual (If-None-Match) se responde 304 sin cuerpo.
+ */
+@RestController
+public class PublicBusinessController {
+
+    private final PublicPageCache publicPageCache;
+    private final CacheControl cacheControl;
+
+    public PublicBusinessController(PublicPageCache publicPageCache,
+                                    @Value("${app.public-pages.browser-max-age-seconds:0}") long maxAgeSeconds) {
+        this.publicPageCache = publicPageCache;
+        // Con max-age 0 el navegador revalida siempre, lo que con el ETag cuesta un 304
+        this.cacheControl = maxAgeSeconds > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic()
+                : CacheControl.noCache().cachePublic();
+    }
+
+    /**
+     * Datos del negocio, configuración de reservas, servicios activos y profesionales reservables
+     */
+    @GetMapping("/api/businesses/{slug}/public")
+    public ResponseEntity<byte[]> getBusiness(@PathVariable String slug,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                              String acceptEncoding) {
+        return respond(slug, acceptEncoding, PublicPageSnapshot::page);
+    }
+
+    /**
+     * Servicios activos del negocio ordenados por displayOrder
+     */
+    @GetMapping("/api/services/business/{slug}")
+    public ResponseEntity<byte[]> getServices(@PathVariable String slug,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                              String acceptEncoding) {
+        return respond(slug, acceptEncoding, PublicPageSnapshot::services);
+    }
+
+    /**
+     * Profesionales del negocio que aceptan reservas online
+     */
+    @GetMapping("/api/professionals/business/{slug}")
+    public ResponseEntity<byte[]> getProfessionals(@PathVariable String slug,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                   String acceptEncoding) {
+        return respond(slug, acceptEncoding, PublicPageSnapshot::professionals);
+    }
+
+    private ResponseEntity<byte[]> respond(String slug, String acceptEncoding,
+                                           Function<PublicPageSnapshot, EncodedJson> part) {
+        EncodedJson json = part.apply(publicPageCache.get(slug));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        // El 304 lo resuelve Spring MVC comparando el ETag con If-None-Match
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.eTag(json.gzipEtag()).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.gzip());
+        }
+        return response.eTag(json.etag()).body(json.identity());
+    }
+}
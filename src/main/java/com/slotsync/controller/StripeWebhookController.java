@@ -0,0 +1,33 @@
+package com.slotsync.controller;
+
+import com.slotsync.stripe.StripeWebhookIngestor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Webhook de Stripe. Responde en cuanto el evento queda guardado; se aplica después en segundo plano.
+ */
+@RestController
+@RequestMapping("/api/public/stripe")
+@RequiredArgsConstructor
+public class StripeWebhookController {
+
+    private final StripeWebhookIngestor ingestor;
+
+    /**
+     * La firma se calcula sobre el cuerpo exacto, así que se recibe en bruto
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> receive(@RequestBody byte[] body,
+                                        @RequestHeader("Stripe-Signature") String signature) {
+        ingestor.receive(new String(body, StandardCharsets.UTF_8), signature);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.slotsync.datasource;
+
+/**
+ * Marca de la petición en curso para leer del primario aunque la transacción sea de solo lectura: tras escribir,
+ * las réplicas pueden no tener aún el cambio. La activan {@link ReadYourWritesFilter} (cookie de una escritura
+ * reciente) y {@link ReadYourWritesListener} (escritura en esta misma petición).
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+
+    static void activate() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        ACTIVE.remove();
+    }
+}
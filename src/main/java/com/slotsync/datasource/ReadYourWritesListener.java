@@ -0,0 +1,46 @@
+package com.slotsync.datasource;
+
+import com.slotsync.event.BookingChangedEvent;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Tras confirmar un cambio de reserva hecho en una petición web, el resto de la petición y las siguientes del
+ * mismo cliente durante {@code stickiness} leen del primario: quien acaba de reservar ve su reserva aunque
+ * la réplica vaya unos segundos por detrás.
+ */
+public class ReadYourWritesListener {
+
+    private final Duration stickiness;
+
+    public ReadYourWritesListener(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        ReadYourWrites.activate();
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        ResponseCookie cookie = ResponseCookie.from(ReadYourWritesFilter.COOKIE_NAME,
+                        String.valueOf(System.currentTimeMillis() + stickiness.toMillis()))
+                .path("/")
+                .maxAge(stickiness)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        // addHeader: setHeader borraría las demás cookies de la respuesta
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
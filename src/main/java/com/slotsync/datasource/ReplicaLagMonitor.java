@@ -0,0 +1,115 @@
+package com.slotsync.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mide periódicamente el retraso de cada réplica y decide cuáles pueden atender lecturas.
+ * Una réplica que no responde o va más de max-lag por detrás deja de recibir tráfico hasta que se recupera;
+ * mientras tanto sus lecturas van al primario. También es el indicador de salud "replicas" de actuator.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements HealthIndicator {
+
+    /*
+     * Si la réplica ha reproducido todo lo recibido, está al día aunque el último commit sea antiguo
+     * (pg_last_xact_replay_timestamp no avanza si el primario no escribe)
+     */
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "  WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "  ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, long maxLagMs, MeterRegistry meterRegistry) {
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+        this.maxLagMs = maxLagMs;
+        for (Replica replica : this.replicas) {
+            Gauge.builder("slotsync.datasource.replica.lag", replica, r -> r.lagMs)
+                    .tag("replica", replica.name).baseUnit("milliseconds")
+                    .description("Retraso medido de la réplica (-1 si no responde)").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Siguiente réplica sana en turno rotatorio, o null si no hay ninguna
+     */
+    public String nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval-ms:2000}")
+    public void check() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                replica.lagMs = rs.getLong(1);
+                replica.healthy = replica.lagMs <= maxLagMs;
+            } catch (SQLException e) {
+                replica.lagMs = -1;
+                replica.healthy = false;
+                if (wasHealthy) {
+                    log.warn("Réplica {} no disponible: {}", replica.name, e.getMessage());
+                }
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Réplica {} {} (retraso {} ms)", replica.name,
+                        replica.healthy ? "vuelve a atender lecturas" : "retirada de las lecturas", replica.lagMs);
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        boolean anyHealthy = false;
+        for (Replica replica : replicas) {
+            details.put(replica.name, Map.of("healthy", replica.healthy, "lagMs", replica.lagMs));
+            anyHealthy |= replica.healthy;
+        }
+        // Sin réplicas sanas la aplicación sigue funcionando contra el primario
+        details.put("readsRoutedTo", anyHealthy ? "replicas" : "primary");
+        return Health.up().withDetails(details).build();
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagMs = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
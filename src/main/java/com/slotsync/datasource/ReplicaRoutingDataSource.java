@@ -0,0 +1,58 @@
+package com.slotsync.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envía las transacciones de solo lectura a una réplica sana (rotando entre ellas) y todo lo demás al primario.
+ * Vuelve al primario si ninguna réplica está al día o si la petición tiene activo {@link ReadYourWrites}.
+ * Lo que rellena una caché tras invalidarla (principales, ocupación, páginas públicas) no usa readOnly: una réplica
+ * atrasada dejaría guardado el dato anterior.
+ * Debe ir detrás de un LazyConnectionDataSourceProxy: así la conexión se pide en la primera sentencia, cuando
+ * la transacción ya está marcada como readOnly.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final String METRIC_NAME = "slotsync.datasource.routed";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primary;
+    private final Counter replica;
+    private final Counter fallback;
+    private final Counter sticky;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primary = Counter.builder(METRIC_NAME).tag("target", "primary").tag("reason", "write")
+                .register(meterRegistry);
+        this.replica = Counter.builder(METRIC_NAME).tag("target", "replica").tag("reason", "read")
+                .register(meterRegistry);
+        this.fallback = Counter.builder(METRIC_NAME).tag("target", "primary").tag("reason", "replica-unavailable")
+                .register(meterRegistry);
+        this.sticky = Counter.builder(METRIC_NAME).tag("target", "primary").tag("reason", "read-your-writes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primary.increment();
+            return PRIMARY;
+        }
+        if (ReadYourWrites.isActive()) {
+            sticky.increment();
+            return PRIMARY;
+        }
+        String key = lagMonitor.nextHealthy();
+        if (key == null) {
+            fallback.increment();
+            return PRIMARY;
+        }
+        replica.increment();
+        return key;
+    }
+}
@@ -0,0 +1,294 @@
+package com.slotsync.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.metamodel.mapping.EntityValuedModelPart;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Invalidación entre nodos de la caché de segundo nivel de Hibernate por Redis pub/sub.
+ * Tras cada commit que toca una entidad cacheada (negocio, servicio, profesional, ubicación) se publica su clave y
+ * los demás nodos la descartan; lo mismo con las colecciones cacheadas que cambian desde su lado propietario.
+ * Las colecciones inversas (los profesionales de un negocio, por ejemplo) no se enteran del alta o baja de un
+ * elemento, así que un cambio en la entidad del elemento descarta la región entera, también en este nodo.
+ * Lo que se escribe por JDBC no pasa por Hibernate: quien lo escribe lo descarta con {@link #evictEntities}.
+ * Los errores de Redis no afectan a la transacción: se registran y se queda la caducidad de cada región.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jpa.second-level-cache.redis.enabled", havingValue = "true")
+public class SecondLevelCacheBroadcast implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheBroadcast.class);
+
+    private static final String METRIC_NAME = "slotsync.jpa.second-level-cache.invalidations";
+    private static final String ENTITY = "E";
+    private static final String COLLECTION = "C";
+    private static final String REGION = "R";
+    private static final String ENTITY_REGION = "ER";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final SessionFactoryImplementor sessionFactory;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    // Roles de colección cacheados por entidad de sus elementos
+    private final Map<String, List<String>> rolesByElement = new HashMap<>();
+    private final Counter sent;
+    private final Counter received;
+    private final boolean enabled;
+    private boolean subscribedBefore;
+
+    public SecondLevelCacheBroadcast(EntityManagerFactory entityManagerFactory,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     RedisConnectionFactory connectionFactory,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.jpa.second-level-cache.redis.channel:slotsync:l2:invalidate}") String channel) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redisTemplate = redisTemplate;
+        // Contenedor propio (no es un bean) para que un Redis caído no impida el arranque
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.topic = new ChannelTopic(channel);
+        this.sent = Counter.builder(METRIC_NAME).tag("direction", "sent")
+                .description("Claves de la caché de segundo nivel invalidadas entre nodos").register(meterRegistry);
+        this.received = Counter.builder(METRIC_NAME).tag("direction", "received")
+                .description("Claves de la caché de segundo nivel invalidadas entre nodos").register(meterRegistry);
+
+        if (!sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            logger.warn("app.jpa.second-level-cache.redis.enabled sin caché de segundo nivel: no hay nada que invalidar");
+            this.enabled = false;
+            return;
+        }
+        this.enabled = true;
+        sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(collection -> {
+            if (collection.hasCache()
+                    && collection.getAttributeMapping().getElementDescriptor() instanceof EntityValuedModelPart element) {
+                rolesByElement.computeIfAbsent(element.getEntityMappingType().getEntityName(),
+                        name -> new ArrayList<>()).add(collection.getRole());
+            }
+        });
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+        listenerContainer.addMessageListener((message, pattern) ->
+                apply(new String(message.getBody(), StandardCharsets.UTF_8)), topic);
+    }
+
+    /**
+     * Arrancar (o reintentar) la suscripción. Lo publicado mientras no había suscripción se ha perdido, así que al
+     * volver a suscribirse se vacía la caché entera.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.jpa.second-level-cache.redis.resubscribe-interval-ms:60000}")
+    public synchronized void ensureSubscribed() {
+        if (!enabled || listenerContainer.isRunning()) {
+            return;
+        }
+        try {
+            listenerContainer.start();
+            if (subscribedBefore) {
+                sessionFactory.getCache().evictAllRegions();
+            }
+            subscribedBefore = true;
+            logger.info("Suscrito a las invalidaciones de la caché de segundo nivel en {}", topic.getTopic());
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo suscribir a las invalidaciones de la caché de segundo nivel: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache() || rolesByElement.containsKey(persister.getEntityName());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        entityChanged(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityChanged(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Sin commit no hay nada que invalidar
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Sin commit no hay nada que invalidar
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Sin commit no hay nada que invalidar
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        collectionChanged(event);
+    }
+
+    /**
+     * Descartar, aquí y en los demás nodos, entidades actualizadas por SQL directo
+     */
+    public void evictEntities(Class<?> entityClass, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        for (Object id : ids) {
+            sessionFactory.getCache().evictEntityData(entityClass, id);
+            keys.add(ENTITY + "|" + entityClass.getName() + "|" + id);
+        }
+        if (enabled) {
+            publish(keys);
+        }
+    }
+
+    /**
+     * Descartar, aquí y en los demás nodos, todas las entidades de una clase
+     */
+    public void evictEntities(Class<?> entityClass) {
+        sessionFactory.getCache().evictEntityData(entityClass);
+        if (enabled) {
+            publish(List.of(ENTITY_REGION + "|" + entityClass.getName()));
+        }
+    }
+
+    private void entityChanged(EntityPersister persister, Object id) {
+        List<String> keys = new ArrayList<>();
+        if (persister.canWriteToCache()) {
+            keys.add(ENTITY + "|" + persister.getEntityName() + "|" + id);
+        }
+        for (String role : rolesByElement.getOrDefault(persister.getEntityName(), List.of())) {
+            // Hibernate no descarta las colecciones inversas ni siquiera en este nodo
+            sessionFactory.getCache().evictCollectionData(role);
+            keys.add(REGION + "|" + role);
+        }
+        publish(keys);
+    }
+
+    /**
+     * Los eventos de colección llegan durante el flush: se publican solo si la transacción se confirma
+     */
+    private void collectionChanged(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        Object ownerId = event.getAffectedOwnerIdOrNull();
+        if (role == null || ownerId == null
+                || !sessionFactory.getMappingMetamodel().getCollectionDescriptor(role).hasCache()) {
+            return;
+        }
+        event.getSession().getActionQueue().registerProcess((success, session) -> {
+            if (success) {
+                publish(List.of(COLLECTION + "|" + role + "|" + ownerId));
+            }
+        });
+    }
+
+    private void publish(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[] channel = topic.getTopic().getBytes(StandardCharsets.UTF_8);
+        byte[] message = (nodeId + "\n" + String.join("\n", keys)).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+            sent.increment(keys.size());
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo publicar la invalidación de la caché de segundo nivel: {}", ex.getMessage());
+        }
+    }
+
+    private void apply(String message) {
+        String[] lines = message.split("\n");
+        if (lines.length < 2 || nodeId.equals(lines[0])) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        for (int i = 1; i < lines.length; i++) {
+            String[] key = lines[i].split("\\|");
+            try {
+                switch (key[0]) {
+                    case ENTITY -> cache.evictEntityData(key[1], Long.valueOf(key[2]));
+                    case COLLECTION -> cache.evictCollectionData(key[1], Long.valueOf(key[2]));
+                    case REGION -> cache.evictCollectionData(key[1]);
+                    case ENTITY_REGION -> cache.evictEntityData(key[1]);
+                    default -> logger.warn("Invalidación de la caché de segundo nivel no válida: {}", lines[i]);
+                }
+                received.increment();
+            } catch (RuntimeException ex) {
+                logger.warn("Invalidación de la caché de segundo nivel no válida: {}", lines[i]);
+            }
+        }
+        // Las consultas cacheadas de otro nodo no ven las marcas de tiempo de este: se descartan todas
+        cache.evictDefaultQueryRegion();
+    }
+}
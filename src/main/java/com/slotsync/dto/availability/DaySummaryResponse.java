@@ -0,0 +1,20 @@
+package com.slotsync.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DaySummaryResponse {
+    private LocalDate date;
+    private Integer availableSlots;
+    private Integer availableProfessionals;
+    private LocalDateTime firstSlot;
+}
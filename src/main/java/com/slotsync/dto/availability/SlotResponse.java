@@ -0,0 +1,18 @@
+package com.slotsync.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotResponse {
+    private Long professionalId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
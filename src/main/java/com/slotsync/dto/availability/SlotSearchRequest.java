@@ -0,0 +1,29 @@
+package com.slotsync.dto.availability;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class SlotSearchRequest {
+    @NotNull(message = "El servicio es obligatorio")
+    private Long serviceId;
+
+    private LocalDate from;
+
+    @Min(value = 1, message = "El rango debe ser de al menos un día")
+    @Max(value = 366, message = "El rango no puede superar un año")
+    private Integer days = 14;
+
+    private List<Long> professionalIds;
+
+    @Min(value = 1, message = "El límite debe ser positivo")
+    @Max(value = 500, message = "El límite no puede superar 500")
+    private Integer limit = 20;
+
+    private SlotSearchView view = SlotSearchView.EARLIEST;
+}
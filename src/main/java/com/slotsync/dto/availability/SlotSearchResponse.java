@@ -0,0 +1,23 @@
+package com.slotsync.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotSearchResponse {
+    private String businessSlug;
+    private Long serviceId;
+    private Integer serviceDuration;
+    private LocalDate from;
+    private LocalDate to;
+    private List<SlotResponse> slots;
+    private List<DaySummaryResponse> days;
+}
@@ -0,0 +1,9 @@
+package com.slotsync.dto.availability;
+
+/**
+ * Formato de respuesta de la búsqueda de huecos
+ */
+public enum SlotSearchView {
+    EARLIEST,   // Primeros N huecos
+    SUMMARY     // Resumen por día
+}
@@ -0,0 +1,19 @@
+package com.slotsync.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private String nextCursor; // Token para pedir la página siguiente; null si no hay más
+    private Boolean hasMore;
+    private Integer size;
+}
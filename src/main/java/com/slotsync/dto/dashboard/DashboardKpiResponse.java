@@ -0,0 +1,24 @@
+package com.slotsync.dto.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardKpiResponse {
+    private Long todayBookings; // Reservas de hoy no canceladas ni ausencias
+    private Long upcomingConfirmed;
+    private Long monthCompleted;
+    private Long monthCancelled;
+    private Long monthNoShows;
+    private BigDecimal monthRevenue; // Importe total de las reservas completadas del mes
+    private BigDecimal monthDiscounts;
+    private BigDecimal monthDeposits;
+    private BigDecimal previousMonthRevenue;
+}
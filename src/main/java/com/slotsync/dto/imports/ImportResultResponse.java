@@ -0,0 +1,21 @@
+package com.slotsync.dto.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultResponse {
+    private Integer received;
+    private Integer imported;
+    private Integer rejected; // Filas no válidas o duplicadas
+    private Integer failed; // Filas de bloques que fallaron al escribir
+    private List<String> errors; // Primeros errores, con el número de fila
+    private Long elapsedMs;
+}
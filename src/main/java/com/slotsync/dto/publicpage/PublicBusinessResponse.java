@@ -0,0 +1,44 @@
+package com.slotsync.dto.publicpage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página pública del negocio: datos, configuración de reservas, servicios activos y profesionales reservables
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicBusinessResponse {
+    private Long id;
+    private String name;
+    private String slug;
+    private String description;
+    private String industry;
+    private String logoUrl;
+    private String coverImageUrl;
+    private String phoneNumber;
+    private String email;
+    private String website;
+    private String timezone;
+    private String currency;
+    private String locale;
+    private String primaryColor;
+    private Integer maxAdvanceBookingDays;
+    private Integer minAdvanceBookingHours;
+    private Integer defaultSlotDuration;
+    private Integer cancellationHours;
+    private Boolean allowCustomerCancellation;
+    private Boolean requirePaymentUpfront;
+    private Integer depositPercentage;
+    private Boolean publicBookingEnabled;
+    private Boolean widgetEnabled;
+    private String publicBookingUrl;
+    private List<PublicServiceResponse> services;
+    private List<PublicProfessionalResponse> professionals;
+}
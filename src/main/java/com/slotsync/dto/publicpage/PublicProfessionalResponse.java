@@ -0,0 +1,24 @@
+package com.slotsync.dto.publicpage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicProfessionalResponse {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String title;
+    private String bio;
+    private String specialties;
+    private Integer yearsOfExperience;
+    private String profileImageUrl;
+    private Boolean isFeatured;
+    private Double ratingAverage;
+    private Integer totalReviews;
+}
@@ -0,0 +1,27 @@
+package com.slotsync.dto.publicpage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicServiceResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private String category;
+    private BigDecimal price;
+    private Integer duration;
+    private Integer totalDuration;
+    private String imageUrl;
+    private String colorHex;
+    private Boolean isFeatured;
+    private Boolean requiresDeposit;
+    private BigDecimal depositAmount;
+}
@@ -20,8 +20,10 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity implements Serializable {
 
+    // Secuencia compartida con bloques de 50 IDs: permite agrupar los inserts en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "slotsync_id")
+    @SequenceGenerator(name = "slotsync_id", sequenceName = "slotsync_id_seq", allocationSize = 50)
     private Long id;
 
     @CreatedDate
@@ -1,6 +1,8 @@
 package com.slotsync.entity;
 
 import com.slotsync.enums.BookingStatus;
+import com.slotsync.event.BookingEntityListener;
+import com.slotsync.event.BookingSnapshot;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -13,14 +15,28 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "bookings", indexes = {
-    @Index(name = "idx_booking_business", columnList = "business_id"),
-    @Index(name = "idx_booking_customer", columnList = "customer_id"),
-    @Index(name = "idx_booking_professional", columnList = "professional_id"),
+    @Index(name = "idx_booking_business_start", columnList = "business_id, start_time, id"),
+    @Index(name = "idx_booking_business_created", columnList = "business_id, created_at, id"),
+    @Index(name = "idx_booking_customer_start", columnList = "customer_id, start_time, id"),
+    @Index(name = "idx_booking_professional_start", columnList = "professional_id, start_time, id"),
     @Index(name = "idx_booking_service", columnList = "service_id"),
     @Index(name = "idx_booking_date", columnList = "start_time"),
     @Index(name = "idx_booking_status", columnList = "status"),
     @Index(name = "idx_booking_code", columnList = "booking_code")
 })
+@EntityListeners(BookingEntityListener.class)
+// payment es el lado inverso de un @OneToOne: sin cargarlo en la misma consulta, Hibernate lanza una por reserva
+@NamedEntityGraph(name = Booking.GRAPH_WITH_PAYMENT, attributeNodes = @NamedAttributeNode("payment"))
+@NamedEntityGraph(name = Booking.GRAPH_DETAIL,
+    attributeNodes = {
+        @NamedAttributeNode("business"),
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "professional", subgraph = "professional"),
+        @NamedAttributeNode("service"),
+        @NamedAttributeNode("location"),
+        @NamedAttributeNode("payment")
+    },
+    subgraphs = @NamedSubgraph(name = "professional", attributeNodes = @NamedAttributeNode("user")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,6 +44,12 @@ import java.time.LocalDateTime;
 @Builder
 public class Booking extends BaseEntity {
 
+    /** Reserva con su pago */
+    public static final String GRAPH_WITH_PAYMENT = "Booking.withPayment";
+
+    /** Reserva con todas sus asociaciones, para mostrarla completa */
+    public static final String GRAPH_DETAIL = "Booking.detail";
+
     @Column(name = "booking_code", unique = true, nullable = false, length = 20)
     private String bookingCode; // Código único de reserva (ej: BK20240115001)
 
@@ -121,6 +143,14 @@ public class Booking extends BaseEntity {
     @OneToOne(mappedBy = "booking", cascade = CascadeType.ALL, orphanRemoval = true)
     private Payment payment;
 
+    // Último estado leído o escrito en base de datos (lo mantiene BookingEntityListener)
+    @Transient
+    private transient BookingSnapshot persistedState;
+
+    // Escrita por la importación masiva: no genera avisos al cliente
+    @Transient
+    private transient boolean imported;
+
     /**
      * Obtener duración en minutos
      */
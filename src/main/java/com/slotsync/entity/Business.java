@@ -1,10 +1,13 @@
 package com.slotsync.entity;
 
 import com.slotsync.enums.SubscriptionPlan;
+import com.slotsync.event.BusinessCatalogEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +20,9 @@ import java.util.List;
     @Index(name = "idx_business_slug", columnList = "slug"),
     @Index(name = "idx_business_owner", columnList = "owner_id")
 })
+@EntityListeners(BusinessCatalogEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -132,14 +138,17 @@ public class Business extends BaseEntity {
 
     // Relaciones one-to-many
     @OneToMany(mappedBy = "business", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business-locations")
     @Builder.Default
     private List<Location> locations = new ArrayList<>();
 
     @OneToMany(mappedBy = "business", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business-services")
     @Builder.Default
     private List<Service> services = new ArrayList<>();
 
     @OneToMany(mappedBy = "business", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business-professionals")
     @Builder.Default
     private List<Professional> professionals = new ArrayList<>();
 
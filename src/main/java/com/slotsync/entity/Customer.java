@@ -46,16 +46,17 @@ public class Customer extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String preferences; // Preferencias del cliente (JSON)
 
-    @Column(name = "total_bookings")
+    // Contadores: los mantiene EntityCounters con incrementos en SQL; la entidad no los reescribe
+    @Column(name = "total_bookings", updatable = false)
     private Integer totalBookings = 0;
 
-    @Column(name = "total_no_shows")
+    @Column(name = "total_no_shows", updatable = false)
     private Integer totalNoShows = 0;
 
-    @Column(name = "total_cancellations")
+    @Column(name = "total_cancellations", updatable = false)
     private Integer totalCancellations = 0;
 
-    @Column(name = "loyalty_points")
+    @Column(name = "loyalty_points", updatable = false)
     private Integer loyaltyPoints = 0;
 
     @Column(name = "is_vip")
@@ -87,27 +88,6 @@ public class Customer extends BaseEntity {
         return firstName != null ? firstName : email;
     }
 
-    /**
-     * Incrementar contador de reservas
-     */
-    public void incrementBookings() {
-        this.totalBookings = (this.totalBookings != null ? this.totalBookings : 0) + 1;
-    }
-
-    /**
-     * Incrementar no-shows
-     */
-    public void incrementNoShows() {
-        this.totalNoShows = (this.totalNoShows != null ? this.totalNoShows : 0) + 1;
-    }
-
-    /**
-     * Incrementar cancelaciones
-     */
-    public void incrementCancellations() {
-        this.totalCancellations = (this.totalCancellations != null ? this.totalCancellations : 0) + 1;
-    }
-
     /**
      * Calcular tasa de no-shows
      */
@@ -116,11 +96,4 @@ public class Customer extends BaseEntity {
         if (totalBookings == null || totalBookings == 0) return 0.0;
         return (totalNoShows != null ? totalNoShows.doubleValue() : 0.0) / totalBookings * 100;
     }
-
-    /**
-     * Añadir puntos de lealtad
-     */
-    public void addLoyaltyPoints(Integer points) {
-        this.loyaltyPoints = (this.loyaltyPoints != null ? this.loyaltyPoints : 0) + points;
-    }
 }
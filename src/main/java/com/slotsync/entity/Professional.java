@@ -1,7 +1,10 @@
 package com.slotsync.entity;
 
+import com.slotsync.event.BusinessCatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,9 +14,12 @@ import java.util.List;
  */
 @Entity
 @Table(name = "professionals", indexes = {
-    @Index(name = "idx_professional_business", columnList = "business_id"),
+    @Index(name = "idx_professional_business_created", columnList = "business_id, created_at, id"),
     @Index(name = "idx_professional_user", columnList = "user_id")
 })
+@EntityListeners(BusinessCatalogEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "professional")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -45,10 +51,11 @@ public class Professional extends BaseEntity {
     @Column(name = "accepts_online_bookings")
     private Boolean acceptsOnlineBookings = true;
 
-    @Column(name = "rating_average")
+    // Valoración: la mantiene EntityCounters con incrementos en SQL; la entidad no la reescribe
+    @Column(name = "rating_average", updatable = false)
     private Double ratingAverage = 0.0;
 
-    @Column(name = "total_reviews")
+    @Column(name = "total_reviews", updatable = false)
     private Integer totalReviews = 0;
 
     // Horario de trabajo (JSON string)
@@ -73,6 +80,7 @@ public class Professional extends BaseEntity {
         joinColumns = @JoinColumn(name = "professional_id"),
         inverseJoinColumns = @JoinColumn(name = "service_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "professional-services")
     @Builder.Default
     private List<Service> services = new ArrayList<>();
 
@@ -84,20 +92,6 @@ public class Professional extends BaseEntity {
     @Builder.Default
     private List<ProfessionalAvailability> availabilities = new ArrayList<>();
 
-    /**
-     * Actualizar rating promedio
-     */
-    public void updateRating(Double newRating) {
-        if (totalReviews == 0) {
-            this.ratingAverage = newRating;
-            this.totalReviews = 1;
-        } else {
-            double totalScore = ratingAverage * totalReviews;
-            totalReviews++;
-            this.ratingAverage = (totalScore + newRating) / totalReviews;
-        }
-    }
-
     /**
      * Obtener nombre completo del profesional
      */
@@ -1,11 +1,14 @@
 package com.slotsync.entity;
 
+import com.slotsync.event.BusinessCatalogEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -16,9 +19,12 @@ import java.util.List;
  */
 @Entity
 @Table(name = "services", indexes = {
-    @Index(name = "idx_service_business", columnList = "business_id"),
+    @Index(name = "idx_service_business_created", columnList = "business_id, created_at, id"),
     @Index(name = "idx_service_category", columnList = "category")
 })
+@EntityListeners(BusinessCatalogEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "service")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -80,6 +86,7 @@ public class Service extends BaseEntity {
     private Business business;
 
     @ManyToMany(mappedBy = "services")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "service-professionals")
     @Builder.Default
     private List<Professional> professionals = new ArrayList<>();
 
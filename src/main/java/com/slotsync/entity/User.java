@@ -1,6 +1,8 @@
 package com.slotsync.entity;
 
 import com.slotsync.enums.Role;
+import com.slotsync.event.UserEntityListener;
+import com.slotsync.event.UserSnapshot;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -15,8 +17,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "users", indexes = {
     @Index(name = "idx_user_email", columnList = "email"),
-    @Index(name = "idx_user_business", columnList = "business_id")
+    @Index(name = "idx_user_business_created", columnList = "business_id, created_at, id")
 })
+@EntityListeners(UserEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -76,6 +79,11 @@ public class User extends BaseEntity {
     @Column(name = "email_verification_expires_at")
     private LocalDateTime emailVerificationExpiresAt;
 
+    // Se incrementa para invalidar los tokens JWT emitidos hasta ahora
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     // Relación con Business (puede ser null para SUPER_ADMIN)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "business_id")
@@ -89,6 +97,10 @@ public class User extends BaseEntity {
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Customer customer;
 
+    // Último estado leído o escrito en base de datos (lo mantiene UserEntityListener)
+    @Transient
+    private transient UserSnapshot persistedState;
+
     /**
      * Obtener el nombre completo del usuario
      */
@@ -119,4 +131,11 @@ public class User extends BaseEntity {
     public void updateLastLogin() {
         this.lastLoginAt = LocalDateTime.now();
     }
+
+    /**
+     * Invalidar los tokens emitidos. UserEntityListener lo hace solo al guardar un cambio de rol, negocio o contraseña
+     */
+    public void revokeTokens() {
+        this.tokenVersion = (this.tokenVersion != null ? this.tokenVersion : 0) + 1;
+    }
 }
@@ -0,0 +1,26 @@
+package com.slotsync.event;
+
+/**
+ * Evento publicado al insertar, modificar o eliminar una reserva.
+ * {@code previous} es null en inserciones y {@code current} es null en borrados; {@code imported} indica que la
+ * escribió la importación masiva.
+ */
+public record BookingChangedEvent(Long bookingId, BookingSnapshot previous, BookingSnapshot current,
+                                  boolean imported) {
+
+    public BookingChangedEvent(Long bookingId, BookingSnapshot previous, BookingSnapshot current) {
+        this(bookingId, previous, current, false);
+    }
+
+    public boolean isCreated() {
+        return previous == null && current != null;
+    }
+
+    public boolean isDeleted() {
+        return current == null;
+    }
+
+    public boolean isStatusChanged() {
+        return previous != null && current != null && previous.status() != current.status();
+    }
+}
@@ -0,0 +1,48 @@
+package com.slotsync.event;
+
+import com.slotsync.entity.Booking;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Listener JPA que traduce el ciclo de vida de {@link Booking} en {@link BookingChangedEvent}.
+ * El evento se publica de forma síncrona durante el flush; los consumidores que solo deban
+ * reaccionar a cambios confirmados usan {@code @TransactionalEventListener}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void onLoad(Booking booking) {
+        booking.setPersistedState(BookingSnapshot.of(booking));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Booking booking) {
+        BookingSnapshot previous = booking.getPersistedState();
+        BookingSnapshot current = BookingSnapshot.of(booking);
+        booking.setPersistedState(current);
+        if (!Objects.equals(previous, current)) {
+            eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), previous, current,
+                    booking.isImported()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Booking booking) {
+        BookingSnapshot previous = booking.getPersistedState();
+        booking.setPersistedState(null);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), previous, null, booking.isImported()));
+    }
+}
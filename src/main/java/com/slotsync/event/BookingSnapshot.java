@@ -0,0 +1,48 @@
+package com.slotsync.event;
+
+import com.slotsync.entity.Booking;
+import com.slotsync.enums.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Estado persistido de una reserva en un momento dado
+ */
+public record BookingSnapshot(
+        Long businessId,
+        Long customerId,
+        Long professionalId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        BookingStatus status,
+        BigDecimal totalAmount,
+        BigDecimal discountAmount,
+        BigDecimal depositAmount,
+        Integer rating,
+        boolean deleted
+) {
+
+    public static BookingSnapshot of(Booking booking) {
+        return new BookingSnapshot(
+                booking.getBusiness() != null ? booking.getBusiness().getId() : null,
+                booking.getCustomer() != null ? booking.getCustomer().getId() : null,
+                booking.getProfessional() != null ? booking.getProfessional().getId() : null,
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getStatus(),
+                booking.getTotalAmount(),
+                booking.getDiscountAmount(),
+                booking.getDepositAmount(),
+                booking.getRating(),
+                booking.isDeleted()
+        );
+    }
+
+    /**
+     * Verificar si la reserva ocupa la agenda del profesional
+     */
+    public boolean occupiesSchedule() {
+        return status != BookingStatus.CANCELLED && status != BookingStatus.NO_SHOW;
+    }
+}
@@ -0,0 +1,7 @@
+package com.slotsync.event;
+
+/**
+ * Evento publicado al crear, modificar o eliminar un negocio, uno de sus servicios o uno de sus profesionales.
+ */
+public record BusinessCatalogChangedEvent(Long businessId) {
+}
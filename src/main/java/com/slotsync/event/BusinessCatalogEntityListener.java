@@ -0,0 +1,38 @@
+package com.slotsync.event;
+
+import com.slotsync.entity.Business;
+import com.slotsync.entity.Professional;
+import com.slotsync.entity.Service;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA que publica un {@link BusinessCatalogChangedEvent} por cada cambio en {@link Business},
+ * {@link Service} o {@link Professional}: todo lo que aparece en la página pública del negocio.
+ */
+@Component
+@RequiredArgsConstructor
+public class BusinessCatalogEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long businessId = switch (entity) {
+            case Business business -> business.getId();
+            case Service service -> service.getBusiness() != null ? service.getBusiness().getId() : null;
+            case Professional professional ->
+                    professional.getBusiness() != null ? professional.getBusiness().getId() : null;
+            default -> null;
+        };
+        if (businessId != null) {
+            eventPublisher.publishEvent(new BusinessCatalogChangedEvent(businessId));
+        }
+    }
+}
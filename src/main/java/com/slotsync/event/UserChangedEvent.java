@@ -0,0 +1,8 @@
+package com.slotsync.event;
+
+/**
+ * Evento publicado al modificar o eliminar un usuario (datos, rol, desactivación o revocación de tokens).
+ * {@code principalChanged} es false cuando solo cambian datos que no forman parte del principal (p. ej. el nombre).
+ */
+public record UserChangedEvent(Long userId, boolean principalChanged) {
+}
@@ -0,0 +1,61 @@
+package com.slotsync.event;
+
+import com.slotsync.entity.User;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Listener JPA que publica un {@link UserChangedEvent} cuando cambia algún campo de {@link UserSnapshot} o se
+ * elimina un usuario. Incluye los soft delete ({@code BaseEntity.softDelete()}) y los cambios de rol; no las
+ * actualizaciones que no tocan esos campos, como {@code updateLastLogin()} en cada login.
+ * Antes de guardar un cambio de rol, negocio o contraseña sube {@code tokenVersion}: los tokens emitidos llevan el
+ * rol y el negocio en los claims y, sin estado, se aceptarían hasta caducar.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    @PostPersist
+    public void onLoad(User user) {
+        user.setPersistedState(UserSnapshot.of(user));
+    }
+
+    @PreUpdate
+    public void revokeTokensIfNeeded(User user) {
+        UserSnapshot previous = user.getPersistedState();
+        // Sin estado previo no se sabe qué cambió; si ya se revocaron a mano no se vuelve a subir
+        if (previous != null && Objects.equals(previous.tokenVersion(), user.getTokenVersion())
+                && !previous.sameTokenClaims(UserSnapshot.of(user))) {
+            user.revokeTokens();
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        UserSnapshot previous = user.getPersistedState();
+        UserSnapshot current = UserSnapshot.of(user);
+        user.setPersistedState(current);
+        // Sin estado previo (entidad fusionada sin cargar) no se sabe qué cambió: se invalida todo
+        if (previous == null || !previous.equals(current)) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(),
+                    previous == null || !previous.samePrincipal(current)));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        user.setPersistedState(null);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), true));
+    }
+}
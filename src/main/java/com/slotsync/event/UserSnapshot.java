@@ -0,0 +1,61 @@
+package com.slotsync.event;
+
+import com.slotsync.entity.User;
+import com.slotsync.enums.Role;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Campos de un usuario que leen las cachés: los del principal y el nombre que muestra la página pública.
+ * Fechas de último login, tokens de verificación y demás no están: cambiarlos no invalida nada.
+ */
+public record UserSnapshot(
+        String email,
+        String password,
+        Role role,
+        Long businessId,
+        Integer tokenVersion,
+        Boolean active,
+        LocalDateTime deletedAt,
+        String firstName,
+        String lastName
+) {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(
+                user.getEmail(),
+                user.getPassword(),
+                user.getRole(),
+                user.getBusiness() != null ? user.getBusiness().getId() : null,
+                user.getTokenVersion(),
+                user.getIsActive(),
+                user.getDeletedAt(),
+                user.getFirstName(),
+                user.getLastName()
+        );
+    }
+
+    /**
+     * Si el principal construido desde {@code other} sería el mismo (UserPrincipal.create más el estado de cuenta)
+     */
+    public boolean samePrincipal(UserSnapshot other) {
+        return Objects.equals(email, other.email)
+                && Objects.equals(password, other.password)
+                && role == other.role
+                && Objects.equals(businessId, other.businessId)
+                && Objects.equals(tokenVersion, other.tokenVersion)
+                && Objects.equals(active, other.active)
+                && Objects.equals(deletedAt, other.deletedAt);
+    }
+
+    /**
+     * Si los tokens emitidos antes siguen siendo válidos tras pasar a {@code other}: mismo rol y negocio (van en los
+     * claims del token) y misma contraseña
+     */
+    public boolean sameTokenClaims(UserSnapshot other) {
+        return role == other.role
+                && Objects.equals(businessId, other.businessId)
+                && Objects.equals(password, other.password);
+    }
+}
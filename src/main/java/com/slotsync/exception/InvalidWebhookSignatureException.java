@@ -0,0 +1,15 @@
+package com.slotsync.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * La firma de un webhook entrante no es válida o ha caducado
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidWebhookSignatureException extends RuntimeException {
+
+    public InvalidWebhookSignatureException(String message) {
+        super(message);
+    }
+}
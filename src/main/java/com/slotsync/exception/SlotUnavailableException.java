@@ -0,0 +1,19 @@
+package com.slotsync.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * El hueco solicitado ya está ocupado para ese profesional
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SlotUnavailableException extends RuntimeException {
+
+    public SlotUnavailableException(String message) {
+        super(message);
+    }
+
+    public SlotUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
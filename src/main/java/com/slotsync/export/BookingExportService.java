@@ -0,0 +1,94 @@
+package com.slotsync.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de reservas en CSV o NDJSON.
+ * Las filas se leen con un cursor del servidor (fetch size acotado) como proyecciones planas y se
+ * escriben una a una en la salida, de modo que la memoria no depende del número de reservas.
+ */
+@Service
+public class BookingExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExportService.class);
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter csvWriter;
+    private final ObjectWriter ndjsonWriter;
+
+    public BookingExportService(BookingRepository bookingRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        CsvMapper csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+        this.csvWriter = csvMapper.writer(csvMapper.schemaFor(BookingRow.class).withHeader());
+        this.ndjsonWriter = objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writerFor(BookingRow.class)
+                .withRootValueSeparator("\n");
+    }
+
+    /**
+     * Escribir las reservas del negocio con inicio en [from, to) en la salida. Devuelve el número de filas.
+     */
+    public long export(Long businessId, LocalDateTime from, LocalDateTime to, BookingStatus status,
+                       ExportFormat format, OutputStream output) {
+        long started = System.nanoTime();
+        Long rows = readOnlyTransaction.execute(tx -> {
+            try (Stream<BookingRow> stream = bookingRepository.streamBookingRows(businessId, from, to, status)) {
+                return write(stream.iterator(), format, output);
+            }
+        });
+        logger.info("Exportación de reservas del negocio {} ({}): {} filas en {} ms",
+                businessId, format, rows, (System.nanoTime() - started) / 1_000_000);
+        return rows == null ? 0 : rows;
+    }
+
+    private long write(Iterator<BookingRow> rows, ExportFormat format, OutputStream output) {
+        ObjectWriter writer = format == ExportFormat.CSV ? csvWriter : ndjsonWriter;
+        long count = 0;
+        try (SequenceWriter sequence = writer.writeValues(output)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+                count++;
+            }
+            if (format == ExportFormat.NDJSON && count > 0) {
+                sequence.flush();
+                output.write('\n');
+            }
+        } catch (IOException e) {
+            // Normalmente el cliente ha cortado la descarga: se aborta y se libera el cursor
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,38 @@
+package com.slotsync.export;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.slotsync.enums.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana de reserva para exportación: se construye directamente en la consulta
+ * (sin hidratar entidades ni cargar asociaciones perezosas)
+ */
+@JsonPropertyOrder({"id", "bookingCode", "status", "startTime", "endTime",
+        "customerId", "customerFirstName", "customerLastName", "customerEmail", "customerPhone",
+        "professionalId", "professionalFirstName", "professionalLastName", "serviceId", "serviceName",
+        "price", "discountAmount", "totalAmount", "createdAt"})
+public record BookingRow(
+        Long id,
+        String bookingCode,
+        BookingStatus status,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Long customerId,
+        String customerFirstName,
+        String customerLastName,
+        String customerEmail,
+        String customerPhone,
+        Long professionalId,
+        String professionalFirstName,
+        String professionalLastName,
+        Long serviceId,
+        String serviceName,
+        BigDecimal price,
+        BigDecimal discountAmount,
+        BigDecimal totalAmount,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,43 @@
+package com.slotsync.export;
+
+import com.slotsync.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * Formatos de exportación
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Formato según el parámetro {@code format} de la petición (csv por defecto)
+     */
+    public static ExportFormat fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Formato de exportación no soportado: " + value);
+        }
+    }
+}
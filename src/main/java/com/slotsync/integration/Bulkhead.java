@@ -0,0 +1,92 @@
+package com.slotsync.integration;
+
+import com.slotsync.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límite de llamadas concurrentes a un servicio externo.
+ * Con hilos virtuales el número de hilos ya no frena nada: este semáforo es lo que impide que una
+ * ráfaga abra cientos de conexiones contra un proveedor lento. Quien no obtiene permiso en
+ * {@code acquireTimeout} recibe {@link BulkheadFullException}.
+ */
+public final class Bulkhead {
+
+    private static final String METRIC_PREFIX = "slotsync.bulkhead";
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent debe ser positivo: " + maxConcurrent);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait").tag("service", name)
+                .description("Espera por un permiso de llamada").register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + ".rejected").tag("service", name)
+                .description("Llamadas rechazadas por falta de permisos").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", this, Bulkhead::activeCalls).tag("service", name)
+                .description("Llamadas en curso").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".max", this, b -> b.maxConcurrent).tag("service", name)
+                .description("Llamadas concurrentes permitidas").register(meterRegistry);
+    }
+
+    public <T> T call(Callable<T> action) throws Exception {
+        acquire();
+        try {
+            return action.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable action) {
+        acquire();
+        try {
+            action.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int activeCalls() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException("Interrumpido esperando permiso para " + name);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException("Demasiadas llamadas concurrentes a " + name);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.slotsync.integration;
+
+/**
+ * Servicios externos con llamadas bloqueantes. Cada uno tiene su propio {@link Bulkhead},
+ * configurado en app.integrations.&lt;key&gt;
+ */
+public enum ExternalService {
+    STRIPE("stripe"),
+    TWILIO("twilio"),
+    SMTP("smtp"),
+    CLOUDINARY("cloudinary");
+
+    private final String key;
+
+    ExternalService(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,38 @@
+package com.slotsync.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Un {@link Bulkhead} por servicio externo, dimensionado con
+ * app.integrations.&lt;key&gt;.max-concurrent y app.integrations.&lt;key&gt;.acquire-timeout-ms
+ */
+@Component
+public class ExternalServiceBulkheads {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 10;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 5000;
+
+    private final Map<ExternalService, Bulkhead> bulkheads = new EnumMap<>(ExternalService.class);
+
+    public ExternalServiceBulkheads(Environment environment, MeterRegistry meterRegistry) {
+        for (ExternalService service : ExternalService.values()) {
+            String prefix = "app.integrations." + service.key();
+            int maxConcurrent = environment.getProperty(prefix + ".max-concurrent", Integer.class,
+                    DEFAULT_MAX_CONCURRENT);
+            long acquireTimeoutMs = environment.getProperty(prefix + ".acquire-timeout-ms", Long.class,
+                    DEFAULT_ACQUIRE_TIMEOUT_MS);
+            bulkheads.put(service, new Bulkhead(service.key(), maxConcurrent,
+                    Duration.ofMillis(acquireTimeoutMs), meterRegistry));
+        }
+    }
+
+    public Bulkhead get(ExternalService service) {
+        return bulkheads.get(service);
+    }
+}
@@ -0,0 +1,17 @@
+package com.slotsync.lifecycle;
+
+import java.time.Instant;
+
+/**
+ * Plazo de una reserva en la rueda. Al vencer se vuelve a comprobar contra la base de datos,
+ * así que un plazo obsoleto (reserva reprogramada, cancelada...) simplemente no hace nada.
+ */
+public record BookingDeadline(Long bookingId, Long businessId, DeadlineType type, Instant dueAt) {
+
+    public Key key() {
+        return new Key(bookingId, type);
+    }
+
+    public record Key(Long bookingId, DeadlineType type) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.slotsync.lifecycle;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lectura por ventanas de los plazos próximos. Cada consulta recorre uno de los índices parciales de V9
+ * por (instante, id) con paginación por clave, así que su coste depende de las reservas de la ventana y
+ * no del tamaño de la tabla.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingDeadlineRepository {
+
+    private static final String START_SQL =
+            "SELECT b.id, b.business_id, b.start_time FROM bookings b JOIN businesses bz ON bz.id = b.business_id " +
+            "WHERE b.status = 'CONFIRMED' AND b.deleted_at IS NULL AND bz.timezone IS NOT DISTINCT FROM ? " +
+            "AND (b.start_time, b.id) > (?, ?) AND b.start_time < ? ORDER BY b.start_time, b.id LIMIT ?";
+
+    private static final String END_SQL =
+            "SELECT b.id, b.business_id, b.end_time FROM bookings b JOIN businesses bz ON bz.id = b.business_id " +
+            "WHERE b.status IN ('CONFIRMED', 'IN_PROGRESS') AND b.deleted_at IS NULL " +
+            "AND bz.timezone IS NOT DISTINCT FROM ? " +
+            "AND (b.end_time, b.id) > (?, ?) AND b.end_time < ? ORDER BY b.end_time, b.id LIMIT ?";
+
+    // created_at está en hora del servidor: no depende de la zona del negocio
+    private static final String HOLD_SQL =
+            "SELECT b.id, b.business_id, b.created_at FROM bookings b JOIN businesses bz ON bz.id = b.business_id " +
+            "WHERE b.status = 'PENDING' AND b.deleted_at IS NULL AND bz.require_payment_upfront IS TRUE " +
+            "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.booking_id = b.id AND p.status = 'COMPLETED') " +
+            "AND (b.created_at, b.id) > (?, ?) AND b.created_at < ? ORDER BY b.created_at, b.id LIMIT ?";
+
+    private static final RowMapper<DeadlineRow> ROW_MAPPER = (rs, rowNum) ->
+            new DeadlineRow(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Zonas horarias distintas de los negocios (null incluido)
+     */
+    public List<String> findTimezones() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT timezone FROM businesses", String.class);
+    }
+
+    /**
+     * Siguiente página de plazos START o END de los negocios con la zona {@code timezone},
+     * posteriores a (afterTime, afterId) y anteriores a {@code to}, en hora local
+     */
+    public List<DeadlineRow> findScheduleDeadlines(DeadlineType type, String timezone, LocalDateTime afterTime,
+                                                   long afterId, LocalDateTime to, int limit) {
+        String sql = switch (type) {
+            case START -> START_SQL;
+            case END -> END_SQL;
+            case HOLD_EXPIRY -> throw new IllegalArgumentException("HOLD_EXPIRY no depende de la zona");
+        };
+        return jdbcTemplate.query(sql, ROW_MAPPER, timezone, Timestamp.valueOf(afterTime), afterId,
+                Timestamp.valueOf(to), limit);
+    }
+
+    /**
+     * Siguiente página de reservas PENDING sin pagar de negocios con pago por adelantado,
+     * creadas después de (afterTime, afterId) y antes de {@code to}
+     */
+    public List<DeadlineRow> findUnpaidHolds(LocalDateTime afterTime, long afterId, LocalDateTime to, int limit) {
+        return jdbcTemplate.query(HOLD_SQL, ROW_MAPPER, Timestamp.valueOf(afterTime), afterId,
+                Timestamp.valueOf(to), limit);
+    }
+
+    public record DeadlineRow(long bookingId, long businessId, LocalDateTime time) {
+    }
+}
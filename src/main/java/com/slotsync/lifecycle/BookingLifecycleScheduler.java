@@ -0,0 +1,266 @@
+package com.slotsync.lifecycle;
+
+import com.slotsync.calendar.BusinessClock;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.event.BookingChangedEvent;
+import com.slotsync.event.BookingSnapshot;
+import com.slotsync.lifecycle.BookingDeadlineRepository.DeadlineRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transiciones de estado de las reservas a su hora exacta, sin recorrer la tabla de reservas.
+ * <p>
+ * Los plazos de las próximas {@code horizon} horas se cargan por ventanas en una {@link HashedTimingWheel}
+ * (tick de 100 ms por defecto) y la recarga periódica añade los que entran en el horizonte. Los cambios
+ * confirmados dentro del horizonte se programan al momento desde {@link BookingChangedEvent}.
+ * <p>
+ * La base de datos es la única fuente de verdad: la rueda no se persiste. Al arrancar, un nodo recarga
+ * también los plazos vencidos de las últimas {@code catch-up-hours} (los que quedaron pendientes mientras
+ * estaba parado), y todas las recargas vuelven a incluirlos, así que un plazo perdido o saltado por un
+ * bloqueo se recupera en la siguiente. Si varios nodos disparan el mismo plazo, solo uno lo aplica.
+ */
+@Slf4j
+@Component
+public class BookingLifecycleScheduler {
+
+    private static final String METRIC_PREFIX = "slotsync.lifecycle";
+
+    private final BookingLifecycleService lifecycleService;
+    private final BookingDeadlineRepository deadlineRepository;
+    private final BusinessClock businessClock;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final Duration tick;
+    private final int wheelSize;
+    private final Duration horizon;
+    private final Duration catchUp;
+    private final int loadBatchSize;
+    private final int applyBatchSize;
+    private final int workers;
+
+    // Plazo programado por (reserva, tipo): evita duplicados entre recargas y eventos
+    private final Map<BookingDeadline.Key, Instant> scheduled = new ConcurrentHashMap<>();
+    private final Map<DeadlineType, Counter> transitions = new EnumMap<>(DeadlineType.class);
+    private final Timer lateness;
+
+    private volatile HashedTimingWheel<BookingDeadline> wheel;
+    private volatile ExecutorService executor;
+    private volatile Instant loadedUntil = Instant.MIN;
+
+    public BookingLifecycleScheduler(BookingLifecycleService lifecycleService,
+                                     BookingDeadlineRepository deadlineRepository,
+                                     BusinessClock businessClock,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.booking.lifecycle.enabled:true}") boolean enabled,
+                                     @Value("${app.booking.lifecycle.tick-ms:100}") long tickMs,
+                                     @Value("${app.booking.lifecycle.wheel-size:512}") int wheelSize,
+                                     @Value("${app.booking.lifecycle.horizon-minutes:180}") long horizonMinutes,
+                                     @Value("${app.booking.lifecycle.catch-up-hours:24}") long catchUpHours,
+                                     @Value("${app.booking.lifecycle.load-batch-size:1000}") int loadBatchSize,
+                                     @Value("${app.booking.lifecycle.apply-batch-size:50}") int applyBatchSize,
+                                     @Value("${app.booking.lifecycle.workers:2}") int workers) {
+        this.lifecycleService = lifecycleService;
+        this.deadlineRepository = deadlineRepository;
+        this.businessClock = businessClock;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.tick = Duration.ofMillis(tickMs);
+        this.wheelSize = wheelSize;
+        this.horizon = Duration.ofMinutes(horizonMinutes);
+        this.catchUp = Duration.ofHours(catchUpHours);
+        this.loadBatchSize = loadBatchSize;
+        this.applyBatchSize = applyBatchSize;
+        this.workers = workers;
+        for (DeadlineType type : DeadlineType.values()) {
+            transitions.put(type, Counter.builder(METRIC_PREFIX + ".transitions").tag("deadline", type.name())
+                    .description("Transiciones aplicadas por plazo").register(meterRegistry));
+        }
+        this.lateness = Timer.builder(METRIC_PREFIX + ".lateness")
+                .description("Retraso entre el plazo y el momento en que se aplica").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("booking-lifecycle-", 0).factory());
+        wheel = new HashedTimingWheel<>("booking-lifecycle-wheel", tick, wheelSize, this::onExpired);
+        Gauge.builder(METRIC_PREFIX + ".wheel.size", wheel, HashedTimingWheel::size)
+                .description("Plazos programados en la rueda").register(meterRegistry);
+        refill();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (wheel != null) {
+            wheel.close();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Cargar en la rueda los plazos de [ahora - catch-up, ahora + horizonte)
+     */
+    @Scheduled(fixedDelayString = "${app.booking.lifecycle.refill-interval-ms:300000}",
+            initialDelayString = "${app.booking.lifecycle.refill-interval-ms:300000}")
+    public void refill() {
+        if (wheel == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        Instant until = Instant.now().plus(horizon);
+        int loaded = 0;
+        for (String timezone : deadlineRepository.findTimezones()) {
+            ZoneId zone = BusinessClock.parseZone(timezone);
+            LocalDateTime now = LocalDateTime.now(zone);
+            for (DeadlineType type : List.of(DeadlineType.START, DeadlineType.END)) {
+                loaded += loadWindow(type, zone, now.minus(catchUp), now.plus(horizon),
+                        (after, afterId, to) -> deadlineRepository.findScheduleDeadlines(
+                                type, timezone, after, afterId, to, loadBatchSize));
+            }
+        }
+        // Reservas creadas en [ahora - catch-up - hold, ahora + horizonte - hold): su retención vence en la ventana
+        ZoneId serverZone = ZoneId.systemDefault();
+        LocalDateTime serverNow = LocalDateTime.now(serverZone);
+        Duration hold = lifecycleService.holdDuration();
+        loaded += loadWindow(DeadlineType.HOLD_EXPIRY, serverZone, serverNow.minus(catchUp).minus(hold),
+                serverNow.plus(horizon).minus(hold),
+                (after, afterId, to) -> deadlineRepository.findUnpaidHolds(after, afterId, to, loadBatchSize));
+        loadedUntil = until;
+        log.debug("Rueda de plazos recargada: {} plazos leídos, {} programados, {} ms", loaded, wheel.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Programar al momento los plazos de un cambio confirmado que caen antes del final de la ventana cargada;
+     * los posteriores llegarán con la recarga
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingSnapshot current = event.current();
+        if (wheel == null || current == null || current.deleted() || current.businessId() == null) {
+            return;
+        }
+        if (current.status() == BookingStatus.PENDING && event.isCreated()) {
+            scheduleIfLoaded(new BookingDeadline(event.bookingId(), current.businessId(), DeadlineType.HOLD_EXPIRY,
+                    Instant.now().plus(lifecycleService.holdDuration())));
+            return;
+        }
+        if (current.status() != BookingStatus.CONFIRMED && current.status() != BookingStatus.IN_PROGRESS) {
+            return;
+        }
+        ZoneId zone = businessClock.zoneOf(current.businessId());
+        if (current.status() == BookingStatus.CONFIRMED && current.startTime() != null) {
+            scheduleIfLoaded(new BookingDeadline(event.bookingId(), current.businessId(), DeadlineType.START,
+                    current.startTime().atZone(zone).toInstant()));
+        }
+        if (current.endTime() != null) {
+            scheduleIfLoaded(new BookingDeadline(event.bookingId(), current.businessId(), DeadlineType.END,
+                    current.endTime().atZone(zone).toInstant()));
+        }
+    }
+
+    private void scheduleIfLoaded(BookingDeadline deadline) {
+        if (!deadline.dueAt().isAfter(loadedUntil)) {
+            schedule(deadline);
+        }
+    }
+
+    private int loadWindow(DeadlineType type, ZoneId zone, LocalDateTime from, LocalDateTime to, WindowQuery query) {
+        int loaded = 0;
+        LocalDateTime afterTime = from;
+        long afterId = 0;
+        while (true) {
+            List<DeadlineRow> rows = query.page(afterTime, afterId, to);
+            for (DeadlineRow row : rows) {
+                LocalDateTime due = type == DeadlineType.HOLD_EXPIRY
+                        ? row.time().plus(lifecycleService.holdDuration()) : row.time();
+                schedule(new BookingDeadline(row.bookingId(), row.businessId(), type, due.atZone(zone).toInstant()));
+            }
+            loaded += rows.size();
+            if (rows.size() < loadBatchSize) {
+                return loaded;
+            }
+            DeadlineRow last = rows.get(rows.size() - 1);
+            afterTime = last.time();
+            afterId = last.bookingId();
+        }
+    }
+
+    private void schedule(BookingDeadline deadline) {
+        Instant previous = scheduled.put(deadline.key(), deadline.dueAt());
+        if (!deadline.dueAt().equals(previous)) {
+            wheel.schedule(deadline, deadline.dueAt());
+        }
+    }
+
+    /**
+     * Llamado desde el hilo de la rueda: reparte los vencidos en lotes y los aplica en los workers
+     */
+    private void onExpired(List<BookingDeadline> expired) {
+        for (int from = 0; from < expired.size(); from += applyBatchSize) {
+            List<BookingDeadline> batch = List.copyOf(expired.subList(from, Math.min(from + applyBatchSize,
+                    expired.size())));
+            executor.execute(() -> apply(batch));
+        }
+    }
+
+    private void apply(List<BookingDeadline> batch) {
+        // Plazos sustituidos por otro más reciente de la misma reserva y tipo: ya no aplican
+        List<BookingDeadline> current = batch.stream()
+                .filter(deadline -> scheduled.remove(deadline.key(), deadline.dueAt()))
+                .toList();
+        if (current.isEmpty()) {
+            return;
+        }
+        try {
+            BookingLifecycleService.ApplyResult result = lifecycleService.apply(current);
+            result.notYetDue().forEach(this::schedule);
+            Instant now = Instant.now();
+            for (BookingDeadline deadline : result.applied()) {
+                transitions.get(deadline.type()).increment();
+                lateness.record(Duration.between(deadline.dueAt(), now));
+            }
+        } catch (RuntimeException e) {
+            // La siguiente recarga vuelve a incluirlos (ventana de catch-up)
+            log.error("Error aplicando {} plazos de reservas", current.size(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WindowQuery {
+        List<DeadlineRow> page(LocalDateTime afterTime, long afterId, LocalDateTime to);
+    }
+}
@@ -0,0 +1,139 @@
+package com.slotsync.lifecycle;
+
+import com.slotsync.calendar.BusinessClock;
+import com.slotsync.entity.Booking;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.enums.PaymentStatus;
+import com.slotsync.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica las transiciones de estado de los plazos vencidos.
+ * Cada reserva se bloquea con FOR UPDATE SKIP LOCKED y se vuelve a validar (estado y hora) antes de cambiarla:
+ * aplicar dos veces el mismo plazo, o que varios nodos lo disparen a la vez, no tiene efecto. Los cambios pasan
+ * por la entidad, así que generan los mismos eventos (estadísticas, índice de ocupación) que cualquier otro.
+ */
+@Slf4j
+@Service
+public class BookingLifecycleService {
+
+    static final String HOLD_EXPIRED_REASON = "Reserva no pagada a tiempo";
+
+    private final BookingRepository bookingRepository;
+    private final BusinessClock businessClock;
+    private final Duration holdDuration;
+
+    public BookingLifecycleService(BookingRepository bookingRepository,
+                                   BusinessClock businessClock,
+                                   @Value("${app.booking.lifecycle.hold-minutes:30}") long holdMinutes) {
+        this.bookingRepository = bookingRepository;
+        this.businessClock = businessClock;
+        this.holdDuration = Duration.ofMinutes(holdMinutes);
+    }
+
+    public Duration holdDuration() {
+        return holdDuration;
+    }
+
+    /**
+     * Aplicar los plazos indicados. Devuelve los que han producido una transición y los que se han
+     * adelantado a la hora de la reserva (hay que volver a programarlos en su nueva hora).
+     */
+    @Transactional
+    public ApplyResult apply(List<BookingDeadline> deadlines) {
+        Map<Long, Booking> locked = bookingRepository.findAllByIdForUpdateSkipLocked(
+                        deadlines.stream().map(BookingDeadline::bookingId).distinct().toList())
+                .stream().collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingDeadline> applied = new ArrayList<>();
+        List<BookingDeadline> notYetDue = new ArrayList<>();
+        for (BookingDeadline deadline : deadlines) {
+            Booking booking = locked.get(deadline.bookingId());
+            if (booking == null || booking.isDeleted()) {
+                continue;
+            }
+            LocalDateTime due = switch (deadline.type()) {
+                case START -> startDue(booking);
+                case END -> endDue(booking);
+                case HOLD_EXPIRY -> holdDue(booking);
+            };
+            if (due == null) {
+                continue;
+            }
+            // createdAt está en hora del servidor; startTime y endTime, en la del negocio
+            ZoneId zone = deadline.type() == DeadlineType.HOLD_EXPIRY
+                    ? ZoneId.systemDefault() : businessClock.zoneOf(deadline.businessId());
+            LocalDateTime now = LocalDateTime.now(zone);
+            if (now.isBefore(due)) {
+                notYetDue.add(new BookingDeadline(deadline.bookingId(), deadline.businessId(), deadline.type(),
+                        due.atZone(zone).toInstant()));
+                continue;
+            }
+            transition(booking, deadline.type(), now);
+            applied.add(deadline);
+        }
+        return new ApplyResult(applied, notYetDue);
+    }
+
+    /**
+     * Hora (local del negocio) a partir de la que toca iniciar la reserva, o null si ya no aplica
+     */
+    private static LocalDateTime startDue(Booking booking) {
+        return booking.getStatus() == BookingStatus.CONFIRMED ? booking.getStartTime() : null;
+    }
+
+    private static LocalDateTime endDue(Booking booking) {
+        BookingStatus status = booking.getStatus();
+        return status == BookingStatus.CONFIRMED || status == BookingStatus.IN_PROGRESS ? booking.getEndTime() : null;
+    }
+
+    private LocalDateTime holdDue(Booking booking) {
+        if (booking.getStatus() != BookingStatus.PENDING || booking.getCreatedAt() == null
+                || !Boolean.TRUE.equals(booking.getBusiness().getRequirePaymentUpfront())
+                || (booking.getPayment() != null && booking.getPayment().getStatus() == PaymentStatus.COMPLETED)) {
+            return null;
+        }
+        return booking.getCreatedAt().plus(holdDuration);
+    }
+
+    private static void transition(Booking booking, DeadlineType type, LocalDateTime now) {
+        switch (type) {
+            case START -> {
+                if (now.isBefore(booking.getEndTime())) {
+                    booking.setStatus(BookingStatus.IN_PROGRESS);
+                } else {
+                    finish(booking);
+                }
+            }
+            case END -> finish(booking);
+            case HOLD_EXPIRY -> booking.cancel(HOLD_EXPIRED_REASON, null);
+        }
+        log.debug("Reserva {}: plazo {} -> {}", booking.getBookingCode(), type, booking.getStatus());
+    }
+
+    /**
+     * Cerrar una reserva al llegar su fin: NO_SHOW si el negocio ya indicó que el cliente no vino
+     */
+    private static void finish(Booking booking) {
+        if (Boolean.FALSE.equals(booking.getClientShowedUp())) {
+            booking.markAsNoShow();
+        } else {
+            booking.complete();
+        }
+    }
+
+    public record ApplyResult(List<BookingDeadline> applied, List<BookingDeadline> notYetDue) {
+    }
+}
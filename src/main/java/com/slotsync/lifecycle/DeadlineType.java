@@ -0,0 +1,10 @@
+package com.slotsync.lifecycle;
+
+/**
+ * Plazos del ciclo de vida de una reserva
+ */
+public enum DeadlineType {
+    START,          // startTime: CONFIRMED -> IN_PROGRESS
+    END,            // endTime: CONFIRMED / IN_PROGRESS -> COMPLETED o NO_SHOW
+    HOLD_EXPIRY     // createdAt + hold: PENDING sin pagar -> CANCELLED
+}
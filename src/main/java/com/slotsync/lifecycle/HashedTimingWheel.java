@@ -0,0 +1,160 @@
+package com.slotsync.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Temporizador de rueda con hash (estilo HashedWheelTimer): {@code wheelSize} casillas de {@code tick} cada una.
+ * Programar es O(1) y cada tick solo recorre su casilla; los plazos más allá de una vuelta esperan con un
+ * contador de vueltas. Un único hilo avanza la rueda y entrega los vencidos de cada tick, en bloque, a
+ * {@code onExpired}, que no debe bloquear. Nunca dispara antes del plazo; como mucho un tick después.
+ */
+@Slf4j
+public final class HashedTimingWheel<T> implements AutoCloseable {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<ArrayDeque<Entry<T>>> buckets;
+    private final Queue<Entry<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpired;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread worker;
+
+    private final long startNanos;
+    private final Instant startInstant;
+    private long tick;
+
+    public HashedTimingWheel(String name, Duration tick, int wheelSize, Consumer<List<T>> onExpired) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("tick debe ser positivo: " + tick);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize debe ser positivo: " + wheelSize);
+        }
+        int normalized = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = tick.toNanos();
+        this.mask = normalized - 1;
+        this.buckets = new ArrayList<>(normalized);
+        for (int i = 0; i < normalized; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.onExpired = onExpired;
+        this.startNanos = System.nanoTime();
+        this.startInstant = Instant.now();
+        this.worker = Thread.ofPlatform().name(name).daemon().unstarted(this::run);
+        this.worker.start();
+    }
+
+    /**
+     * Programar {@code task} para {@code dueAt}. Si ya ha vencido se entrega en el siguiente tick.
+     */
+    public void schedule(T task, Instant dueAt) {
+        long deadline = Duration.between(startInstant, dueAt).toNanos();
+        incoming.add(new Entry<>(task, Math.max(deadline, 0)));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Tareas programadas pendientes de vencer
+     */
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void close() {
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long now = waitForNextTick();
+            if (now < 0) {
+                return;
+            }
+            transferIncoming();
+            List<T> expired = expire(buckets.get((int) (tick & mask)), now);
+            tick++;
+            if (!expired.isEmpty()) {
+                size.addAndGet(-expired.size());
+                try {
+                    onExpired.accept(expired);
+                } catch (RuntimeException e) {
+                    log.error("Error entregando {} tareas vencidas", expired.size(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dormir hasta el final del tick actual. Devuelve los nanos transcurridos desde el arranque o -1 si se interrumpe.
+     */
+    private long waitForNextTick() {
+        long tickEnd = tickNanos * (tick + 1);
+        while (true) {
+            long elapsed = System.nanoTime() - startNanos;
+            long sleepNanos = tickEnd - elapsed;
+            if (sleepNanos <= 0) {
+                return elapsed;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+
+    private void transferIncoming() {
+        Entry<T> entry;
+        while ((entry = incoming.poll()) != null) {
+            // Casilla del tick que termina en o después del plazo (redondeo hacia arriba: nunca antes de tiempo)
+            long dueTick = Math.max((entry.deadlineNanos + tickNanos - 1) / tickNanos - 1, tick);
+            entry.remainingRounds = (dueTick - tick) / buckets.size();
+            buckets.get((int) (dueTick & mask)).add(entry);
+        }
+    }
+
+    private List<T> expire(ArrayDeque<Entry<T>> bucket, long now) {
+        List<T> expired = new ArrayList<>();
+        Iterator<Entry<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.remainingRounds <= 0 && entry.deadlineNanos <= now) {
+                iterator.remove();
+                expired.add(entry.task);
+            } else if (entry.remainingRounds > 0) {
+                entry.remainingRounds--;
+            }
+        }
+        return expired;
+    }
+
+    private static final class Entry<T> {
+        private final T task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Entry(T task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
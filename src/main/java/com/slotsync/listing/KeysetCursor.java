@@ -0,0 +1,57 @@
+package com.slotsync.listing;
+
+import com.slotsync.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la paginación por clave: valor de la columna de orden (start_time o created_at) y el ID
+ * de la última fila devuelta. Viaja al cliente como un token opaco en base64.
+ */
+public record KeysetCursor(LocalDateTime position, Long id) {
+
+    // Límites para la primera página cuando no hay rango de fechas
+    static final LocalDateTime FLOOR = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime CEILING = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Primera página en orden ascendente a partir de {@code from} (incluido)
+     */
+    static KeysetCursor ascendingFrom(LocalDateTime from) {
+        return new KeysetCursor(from != null ? from : FLOOR, 0L);
+    }
+
+    /**
+     * Primera página en orden descendente hasta {@code to} (excluido)
+     */
+    static KeysetCursor descendingFrom(LocalDateTime to) {
+        return to != null ? new KeysetCursor(to, 0L) : new KeysetCursor(CEILING, Long.MAX_VALUE);
+    }
+
+    public String encode() {
+        String raw = position + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodificar un token; si es nulo o vacío se usa la posición inicial indicada
+     */
+    public static KeysetCursor decodeOr(String token, KeysetCursor first) {
+        if (token == null || token.isBlank()) {
+            return first;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestException("Cursor de paginación no válido");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.slotsync.listing;
+
+import com.slotsync.calendar.BusinessClock;
+import com.slotsync.dto.common.CursorPageResponse;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.export.BookingRow;
+import com.slotsync.repository.BookingRepository;
+import com.slotsync.repository.ProfessionalRepository;
+import com.slotsync.repository.ServiceRepository;
+import com.slotsync.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Listados paginados por clave (keyset) del panel de negocio.
+ * Cada página continúa desde la última fila de la anterior con una comparación de tuplas sobre
+ * (start_time, id) o (created_at, id) que resuelve el índice compuesto correspondiente, así que el coste
+ * de una página no depende de lo profunda que esté en el histórico (a diferencia de OFFSET).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ListingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final BookingRepository bookingRepository;
+    private final ServiceRepository serviceRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final UserRepository userRepository;
+    private final BusinessClock businessClock;
+
+    /**
+     * Agenda de hoy (según la zona horaria del negocio), sin paginar: un día está acotado
+     */
+    public List<BookingRow> todayBookings(Long businessId) {
+        return bookingRepository.findTodayBookingsByBusiness(businessId, businessClock.todayWindow(businessId));
+    }
+
+    /**
+     * Calendario del negocio con inicio en [from, to), en orden cronológico
+     */
+    public CursorPageResponse<BookingRow> businessBookings(Long businessId, BookingStatus status,
+                                                           LocalDateTime from, LocalDateTime to,
+                                                           String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decodeOr(cursor, KeysetCursor.ascendingFrom(from));
+        int pageSize = pageSize(size);
+        List<BookingRow> rows = bookingRepository.findBusinessBookingsAfter(businessId, status,
+                to != null ? to : KeysetCursor.CEILING, after.position(), after.id(), Limit.of(pageSize + 1));
+        return page(rows, pageSize, row -> new KeysetCursor(row.startTime(), row.id()));
+    }
+
+    /**
+     * Reservas del negocio de la más reciente a la más antigua según su fecha de creación
+     */
+    public CursorPageResponse<BookingRow> recentBookings(Long businessId, String cursor, Integer size) {
+        KeysetCursor before = KeysetCursor.decodeOr(cursor, KeysetCursor.descendingFrom(null));
+        int pageSize = pageSize(size);
+        List<BookingRow> rows = bookingRepository.findBusinessBookingsCreatedBefore(businessId,
+                before.position(), before.id(), Limit.of(pageSize + 1));
+        return page(rows, pageSize, row -> new KeysetCursor(row.createdAt(), row.id()));
+    }
+
+    /**
+     * Historial de un cliente en el negocio, de la reserva más reciente a la más antigua
+     */
+    public CursorPageResponse<BookingRow> customerBookings(Long businessId, Long customerId, String cursor, Integer size) {
+        KeysetCursor before = KeysetCursor.decodeOr(cursor, KeysetCursor.descendingFrom(null));
+        int pageSize = pageSize(size);
+        List<BookingRow> rows = bookingRepository.findCustomerBookingsBefore(businessId, customerId,
+                before.position(), before.id(), Limit.of(pageSize + 1));
+        return page(rows, pageSize, row -> new KeysetCursor(row.startTime(), row.id()));
+    }
+
+    /**
+     * Agenda de un profesional con inicio en [from, to), en orden cronológico
+     */
+    public CursorPageResponse<BookingRow> professionalBookings(Long businessId, Long professionalId,
+                                                               LocalDateTime from, LocalDateTime to,
+                                                               String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decodeOr(cursor, KeysetCursor.ascendingFrom(from));
+        int pageSize = pageSize(size);
+        List<BookingRow> rows = bookingRepository.findProfessionalBookingsAfter(businessId, professionalId,
+                to != null ? to : KeysetCursor.CEILING, after.position(), after.id(), Limit.of(pageSize + 1));
+        return page(rows, pageSize, row -> new KeysetCursor(row.startTime(), row.id()));
+    }
+
+    public CursorPageResponse<ServiceListItem> services(Long businessId, String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decodeOr(cursor, KeysetCursor.ascendingFrom(null));
+        int pageSize = pageSize(size);
+        List<ServiceListItem> rows = serviceRepository.findPageByBusinessId(businessId,
+                after.position(), after.id(), Limit.of(pageSize + 1));
+        return page(rows, pageSize, row -> new KeysetCursor(row.createdAt(), row.id()));
+    }
+
+    public CursorPageResponse<ProfessionalListItem> professionals(Long businessId, String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decodeOr(cursor, KeysetCursor.ascendingFrom(null));
+        int pageSize = pageSize(size);
+        List<ProfessionalListItem> rows = professionalRepository.findPageByBusinessId(businessId,
+                after.position(), after.id(), Limit.of(pageSize + 1));
+        return page(rows, pageSize, row -> new KeysetCursor(row.createdAt(), row.id()));
+    }
+
+    public CursorPageResponse<UserListItem> users(Long businessId, String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decodeOr(cursor, KeysetCursor.ascendingFrom(null));
+        int pageSize = pageSize(size);
+        List<UserListItem> rows = userRepository.findPageByBusinessId(businessId,
+                after.position(), after.id(), Limit.of(pageSize + 1));
+        return page(rows, pageSize, row -> new KeysetCursor(row.createdAt(), row.id()));
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Se pide una fila más del tamaño de página para saber si hay siguiente sin un COUNT
+     */
+    private static <T> CursorPageResponse<T> page(List<T> rows, int pageSize, Function<T, KeysetCursor> keyOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        return CursorPageResponse.<T>builder()
+                .items(items)
+                .nextCursor(hasMore ? keyOf.apply(items.get(items.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .size(items.size())
+                .build();
+    }
+}
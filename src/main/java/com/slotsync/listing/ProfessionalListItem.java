@@ -0,0 +1,18 @@
+package com.slotsync.listing;
+
+import java.time.LocalDateTime;
+
+/**
+ * Profesional en los listados paginados del panel
+ */
+public record ProfessionalListItem(
+        Long id,
+        Long userId,
+        String firstName,
+        String lastName,
+        String title,
+        Boolean acceptsOnlineBookings,
+        Boolean isActive,
+        LocalDateTime createdAt
+) {
+}
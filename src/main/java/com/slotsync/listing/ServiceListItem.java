@@ -0,0 +1,18 @@
+package com.slotsync.listing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Servicio en los listados paginados del panel
+ */
+public record ServiceListItem(
+        Long id,
+        String name,
+        String category,
+        BigDecimal price,
+        Integer duration,
+        Boolean isActive,
+        LocalDateTime createdAt
+) {
+}
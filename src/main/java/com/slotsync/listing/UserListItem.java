@@ -0,0 +1,19 @@
+package com.slotsync.listing;
+
+import com.slotsync.enums.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usuario en los listados paginados del panel
+ */
+public record UserListItem(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        Role role,
+        Boolean isActive,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,47 @@
+package com.slotsync.notification;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Textos de los avisos de reserva
+ */
+final class BookingMessages {
+
+    private static final DateTimeFormatter START_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private BookingMessages() {
+    }
+
+    static OutgoingMessage email(Long id, NotificationEvent event, BookingNotice notice) {
+        String subject = switch (event) {
+            case BOOKING_CONFIRMED -> "Reserva confirmada en " + notice.businessName();
+            case BOOKING_CANCELLED -> "Reserva cancelada en " + notice.businessName();
+            case BOOKING_REMINDER -> "Recordatorio de tu cita en " + notice.businessName();
+        };
+        String intro = switch (event) {
+            case BOOKING_CONFIRMED -> "Tu reserva está confirmada:";
+            case BOOKING_CANCELLED -> "Tu reserva ha sido cancelada:";
+            case BOOKING_REMINDER -> "Te recordamos tu cita:";
+        };
+        String text = "Hola " + notice.customerFirstName() + ",\n\n"
+                + intro + "\n"
+                + notice.serviceName() + " con " + notice.professionalFirstName() + "\n"
+                + notice.startTime().format(START_FORMAT) + "\n"
+                + "Código: " + notice.bookingCode() + "\n\n"
+                + notice.businessName();
+        return new OutgoingMessage(id, notice.customerEmail(), subject, text);
+    }
+
+    static OutgoingMessage sms(Long id, NotificationEvent event, BookingNotice notice) {
+        String when = notice.startTime().format(START_FORMAT);
+        String text = switch (event) {
+            case BOOKING_CONFIRMED -> notice.businessName() + ": reserva " + notice.bookingCode()
+                    + " confirmada para el " + when;
+            case BOOKING_CANCELLED -> notice.businessName() + ": reserva " + notice.bookingCode()
+                    + " del " + when + " cancelada";
+            case BOOKING_REMINDER -> notice.businessName() + ": te recordamos tu cita del " + when
+                    + " (" + notice.bookingCode() + ")";
+        };
+        return new OutgoingMessage(id, notice.customerPhone(), null, text);
+    }
+}
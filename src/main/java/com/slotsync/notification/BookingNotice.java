@@ -0,0 +1,36 @@
+package com.slotsync.notification;
+
+import com.slotsync.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos necesarios para avisar al cliente de una reserva, leídos en una sola consulta
+ */
+public record BookingNotice(
+        Long bookingId,
+        Long businessId,
+        String bookingCode,
+        BookingStatus status,
+        LocalDateTime startTime,
+        String customerFirstName,
+        String customerEmail,
+        String customerPhone,
+        String serviceName,
+        String professionalFirstName,
+        String businessName,
+        Boolean sendEmailNotifications,
+        Boolean sendSmsNotifications
+) {
+
+    /**
+     * Los avisos por email están activos salvo que el negocio los desactive (igual que el valor por defecto de la entidad)
+     */
+    public boolean emailEnabled() {
+        return !Boolean.FALSE.equals(sendEmailNotifications) && customerEmail != null && !customerEmail.isBlank();
+    }
+
+    public boolean smsEnabled() {
+        return Boolean.TRUE.equals(sendSmsNotifications) && customerPhone != null && !customerPhone.isBlank();
+    }
+}
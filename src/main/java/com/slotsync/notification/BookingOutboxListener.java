@@ -0,0 +1,44 @@
+package com.slotsync.notification;
+
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.event.BookingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Encola en notification_outbox los avisos de confirmación y cancelación de reservas.
+ * Escucha de forma síncrona para que la fila se escriba en la misma transacción que la reserva: la petición
+ * solo paga un INSERT y el envío real lo hace {@link NotificationOutboxRelay} tras el commit. Con lotes JDBC el
+ * INSERT de la reserva puede salir después del aviso; la clave foránea diferida (V12) lo admite.
+ * Las reservas importadas y las que ya han empezado no avisan: una importación de histórico no debe escribir
+ * a todos sus clientes.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutboxListener {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationDispatcher dispatcher;
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if ((!event.isStatusChanged() && !event.isCreated()) || event.imported()
+                || event.current().startTime().isBefore(LocalDateTime.now())) {
+            return;
+        }
+        BookingStatus status = event.current().status();
+        NotificationEvent notification;
+        if (status == BookingStatus.CONFIRMED) {
+            notification = NotificationEvent.BOOKING_CONFIRMED;
+        } else if (status == BookingStatus.CANCELLED && !event.isCreated()) {
+            notification = NotificationEvent.BOOKING_CANCELLED;
+        } else {
+            return;
+        }
+        outboxRepository.enqueue(event.bookingId(), event.current().businessId(), notification,
+                dispatcher.isSmsEnabled());
+    }
+}
@@ -0,0 +1,167 @@
+package com.slotsync.notification;
+
+import com.slotsync.exception.BulkheadFullException;
+import com.slotsync.integration.ExternalService;
+import com.slotsync.integration.ExternalServiceBulkheads;
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Envío de emails (SMTP) y SMS (Twilio). Las llamadas son bloqueantes y están pensadas para
+ * ejecutarse en hilos virtuales, fuera de cualquier transacción: así no retienen una conexión
+ * del pool mientras esperan al proveedor. Cada canal pasa por su {@link com.slotsync.integration.Bulkhead}.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final ExternalServiceBulkheads bulkheads;
+    private final String mailFrom;
+    private final boolean twilioEnabled;
+    private final String twilioAccountSid;
+    private final String twilioAuthToken;
+    private final String twilioPhoneNumber;
+
+    public NotificationDispatcher(ObjectProvider<JavaMailSender> mailSender,
+                                  ExternalServiceBulkheads bulkheads,
+                                  @Value("${app.notifications.mail-from:}") String mailFrom,
+                                  @Value("${app.twilio.enabled:false}") boolean twilioEnabled,
+                                  @Value("${app.twilio.account-sid:}") String twilioAccountSid,
+                                  @Value("${app.twilio.auth-token:}") String twilioAuthToken,
+                                  @Value("${app.twilio.phone-number:}") String twilioPhoneNumber) {
+        this.mailSender = mailSender;
+        this.bulkheads = bulkheads;
+        this.mailFrom = mailFrom;
+        this.twilioEnabled = twilioEnabled;
+        this.twilioAccountSid = twilioAccountSid;
+        this.twilioAuthToken = twilioAuthToken;
+        this.twilioPhoneNumber = twilioPhoneNumber;
+    }
+
+    @PostConstruct
+    void initTwilio() {
+        if (twilioEnabled) {
+            Twilio.init(twilioAccountSid, twilioAuthToken);
+        }
+    }
+
+    public boolean isSmsEnabled() {
+        return twilioEnabled;
+    }
+
+    /**
+     * Enviar un SMS. Devuelve false si Twilio está desactivado o el envío falla.
+     */
+    public boolean sendSms(String to, String text) {
+        if (!twilioEnabled) {
+            return false;
+        }
+        try {
+            bulkheads.get(ExternalService.TWILIO).run(() ->
+                    Message.creator(new PhoneNumber(to), new PhoneNumber(twilioPhoneNumber), text).create());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Error enviando SMS a {}: {}", to, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Enviar un lote de emails por una sola conexión SMTP (un único permiso del bulkhead).
+     * Devuelve los id de los mensajes entregados.
+     */
+    public Set<Long> sendEmailBatch(List<OutgoingMessage> messages) {
+        Set<Long> delivered = new HashSet<>();
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (messages.isEmpty() || sender == null) {
+            return delivered;
+        }
+        Map<SimpleMailMessage, Long> idByMessage = new IdentityHashMap<>();
+        for (OutgoingMessage outgoing : messages) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            if (!mailFrom.isBlank()) {
+                message.setFrom(mailFrom);
+            }
+            message.setTo(outgoing.to());
+            message.setSubject(outgoing.subject());
+            message.setText(outgoing.text());
+            idByMessage.put(message, outgoing.id());
+        }
+        SimpleMailMessage[] batch = idByMessage.keySet().toArray(SimpleMailMessage[]::new);
+        try {
+            bulkheads.get(ExternalService.SMTP).run(() -> sender.send(batch));
+            delivered.addAll(idByMessage.values());
+        } catch (MailSendException e) {
+            // Los mensajes que no aparecen como fallidos sí se entregaron
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (!failed.isEmpty()) {
+                idByMessage.forEach((message, id) -> {
+                    if (!failed.containsKey(message)) {
+                        delivered.add(id);
+                    }
+                });
+            }
+            log.warn("Lote de {} emails con {} fallos: {}", batch.length,
+                    batch.length - delivered.size(), e.getMessage());
+        } catch (MailException | BulkheadFullException e) {
+            log.warn("Lote de {} emails no enviado: {}", batch.length, e.getMessage());
+        }
+        return delivered;
+    }
+
+    /**
+     * Enviar un lote de SMS en paralelo, un hilo virtual por mensaje y con la concurrencia real limitada
+     * por el bulkhead de Twilio. Devuelve los id de los mensajes entregados.
+     */
+    public Set<Long> sendSmsBatch(List<OutgoingMessage> messages) {
+        Set<Long> delivered = new HashSet<>();
+        if (messages.isEmpty() || !twilioEnabled) {
+            return delivered;
+        }
+        List<Future<Boolean>> results = new ArrayList<>(messages.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (OutgoingMessage message : messages) {
+                results.add(executor.submit(() -> sendSms(message.to(), message.text())));
+            }
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            if (Boolean.TRUE.equals(resultOf(results.get(i)))) {
+                delivered.add(messages.get(i).id());
+            }
+        }
+        return delivered;
+    }
+
+    private static Boolean resultOf(Future<Boolean> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.slotsync.notification;
+
+import com.slotsync.enums.BookingStatus;
+
+/**
+ * Avisos de reserva que pasan por el outbox. Cada uno solo se entrega si la reserva sigue en
+ * {@code requiredStatus} al enviarlo; si no, otro aviso posterior lo ha sustituido.
+ */
+public enum NotificationEvent {
+    BOOKING_CONFIRMED(BookingStatus.CONFIRMED),
+    BOOKING_CANCELLED(BookingStatus.CANCELLED),
+    BOOKING_REMINDER(BookingStatus.CONFIRMED);
+
+    private final BookingStatus requiredStatus;
+
+    NotificationEvent(BookingStatus requiredStatus) {
+        this.requiredStatus = requiredStatus;
+    }
+
+    public BookingStatus requiredStatus() {
+        return requiredStatus;
+    }
+}
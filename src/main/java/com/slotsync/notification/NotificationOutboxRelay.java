@@ -0,0 +1,252 @@
+package com.slotsync.notification;
+
+import com.slotsync.enums.NotificationType;
+import com.slotsync.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Vacía notification_outbox en lotes.
+ * Cada canal tiene su propio grupo de workers (hilos virtuales limitados por un semáforo), así que un proveedor
+ * lento no frena al otro. Los lotes se reclaman con FOR UPDATE SKIP LOCKED y un plazo de posesión, de modo que
+ * varios nodos pueden trabajar a la vez y una fila abandonada vuelve a la cola sola: la entrega es "al menos una vez".
+ * Los fallos se reintentan con espera exponencial hasta agotar max-attempts.
+ */
+@Slf4j
+@Component
+public class NotificationOutboxRelay {
+
+    private static final String METRIC_PREFIX = "slotsync.outbox.";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final BookingRepository bookingRepository;
+    private final NotificationDispatcher dispatcher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration retention;
+
+    private final Map<NotificationType, ChannelWorkers> channels = new EnumMap<>(NotificationType.class);
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                                   BookingRepository bookingRepository,
+                                   NotificationDispatcher dispatcher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.notifications.outbox.enabled:true}") boolean enabled,
+                                   @Value("${app.notifications.outbox.batch-size:100}") int batchSize,
+                                   @Value("${app.notifications.outbox.lease-seconds:120}") long leaseSeconds,
+                                   @Value("${app.notifications.outbox.max-attempts:6}") int maxAttempts,
+                                   @Value("${app.notifications.outbox.backoff-base-seconds:30}") long backoffBaseSeconds,
+                                   @Value("${app.notifications.outbox.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                                   @Value("${app.notifications.outbox.retention-days:7}") int retentionDays,
+                                   @Value("${app.notifications.outbox.email-workers:2}") int emailWorkers,
+                                   @Value("${app.notifications.outbox.sms-workers:4}") int smsWorkers) {
+        this.outboxRepository = outboxRepository;
+        this.bookingRepository = bookingRepository;
+        this.dispatcher = dispatcher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+        channels.put(NotificationType.EMAIL, new ChannelWorkers(NotificationType.EMAIL, emailWorkers, meterRegistry));
+        channels.put(NotificationType.SMS, new ChannelWorkers(NotificationType.SMS, smsWorkers, meterRegistry));
+    }
+
+    /**
+     * Reclamar lotes mientras haya workers libres en cada canal. Cada lote se entrega en su propio hilo.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        for (ChannelWorkers workers : channels.values()) {
+            while (workers.slots.tryAcquire()) {
+                List<OutboxEntry> batch;
+                try {
+                    batch = outboxRepository.claim(workers.channel, batchSize, lease);
+                } catch (RuntimeException e) {
+                    workers.slots.release();
+                    log.warn("No se pudo reclamar el outbox de {}: {}", workers.channel, e.getMessage());
+                    break;
+                }
+                if (batch.isEmpty()) {
+                    workers.slots.release();
+                    break;
+                }
+                workers.executor.execute(() -> {
+                    try {
+                        deliver(workers, batch);
+                    } catch (RuntimeException e) {
+                        // Las filas siguen en PROCESSING y se reintentan al expirar el plazo
+                        log.error("Error entregando un lote de {} avisos por {}", batch.size(), workers.channel, e);
+                    } finally {
+                        workers.slots.release();
+                    }
+                });
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.notifications.outbox.cleanup-cron:0 15 4 * * *}")
+    public void purgeFinished() {
+        int deleted = outboxRepository.deleteFinishedOlderThan(retention);
+        if (deleted > 0) {
+            log.info("Outbox: {} avisos resueltos eliminados", deleted);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        channels.values().forEach(workers -> workers.executor.close());
+    }
+
+    private void deliver(ChannelWorkers workers, List<OutboxEntry> batch) {
+        long started = System.nanoTime();
+        Map<Long, BookingNotice> notices = bookingRepository.findNoticesByIds(
+                        batch.stream().map(OutboxEntry::bookingId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(BookingNotice::bookingId, Function.identity()));
+
+        // Avisos que ya no aplican: reserva borrada, en otro estado o sin destinatario en este canal
+        Set<Long> superseded = new HashSet<>();
+        Map<Long, List<OutgoingMessage>> messagesByBusiness = new LinkedHashMap<>();
+        for (OutboxEntry entry : batch) {
+            BookingNotice notice = notices.get(entry.bookingId());
+            if (notice == null || notice.status() != entry.event().requiredStatus() || !usable(entry.channel(), notice)) {
+                superseded.add(entry.id());
+                continue;
+            }
+            OutgoingMessage message = entry.channel() == NotificationType.EMAIL
+                    ? BookingMessages.email(entry.id(), entry.event(), notice)
+                    : BookingMessages.sms(entry.id(), entry.event(), notice);
+            messagesByBusiness.computeIfAbsent(notice.businessId(), id -> new ArrayList<>()).add(message);
+        }
+        outboxRepository.markSuperseded(superseded);
+
+        Set<Long> delivered = new HashSet<>();
+        if (workers.channel == NotificationType.EMAIL) {
+            // Una conexión SMTP por negocio y lote
+            messagesByBusiness.values().forEach(messages -> delivered.addAll(dispatcher.sendEmailBatch(messages)));
+        } else {
+            delivered.addAll(dispatcher.sendSmsBatch(
+                    messagesByBusiness.values().stream().flatMap(List::stream).toList()));
+        }
+
+        List<Long> sent = new ArrayList<>();
+        List<Long> confirmations = new ArrayList<>();
+        Map<Integer, List<Long>> failedByAttempts = new TreeMap<>();
+        for (OutboxEntry entry : batch) {
+            if (superseded.contains(entry.id())) {
+                continue;
+            }
+            if (delivered.contains(entry.id())) {
+                sent.add(entry.id());
+                if (entry.event() == NotificationEvent.BOOKING_CONFIRMED) {
+                    confirmations.add(entry.bookingId());
+                }
+            } else {
+                failedByAttempts.computeIfAbsent(entry.attempts(), attempts -> new ArrayList<>()).add(entry.id());
+            }
+        }
+        outboxRepository.markSent(sent);
+        if (!confirmations.isEmpty()) {
+            bookingRepository.markConfirmationSent(confirmations, LocalDateTime.now());
+        }
+        failedByAttempts.forEach((attempts, ids) -> {
+            String error = "Envío por " + workers.channel + " fallido (intento " + attempts + ")";
+            if (attempts >= maxAttempts) {
+                outboxRepository.markFailed(ids, error);
+                workers.failed.increment(ids.size());
+            } else {
+                outboxRepository.retryLater(ids, backoff(attempts), error);
+                workers.retried.increment(ids.size());
+            }
+        });
+
+        workers.sent.increment(sent.size());
+        workers.superseded.increment(superseded.size());
+        workers.batchTime.record(Duration.ofNanos(System.nanoTime() - started));
+        log.debug("Outbox {}: {} enviados, {} sustituidos, {} fallidos", workers.channel, sent.size(),
+                superseded.size(), batch.size() - sent.size() - superseded.size());
+    }
+
+    private boolean usable(NotificationType channel, BookingNotice notice) {
+        return switch (channel) {
+            case EMAIL -> notice.emailEnabled();
+            case SMS -> notice.smsEnabled() && dispatcher.isSmsEnabled();
+            default -> false;
+        };
+    }
+
+    /**
+     * base * 2^(intentos - 1), con tope y un ±20% aleatorio para no reintentar todos a la vez
+     */
+    private Duration backoff(int attempts) {
+        long seconds = backoffBase.toSeconds() << Math.min(attempts - 1, 20);
+        seconds = Math.min(seconds, backoffMax.toSeconds());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofSeconds(Math.max(1, Math.round(seconds * jitter)));
+    }
+
+    private static final class ChannelWorkers {
+
+        private final NotificationType channel;
+        private final Semaphore slots;
+        private final ExecutorService executor;
+        private final Counter sent;
+        private final Counter retried;
+        private final Counter failed;
+        private final Counter superseded;
+        private final Timer batchTime;
+
+        private ChannelWorkers(NotificationType channel, int workers, MeterRegistry meterRegistry) {
+            this.channel = channel;
+            this.slots = new Semaphore(workers);
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("outbox-" + channel.name().toLowerCase() + "-", 0).factory());
+            String tag = channel.name().toLowerCase();
+            this.sent = Counter.builder(METRIC_PREFIX + "sent").tag("channel", tag)
+                    .description("Avisos entregados").register(meterRegistry);
+            this.retried = Counter.builder(METRIC_PREFIX + "retried").tag("channel", tag)
+                    .description("Avisos devueltos a la cola tras un fallo").register(meterRegistry);
+            this.failed = Counter.builder(METRIC_PREFIX + "failed").tag("channel", tag)
+                    .description("Avisos descartados tras agotar los reintentos").register(meterRegistry);
+            this.superseded = Counter.builder(METRIC_PREFIX + "superseded").tag("channel", tag)
+                    .description("Avisos que ya no aplican al entregarlos").register(meterRegistry);
+            this.batchTime = Timer.builder(METRIC_PREFIX + "batch").tag("channel", tag)
+                    .description("Duración de la entrega de un lote").register(meterRegistry);
+        }
+    }
+}
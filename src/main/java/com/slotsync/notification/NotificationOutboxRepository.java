@@ -0,0 +1,130 @@
+package com.slotsync.notification;
+
+import com.slotsync.enums.NotificationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Acceso JDBC a notification_outbox.
+ * Las escrituras se hacen en la transacción del llamante; la reclamación es una sola sentencia con
+ * FOR UPDATE SKIP LOCKED, así que varios nodos pueden vaciar el outbox a la vez sin repartirse la misma fila.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationOutboxRepository {
+
+    /*
+     * Una fila por canal activo en el negocio. Si ya hay un aviso idéntico pendiente, se queda ese (ON CONFLICT):
+     * los eventos repetidos de una misma reserva se agrupan en una sola entrega.
+     */
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO notification_outbox (booking_id, business_id, event_type, channel, dedup_key) " +
+            "SELECT ?, bz.id, ?, ch.channel, ? || ':' || ch.channel " +
+            "FROM businesses bz CROSS JOIN (VALUES ('EMAIL'), ('SMS')) AS ch (channel) " +
+            "WHERE bz.id = ? AND ((ch.channel = 'EMAIL' AND bz.send_email_notifications IS NOT FALSE) " +
+            "  OR (ch.channel = 'SMS' AND ? AND bz.send_sms_notifications IS TRUE)) " +
+            "ON CONFLICT (dedup_key) WHERE status IN ('PENDING', 'PROCESSING') DO NOTHING";
+
+    private static final String CLAIM_SQL =
+            "UPDATE notification_outbox o SET status = 'PROCESSING', attempts = o.attempts + 1, " +
+            "  next_attempt_at = now() + make_interval(secs => ?) " +
+            "FROM (SELECT id FROM notification_outbox " +
+            "      WHERE channel = ? AND status IN ('PENDING', 'PROCESSING') AND next_attempt_at <= now() " +
+            "      ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED) due " +
+            "WHERE o.id = due.id " +
+            "RETURNING o.id, o.booking_id, o.business_id, o.event_type, o.channel, o.attempts";
+
+    private static final RowMapper<OutboxEntry> ENTRY_MAPPER = (rs, rowNum) -> new OutboxEntry(
+            rs.getLong(1), rs.getLong(2), rs.getLong(3), NotificationEvent.valueOf(rs.getString(4)),
+            NotificationType.valueOf(rs.getString(5)), rs.getInt(6));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Encolar un aviso de reserva en los canales que tenga activos el negocio ({@code smsAvailable}: hay proveedor
+     * de SMS configurado). Devuelve las filas insertadas.
+     */
+    public int enqueue(Long bookingId, Long businessId, NotificationEvent event, boolean smsAvailable) {
+        return jdbcTemplate.update(ENQUEUE_SQL, bookingId, event.name(), dedupPrefix(bookingId, event), businessId,
+                smsAvailable);
+    }
+
+    /**
+     * Reclamar hasta {@code limit} filas vencidas del canal. Quedan en PROCESSING hasta {@code lease}:
+     * si el nodo cae antes de resolverlas, vuelven a estar disponibles al expirar.
+     */
+    public List<OutboxEntry> claim(NotificationType channel, int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM_SQL, ENTRY_MAPPER, lease.toSeconds(), channel.name(), limit);
+    }
+
+    public int markSent(Collection<Long> ids) {
+        return updateStatus(ids, "UPDATE notification_outbox SET status = 'SENT', sent_at = now() " +
+                "WHERE id = ANY(?) AND status = 'PROCESSING'");
+    }
+
+    public int markSuperseded(Collection<Long> ids) {
+        return updateStatus(ids, "UPDATE notification_outbox SET status = 'SUPERSEDED' " +
+                "WHERE id = ANY(?) AND status = 'PROCESSING'");
+    }
+
+    /**
+     * Devolver a PENDING con el siguiente intento dentro de {@code delay}
+     */
+    public int retryLater(Collection<Long> ids, Duration delay, String error) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE notification_outbox SET status = 'PENDING', " +
+                        "next_attempt_at = now() + make_interval(secs => ?), last_error = ? " +
+                        "WHERE id = ANY(?) AND status = 'PROCESSING'",
+                ps -> {
+                    ps.setLong(1, delay.toSeconds());
+                    ps.setString(2, truncate(error));
+                    ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+                });
+    }
+
+    /**
+     * Agotados los reintentos: queda en FAILED para revisarlo a mano
+     */
+    public int markFailed(Collection<Long> ids, String error) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE notification_outbox SET status = 'FAILED', last_error = ? " +
+                        "WHERE id = ANY(?) AND status = 'PROCESSING'",
+                ps -> {
+                    ps.setString(1, truncate(error));
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+                });
+    }
+
+    /**
+     * Borrar las filas resueltas (SENT, FAILED, SUPERSEDED) creadas hace más de {@code retention}
+     */
+    public int deleteFinishedOlderThan(Duration retention) {
+        return jdbcTemplate.update("DELETE FROM notification_outbox WHERE status IN ('SENT', 'FAILED', 'SUPERSEDED') " +
+                "AND created_at < now() - make_interval(secs => ?)", retention.toSeconds());
+    }
+
+    static String dedupPrefix(Long bookingId, NotificationEvent event) {
+        return bookingId + ":" + event.name();
+    }
+
+    private int updateStatus(Collection<Long> ids, String sql) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
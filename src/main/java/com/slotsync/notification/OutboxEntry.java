@@ -0,0 +1,10 @@
+package com.slotsync.notification;
+
+import com.slotsync.enums.NotificationType;
+
+/**
+ * Fila reclamada de notification_outbox ({@code attempts} ya incluye el intento en curso)
+ */
+public record OutboxEntry(Long id, Long bookingId, Long businessId, NotificationEvent event,
+                          NotificationType channel, int attempts) {
+}
@@ -0,0 +1,8 @@
+package com.slotsync.notification;
+
+/**
+ * Mensaje listo para enviar por email o SMS ({@code subject} solo se usa en email).
+ * {@code id} identifica el aviso (fila de notification_outbox) en el resultado del envío.
+ */
+public record OutgoingMessage(Long id, String to, String subject, String text) {
+}
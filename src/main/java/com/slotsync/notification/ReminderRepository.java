@@ -0,0 +1,90 @@
+package com.slotsync.notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acceso JDBC a los recordatorios pendientes.
+ * Reclamar es una sola sentencia: selecciona un lote con FOR UPDATE SKIP LOCKED, marca reminder_sent_at
+ * y encola los avisos en notification_outbox. Varios nodos pueden reclamar a la vez sin bloquearse ni repetir reservas.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReminderRepository {
+
+    /*
+     * start_time está en hora local de cada negocio: el rango [lower, upper] en hora del servidor acota el
+     * recorrido del índice idx_booking_reminder_pending y la condición exacta se evalúa con la zona de cada negocio.
+     * Una zona que PostgreSQL no reconoce haría fallar la sentencia entera, así que se sustituye por la de defecto.
+     */
+    private static final String CLAIM_SQL =
+            "WITH zoned AS (" +
+            "  SELECT b.id, now() AT TIME ZONE CASE WHEN bz.timezone = ANY(?) THEN bz.timezone ELSE ? END AS local_now, " +
+            "         COALESCE(bz.reminder_hours_before, ?) AS hours_before " +
+            "  FROM bookings b JOIN businesses bz ON bz.id = b.business_id " +
+            "  WHERE b.status = 'CONFIRMED' AND b.reminder_sent_at IS NULL AND b.deleted_at IS NULL " +
+            "    AND b.start_time > ? AND b.start_time <= ? " +
+            "    AND (bz.send_email_notifications IS NOT FALSE OR bz.send_sms_notifications IS TRUE)" +
+            "), due AS (" +
+            "  SELECT b.id FROM bookings b JOIN zoned z ON z.id = b.id " +
+            "  WHERE b.start_time > z.local_now AND b.start_time <= z.local_now + make_interval(hours => z.hours_before) " +
+            "  ORDER BY b.start_time LIMIT ? " +
+            "  FOR UPDATE OF b SKIP LOCKED" +
+            "), claimed AS (" +
+            "  UPDATE bookings b SET reminder_sent_at = LOCALTIMESTAMP FROM due " +
+            "  WHERE b.id = due.id AND b.status = 'CONFIRMED' AND b.reminder_sent_at IS NULL " +
+            "  RETURNING b.id, b.business_id" +
+            "), enqueued AS (" +
+            "  INSERT INTO notification_outbox (booking_id, business_id, event_type, channel, dedup_key) " +
+            "  SELECT c.id, c.business_id, 'BOOKING_REMINDER', ch.channel, c.id || ':BOOKING_REMINDER:' || ch.channel " +
+            "  FROM claimed c JOIN businesses bz ON bz.id = c.business_id " +
+            "  CROSS JOIN (VALUES ('EMAIL'), ('SMS')) AS ch (channel) " +
+            "  WHERE (ch.channel = 'EMAIL' AND bz.send_email_notifications IS NOT FALSE) " +
+            "     OR (ch.channel = 'SMS' AND ? AND bz.send_sms_notifications IS TRUE) " +
+            "  ON CONFLICT (dedup_key) WHERE status IN ('PENDING', 'PROCESSING') DO NOTHING " +
+            "  RETURNING 1" +
+            ") " +
+            "SELECT (SELECT count(*) FROM claimed), (SELECT count(*) FROM enqueued)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Zonas horarias que reconoce PostgreSQL (consulta costosa: leerla una vez y reutilizarla)
+     */
+    public List<String> findKnownTimezones() {
+        return jdbcTemplate.queryForList("SELECT name FROM pg_timezone_names", String.class);
+    }
+
+    /**
+     * Reclamar hasta {@code limit} reservas cuyo recordatorio ya toca, marcarlas como enviadas y encolar sus avisos
+     * en notification_outbox, todo en la misma sentencia. Devuelve las reservas reclamadas.
+     * {@code lower}/{@code upper} acotan start_time en hora del servidor y deben cubrir el desfase de cualquier zona.
+     */
+    public ClaimResult claimDue(String[] knownTimezones, String defaultTimezone, int defaultHoursBefore,
+                                LocalDateTime lower, LocalDateTime upper, int limit, boolean smsAvailable) {
+        return jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(CLAIM_SQL);
+            Array zones = connection.createArrayOf("text", knownTimezones);
+            statement.setArray(1, zones);
+            statement.setString(2, defaultTimezone);
+            statement.setInt(3, defaultHoursBefore);
+            statement.setTimestamp(4, Timestamp.valueOf(lower));
+            statement.setTimestamp(5, Timestamp.valueOf(upper));
+            statement.setInt(6, limit);
+            statement.setBoolean(7, smsAvailable);
+            return statement;
+        }, rs -> {
+            rs.next();
+            return new ClaimResult(rs.getInt(1), rs.getInt(2));
+        });
+    }
+
+    public record ClaimResult(int claimed, int enqueued) {
+    }
+}
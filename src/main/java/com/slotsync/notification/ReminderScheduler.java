@@ -0,0 +1,96 @@
+package com.slotsync.notification;
+
+import com.slotsync.notification.ReminderRepository.ClaimResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recordatorios de reservas confirmadas, reminder_hours_before horas antes de su inicio en la zona horaria
+ * de cada negocio.
+ * Cada pasada reclama lotes con {@link ReminderRepository#claimDue}, que marca las reservas y encola sus avisos
+ * en el outbox en la misma sentencia; la entrega (agrupada por negocio y canal, con reintentos) es cosa de
+ * {@link NotificationOutboxRelay}.
+ */
+@Slf4j
+@Component
+public class ReminderScheduler {
+
+    // Mayor diferencia posible entre la hora del servidor y la local de un negocio (UTC-12 a UTC+14)
+    private static final int MAX_ZONE_SKEW_HOURS = 26;
+
+    private final ReminderRepository reminderRepository;
+    private final NotificationDispatcher dispatcher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxHoursBefore;
+    private final int defaultHoursBefore;
+    private final String defaultTimezone;
+
+    private final Counter claimed;
+
+    private volatile String[] knownTimezones;
+
+    public ReminderScheduler(ReminderRepository reminderRepository,
+                             NotificationDispatcher dispatcher,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.reminders.enabled:true}") boolean enabled,
+                             @Value("${app.reminders.batch-size:200}") int batchSize,
+                             @Value("${app.reminders.max-batches-per-run:50}") int maxBatchesPerRun,
+                             @Value("${app.reminders.max-hours-before:168}") int maxHoursBefore,
+                             @Value("${app.reminders.default-hours-before:24}") int defaultHoursBefore,
+                             @Value("${app.business.default-timezone:Europe/Madrid}") String defaultTimezone) {
+        this.reminderRepository = reminderRepository;
+        this.dispatcher = dispatcher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxHoursBefore = maxHoursBefore;
+        this.defaultHoursBefore = defaultHoursBefore;
+        this.defaultTimezone = defaultTimezone;
+        this.claimed = Counter.builder("slotsync.reminders.claimed")
+                .description("Reservas cuyo recordatorio se ha encolado").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.poll-interval-ms:60000}",
+            initialDelayString = "${app.reminders.initial-delay-ms:30000}")
+    public void enqueueDueReminders() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        int bookings = 0;
+        int messages = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            LocalDateTime now = LocalDateTime.now();
+            ClaimResult result = reminderRepository.claimDue(knownTimezones(), defaultTimezone, defaultHoursBefore,
+                    now.minusHours(MAX_ZONE_SKEW_HOURS), now.plusHours(maxHoursBefore + MAX_ZONE_SKEW_HOURS),
+                    batchSize, dispatcher.isSmsEnabled());
+            bookings += result.claimed();
+            messages += result.enqueued();
+            if (result.claimed() < batchSize) {
+                break;
+            }
+        }
+        claimed.increment(bookings);
+        if (bookings > 0) {
+            log.info("Recordatorios: {} reservas reclamadas, {} avisos encolados en {} ms", bookings, messages,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private String[] knownTimezones() {
+        String[] zones = knownTimezones;
+        if (zones == null) {
+            zones = reminderRepository.findKnownTimezones().toArray(String[]::new);
+            knownTimezones = zones;
+        }
+        return zones;
+    }
+}
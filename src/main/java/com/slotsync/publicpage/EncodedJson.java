@@ -0,0 +1,29 @@
+package com.slotsync.publicpage;
+
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Un documento JSON ya serializado, en claro y comprimido con gzip, con su ETag fuerte (uno por codificación).
+ */
+public record EncodedJson(byte[] identity, byte[] gzip, String etag, String gzipEtag) {
+
+    public static EncodedJson of(byte[] json) {
+        String hash = DigestUtils.md5DigestAsHex(json);
+        return new EncodedJson(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gz\"");
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
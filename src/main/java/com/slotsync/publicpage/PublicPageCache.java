@@ -0,0 +1,263 @@
+package com.slotsync.publicpage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slotsync.dto.publicpage.PublicBusinessResponse;
+import com.slotsync.dto.publicpage.PublicProfessionalResponse;
+import com.slotsync.dto.publicpage.PublicServiceResponse;
+import com.slotsync.entity.Business;
+import com.slotsync.entity.Professional;
+import com.slotsync.entity.Service;
+import com.slotsync.event.BusinessCatalogChangedEvent;
+import com.slotsync.event.UserChangedEvent;
+import com.slotsync.exception.ResourceNotFoundException;
+import com.slotsync.repository.BusinessRepository;
+import com.slotsync.repository.ProfessionalRepository;
+import com.slotsync.repository.ServiceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Páginas públicas de negocio precalculadas en memoria: JSON serializado y comprimido con su ETag, por slug.
+ * Una página solo se reconstruye cuando cambia el negocio, uno de sus servicios o profesionales (o el usuario de un
+ * profesional). Con {@link PublicPageInvalidationBroadcast} el cambio se propaga a los demás nodos por Redis; sin él
+ * (o mientras Redis no responde) el TTL acota lo que tarda en verse en otros nodos.
+ * Las peticiones simultáneas sobre una página que falta comparten una única reconstrucción.
+ */
+@Component
+public class PublicPageCache {
+
+    private final BusinessRepository businessRepository;
+    private final ServiceRepository serviceRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PublicPageInvalidationBroadcast broadcast;
+    private final boolean enabled;
+    private final Cache<String, PublicPageSnapshot> snapshots;
+    private final Timer buildTime;
+
+    private final ConcurrentHashMap<String, CompletableFuture<PublicPageSnapshot>> inFlight = new ConcurrentHashMap<>();
+
+    // Secuencia de invalidaciones para no cachear construcciones que se solapan con un cambio
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PublicPageCache(BusinessRepository businessRepository,
+                           ServiceRepository serviceRepository,
+                           ProfessionalRepository professionalRepository,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           ObjectProvider<PublicPageInvalidationBroadcast> broadcast,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.public-pages.enabled:true}") boolean enabled,
+                           @Value("${app.public-pages.ttl-seconds:600}") long ttlSeconds,
+                           @Value("${app.public-pages.max-size:5000}") long maxSize) {
+        this.businessRepository = businessRepository;
+        this.serviceRepository = serviceRepository;
+        this.professionalRepository = professionalRepository;
+        this.objectMapper = objectMapper;
+        // Sin readOnly: se lee del primario, una réplica atrasada dejaría la página obsoleta hasta el siguiente cambio
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.buildTime = Timer.builder("slotsync.public-pages.build")
+                .description("Construcción y serialización de una página pública")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "public-pages");
+        this.broadcast = broadcast.getIfAvailable();
+        if (this.broadcast != null) {
+            this.broadcast.onInvalidation(this::evictLocal, this::evictAll);
+        }
+    }
+
+    /**
+     * Página pública del negocio con este slug
+     *
+     * @throws ResourceNotFoundException si no existe o no está activo
+     */
+    public PublicPageSnapshot get(String slug) {
+        if (!enabled) {
+            return build(slug);
+        }
+        PublicPageSnapshot snapshot = snapshots.getIfPresent(slug);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        CompletableFuture<PublicPageSnapshot> pending = new CompletableFuture<>();
+        CompletableFuture<PublicPageSnapshot> running = inFlight.putIfAbsent(slug, pending);
+        if (running != null) {
+            return join(running);
+        }
+        try {
+            long sequence = invalidations.get();
+            snapshot = build(slug);
+            if (invalidations.get() == sequence) {
+                snapshots.put(slug, snapshot);
+            }
+            pending.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(slug, pending);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(BusinessCatalogChangedEvent event) {
+        evict(PublicPageInvalidationBroadcast.BUSINESS, event.businessId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(PublicPageInvalidationBroadcast.USER, event.userId());
+    }
+
+    private void evict(String type, Long id) {
+        evictLocal(type, id);
+        if (broadcast != null) {
+            broadcast.publish(type, id);
+        }
+    }
+
+    private void evictLocal(String type, Long id) {
+        invalidations.incrementAndGet();
+        if (PublicPageInvalidationBroadcast.BUSINESS.equals(type)) {
+            snapshots.asMap().values().removeIf(snapshot -> snapshot.businessId().equals(id));
+        } else {
+            snapshots.asMap().values().removeIf(snapshot -> snapshot.professionalUserIds().contains(id));
+        }
+    }
+
+    private void evictAll() {
+        invalidations.incrementAndGet();
+        snapshots.invalidateAll();
+    }
+
+    private PublicPageSnapshot build(String slug) {
+        return buildTime.record(() -> transactionTemplate.execute(status -> {
+            Business business = businessRepository.findBySlug(slug)
+                    .filter(b -> Boolean.TRUE.equals(b.getIsActive()) && !b.isDeleted())
+                    .orElseThrow(() -> new ResourceNotFoundException("Negocio no encontrado: " + slug));
+            List<PublicServiceResponse> services = serviceRepository.findPublicByBusinessId(business.getId())
+                    .stream().map(PublicPageCache::toResponse).toList();
+            List<Professional> professionals = professionalRepository.findPublicByBusinessId(business.getId());
+            List<PublicProfessionalResponse> professionalResponses = professionals.stream()
+                    .map(PublicPageCache::toResponse).toList();
+            Set<Long> userIds = professionals.stream().map(p -> p.getUser().getId()).collect(Collectors.toSet());
+
+            return new PublicPageSnapshot(business.getId(), userIds,
+                    serialize(toResponse(business, services, professionalResponses)),
+                    serialize(services),
+                    serialize(professionalResponses));
+        }));
+    }
+
+    private EncodedJson serialize(Object value) {
+        try {
+            return EncodedJson.of(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la página pública", e);
+        }
+    }
+
+    private static PublicPageSnapshot join(CompletableFuture<PublicPageSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static PublicBusinessResponse toResponse(Business business,
+                                                     List<PublicServiceResponse> services,
+                                                     List<PublicProfessionalResponse> professionals) {
+        return PublicBusinessResponse.builder()
+                .id(business.getId())
+                .name(business.getName())
+                .slug(business.getSlug())
+                .description(business.getDescription())
+                .industry(business.getIndustry())
+                .logoUrl(business.getLogoUrl())
+                .coverImageUrl(business.getCoverImageUrl())
+                .phoneNumber(business.getPhoneNumber())
+                .email(business.getEmail())
+                .website(business.getWebsite())
+                .timezone(business.getTimezone())
+                .currency(business.getCurrency())
+                .locale(business.getLocale())
+                .primaryColor(business.getPrimaryColor())
+                .maxAdvanceBookingDays(business.getMaxAdvanceBookingDays())
+                .minAdvanceBookingHours(business.getMinAdvanceBookingHours())
+                .defaultSlotDuration(business.getDefaultSlotDuration())
+                .cancellationHours(business.getCancellationHours())
+                .allowCustomerCancellation(business.getAllowCustomerCancellation())
+                .requirePaymentUpfront(business.getRequirePaymentUpfront())
+                .depositPercentage(business.getDepositPercentage())
+                .publicBookingEnabled(business.getPublicBookingEnabled())
+                .widgetEnabled(business.getWidgetEnabled())
+                .publicBookingUrl(business.getPublicBookingUrl())
+                .services(services)
+                .professionals(professionals)
+                .build();
+    }
+
+    private static PublicServiceResponse toResponse(Service service) {
+        return PublicServiceResponse.builder()
+                .id(service.getId())
+                .name(service.getName())
+                .description(service.getDescription())
+                .category(service.getCategory())
+                .price(service.getPrice())
+                .duration(service.getDuration())
+                .totalDuration(service.getTotalDuration())
+                .imageUrl(service.getImageUrl())
+                .colorHex(service.getColorHex())
+                .isFeatured(service.getIsFeatured())
+                .requiresDeposit(service.getRequiresDeposit())
+                .depositAmount(service.getDepositAmount())
+                .build();
+    }
+
+    private static PublicProfessionalResponse toResponse(Professional professional) {
+        return PublicProfessionalResponse.builder()
+                .id(professional.getId())
+                .firstName(professional.getUser().getFirstName())
+                .lastName(professional.getUser().getLastName())
+                .title(professional.getTitle())
+                .bio(professional.getBio())
+                .specialties(professional.getSpecialties())
+                .yearsOfExperience(professional.getYearsOfExperience())
+                .profileImageUrl(professional.getProfileImageUrl())
+                .isFeatured(professional.getIsFeatured())
+                .ratingAverage(professional.getRatingAverage())
+                .totalReviews(professional.getTotalReviews())
+                .build();
+    }
+}
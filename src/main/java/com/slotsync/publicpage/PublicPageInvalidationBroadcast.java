@@ -0,0 +1,103 @@
+package com.slotsync.publicpage;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Invalidación de {@link PublicPageCache} entre nodos por Redis pub/sub.
+ * Cada mensaje es "nodo|B|negocio" o "nodo|U|usuario"; el nodo que lo publica ya se ha invalidado y lo ignora.
+ * Los errores de Redis solo se registran: mientras tanto los cambios de otros nodos se ven al caducar el TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "app.public-pages.redis.enabled", havingValue = "true")
+public class PublicPageInvalidationBroadcast {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicPageInvalidationBroadcast.class);
+
+    static final String BUSINESS = "B";
+    static final String USER = "U";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private volatile Runnable onMissedMessages = () -> { };
+    private boolean subscribedBefore;
+
+    public PublicPageInvalidationBroadcast(RedisConnectionFactory connectionFactory,
+                                           @Value("${app.public-pages.redis.channel:slotsync:public-pages:invalidate}") String channel) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        // Contenedor propio (no es un bean) para que un Redis caído no impida el arranque
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.topic = new ChannelTopic(channel);
+    }
+
+    /**
+     * Suscribirse a las invalidaciones publicadas por los demás nodos: {@code listener} recibe el tipo (negocio o
+     * usuario) y el id; {@code missed} se ejecuta al recuperar una suscripción perdida
+     */
+    void onInvalidation(BiConsumer<String, Long> listener, Runnable missed) {
+        this.onMissedMessages = missed;
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || nodeId.equals(parts[0])) {
+                return;
+            }
+            try {
+                listener.accept(parts[1], Long.valueOf(parts[2]));
+            } catch (NumberFormatException ex) {
+                logger.warn("Mensaje de invalidación de página pública no válido");
+            }
+        }, topic);
+    }
+
+    /**
+     * Arrancar (o reintentar) la suscripción al canal de invalidaciones. Lo publicado mientras no había suscripción
+     * se ha perdido, así que al volver a suscribirse se avisa con {@code missed}.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.public-pages.redis.resubscribe-interval-ms:60000}")
+    public synchronized void ensureSubscribed() {
+        if (listenerContainer.isRunning()) {
+            return;
+        }
+        try {
+            listenerContainer.start();
+            if (subscribedBefore) {
+                onMissedMessages.run();
+            }
+            subscribedBefore = true;
+            logger.info("Suscrito a las invalidaciones de páginas públicas en {}", topic.getTopic());
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo suscribir a las invalidaciones de páginas públicas: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    void publish(String type, Long id) {
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), nodeId + "|" + type + "|" + id);
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo publicar la invalidación de página pública: {}", ex.getMessage());
+        }
+    }
+}
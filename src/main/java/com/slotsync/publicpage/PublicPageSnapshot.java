@@ -0,0 +1,16 @@
+package com.slotsync.publicpage;
+
+import java.util.Set;
+
+/**
+ * Respuestas públicas de un negocio ya serializadas: la página completa y los listados de servicios y profesionales.
+ * {@code professionalUserIds} permite invalidarla cuando cambia el nombre de uno de sus profesionales.
+ */
+public record PublicPageSnapshot(
+        Long businessId,
+        Set<Long> professionalUserIds,
+        EncodedJson page,
+        EncodedJson services,
+        EncodedJson professionals
+) {
+}
@@ -1,35 +1,49 @@
 package com.slotsync.repository;
 
+import com.slotsync.availability.BookingInterval;
+import com.slotsync.calendar.DayWindow;
 import com.slotsync.entity.Booking;
 import com.slotsync.enums.BookingStatus;
+import com.slotsync.export.BookingRow;
+import com.slotsync.notification.BookingNotice;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
 
-    Optional<Booking> findByBookingCode(String bookingCode);
-
-    List<Booking> findByBusinessId(Long businessId);
-
-    List<Booking> findByCustomerId(Long customerId);
-
-    List<Booking> findByProfessionalId(Long professionalId);
+    String BOOKING_ROW_SELECT = "SELECT new com.slotsync.export.BookingRow(b.id, b.bookingCode, b.status, " +
+           "b.startTime, b.endTime, c.id, c.firstName, c.lastName, c.email, c.phoneNumber, " +
+           "p.id, u.firstName, u.lastName, s.id, s.name, b.price, b.discountAmount, b.totalAmount, b.createdAt) " +
+           "FROM Booking b JOIN b.customer c JOIN b.professional p JOIN p.user u JOIN b.service s ";
 
-    List<Booking> findByStatus(BookingStatus status);
-
-    @Query("SELECT b FROM Booking b WHERE b.business.id = :businessId AND b.status = :status")
-    List<Booking> findByBusinessIdAndStatus(@Param("businessId") Long businessId, @Param("status") BookingStatus status);
+    @EntityGraph(Booking.GRAPH_DETAIL)
+    Optional<Booking> findByBookingCode(String bookingCode);
 
+    /**
+     * Reservas activas de un profesional con inicio en [startTime, endTime).
+     * Usa idx_booking_professional_start.
+     */
+    @EntityGraph(Booking.GRAPH_WITH_PAYMENT)
     @Query("SELECT b FROM Booking b WHERE b.professional.id = :professionalId " +
-           "AND b.startTime BETWEEN :startTime AND :endTime " +
+           "AND b.startTime >= :startTime AND b.startTime < :endTime " +
            "AND b.status NOT IN ('CANCELLED', 'NO_SHOW')")
     List<Booking> findProfessionalBookingsInRange(
         @Param("professionalId") Long professionalId,
@@ -37,30 +51,192 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpec
         @Param("endTime") LocalDateTime endTime
     );
 
-    @Query("SELECT b FROM Booking b WHERE b.business.id = :businessId " +
-           "AND CAST(b.startTime AS DATE) = CURRENT_DATE " +
-           "AND b.status NOT IN ('CANCELLED', 'NO_SHOW') " +
-           "ORDER BY b.startTime ASC")
-    List<Booking> findTodayBookingsByBusiness(@Param("businessId") Long businessId);
+    @Query("SELECT new com.slotsync.availability.BookingInterval(b.id, b.professional.id, b.startTime, b.endTime) " +
+           "FROM Booking b WHERE b.professional.id IN :professionalIds " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime " +
+           "AND b.status NOT IN ('CANCELLED', 'NO_SHOW')")
+    List<BookingInterval> findBookingIntervals(
+        @Param("professionalIds") Collection<Long> professionalIds,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+           "WHERE b.professional.id = :professionalId " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime " +
+           "AND b.status NOT IN ('CANCELLED', 'NO_SHOW')")
+    boolean existsOverlappingBooking(
+        @Param("professionalId") Long professionalId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
 
-    @Query("SELECT b FROM Booking b WHERE b.business.id = :businessId " +
-           "AND b.startTime BETWEEN :startDate AND :endDate " +
+    /**
+     * Agenda del día del negocio; la ventana se calcula con la zona horaria del negocio
+     * ({@link com.slotsync.calendar.BusinessClock#todayWindow(Long)})
+     */
+    default List<BookingRow> findTodayBookingsByBusiness(Long businessId, DayWindow today) {
+        return findBookingsByBusinessAndDateRange(businessId, today.start(), today.end());
+    }
+
+    /**
+     * Reservas activas del negocio con inicio en [startDate, endDate), como filas planas.
+     * Usa idx_booking_business_start.
+     */
+    @Query(BOOKING_ROW_SELECT +
+           "WHERE b.business.id = :businessId " +
+           "AND b.startTime >= :startDate AND b.startTime < :endDate " +
            "AND b.status NOT IN ('CANCELLED', 'NO_SHOW') " +
-           "ORDER BY b.startTime ASC")
-    List<Booking> findBookingsByBusinessAndDateRange(
+           "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingRow> findBookingsByBusinessAndDateRange(
         @Param("businessId") Long businessId,
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
 
+    /**
+     * Reservas de un negocio en un estado con inicio en [from, to)
+     */
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.business.id = :businessId " +
-           "AND b.status = 'CONFIRMED' AND b.startTime >= CURRENT_TIMESTAMP")
-    long countUpcomingBookingsByBusiness(@Param("businessId") Long businessId);
+           "AND b.status = :status AND b.startTime >= :from AND b.startTime < :to")
+    long countByBusinessStatusAndStartRange(@Param("businessId") Long businessId,
+                                            @Param("status") BookingStatus status,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
 
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.customer.id = :customerId AND b.status = 'NO_SHOW'")
     long countNoShowsByCustomer(@Param("customerId") Long customerId);
 
-    @Query("SELECT SUM(b.totalAmount) FROM Booking b WHERE b.business.id = :businessId " +
-           "AND b.status = 'COMPLETED' AND YEAR(b.startTime) = :year AND MONTH(b.startTime) = :month")
-    Double calculateMonthlyRevenue(@Param("businessId") Long businessId, @Param("year") int year, @Param("month") int month);
+    default BigDecimal calculateMonthlyRevenue(Long businessId, YearMonth month) {
+        DayWindow window = DayWindow.ofMonth(month);
+        return calculateRevenue(businessId, window.start(), window.end());
+    }
+
+    /**
+     * Importe de las reservas completadas con inicio en [from, to).
+     * Usa idx_booking_business_completed_start (índice de cobertura: no lee la tabla).
+     */
+    @Query("SELECT COALESCE(SUM(b.totalAmount), 0) FROM Booking b WHERE b.business.id = :businessId " +
+           "AND b.status = 'COMPLETED' AND b.startTime >= :from AND b.startTime < :to")
+    BigDecimal calculateRevenue(@Param("businessId") Long businessId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    /**
+     * Códigos de reserva que ya existen de entre los indicados
+     */
+    @Query("SELECT b.bookingCode FROM Booking b WHERE b.bookingCode IN :codes")
+    List<String> findExistingBookingCodes(@Param("codes") Collection<String> codes);
+
+    /**
+     * Reservas de un negocio como filas planas, leídas con un cursor del servidor por bloques de
+     * {@code fetch_size} filas. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(BOOKING_ROW_SELECT +
+           "WHERE b.business.id = :businessId AND b.startTime >= :from AND b.startTime < :to " +
+           "AND (:status IS NULL OR b.status = :status) " +
+           "ORDER BY b.startTime ASC, b.id ASC")
+    Stream<BookingRow> streamBookingRows(@Param("businessId") Long businessId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("status") BookingStatus status);
+
+    /**
+     * Calendario del negocio: página de reservas posteriores a (afterTime, afterId) por (start_time, id),
+     * con inicio anterior a {@code to}. Usa idx_booking_business_start.
+     */
+    @Query(BOOKING_ROW_SELECT +
+           "WHERE b.business.id = :businessId AND (:status IS NULL OR b.status = :status) " +
+           "AND b.startTime < :to AND (b.startTime, b.id) > (:afterTime, :afterId) " +
+           "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingRow> findBusinessBookingsAfter(@Param("businessId") Long businessId,
+                                               @Param("status") BookingStatus status,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("afterTime") LocalDateTime afterTime,
+                                               @Param("afterId") Long afterId,
+                                               Limit limit);
+
+    /**
+     * Últimas reservas creadas en el negocio, anteriores a (beforeTime, beforeId) por (created_at, id).
+     * Usa idx_booking_business_created.
+     */
+    @Query(BOOKING_ROW_SELECT +
+           "WHERE b.business.id = :businessId AND (b.createdAt, b.id) < (:beforeTime, :beforeId) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingRow> findBusinessBookingsCreatedBefore(@Param("businessId") Long businessId,
+                                                       @Param("beforeTime") LocalDateTime beforeTime,
+                                                       @Param("beforeId") Long beforeId,
+                                                       Limit limit);
+
+    /**
+     * Historial de un cliente en el negocio, de la más reciente a la más antigua por (start_time, id).
+     * Usa idx_booking_customer_start.
+     */
+    @Query(BOOKING_ROW_SELECT +
+           "WHERE c.id = :customerId AND b.business.id = :businessId " +
+           "AND (b.startTime, b.id) < (:beforeTime, :beforeId) " +
+           "ORDER BY b.startTime DESC, b.id DESC")
+    List<BookingRow> findCustomerBookingsBefore(@Param("businessId") Long businessId,
+                                                @Param("customerId") Long customerId,
+                                                @Param("beforeTime") LocalDateTime beforeTime,
+                                                @Param("beforeId") Long beforeId,
+                                                Limit limit);
+
+    /**
+     * Agenda de un profesional por (start_time, id), con inicio anterior a {@code to}.
+     * Usa idx_booking_professional_start.
+     */
+    @Query(BOOKING_ROW_SELECT +
+           "WHERE p.id = :professionalId AND b.business.id = :businessId " +
+           "AND b.startTime < :to AND (b.startTime, b.id) > (:afterTime, :afterId) " +
+           "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingRow> findProfessionalBookingsAfter(@Param("businessId") Long businessId,
+                                                   @Param("professionalId") Long professionalId,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("afterTime") LocalDateTime afterTime,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    /**
+     * Bloquear las reservas indicadas (FOR UPDATE SKIP LOCKED, en orden de id) y devolver sus ids.
+     * Las que otra transacción tiene bloqueadas no se devuelven. Solo bloquea: las entidades se cargan después
+     * con {@link #findAllWithPaymentByIdIn}, porque Hibernate no admite bloquear una consulta con LEFT JOIN FETCH.
+     */
+    @Query(value = "SELECT id FROM bookings WHERE id IN (:ids) ORDER BY id FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockIdsForUpdateSkipLocked(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bloquear (SKIP LOCKED) y cargar con su pago las reservas indicadas: dos consultas sea cual sea el número
+     */
+    default List<Booking> findAllByIdForUpdateSkipLocked(Collection<Long> ids) {
+        List<Long> locked = lockIdsForUpdateSkipLocked(ids);
+        return locked.isEmpty() ? List.of() : findAllWithPaymentByIdIn(locked);
+    }
+
+    /**
+     * Reservas con su pago en una sola consulta
+     */
+    @EntityGraph(Booking.GRAPH_WITH_PAYMENT)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids ORDER BY b.id")
+    List<Booking> findAllWithPaymentByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.slotsync.notification.BookingNotice(b.id, bz.id, b.bookingCode, b.status, b.startTime, " +
+           "c.firstName, c.email, c.phoneNumber, s.name, u.firstName, bz.name, " +
+           "bz.sendEmailNotifications, bz.sendSmsNotifications) " +
+           "FROM Booking b JOIN b.customer c JOIN b.professional p JOIN p.user u JOIN b.service s " +
+           "JOIN b.business bz WHERE b.id IN :ids AND b.deletedAt IS NULL")
+    List<BookingNotice> findNoticesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Actualización directa: no pasa por BookingEntityListener, así que no genera un nuevo evento
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.confirmationSentAt = :sentAt WHERE b.id IN :ids")
+    int markConfirmationSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
 }
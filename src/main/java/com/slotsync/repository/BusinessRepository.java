@@ -2,8 +2,14 @@ package com.slotsync.repository;
 
 import com.slotsync.entity.Business;
 import com.slotsync.enums.SubscriptionPlan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +18,10 @@ import java.util.Optional;
 @Repository
 public interface BusinessRepository extends JpaRepository<Business, Long>, JpaSpecificationExecutor<Business> {
 
+    // En el query cache: la resuelve cada reserva y cada búsqueda pública.
+    // activeSubscription es un one-to-one inverso (no admite lazy): se trae en la misma consulta
+    @EntityGraph(attributePaths = "activeSubscription")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Business> findBySlug(String slug);
 
     boolean existsBySlug(String slug);
@@ -25,4 +35,7 @@ public interface BusinessRepository extends JpaRepository<Business, Long>, JpaSp
     List<Business> findByIsActiveTrue();
 
     long countBySubscriptionPlan(SubscriptionPlan plan);
+
+    @Query("SELECT b.timezone FROM Business b WHERE b.id = :id")
+    Optional<String> findTimezoneById(@Param("id") Long id);
 }
@@ -1,9 +1,14 @@
 package com.slotsync.repository;
 
+import com.slotsync.bulkimport.EmailId;
 import com.slotsync.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,8 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByPhoneNumber(String phoneNumber);
     Optional<Customer> findByUserId(Long userId);
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.slotsync.bulkimport.EmailId(LOWER(c.email), MIN(c.id)) FROM Customer c " +
+           "WHERE LOWER(c.email) IN :emails AND c.deletedAt IS NULL GROUP BY LOWER(c.email)")
+    List<EmailId> findIdsByEmails(@Param("emails") Collection<String> emails);
 }
@@ -3,8 +3,11 @@ package com.slotsync.repository;
 import com.slotsync.entity.Payment;
 import com.slotsync.enums.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,10 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByBookingId(Long bookingId);
     Optional<Payment> findByStripePaymentIntentId(String stripePaymentIntentId);
     List<Payment> findByStatus(PaymentStatus status);
+
+    /**
+     * Pagos de varios payment intents con su reserva, en una sola consulta
+     */
+    @Query("SELECT p FROM Payment p LEFT JOIN FETCH p.booking WHERE p.stripePaymentIntentId IN :intentIds")
+    List<Payment> findAllByStripePaymentIntentIdIn(@Param("intentIds") Collection<String> intentIds);
 }
@@ -0,0 +1,29 @@
+package com.slotsync.repository;
+
+import com.slotsync.entity.ProfessionalAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProfessionalAvailabilityRepository extends JpaRepository<ProfessionalAvailability, Long> {
+
+    List<ProfessionalAvailability> findByProfessionalId(Long professionalId);
+
+    /**
+     * Reglas activas (recurrentes o de fecha concreta dentro del rango) de varios profesionales
+     */
+    @Query("SELECT a FROM ProfessionalAvailability a WHERE a.professional.id IN :professionalIds " +
+           "AND a.isActive = true " +
+           "AND (a.isRecurring = true OR a.specificDate BETWEEN :fromDate AND :toDate)")
+    List<ProfessionalAvailability> findApplicableRules(
+        @Param("professionalIds") Collection<Long> professionalIds,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+}
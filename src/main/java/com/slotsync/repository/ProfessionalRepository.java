@@ -1,16 +1,55 @@
 package com.slotsync.repository;
 
 import com.slotsync.entity.Professional;
+import com.slotsync.listing.ProfessionalListItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProfessionalRepository extends JpaRepository<Professional, Long> {
-    List<Professional> findByBusinessId(Long businessId);
     List<Professional> findByBusinessIdAndIsActiveTrue(Long businessId);
     Optional<Professional> findByUserId(Long userId);
     List<Professional> findByBusinessIdAndAcceptsOnlineBookingsTrue(Long businessId);
+
+    @Query("SELECT p.id FROM Professional p JOIN p.services s " +
+           "WHERE p.business.id = :businessId AND s.id = :serviceId " +
+           "AND p.acceptsOnlineBookings = true AND p.isActive = true " +
+           "ORDER BY p.displayOrder ASC, p.id ASC")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Long> findBookableProfessionalIds(@Param("businessId") Long businessId, @Param("serviceId") Long serviceId);
+
+    /**
+     * Profesionales activos que aceptan reservas online, con su usuario, en el orden de la página pública.
+     * User.customer es un one-to-one inverso (no admite lazy): sin el fetch sería una consulta más por profesional.
+     */
+    @Query("SELECT p FROM Professional p JOIN FETCH p.user u LEFT JOIN FETCH u.customer " +
+           "WHERE p.business.id = :businessId " +
+           "AND p.acceptsOnlineBookings = true AND p.isActive = true AND p.deletedAt IS NULL " +
+           "ORDER BY p.displayOrder ASC, p.id ASC")
+    List<Professional> findPublicByBusinessId(@Param("businessId") Long businessId);
+
+    @Query("SELECT p.id FROM Professional p WHERE p.business.id = :businessId")
+    List<Long> findIdsByBusinessId(@Param("businessId") Long businessId);
+
+    /**
+     * Página de profesionales del negocio posteriores a (afterTime, afterId) por (created_at, id)
+     */
+    @Query("SELECT new com.slotsync.listing.ProfessionalListItem(p.id, u.id, u.firstName, u.lastName, p.title, " +
+           "p.acceptsOnlineBookings, p.isActive, p.createdAt) FROM Professional p JOIN p.user u " +
+           "WHERE p.business.id = :businessId AND p.deletedAt IS NULL " +
+           "AND (p.createdAt, p.id) > (:afterTime, :afterId) ORDER BY p.createdAt ASC, p.id ASC")
+    List<ProfessionalListItem> findPageByBusinessId(@Param("businessId") Long businessId,
+                                                    @Param("afterTime") LocalDateTime afterTime,
+                                                    @Param("afterId") Long afterId,
+                                                    Limit limit);
 }
@@ -1,16 +1,41 @@
 package com.slotsync.repository;
 
 import com.slotsync.entity.Service;
+import com.slotsync.listing.ServiceListItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<Service, Long> {
-    List<Service> findByBusinessId(Long businessId);
     List<Service> findByBusinessIdAndIsActiveTrue(Long businessId);
-    List<Service> findByCategory(String category);
     List<Service> findByBusinessIdAndCategory(Long businessId, String category);
     List<Service> findByBusinessIdOrderByDisplayOrderAsc(Long businessId);
+
+    /**
+     * Servicios activos del negocio en el orden de la página pública
+     */
+    @Query("SELECT s FROM Service s WHERE s.business.id = :businessId AND s.isActive = true " +
+           "AND s.deletedAt IS NULL ORDER BY s.displayOrder ASC, s.id ASC")
+    List<Service> findPublicByBusinessId(@Param("businessId") Long businessId);
+
+    @Query("SELECT s.id FROM Service s WHERE s.business.id = :businessId")
+    List<Long> findIdsByBusinessId(@Param("businessId") Long businessId);
+
+    /**
+     * Página de servicios del negocio posteriores a (afterTime, afterId) por (created_at, id)
+     */
+    @Query("SELECT new com.slotsync.listing.ServiceListItem(s.id, s.name, s.category, s.price, s.duration, " +
+           "s.isActive, s.createdAt) FROM Service s " +
+           "WHERE s.business.id = :businessId AND s.deletedAt IS NULL " +
+           "AND (s.createdAt, s.id) > (:afterTime, :afterId) ORDER BY s.createdAt ASC, s.id ASC")
+    List<ServiceListItem> findPageByBusinessId(@Param("businessId") Long businessId,
+                                               @Param("afterTime") LocalDateTime afterTime,
+                                               @Param("afterId") Long afterId,
+                                               Limit limit);
 }
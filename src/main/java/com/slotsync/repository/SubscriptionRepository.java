@@ -0,0 +1,13 @@
+package com.slotsync.repository;
+
+import com.slotsync.entity.Subscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+    List<Subscription> findByStripeSubscriptionIdIn(Collection<String> stripeSubscriptionIds);
+}
@@ -2,12 +2,16 @@ package com.slotsync.repository;
 
 import com.slotsync.entity.User;
 import com.slotsync.enums.Role;
+import com.slotsync.listing.UserListItem;
+import com.slotsync.security.UserTokenState;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,16 +31,6 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      */
     boolean existsByEmail(String email);
 
-    /**
-     * Buscar usuarios por rol
-     */
-    List<User> findByRole(Role role);
-
-    /**
-     * Buscar usuarios por negocio
-     */
-    List<User> findByBusinessId(Long businessId);
-
     /**
      * Buscar usuarios por negocio y rol
      */
@@ -67,4 +61,30 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      * Buscar por email ignorando mayúsculas
      */
     Optional<User> findByEmailIgnoreCase(String email);
+
+    /**
+     * Estados de token de los usuarios restringidos (desactivados, eliminados o con tokens revocados)
+     */
+    @Query("SELECT new com.slotsync.security.UserTokenState(u.id, u.tokenVersion, u.isActive, u.deletedAt, u.updatedAt) " +
+           "FROM User u WHERE u.tokenVersion > 0 OR u.isActive = false OR u.deletedAt IS NOT NULL")
+    List<UserTokenState> findRestrictedTokenStates();
+
+    /**
+     * Estados de token de los usuarios modificados desde una fecha
+     */
+    @Query("SELECT new com.slotsync.security.UserTokenState(u.id, u.tokenVersion, u.isActive, u.deletedAt, u.updatedAt) " +
+           "FROM User u WHERE u.updatedAt >= :since")
+    List<UserTokenState> findTokenStatesUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Página de usuarios del negocio posteriores a (afterTime, afterId) por (created_at, id)
+     */
+    @Query("SELECT new com.slotsync.listing.UserListItem(u.id, u.email, u.firstName, u.lastName, u.role, " +
+           "u.isActive, u.createdAt) FROM User u " +
+           "WHERE u.business.id = :businessId AND u.deletedAt IS NULL " +
+           "AND (u.createdAt, u.id) > (:afterTime, :afterId) ORDER BY u.createdAt ASC, u.id ASC")
+    List<UserListItem> findPageByBusinessId(@Param("businessId") Long businessId,
+                                            @Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") Long afterId,
+                                            Limit limit);
 }
@@ -2,36 +2,48 @@ package com.slotsync.security;
 
 import com.slotsync.entity.User;
 import com.slotsync.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Servicio personalizado para cargar usuarios desde la base de datos
+ * Servicio personalizado para cargar usuarios desde la base de datos.
+ * Los principales pasan por {@link PrincipalCache}; solo los fallos abren una transacción.
  */
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TransactionTemplate loadTransaction;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    PrincipalCache principalCache,
+                                    PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        // Sin readOnly: se lee del primario. Tras un UserChangedEvent la recarga desde una réplica atrasada volvería a
+        // cachear el principal anterior (token_version, rol, activo) hasta que caducase
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+    }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
-
-        return UserPrincipal.create(user);
+        return principalCache.getByEmail(email, key -> loadTransaction.execute(status -> {
+            User user = userRepository.findByEmail(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + key));
+            return UserPrincipal.create(user);
+        }));
     }
 
-    @Transactional(readOnly = true)
     public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con ID: " + id));
-
-        return UserPrincipal.create(user);
+        return principalCache.getById(id, key -> loadTransaction.execute(status -> {
+            User user = userRepository.findById(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con ID: " + key));
+            return UserPrincipal.create(user);
+        }));
     }
 }
@@ -4,7 +4,6 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,17 +14,28 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
- * Filtro para autenticación JWT en cada request
+ * Filtro para autenticación JWT en cada request.
+ * Con un {@link UserTokenRegistry} el principal se reconstruye desde los claims sin consultar
+ * la base de datos; los tokens sin rol o sin versión siguen cargando el usuario.
  */
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final UserTokenRegistry tokenRegistry;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   CustomUserDetailsService customUserDetailsService,
+                                   UserTokenRegistry tokenRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.customUserDetailsService = customUserDetailsService;
+        this.tokenRegistry = tokenRegistry;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -34,10 +44,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+            Optional<JwtClaims> claims = StringUtils.hasText(jwt) ? tokenProvider.resolveToken(jwt) : Optional.empty();
+
+            UserDetails userDetails = claims.isPresent() ? resolvePrincipal(claims.get()) : null;
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -51,6 +62,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Obtener el principal del token: desde los claims si el registro lo permite, o desde la base de datos
+     */
+    private UserDetails resolvePrincipal(JwtClaims claims) {
+        if (tokenRegistry != null && tokenRegistry.isReady()
+                && claims.getRole() != null && claims.getTokenVersion() != null) {
+            if (!tokenRegistry.isAllowed(claims.getUserId(), claims.getTokenVersion())) {
+                logger.debug("Token revocado para el usuario {}", claims.getUserId());
+                return null;
+            }
+            return UserPrincipal.fromClaims(claims);
+        }
+        return customUserDetailsService.loadUserById(claims.getUserId());
+    }
+
     /**
      * Extraer JWT del header Authorization
      */
@@ -0,0 +1,40 @@
+package com.slotsync.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Claims de un token JWT ya verificado (inmutable)
+ */
+@Value
+public class JwtClaims {
+
+    Long userId;
+    String email;
+    String role;
+    Long businessId;
+    Integer tokenVersion;
+    Instant issuedAt;
+    Instant expiresAt;
+
+    static JwtClaims from(Claims claims) {
+        return new JwtClaims(
+                Long.parseLong(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.get("role", String.class),
+                claims.get("businessId", Long.class),
+                claims.get(JwtTokenProvider.TOKEN_VERSION_CLAIM, Integer.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    /**
+     * Verificar si el token está expirado
+     */
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
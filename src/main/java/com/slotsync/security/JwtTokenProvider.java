@@ -1,7 +1,14 @@
 package com.slotsync.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,16 +18,24 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Proveedor de tokens JWT para autenticación
+ * Proveedor de tokens JWT para autenticación.
+ * Los tokens ya verificados se guardan por su huella SHA-256 hasta su {@code exp}, de modo que
+ * un token repetido no vuelve a verificar la firma HS512 (la expiración se sigue comprobando).
  */
 @Component
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -30,11 +45,41 @@ public class JwtTokenProvider {
     @Value("${app.jwt.refresh-expiration}")
     private long jwtRefreshExpirationMs;
 
+    @Value("${app.jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
     private SecretKey key;
 
+    // JwtParser es inmutable y thread-safe: se construye una vez y se reutiliza
+    private JwtParser jwtParser;
+
+    // Null si la caché está desactivada (max-size 0)
+    private Cache<TokenDigest, JwtClaims> verifiedTokens;
+    private volatile Timer verificationTimer;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        if (verifiedCacheMaxSize > 0) {
+            this.verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxSize)
+                    .expireAfter(new UntilTokenExpiry())
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.verificationTimer = Timer.builder("slotsync.jwt.verification")
+                .description("Verificaciones de firma de tokens JWT (fallos de la caché)")
+                .register(registry);
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwt.verified-tokens");
+        }
     }
 
     /**
@@ -51,6 +96,7 @@ public class JwtTokenProvider {
                 .claim("email", userPrincipal.getEmail())
                 .claim("role", userPrincipal.getRole())
                 .claim("businessId", userPrincipal.getBusinessId())
+                .claim(TOKEN_VERSION_CLAIM, userPrincipal.getTokenVersion())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
@@ -61,6 +107,14 @@ public class JwtTokenProvider {
      * Generar token JWT desde user ID
      */
     public String generateTokenFromUserId(Long userId, String email, String role, Long businessId) {
+        return generateTokenFromUserId(userId, email, role, businessId, null);
+    }
+
+    /**
+     * Generar token JWT desde user ID incluyendo la versión de tokens del usuario
+     */
+    public String generateTokenFromUserId(Long userId, String email, String role, Long businessId,
+                                          Integer tokenVersion) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
@@ -69,6 +123,7 @@ public class JwtTokenProvider {
                 .claim("email", email)
                 .claim("role", role)
                 .claim("businessId", businessId)
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
@@ -91,42 +146,50 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Obtener user ID del token
+     * Parsear y verificar el token una sola vez
+     *
+     * @throws JwtException si la firma no es válida, el token está expirado o mal formado
      */
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.parseLong(claims.getSubject());
+    public JwtClaims parseToken(String token) {
+        if (verifiedTokens == null) {
+            return verify(token);
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.invalidate(digest);
+        }
+        JwtClaims claims = verify(token);
+        // Sin exp no hay un límite de validez para la entrada
+        if (claims.getExpiresAt() != null) {
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
-    /**
-     * Obtener email del token
-     */
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.get("email", String.class);
+    private JwtClaims verify(String token) {
+        long start = System.nanoTime();
+        try {
+            return JwtClaims.from(jwtParser.parseSignedClaims(token).getPayload());
+        } finally {
+            Timer timer = verificationTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
     }
 
+
     /**
-     * Validar token JWT
+     * Parsear y verificar el token, registrando el motivo si no es válido
      */
-    public boolean validateToken(String authToken) {
+    public Optional<JwtClaims> resolveToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (SecurityException ex) {
+            return Optional.of(parseToken(token));
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token");
@@ -136,24 +199,45 @@ public class JwtTokenProvider {
             logger.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            logger.error("Invalid JWT token: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
     /**
-     * Verificar si el token está expirado
+     * Obtener user ID del token
      */
-    public boolean isTokenExpired(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return true;
+    public Long getUserIdFromToken(String token) {
+        return parseToken(token).getUserId();
+    }
+
+    /**
+     * Validar token JWT
+     */
+    public boolean validateToken(String authToken) {
+        return resolveToken(authToken).isPresent();
+    }
+
+    /**
+     * Cada entrada caduca en el {@code exp} de su token
+     */
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest digest, JwtClaims claims, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), claims.getExpiresAt());
+            return remaining.isNegative() ? 0 : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest digest, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest digest, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,140 @@
+package com.slotsync.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slotsync.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché de {@link UserPrincipal} en dos niveles: una caché local acotada con TTL (Caffeine)
+ * y, opcionalmente, un nivel compartido en Redis ({@link PrincipalCacheRedisTier}).
+ * Cada cambio confirmado de un usuario lo invalida en ambos niveles y, vía pub/sub, en el resto de nodos.
+ * Las cargas desde la base de datos que se solapan con una invalidación no se guardan: en local por la secuencia
+ * de invalidaciones y en Redis por la generación del usuario ({@link PrincipalCacheRedisTier#put}).
+ * Redis no guarda la contraseña, así que la búsqueda por email (la del login) solo usa el nivel local y solo con
+ * principales que la tengan. Sin Redis funciona solo con el nivel local.
+ */
+@Component
+public class PrincipalCache {
+
+    private final boolean enabled;
+    private final Cache<Long, UserPrincipal> principals;
+    private final Cache<String, Long> idsByEmail;
+    private final PrincipalCacheRedisTier sharedTier;
+
+    // Secuencia de invalidaciones para no cachear cargas que se solapan con un cambio
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PrincipalCache(ObjectProvider<PrincipalCacheRedisTier> sharedTier,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.sharedTier = sharedTier.getIfAvailable();
+        if (this.sharedTier != null) {
+            this.sharedTier.onInvalidation(this::evictLocal);
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    /**
+     * Obtener el principal por ID, cargándolo con {@code loader} si no está en ningún nivel
+     */
+    public UserPrincipal getById(Long userId, Function<Long, UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        UserPrincipal principal = principals.getIfPresent(userId);
+        if (principal != null) {
+            return principal;
+        }
+        long sequence = invalidations.get();
+        principal = sharedTier != null ? sharedTier.get(userId) : null;
+        if (principal != null) {
+            store(principal, sequence);
+            return principal;
+        }
+        // Leída antes de cargar: si otro nodo invalida durante la carga, Redis rechaza la escritura
+        String generation = sharedTier != null ? sharedTier.generation(userId) : null;
+        principal = loader.apply(userId);
+        if (store(principal, sequence) && generation != null) {
+            sharedTier.put(principal, generation);
+        }
+        return principal;
+    }
+
+    /**
+     * Obtener el principal por email, con contraseña, cargándolo con {@code loader} si no está en el nivel local
+     */
+    public UserPrincipal getByEmail(String email, Function<String, UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        Long userId = idsByEmail.getIfPresent(email);
+        if (userId != null) {
+            UserPrincipal principal = principals.getIfPresent(userId);
+            // El índice puede apuntar a un usuario que cambió de email, y los leídos de Redis no traen contraseña
+            if (principal != null && email.equals(principal.getEmail()) && principal.getPassword() != null) {
+                return principal;
+            }
+        }
+        // Sin el ID no se puede leer la generación antes de cargar: lo cargado por email solo se guarda en este nodo
+        long sequence = invalidations.get();
+        UserPrincipal principal = loader.apply(email);
+        store(principal, sequence);
+        return principal;
+    }
+
+    /**
+     * Invalidar un usuario en todos los niveles y avisar al resto de nodos
+     */
+    public void evict(Long userId) {
+        evictLocal(userId);
+        if (sharedTier != null) {
+            sharedTier.evict(userId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.principalChanged()) {
+            evict(event.userId());
+        }
+    }
+
+    private void evictLocal(Long userId) {
+        invalidations.incrementAndGet();
+        principals.invalidate(userId);
+    }
+
+    /**
+     * Guardar en el nivel local si no hubo invalidaciones desde {@code sequence}. Devuelve si se guardó.
+     */
+    private boolean store(UserPrincipal principal, long sequence) {
+        if (invalidations.get() != sequence) {
+            return false;
+        }
+        principals.put(principal.getId(), principal);
+        idsByEmail.put(principal.getEmail(), principal.getId());
+        return true;
+    }
+}
@@ -0,0 +1,183 @@
+package com.slotsync.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Nivel compartido de {@link PrincipalCache} en Redis.
+ * Los principales se guardan en JSON ({@link SharedPrincipal}), sin la contraseña, bajo un prefijo versionado: una
+ * entrada de otra versión o ilegible se trata como un fallo de caché.
+ * Los errores de Redis nunca rompen la autenticación: se registran y se trata como un fallo de caché.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.principal-cache.redis.enabled", havingValue = "true")
+public class PrincipalCacheRedisTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCacheRedisTier.class);
+
+    private static final String ID_KEY = "slotsync:principal:v2:id:";
+    private static final String GENERATION_KEY = "slotsync:principal:v2:generation:";
+    private static final String NO_GENERATION = "";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic invalidationTopic;
+    private final Duration ttl;
+
+    public PrincipalCacheRedisTier(RedisConnectionFactory connectionFactory,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.security.principal-cache.redis.channel:slotsync:principal:invalidate}") String channel,
+                                   @Value("${app.security.principal-cache.redis.ttl-seconds:900}") long ttlSeconds) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.objectMapper = objectMapper;
+        // Contenedor propio (no es un bean) para que un Redis caído no impida el arranque
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.invalidationTopic = new ChannelTopic(channel);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Suscribirse a las invalidaciones publicadas por cualquier nodo
+     */
+    void onInvalidation(Consumer<Long> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+            } catch (NumberFormatException ex) {
+                logger.warn("Mensaje de invalidación de principal no válido");
+            }
+        }, invalidationTopic);
+    }
+
+    /**
+     * Arrancar (o reintentar) la suscripción al canal de invalidaciones.
+     * Mientras no haya suscripción, los cambios hechos en otros nodos solo se aplican al expirar el TTL local.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.security.principal-cache.redis.resubscribe-interval-ms:60000}")
+    public void ensureSubscribed() {
+        if (listenerContainer.isRunning()) {
+            return;
+        }
+        try {
+            listenerContainer.start();
+            logger.info("Suscrito a las invalidaciones de principales en {}", invalidationTopic.getTopic());
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo suscribir a las invalidaciones de principales: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    /**
+     * Principal compartido, sin contraseña
+     */
+    UserPrincipal get(Long userId) {
+        String json;
+        try {
+            json = redisTemplate.opsForValue().get(ID_KEY + userId);
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo leer el principal {} de Redis: {}", userId, ex.getMessage());
+            return null;
+        }
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, SharedPrincipal.class).toPrincipal();
+        } catch (JsonProcessingException ex) {
+            logger.warn("Principal {} ilegible en Redis: {}", userId, ex.getOriginalMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Generación actual del usuario: cambia con cada {@link #evict}. Se lee antes de cargar el principal de la base
+     * de datos y se pasa a {@link #put}. Devuelve null si Redis no responde.
+     */
+    String generation(Long userId) {
+        try {
+            String generation = redisTemplate.opsForValue().get(GENERATION_KEY + userId);
+            return generation != null ? generation : NO_GENERATION;
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo leer la generación del principal {} de Redis: {}", userId, ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Guardar el principal solo si la generación del usuario sigue siendo {@code generation} (WATCH + MULTI):
+     * si otro nodo lo invalidó mientras se cargaba, lo cargado puede ser anterior al cambio y se descarta.
+     */
+    void put(UserPrincipal principal, String generation) {
+        String generationKey = GENERATION_KEY + principal.getId();
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(SharedPrincipal.of(principal));
+        } catch (JsonProcessingException ex) {
+            logger.warn("No se pudo serializar el principal {}: {}", principal.getId(), ex.getOriginalMessage());
+            return;
+        }
+        try {
+            List<Object> written = redisTemplate.execute(new SessionCallback<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public List<Object> execute(RedisOperations operations) {
+                    operations.watch(generationKey);
+                    Object current = operations.opsForValue().get(generationKey);
+                    if (!generation.equals(current instanceof String value ? value : NO_GENERATION)) {
+                        operations.unwatch();
+                        return null;
+                    }
+                    operations.multi();
+                    operations.opsForValue().set(ID_KEY + principal.getId(), json, ttl);
+                    return operations.exec();
+                }
+            });
+            if (written == null || written.isEmpty()) {
+                logger.debug("Principal {} no compartido: invalidado durante la carga", principal.getId());
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo guardar el principal {} en Redis: {}", principal.getId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Cambiar la generación antes de borrar: una carga en curso en cualquier nodo ya no podrá escribir el principal.
+     * La generación dura lo mismo que las entradas, de sobra para cubrir una carga.
+     */
+    void evict(Long userId) {
+        try {
+            redisTemplate.opsForValue().set(GENERATION_KEY + userId, UUID.randomUUID().toString(), ttl);
+            redisTemplate.delete(ID_KEY + userId);
+            redisTemplate.convertAndSend(invalidationTopic.getTopic(), userId.toString());
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo invalidar el principal {} en Redis: {}", userId, ex.getMessage());
+        }
+    }
+}
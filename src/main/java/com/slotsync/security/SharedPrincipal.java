@@ -0,0 +1,22 @@
+package com.slotsync.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+/**
+ * Lo que se comparte de un {@link UserPrincipal} en Redis, en JSON y sin la contraseña.
+ * Si cambian los campos hay que subir la versión del prefijo de claves de {@link PrincipalCacheRedisTier}.
+ */
+record SharedPrincipal(Long id, String email, String role, Long businessId, Integer tokenVersion) {
+
+    static SharedPrincipal of(UserPrincipal principal) {
+        return new SharedPrincipal(principal.getId(), principal.getEmail(), principal.getRole(),
+                principal.getBusinessId(), principal.getTokenVersion());
+    }
+
+    UserPrincipal toPrincipal() {
+        return new UserPrincipal(id, email, null, role, businessId, tokenVersion,
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+}
@@ -22,6 +22,7 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private String role;
     private Long businessId;
+    private Integer tokenVersion;
     private Collection<? extends GrantedAuthority> authorities;
 
     public static UserPrincipal create(User user) {
@@ -35,10 +36,37 @@ public class UserPrincipal implements UserDetails {
                 user.getPassword(),
                 user.getRole().name(),
                 user.getBusiness() != null ? user.getBusiness().getId() : null,
+                user.getTokenVersion(),
                 authorities
         );
     }
 
+    /**
+     * Reconstruir el principal a partir de los claims de un token verificado (sin contraseña)
+     */
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        Collection<GrantedAuthority> authorities = Collections.singleton(
+                new SimpleGrantedAuthority("ROLE_" + claims.getRole())
+        );
+
+        return new UserPrincipal(
+                claims.getUserId(),
+                claims.getEmail(),
+                null,
+                claims.getRole(),
+                claims.getBusinessId(),
+                claims.getTokenVersion(),
+                authorities
+        );
+    }
+
+    /**
+     * Verificar si el usuario puede gestionar los datos de un negocio
+     */
+    public boolean canAccessBusiness(Long businessId) {
+        return "SUPER_ADMIN".equals(role) || (businessId != null && businessId.equals(this.businessId));
+    }
+
     @Override
     public String getUsername() {
         return email;
@@ -0,0 +1,83 @@
+package com.slotsync.security;
+
+import com.slotsync.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro local de usuarios cuyos tokens ya no deben aceptarse sin consultar la base de datos.
+ * Solo guarda los usuarios restringidos (desactivados, eliminados o con {@code tokenVersion} > 0);
+ * el resto se considera activo con versión 0. Se refresca en segundo plano con los usuarios
+ * modificados desde la última lectura, así que un cambio tarda como mucho un intervalo en aplicarse.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.stateless-principal.enabled", havingValue = "true")
+public class UserTokenRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTokenRegistry.class);
+
+    private final UserRepository userRepository;
+    private final Duration overlap;
+    private final Map<Long, UserTokenState> restricted = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime watermark;
+
+    public UserTokenRegistry(UserRepository userRepository,
+                             @Value("${app.security.stateless-principal.refresh-interval-ms:30000}") long refreshIntervalMs) {
+        this.userRepository = userRepository;
+        // Margen para no perder cambios confirmados con un updatedAt anterior a la última lectura
+        this.overlap = Duration.ofMillis(Math.max(refreshIntervalMs, 1000L) * 2);
+    }
+
+    /**
+     * Verificar si el registro ya tiene la carga inicial
+     */
+    public boolean isReady() {
+        return watermark != null;
+    }
+
+    /**
+     * Verificar si un token del usuario con la versión indicada sigue siendo válido
+     */
+    public boolean isAllowed(Long userId, int tokenVersion) {
+        UserTokenState state = restricted.get(userId);
+        return state == null ? tokenVersion == 0 : state.accepts(tokenVersion);
+    }
+
+    /**
+     * Refrescar el registro: carga completa la primera vez y después solo los usuarios modificados
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.security.stateless-principal.refresh-interval-ms:30000}")
+    public void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            if (watermark == null) {
+                List<UserTokenState> states = userRepository.findRestrictedTokenStates();
+                states.forEach(state -> restricted.put(state.userId(), state));
+                logger.info("Registro de tokens cargado con {} usuarios restringidos", states.size());
+            } else {
+                List<UserTokenState> states = userRepository.findTokenStatesUpdatedSince(watermark.minus(overlap));
+                for (UserTokenState state : states) {
+                    if (state.isRestricted()) {
+                        restricted.put(state.userId(), state);
+                    } else {
+                        restricted.remove(state.userId());
+                    }
+                }
+            }
+            watermark = startedAt;
+        } catch (Exception ex) {
+            logger.error("No se pudo refrescar el registro de tokens", ex);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.slotsync.security;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de un usuario relevante para aceptar sus tokens (proyección ligera de User)
+ */
+public record UserTokenState(
+        Long userId,
+        Integer tokenVersion,
+        Boolean isActive,
+        LocalDateTime deletedAt,
+        LocalDateTime updatedAt
+) {
+
+    /**
+     * Verificar si el usuario no puede autenticarse con tokens de versión 0
+     */
+    public boolean isRestricted() {
+        return !Boolean.TRUE.equals(isActive) || deletedAt != null
+                || (tokenVersion != null && tokenVersion > 0);
+    }
+
+    /**
+     * Verificar si un token con la versión indicada sigue siendo válido
+     */
+    public boolean accepts(int version) {
+        return Boolean.TRUE.equals(isActive) && deletedAt == null
+                && (tokenVersion == null ? 0 : tokenVersion) == version;
+    }
+}
@@ -0,0 +1,133 @@
+package com.slotsync.stats;
+
+import com.slotsync.enums.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acceso JDBC a booking_daily_stats.
+ * Las actualizaciones incrementales toman un advisory lock compartido por negocio y la reconstrucción
+ * uno exclusivo: así una reconstrucción nunca cuenta dos veces una reserva cuya transacción estaba en curso.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingDailyStatsRepository {
+
+    // Espacio de claves de los advisory locks de estos agregados (pg_advisory_xact_lock(int, int))
+    private static final int LOCK_CLASS = 0x5354_4154;
+
+    private static final Comparator<DailyStatsDelta> BUCKET_ORDER = Comparator
+            .comparing(DailyStatsDelta::businessId)
+            .thenComparing(DailyStatsDelta::date)
+            .thenComparing(DailyStatsDelta::status);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO booking_daily_stats (business_id, stat_date, status, booking_count, total_amount, " +
+            "discount_amount, deposit_amount, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (business_id, stat_date, status) DO UPDATE SET " +
+            "booking_count = booking_daily_stats.booking_count + EXCLUDED.booking_count, " +
+            "total_amount = booking_daily_stats.total_amount + EXCLUDED.total_amount, " +
+            "discount_amount = booking_daily_stats.discount_amount + EXCLUDED.discount_amount, " +
+            "deposit_amount = booking_daily_stats.deposit_amount + EXCLUDED.deposit_amount, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO booking_daily_stats (business_id, stat_date, status, booking_count, total_amount, " +
+            "discount_amount, deposit_amount, updated_at) " +
+            "SELECT business_id, CAST(start_time AS DATE), status, COUNT(*), COALESCE(SUM(total_amount), 0), " +
+            "COALESCE(SUM(discount_amount), 0), COALESCE(SUM(deposit_amount), 0), now() " +
+            "FROM bookings WHERE business_id = ? AND deleted_at IS NULL " +
+            "GROUP BY business_id, CAST(start_time AS DATE), status";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sumar los incrementos indicados en un solo lote. Debe llamarse dentro de la transacción que modifica las
+     * reservas. Los incrementos del mismo (negocio, día, estado) se agregan en una fila, y locks y filas se toman
+     * siempre en el mismo orden para que dos transacciones no se interbloqueen.
+     */
+    public void applyDeltas(Collection<DailyStatsDelta> deltas) {
+        Map<DailyStatsDelta, DailyStatsDelta> merged = new TreeMap<>(BUCKET_ORDER);
+        deltas.forEach(delta -> merged.merge(delta, delta, DailyStatsDelta::plus));
+        merged.values().removeIf(DailyStatsDelta::isZero);
+        if (merged.isEmpty()) {
+            return;
+        }
+        merged.keySet().stream().map(DailyStatsDelta::businessId).distinct().forEach(businessId ->
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?, ?)", rs -> null,
+                        LOCK_CLASS, lockKey(businessId)));
+        List<DailyStatsDelta> rows = List.copyOf(merged.values());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, delta) -> {
+            ps.setLong(1, delta.businessId());
+            ps.setDate(2, Date.valueOf(delta.date()));
+            ps.setString(3, delta.status().name());
+            ps.setInt(4, delta.count());
+            ps.setBigDecimal(5, delta.totalAmount());
+            ps.setBigDecimal(6, delta.discountAmount());
+            ps.setBigDecimal(7, delta.depositAmount());
+        });
+    }
+
+    /**
+     * Recalcular desde cero los agregados de un negocio. Debe llamarse dentro de una transacción.
+     * Devuelve el número de filas generadas.
+     */
+    public int rebuild(Long businessId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null, LOCK_CLASS, lockKey(businessId));
+        jdbcTemplate.update("DELETE FROM booking_daily_stats WHERE business_id = ?", businessId);
+        return jdbcTemplate.update(REBUILD_SQL, businessId);
+    }
+
+    /**
+     * Totales por estado de los días en [from, to)
+     */
+    public Map<BookingStatus, StatusTotals> sumByStatus(Long businessId, LocalDate from, LocalDate to) {
+        Map<BookingStatus, StatusTotals> totals = new EnumMap<>(BookingStatus.class);
+        jdbcTemplate.query(
+                "SELECT status, SUM(booking_count), SUM(total_amount), SUM(discount_amount), SUM(deposit_amount) " +
+                "FROM booking_daily_stats WHERE business_id = ? AND stat_date >= ? AND stat_date < ? GROUP BY status",
+                rs -> {
+                    totals.put(BookingStatus.valueOf(rs.getString(1)), new StatusTotals(
+                            rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4), rs.getBigDecimal(5)));
+                },
+                businessId, Date.valueOf(from), Date.valueOf(to));
+        return totals;
+    }
+
+    public List<Long> findBusinessIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM businesses ORDER BY id", Long.class);
+    }
+
+    private static int lockKey(Long businessId) {
+        return (int) (businessId ^ (businessId >>> 32));
+    }
+
+    /**
+     * Incremento de un negocio, día y estado (los valores pueden ser negativos)
+     */
+    public record DailyStatsDelta(Long businessId, LocalDate date, BookingStatus status, int count,
+                                  BigDecimal totalAmount, BigDecimal discountAmount, BigDecimal depositAmount) {
+
+        DailyStatsDelta plus(DailyStatsDelta other) {
+            return new DailyStatsDelta(businessId, date, status, count + other.count,
+                    totalAmount.add(other.totalAmount), discountAmount.add(other.discountAmount),
+                    depositAmount.add(other.depositAmount));
+        }
+
+        boolean isZero() {
+            return count == 0 && totalAmount.signum() == 0 && discountAmount.signum() == 0
+                    && depositAmount.signum() == 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.slotsync.stats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Reconstrucción de booking_daily_stats a partir de las reservas, negocio a negocio y cada uno en su
+ * propia transacción. Corrige cualquier deriva de los incrementos (cambios hechos por SQL directo,
+ * reservas anteriores a la tabla...) y se lanza a diario o a mano desde administración.
+ */
+@Component
+public class BookingStatsBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingStatsBackfillJob.class);
+
+    private final BookingDailyStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingStatsBackfillJob(BookingDailyStatsRepository statsRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.stats.backfill.cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        long started = System.nanoTime();
+        List<Long> businessIds = statsRepository.findBusinessIds();
+        int failed = 0;
+        for (Long businessId : businessIds) {
+            try {
+                rebuild(businessId);
+            } catch (RuntimeException e) {
+                failed++;
+                logger.error("Error reconstruyendo las estadísticas del negocio {}", businessId, e);
+            }
+        }
+        logger.info("Estadísticas de reservas reconstruidas para {} negocios ({} con error) en {} ms",
+                businessIds.size(), failed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Reconstruir un negocio. Devuelve el número de filas (día, estado) generadas.
+     */
+    public int rebuild(Long businessId) {
+        Integer rows = transactionTemplate.execute(status -> statsRepository.rebuild(businessId));
+        return rows == null ? 0 : rows;
+    }
+}
@@ -0,0 +1,128 @@
+package com.slotsync.stats;
+
+import com.slotsync.event.BookingChangedEvent;
+import com.slotsync.event.BookingSnapshot;
+import com.slotsync.stats.BookingDailyStatsRepository.DailyStatsDelta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mantiene booking_daily_stats al día con cada cambio de reserva, en la misma transacción que la reserva:
+ * si esta se deshace, el incremento también.
+ * Los incrementos se suman en memoria durante la transacción y se escriben una sola vez justo antes del commit,
+ * ordenados por (negocio, día, estado): la fila del día solo queda bloqueada hasta el commit, no durante toda la
+ * transacción, y un bloque de importación de cientos de reservas es un único lote de UPSERT.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStatsListener {
+
+    private final BookingDailyStatsRepository statsRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingSnapshot previous = counted(event.previous());
+        BookingSnapshot current = counted(event.current());
+        if (previous == null && current == null) {
+            return;
+        }
+
+        if (previous != null && current != null && sameBucket(previous, current)) {
+            DailyStatsDelta delta = new DailyStatsDelta(current.businessId(), current.startTime().toLocalDate(),
+                    current.status(), 0,
+                    amount(current.totalAmount()).subtract(amount(previous.totalAmount())),
+                    amount(current.discountAmount()).subtract(amount(previous.discountAmount())),
+                    amount(current.depositAmount()).subtract(amount(previous.depositAmount())));
+            if (delta.totalAmount().signum() != 0 || delta.discountAmount().signum() != 0
+                    || delta.depositAmount().signum() != 0) {
+                record(delta);
+            }
+            return;
+        }
+
+        if (previous != null) {
+            record(delta(previous, -1));
+        }
+        if (current != null) {
+            record(delta(current, 1));
+        }
+    }
+
+    /**
+     * Sumar el incremento a los pendientes de la transacción en curso; sin transacción se escribe al momento
+     */
+    private void record(DailyStatsDelta delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statsRepository.applyDeltas(List.of(delta));
+            return;
+        }
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.deltas.add(delta);
+    }
+
+    private static BookingSnapshot counted(BookingSnapshot snapshot) {
+        if (snapshot == null || snapshot.deleted() || snapshot.businessId() == null
+                || snapshot.startTime() == null || snapshot.status() == null) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    private static boolean sameBucket(BookingSnapshot a, BookingSnapshot b) {
+        return Objects.equals(a.businessId(), b.businessId())
+                && a.startTime().toLocalDate().equals(b.startTime().toLocalDate())
+                && a.status() == b.status();
+    }
+
+    private static DailyStatsDelta delta(BookingSnapshot snapshot, int sign) {
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        return new DailyStatsDelta(snapshot.businessId(), snapshot.startTime().toLocalDate(), snapshot.status(), sign,
+                amount(snapshot.totalAmount()).multiply(factor),
+                amount(snapshot.discountAmount()).multiply(factor),
+                amount(snapshot.depositAmount()).multiply(factor));
+    }
+
+    private static BigDecimal amount(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Incrementos de una transacción, escritos en beforeCommit
+     */
+    private final class PendingDeltas implements TransactionSynchronization {
+
+        private final List<DailyStatsDelta> deltas = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Hibernate vacía la sesión en el commit, después de este callback: hacerlo antes para que los cambios
+            // que aún no se habían escrito publiquen sus eventos y entren en este lote
+            entityManager.flush();
+            statsRepository.applyDeltas(deltas);
+            deltas.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookingStatsListener.this);
+        }
+    }
+}
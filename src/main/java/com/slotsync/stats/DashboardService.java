@@ -0,0 +1,73 @@
+package com.slotsync.stats;
+
+import com.slotsync.calendar.BusinessClock;
+import com.slotsync.dto.dashboard.DashboardKpiResponse;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * KPIs del panel de negocio leídos de booking_daily_stats (unas pocas filas por mes y estado)
+ * en lugar de agregar las reservas en cada carga.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DashboardService {
+
+    private final BookingDailyStatsRepository statsRepository;
+    private final BookingRepository bookingRepository;
+    private final BusinessClock businessClock;
+
+    public DashboardKpiResponse getKpis(Long businessId) {
+        // Días naturales en la zona horaria del negocio
+        LocalDateTime now = businessClock.now(businessId);
+        LocalDate today = now.toLocalDate();
+        LocalDate tomorrow = today.plusDays(1);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate nextMonthStart = monthStart.plusMonths(1);
+
+        Map<BookingStatus, StatusTotals> todayTotals = statsRepository.sumByStatus(businessId, today, tomorrow);
+        Map<BookingStatus, StatusTotals> monthTotals = statsRepository.sumByStatus(businessId, monthStart, nextMonthStart);
+        Map<BookingStatus, StatusTotals> previousMonthTotals =
+                statsRepository.sumByStatus(businessId, monthStart.minusMonths(1), monthStart);
+        Map<BookingStatus, StatusTotals> futureTotals =
+                statsRepository.sumByStatus(businessId, tomorrow, LocalDate.of(9999, 12, 31));
+
+        // Confirmadas futuras: días siguientes desde el agregado y lo que queda de hoy desde las reservas
+        long upcomingToday = bookingRepository.countByBusinessStatusAndStartRange(
+                businessId, BookingStatus.CONFIRMED, now, tomorrow.atStartOfDay());
+
+        return DashboardKpiResponse.builder()
+                .todayBookings(count(todayTotals, BookingStatus.PENDING) + count(todayTotals, BookingStatus.CONFIRMED)
+                        + count(todayTotals, BookingStatus.IN_PROGRESS) + count(todayTotals, BookingStatus.COMPLETED))
+                .upcomingConfirmed(upcomingToday + count(futureTotals, BookingStatus.CONFIRMED))
+                .monthCompleted(count(monthTotals, BookingStatus.COMPLETED))
+                .monthCancelled(count(monthTotals, BookingStatus.CANCELLED))
+                .monthNoShows(count(monthTotals, BookingStatus.NO_SHOW))
+                .monthRevenue(totals(monthTotals, BookingStatus.COMPLETED).totalAmount())
+                .monthDiscounts(totals(monthTotals, BookingStatus.COMPLETED).discountAmount())
+                .monthDeposits(sumDeposits(monthTotals))
+                .previousMonthRevenue(totals(previousMonthTotals, BookingStatus.COMPLETED).totalAmount())
+                .build();
+    }
+
+    private static StatusTotals totals(Map<BookingStatus, StatusTotals> totals, BookingStatus status) {
+        return totals.getOrDefault(status, StatusTotals.EMPTY);
+    }
+
+    private static long count(Map<BookingStatus, StatusTotals> totals, BookingStatus status) {
+        return totals(totals, status).count();
+    }
+
+    private static BigDecimal sumDeposits(Map<BookingStatus, StatusTotals> totals) {
+        return totals.values().stream().map(StatusTotals::depositAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,60 @@
+package com.slotsync.stats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incrementos pendientes de escribir, agrupados por id de fila: cada id acumula {@code width} contadores.
+ * ConcurrentHashMap solo bloquea el bin de la clave, así que los hilos que suman a filas distintas no compiten
+ * y las sumas a la misma fila se serializan en memoria, no en la base de datos.
+ * {@link #drain()} saca cada fila de forma atómica: un incremento concurrente cae en la fila drenada o en una
+ * nueva, nunca se pierde.
+ */
+public final class DeltaAccumulator {
+
+    private final int width;
+    private final ConcurrentHashMap<Long, long[]> pending = new ConcurrentHashMap<>();
+
+    public DeltaAccumulator(int width) {
+        this.width = width;
+    }
+
+    public void add(long id, long... deltas) {
+        if (deltas.length != width) {
+            throw new IllegalArgumentException("Se esperaban " + width + " incrementos y hay " + deltas.length);
+        }
+        pending.compute(id, (key, row) -> {
+            long[] sums = row != null ? row : new long[width];
+            for (int i = 0; i < width; i++) {
+                sums[i] += deltas[i];
+            }
+            return sums;
+        });
+    }
+
+    /**
+     * Sacar todos los incrementos acumulados hasta ahora
+     */
+    public Map<Long, long[]> drain() {
+        Map<Long, long[]> drained = new HashMap<>();
+        for (Long id : pending.keySet()) {
+            long[] row = pending.remove(id);
+            if (row != null) {
+                drained.put(id, row);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Devolver a la cola incrementos drenados que no se pudieron escribir
+     */
+    public void restore(Map<Long, long[]> rows) {
+        rows.forEach(this::add);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+}
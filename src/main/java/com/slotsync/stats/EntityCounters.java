@@ -0,0 +1,197 @@
+package com.slotsync.stats;
+
+import com.slotsync.datasource.SecondLevelCacheBroadcast;
+import com.slotsync.entity.Professional;
+import com.slotsync.event.BusinessCatalogChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Contadores de clientes (reservas, no-shows, cancelaciones, puntos) y valoración de profesionales.
+ * Los contadores derivados de bookings se suman en memoria y se escriben cada flush-interval-ms como incrementos
+ * agregados en un lote JDBC: una reserva no bloquea la fila de su cliente o profesional, y cien valoraciones del
+ * mismo profesional entre dos vaciados son un solo UPDATE. Lo que quede en memoria si el nodo cae lo corrige la
+ * reconciliación. Los puntos de fidelidad no se pueden recalcular, así que se suman en SQL al momento, dentro de
+ * la transacción de quien los concede.
+ * Las valoraciones escritas por JDBC no pasan por Hibernate: tras cada vaciado se descartan esos profesionales de la
+ * caché de segundo nivel (en todos los nodos si {@link SecondLevelCacheBroadcast} está activo) y se avisa del cambio
+ * de catálogo de sus negocios, cuya página pública muestra la valoración.
+ */
+@Slf4j
+@Component
+public class EntityCounters {
+
+    private static final String METRIC_PREFIX = "slotsync.stats.counters.";
+
+    // [reservas, no-shows, cancelaciones]
+    private final DeltaAccumulator customers = new DeltaAccumulator(3);
+    // [suma de puntuaciones, número de valoraciones]
+    private final DeltaAccumulator ratings = new DeltaAccumulator(2);
+
+    private final EntityCountersRepository countersRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SecondLevelCacheBroadcast cacheBroadcast;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter customersFlushed;
+    private final Counter ratingsFlushed;
+    private final Timer flushTime;
+
+    public EntityCounters(EntityCountersRepository countersRepository,
+                          EntityManagerFactory entityManagerFactory,
+                          ObjectProvider<SecondLevelCacheBroadcast> cacheBroadcast,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.countersRepository = countersRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheBroadcast = cacheBroadcast.getIfAvailable();
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customersFlushed = Counter.builder(METRIC_PREFIX + "flushed").tag("entity", "customer")
+                .description("Filas actualizadas con incrementos agregados").register(meterRegistry);
+        this.ratingsFlushed = Counter.builder(METRIC_PREFIX + "flushed").tag("entity", "professional")
+                .description("Filas actualizadas con incrementos agregados").register(meterRegistry);
+        this.flushTime = Timer.builder(METRIC_PREFIX + "flush")
+                .description("Duración de un vaciado de contadores").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "pending", customers, DeltaAccumulator::size).tag("entity", "customer")
+                .description("Filas con incrementos pendientes de escribir").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "pending", ratings, DeltaAccumulator::size).tag("entity", "professional")
+                .description("Filas con incrementos pendientes de escribir").register(meterRegistry);
+    }
+
+    /**
+     * Sumar (o restar) reservas, no-shows y cancelaciones de un cliente
+     */
+    public void recordBookings(long customerId, int bookings, int noShows, int cancellations) {
+        customers.add(customerId, bookings, noShows, cancellations);
+    }
+
+    /**
+     * Sumar (o restar) puntos de fidelidad de un cliente: un UPDATE atómico en la transacción actual
+     */
+    public void addLoyaltyPoints(long customerId, int points) {
+        if (points != 0) {
+            countersRepository.addLoyaltyPoints(customerId, points);
+        }
+    }
+
+    /**
+     * Sumar (o retirar, con count negativo) valoraciones de un profesional
+     */
+    public void recordRating(long professionalId, int ratingSum, int count) {
+        ratings.add(professionalId, ratingSum, count);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.counters.flush-interval-ms:2000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            long started = System.nanoTime();
+            Map<Long, long[]> customerDeltas = customers.drain();
+            Map<Long, long[]> ratingDeltas = ratings.drain();
+            int written = write(customers, customerDeltas, countersRepository::applyCustomerDeltas, customersFlushed);
+            int ratingsWritten = write(ratings, ratingDeltas, countersRepository::applyRatingDeltas, ratingsFlushed);
+            if (ratingsWritten > 0) {
+                ratingsChanged(ratingDeltas.keySet());
+                written += ratingsWritten;
+            }
+            if (written > 0) {
+                flushTime.record(Duration.ofNanos(System.nanoTime() - started));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Vaciar los incrementos pendientes y ejecutar la acción sin que otro vaciado se cuele entre medias
+     */
+    <T> T flushAndRun(Supplier<T> action) {
+        flushLock.lock();
+        try {
+            flush();
+            return action.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    /**
+     * Descartar de la caché de segundo nivel todos los profesionales, tras recalcular sus valoraciones por SQL
+     */
+    void evictAllProfessionals() {
+        if (cacheBroadcast != null) {
+            cacheBroadcast.evictEntities(Professional.class);
+        } else {
+            entityManagerFactory.getCache().evict(Professional.class);
+        }
+    }
+
+    private void ratingsChanged(Set<Long> professionalIds) {
+        if (cacheBroadcast != null) {
+            cacheBroadcast.evictEntities(Professional.class, professionalIds);
+        } else {
+            professionalIds.forEach(id -> entityManagerFactory.getCache().evict(Professional.class, id));
+        }
+        try {
+            countersRepository.professionalBusinessIds(professionalIds)
+                    .forEach(businessId -> eventPublisher.publishEvent(new BusinessCatalogChangedEvent(businessId)));
+        } catch (RuntimeException e) {
+            // Las páginas públicas caducan solas; los contadores ya están escritos
+            log.warn("No se pudieron invalidar las páginas públicas de {} profesionales: {}", professionalIds.size(),
+                    e.getMessage());
+        }
+    }
+
+    private int write(DeltaAccumulator accumulator, Map<Long, long[]> deltas,
+                      Consumer<Map<Long, long[]>> writer, Counter flushed) {
+        deltas.values().removeIf(EntityCounters::isZero);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.accept(deltas));
+        } catch (RuntimeException e) {
+            // Se reintentan en el siguiente vaciado
+            accumulator.restore(deltas);
+            log.warn("No se pudieron escribir {} contadores: {}", deltas.size(), e.getMessage());
+            return 0;
+        }
+        flushed.increment(deltas.size());
+        return deltas.size();
+    }
+
+    private static boolean isZero(long[] row) {
+        for (long value : row) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
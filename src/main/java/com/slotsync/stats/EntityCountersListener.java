@@ -0,0 +1,65 @@
+package com.slotsync.stats;
+
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.event.BookingChangedEvent;
+import com.slotsync.event.BookingSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Traduce cada cambio confirmado de una reserva en incrementos de los contadores de su cliente y de la valoración
+ * de su profesional. Al confirmarse la transacción: una reserva deshecha no llega a contarse.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCountersListener {
+
+    private final EntityCounters counters;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingSnapshot previous = counted(event.previous());
+        BookingSnapshot current = counted(event.current());
+
+        boolean sameCustomer = previous != null && current != null
+                && Objects.equals(previous.customerId(), current.customerId());
+        if (!sameCustomer || previous.status() != current.status()) {
+            customer(previous, -1);
+            customer(current, 1);
+        }
+
+        boolean sameRating = previous != null && current != null
+                && Objects.equals(previous.professionalId(), current.professionalId())
+                && Objects.equals(previous.rating(), current.rating());
+        if (!sameRating) {
+            rating(previous, -1);
+            rating(current, 1);
+        }
+    }
+
+    private void customer(BookingSnapshot snapshot, int sign) {
+        if (snapshot == null || snapshot.customerId() == null) {
+            return;
+        }
+        counters.recordBookings(snapshot.customerId(), sign,
+                snapshot.status() == BookingStatus.NO_SHOW ? sign : 0,
+                snapshot.status() == BookingStatus.CANCELLED ? sign : 0);
+    }
+
+    private void rating(BookingSnapshot snapshot, int sign) {
+        if (snapshot == null || snapshot.professionalId() == null || snapshot.rating() == null) {
+            return;
+        }
+        counters.recordRating(snapshot.professionalId(), sign * snapshot.rating(), sign);
+    }
+
+    /**
+     * Las reservas borradas no cuentan, igual que en la reconciliación
+     */
+    private static BookingSnapshot counted(BookingSnapshot snapshot) {
+        return snapshot == null || snapshot.deleted() ? null : snapshot;
+    }
+}
@@ -0,0 +1,88 @@
+package com.slotsync.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Recalcula desde bookings los contadores de clientes y la valoración de profesionales, por páginas de chunk-size
+ * ids reales (la secuencia de ids es compartida por todas las tablas) y cada página en su propia transacción. Corrige lo que los incrementos en memoria no llegaron a escribir (caída del nodo)
+ * y los cambios hechos por SQL directo. Los puntos de fidelidad no se derivan de las reservas y no se tocan (se
+ * escriben al momento, no pasan por memoria).
+ * Una reserva confirmada justo entre el vaciado previo y el recálculo puede contarse dos veces; la siguiente
+ * pasada lo corrige.
+ */
+@Component
+public class EntityCountersReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCountersReconciliationJob.class);
+
+    private final EntityCountersRepository countersRepository;
+    private final EntityCounters counters;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter customersCorrected;
+    private final Counter professionalsCorrected;
+
+    public EntityCountersReconciliationJob(EntityCountersRepository countersRepository,
+                                           EntityCounters counters,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.stats.counters.reconcile-chunk-size:5000}") int chunkSize) {
+        this.countersRepository = countersRepository;
+        this.counters = counters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.customersCorrected = Counter.builder("slotsync.stats.counters.reconciled").tag("entity", "customer")
+                .description("Filas corregidas por la reconciliación").register(meterRegistry);
+        this.professionalsCorrected = Counter.builder("slotsync.stats.counters.reconciled")
+                .tag("entity", "professional")
+                .description("Filas corregidas por la reconciliación").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.stats.counters.reconcile-cron:0 45 3 * * *}")
+    public void reconcileAll() {
+        long started = System.nanoTime();
+        int customers = reconcile(countersRepository::customerPageEnd, countersRepository::reconcileCustomers);
+        int professionals = reconcile(countersRepository::professionalPageEnd, countersRepository::reconcileRatings);
+        if (professionals > 0) {
+            counters.evictAllProfessionals();
+        }
+        customersCorrected.increment(customers);
+        professionalsCorrected.increment(professionals);
+        logger.info("Contadores reconciliados: {} clientes y {} profesionales corregidos en {} ms",
+                customers, professionals, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Recorrer la tabla por páginas de chunkSize ids (WHERE id > último ORDER BY id LIMIT chunkSize).
+     * Devuelve el número de filas corregidas.
+     */
+    private int reconcile(PageEnd pageEnd, LongBinaryOperator chunk) {
+        int corrected = 0;
+        long afterId = 0;
+        Long lastId;
+        while ((lastId = pageEnd.after(afterId, chunkSize)) != null) {
+            long fromId = afterId;
+            long toId = lastId;
+            Integer rows = counters.flushAndRun(() -> transactionTemplate.execute(
+                    status -> (int) chunk.applyAsLong(fromId, toId)));
+            corrected += rows != null ? rows : 0;
+            afterId = lastId;
+        }
+        return corrected;
+    }
+
+    @FunctionalInterface
+    private interface PageEnd {
+        Long after(long afterId, int limit);
+    }
+}
@@ -0,0 +1,133 @@
+package com.slotsync.stats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso JDBC a los contadores de customers y professionals.
+ * Los incrementos son sumas atómicas en SQL (columna = columna + ?), nunca leer-modificar-escribir, y cada lote
+ * actualiza las filas en orden de id para que dos nodos que vacían a la vez no se bloqueen en cruz.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EntityCountersRepository {
+
+    private static final String CUSTOMER_DELTA_SQL =
+            "UPDATE customers SET total_bookings = COALESCE(total_bookings, 0) + ?, " +
+            "total_no_shows = COALESCE(total_no_shows, 0) + ?, " +
+            "total_cancellations = COALESCE(total_cancellations, 0) + ? WHERE id = ?";
+
+    private static final String LOYALTY_DELTA_SQL =
+            "UPDATE customers SET loyalty_points = COALESCE(loyalty_points, 0) + ? WHERE id = ?";
+
+    // Media ponderada con las valoraciones nuevas (o retiradas, con incrementos negativos)
+    private static final String RATING_DELTA_SQL =
+            "UPDATE professionals SET rating_average = CASE WHEN COALESCE(total_reviews, 0) + ? > 0 " +
+            "THEN (COALESCE(rating_average, 0) * COALESCE(total_reviews, 0) + ?) / (COALESCE(total_reviews, 0) + ?) " +
+            "ELSE 0 END, total_reviews = COALESCE(total_reviews, 0) + ? WHERE id = ?";
+
+    private static final String RECONCILE_CUSTOMERS_SQL =
+            "UPDATE customers c SET total_bookings = s.bookings, total_no_shows = s.no_shows, " +
+            "total_cancellations = s.cancellations " +
+            "FROM (SELECT c2.id, COUNT(b.id) AS bookings, " +
+            "COUNT(b.id) FILTER (WHERE b.status = 'NO_SHOW') AS no_shows, " +
+            "COUNT(b.id) FILTER (WHERE b.status = 'CANCELLED') AS cancellations " +
+            "FROM customers c2 LEFT JOIN bookings b ON b.customer_id = c2.id AND b.deleted_at IS NULL " +
+            "WHERE c2.id > ? AND c2.id <= ? GROUP BY c2.id) s " +
+            "WHERE c.id = s.id AND (c.total_bookings IS DISTINCT FROM s.bookings " +
+            "OR c.total_no_shows IS DISTINCT FROM s.no_shows OR c.total_cancellations IS DISTINCT FROM s.cancellations)";
+
+    private static final String RECONCILE_RATINGS_SQL =
+            "UPDATE professionals p SET rating_average = s.average, total_reviews = s.reviews " +
+            "FROM (SELECT p2.id, COALESCE(CAST(AVG(b.rating) AS DOUBLE PRECISION), 0) AS average, " +
+            "COUNT(b.rating) AS reviews " +
+            "FROM professionals p2 LEFT JOIN bookings b ON b.professional_id = p2.id AND b.deleted_at IS NULL " +
+            "WHERE p2.id > ? AND p2.id <= ? GROUP BY p2.id) s " +
+            "WHERE p.id = s.id AND (p.total_reviews IS DISTINCT FROM s.reviews " +
+            "OR p.rating_average IS NULL OR ABS(p.rating_average - s.average) > 1e-9)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sumar a cada cliente sus incrementos: [reservas, no-shows, cancelaciones]
+     */
+    public void applyCustomerDeltas(Map<Long, long[]> deltas) {
+        List<Map.Entry<Long, long[]>> rows = sorted(deltas);
+        jdbcTemplate.batchUpdate(CUSTOMER_DELTA_SQL, rows, rows.size(), (ps, row) -> {
+            long[] delta = row.getValue();
+            ps.setLong(1, delta[0]);
+            ps.setLong(2, delta[1]);
+            ps.setLong(3, delta[2]);
+            ps.setLong(4, row.getKey());
+        });
+    }
+
+    public void addLoyaltyPoints(long customerId, int points) {
+        jdbcTemplate.update(LOYALTY_DELTA_SQL, points, customerId);
+    }
+
+    /**
+     * Sumar a cada profesional sus valoraciones: [suma de puntuaciones, número de valoraciones]
+     */
+    public void applyRatingDeltas(Map<Long, long[]> deltas) {
+        List<Map.Entry<Long, long[]>> rows = sorted(deltas);
+        jdbcTemplate.batchUpdate(RATING_DELTA_SQL, rows, rows.size(), (ps, row) -> {
+            long[] delta = row.getValue();
+            ps.setLong(1, delta[1]);
+            ps.setLong(2, delta[0]);
+            ps.setLong(3, delta[1]);
+            ps.setLong(4, delta[1]);
+            ps.setLong(5, row.getKey());
+        });
+    }
+
+    /**
+     * Negocios de estos profesionales
+     */
+    public List<Long> professionalBusinessIds(Collection<Long> professionalIds) {
+        return jdbcTemplate.query("SELECT DISTINCT business_id FROM professionals WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", professionalIds.toArray())),
+                (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Recalcular desde bookings los contadores de los clientes con id en (afterId, toId].
+     * Devuelve cuántos tenían un valor distinto.
+     */
+    public int reconcileCustomers(long afterId, long toId) {
+        return jdbcTemplate.update(RECONCILE_CUSTOMERS_SQL, afterId, toId);
+    }
+
+    /**
+     * Recalcular desde bookings la valoración de los profesionales con id en (afterId, toId].
+     * Devuelve cuántos tenían un valor distinto.
+     */
+    public int reconcileRatings(long afterId, long toId) {
+        return jdbcTemplate.update(RECONCILE_RATINGS_SQL, afterId, toId);
+    }
+
+    /**
+     * Último id de los limit clientes siguientes a afterId, o null si no quedan
+     */
+    public Long customerPageEnd(long afterId, int limit) {
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM (SELECT id FROM customers WHERE id > ? " +
+                "ORDER BY id LIMIT ?) page", Long.class, afterId, limit);
+    }
+
+    /**
+     * Último id de los limit profesionales siguientes a afterId, o null si no quedan
+     */
+    public Long professionalPageEnd(long afterId, int limit) {
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM (SELECT id FROM professionals WHERE id > ? " +
+                "ORDER BY id LIMIT ?) page", Long.class, afterId, limit);
+    }
+
+    private static List<Map.Entry<Long, long[]>> sorted(Map<Long, long[]> deltas) {
+        return deltas.entrySet().stream().sorted(Map.Entry.comparingByKey()).toList();
+    }
+}
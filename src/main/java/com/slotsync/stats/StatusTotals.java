@@ -0,0 +1,11 @@
+package com.slotsync.stats;
+
+import java.math.BigDecimal;
+
+/**
+ * Suma de los agregados diarios de un estado en un rango de días
+ */
+public record StatusTotals(long count, BigDecimal totalAmount, BigDecimal discountAmount, BigDecimal depositAmount) {
+
+    public static final StatusTotals EMPTY = new StatusTotals(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+}
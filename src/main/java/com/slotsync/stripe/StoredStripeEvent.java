@@ -0,0 +1,10 @@
+package com.slotsync.stripe;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de stripe_webhook_events pendiente de aplicar ({@code attempts}: aplazamientos previos)
+ */
+public record StoredStripeEvent(Long id, String eventId, String type, String partitionKey, String payload,
+                                int attempts, LocalDateTime receivedAt) {
+}
@@ -0,0 +1,348 @@
+package com.slotsync.stripe;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slotsync.entity.Booking;
+import com.slotsync.entity.Payment;
+import com.slotsync.entity.Subscription;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.enums.PaymentStatus;
+import com.slotsync.repository.PaymentRepository;
+import com.slotsync.repository.SubscriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica en lote los eventos de Stripe de una partición.
+ * Todo el lote va en una transacción: se cargan de una vez los pagos y suscripciones afectados, se aplican los
+ * eventos en orden de Stripe sobre las entidades y Hibernate agrupa las actualizaciones al hacer flush.
+ * Si esa transacción falla fuera de la aplicación de un evento (al hacer flush o confirmar) se deshace entera, así
+ * que el lote se repite evento a evento, cada uno en su transacción; el que vuelva a fallar se marca FAILED en otra
+ * transacción aparte y la partición sigue avanzando.
+ * Cada transición comprueba el estado actual, así que un evento repetido o ya superado no tiene efecto.
+ */
+@Slf4j
+@Service
+public class StripeEventApplier {
+
+    static final String REFUND_REASON = "Reembolso desde Stripe";
+    static final String PAYMENT_FAILED_REASON = "Pago rechazado por Stripe";
+
+    private static final Set<String> PAYMENT_EVENTS = Set.of("payment_intent.processing", "payment_intent.succeeded",
+            "payment_intent.payment_failed", "payment_intent.canceled", "charge.refunded");
+
+    private final StripeWebhookEventRepository eventRepository;
+    private final PaymentRepository paymentRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxDeferrals;
+    private final Duration deferDelay;
+
+    public StripeEventApplier(StripeWebhookEventRepository eventRepository,
+                              PaymentRepository paymentRepository,
+                              SubscriptionRepository subscriptionRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.stripe.webhook.max-deferrals:10}") int maxDeferrals,
+                              @Value("${app.stripe.webhook.defer-seconds:30}") long deferSeconds) {
+        this.eventRepository = eventRepository;
+        this.paymentRepository = paymentRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxDeferrals = maxDeferrals;
+        this.deferDelay = Duration.ofSeconds(deferSeconds);
+    }
+
+    /**
+     * Aplicar hasta {@code limit} eventos listos de la partición. Si otro nodo la tiene bloqueada no hace nada.
+     */
+    public BatchResult processBatch(int partition, int partitions, int limit) {
+        try {
+            return transactionTemplate.execute(status -> claimAndApply(partition, partitions, limit, null));
+        } catch (TransientDataAccessException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Lote de la partición {} de Stripe deshecho, se repite evento a evento: {}", partition,
+                    e.getMessage());
+            return processOneByOne(partition, partitions, limit);
+        }
+    }
+
+    /**
+     * Hasta {@code limit} eventos, cada uno en su transacción. El que falle se marca FAILED en una transacción propia.
+     */
+    private BatchResult processOneByOne(int partition, int partitions, int limit) {
+        BatchResult total = BatchResult.EMPTY;
+        for (int i = 0; i < limit; i++) {
+            AtomicReference<StoredStripeEvent> claimed = new AtomicReference<>();
+            BatchResult result;
+            try {
+                result = transactionTemplate.execute(status -> claimAndApply(partition, partitions, 1, claimed));
+            } catch (TransientDataAccessException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                StoredStripeEvent event = claimed.get();
+                if (event == null) {
+                    throw e;
+                }
+                log.warn("Evento de Stripe {} ({}) no aplicable: {}", event.eventId(), event.type(), e.getMessage());
+                String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+                // Si otro nodo ha tomado ya la partición, será él quien lo reintente
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (eventRepository.tryLockPartition(partition)) {
+                        eventRepository.markFailed(List.of(event.id()), error);
+                    }
+                });
+                result = new BatchResult(false, 1, 0, 0, 0, 1, null);
+            }
+            if (result.locked()) {
+                return total.claimed() == 0 ? result : total;
+            }
+            if (result.claimed() == 0) {
+                break;
+            }
+            total = total.plus(result);
+        }
+        return total;
+    }
+
+    private BatchResult claimAndApply(int partition, int partitions, int limit,
+                                      AtomicReference<StoredStripeEvent> claimed) {
+        if (!eventRepository.tryLockPartition(partition)) {
+            return BatchResult.LOCKED;
+        }
+        List<StoredStripeEvent> events = eventRepository.findDue(partition, partitions, limit);
+        if (events.isEmpty()) {
+            return BatchResult.EMPTY;
+        }
+        if (claimed != null) {
+            claimed.set(events.get(0));
+        }
+
+        Map<Long, String> failed = new LinkedHashMap<>();
+        Map<StoredStripeEvent, JsonNode> objects = new LinkedHashMap<>();
+        for (StoredStripeEvent event : events) {
+            try {
+                objects.put(event, objectMapper.readTree(event.payload()).path("data").path("object"));
+            } catch (JsonProcessingException e) {
+                failed.put(event.id(), "JSON no válido: " + e.getOriginalMessage());
+            }
+        }
+
+        Set<String> intentIds = new HashSet<>();
+        Set<String> subscriptionIds = new HashSet<>();
+        objects.forEach((event, object) -> {
+            if (isSubscriptionEvent(event.type())) {
+                subscriptionIds.add(event.partitionKey());
+            } else if (PAYMENT_EVENTS.contains(event.type())) {
+                intentIds.add(event.partitionKey());
+            }
+        });
+        Map<String, Payment> payments = intentIds.isEmpty() ? Map.of()
+                : paymentRepository.findAllByStripePaymentIntentIdIn(intentIds).stream()
+                .collect(Collectors.toMap(Payment::getStripePaymentIntentId, Function.identity(), (a, b) -> a));
+        Map<String, Subscription> subscriptions = subscriptionIds.isEmpty() ? Map.of()
+                : subscriptionRepository.findByStripeSubscriptionIdIn(subscriptionIds).stream()
+                .collect(Collectors.toMap(Subscription::getStripeSubscriptionId, Function.identity()));
+
+        List<Long> processed = new ArrayList<>();
+        List<Long> ignored = new ArrayList<>();
+        List<Long> deferred = new ArrayList<>();
+        // Claves con un evento aplazado: sus eventos posteriores esperan para no aplicarse desordenados
+        Set<String> waiting = new HashSet<>();
+        Map<String, Integer> byType = new HashMap<>();
+        LocalDateTime oldestReceivedAt = null;
+
+        for (Map.Entry<StoredStripeEvent, JsonNode> entry : objects.entrySet()) {
+            StoredStripeEvent event = entry.getKey();
+            if (waiting.contains(event.partitionKey())) {
+                continue;
+            }
+            Outcome outcome;
+            try {
+                outcome = apply(event, entry.getValue(), payments, subscriptions);
+            } catch (RuntimeException e) {
+                log.warn("Evento de Stripe {} ({}) no aplicable: {}", event.eventId(), event.type(), e.getMessage());
+                failed.put(event.id(), e.getClass().getSimpleName() + ": " + e.getMessage());
+                continue;
+            }
+            if (outcome == Outcome.DEFER && event.attempts() + 1 >= maxDeferrals) {
+                log.warn("Evento de Stripe {} ({}) descartado tras {} aplazamientos: {}", event.eventId(),
+                        event.type(), event.attempts(), event.partitionKey());
+                outcome = Outcome.IGNORED;
+            }
+            switch (outcome) {
+                case PROCESSED -> {
+                    processed.add(event.id());
+                    byType.merge(event.type(), 1, Integer::sum);
+                }
+                case IGNORED -> ignored.add(event.id());
+                case DEFER -> {
+                    deferred.add(event.id());
+                    waiting.add(event.partitionKey());
+                }
+            }
+            if (outcome != Outcome.DEFER && (oldestReceivedAt == null || event.receivedAt().isBefore(oldestReceivedAt))) {
+                oldestReceivedAt = event.receivedAt();
+            }
+        }
+
+        eventRepository.markProcessed(processed);
+        eventRepository.markIgnored(ignored);
+        eventRepository.defer(deferred, deferDelay, "Objeto no registrado o evento previo sin recibir");
+        failed.forEach((id, error) -> eventRepository.markFailed(List.of(id), error));
+        log.debug("Partición {} de Stripe: {} aplicados {}, {} ignorados, {} aplazados, {} fallidos", partition,
+                processed.size(), byType, ignored.size(), deferred.size(), failed.size());
+        return new BatchResult(false, events.size(), processed.size(), ignored.size(), deferred.size(), failed.size(),
+                oldestReceivedAt);
+    }
+
+    private Outcome apply(StoredStripeEvent event, JsonNode object, Map<String, Payment> payments,
+                          Map<String, Subscription> subscriptions) {
+        if (isSubscriptionEvent(event.type())) {
+            Subscription subscription = subscriptions.get(event.partitionKey());
+            return subscription == null ? Outcome.DEFER : applySubscription(event.type(), object, subscription);
+        }
+        if (!PAYMENT_EVENTS.contains(event.type())) {
+            return Outcome.IGNORED;
+        }
+        Payment payment = payments.get(event.partitionKey());
+        return payment == null ? Outcome.DEFER : applyPayment(event.type(), object, payment);
+    }
+
+    private static Outcome applyPayment(String type, JsonNode object, Payment payment) {
+        PaymentStatus status = payment.getStatus();
+        switch (type) {
+            case "payment_intent.processing" -> {
+                if (status != PaymentStatus.PENDING) {
+                    return Outcome.IGNORED;
+                }
+                payment.setStatus(PaymentStatus.PROCESSING);
+            }
+            case "payment_intent.succeeded" -> {
+                if (status != PaymentStatus.PENDING && status != PaymentStatus.PROCESSING
+                        && status != PaymentStatus.FAILED) {
+                    return Outcome.IGNORED;
+                }
+                payment.markAsPaid();
+                payment.setStripeChargeId(text(object, "latest_charge", payment.getStripeChargeId()));
+                payment.setStripePaymentMethodId(text(object, "payment_method", payment.getStripePaymentMethodId()));
+                Booking booking = payment.getBooking();
+                if (booking != null && !booking.isDeleted() && booking.getStatus() == BookingStatus.PENDING) {
+                    booking.confirm();
+                }
+            }
+            case "payment_intent.payment_failed" -> {
+                if (status != PaymentStatus.PENDING && status != PaymentStatus.PROCESSING) {
+                    return Outcome.IGNORED;
+                }
+                payment.markAsFailed(text(object.path("last_payment_error"), "message", PAYMENT_FAILED_REASON));
+            }
+            case "payment_intent.canceled" -> {
+                if (status != PaymentStatus.PENDING && status != PaymentStatus.PROCESSING
+                        && status != PaymentStatus.FAILED) {
+                    return Outcome.IGNORED;
+                }
+                payment.setStatus(PaymentStatus.CANCELLED);
+            }
+            case "charge.refunded" -> {
+                BigDecimal refunded = minorUnits(object.path("amount_refunded").asLong(),
+                        text(object, "currency", payment.getCurrency()));
+                boolean moreRefunded = status == PaymentStatus.REFUNDED
+                        && (payment.getRefundAmount() == null || payment.getRefundAmount().compareTo(refunded) < 0);
+                boolean notYetPaid = status == PaymentStatus.PENDING || status == PaymentStatus.PROCESSING;
+                if (status != PaymentStatus.COMPLETED && !moreRefunded && !notYetPaid) {
+                    return Outcome.IGNORED;
+                }
+                if (notYetPaid) {
+                    // El reembolso ha llegado antes que payment_intent.succeeded: el cobro ya se produjo
+                    payment.markAsPaid();
+                    payment.setStripeChargeId(text(object, "id", payment.getStripeChargeId()));
+                }
+                payment.refund(refunded, text(object.path("refunds").path("data").path(0), "reason", REFUND_REASON));
+            }
+            default -> throw new IllegalArgumentException("Evento de pago no soportado: " + type);
+        }
+        return Outcome.PROCESSED;
+    }
+
+    private static Outcome applySubscription(String type, JsonNode object, Subscription subscription) {
+        String status = "customer.subscription.deleted".equals(type) ? "canceled" : text(object, "status", null);
+        if (status != null) {
+            subscription.setStatus(status);
+        }
+        subscription.setCurrentPeriodStart(timestamp(object, "current_period_start", subscription.getCurrentPeriodStart()));
+        subscription.setCurrentPeriodEnd(timestamp(object, "current_period_end", subscription.getCurrentPeriodEnd()));
+        subscription.setTrialEndsAt(timestamp(object, "trial_end", subscription.getTrialEndsAt()));
+        subscription.setCancelledAt(timestamp(object, "canceled_at", subscription.getCancelledAt()));
+        if (object.hasNonNull("cancel_at_period_end")) {
+            subscription.setCancelAtPeriodEnd(object.get("cancel_at_period_end").asBoolean());
+        }
+        return Outcome.PROCESSED;
+    }
+
+    static boolean isSubscriptionEvent(String type) {
+        return type.startsWith("customer.subscription.");
+    }
+
+    /**
+     * Importe en unidades mínimas (céntimos) a decimal según la moneda (JPY no tiene decimales)
+     */
+    private static BigDecimal minorUnits(long amount, String currency) {
+        int digits = currency == null ? 2 : Currency.getInstance(currency.toUpperCase()).getDefaultFractionDigits();
+        return BigDecimal.valueOf(amount, Math.max(digits, 0));
+    }
+
+    private static String text(JsonNode node, String field, String fallback) {
+        JsonNode value = node.path(field);
+        return value.isTextual() && !value.asText().isBlank() ? value.asText() : fallback;
+    }
+
+    private static LocalDateTime timestamp(JsonNode node, String field, LocalDateTime fallback) {
+        JsonNode value = node.path(field);
+        return value.isNumber()
+                ? LocalDateTime.ofInstant(Instant.ofEpochSecond(value.asLong()), ZoneId.systemDefault()) : fallback;
+    }
+
+    private enum Outcome {
+        PROCESSED, IGNORED, DEFER
+    }
+
+    public record BatchResult(boolean locked, int claimed, int processed, int ignored, int deferred, int failed,
+                              LocalDateTime oldestReceivedAt) {
+
+        static final BatchResult LOCKED = new BatchResult(true, 0, 0, 0, 0, 0, null);
+        static final BatchResult EMPTY = new BatchResult(false, 0, 0, 0, 0, 0, null);
+
+        BatchResult plus(BatchResult other) {
+            LocalDateTime oldest = oldestReceivedAt == null || other.oldestReceivedAt != null
+                    && other.oldestReceivedAt.isBefore(oldestReceivedAt) ? other.oldestReceivedAt : oldestReceivedAt;
+            return new BatchResult(false, claimed + other.claimed, processed + other.processed,
+                    ignored + other.ignored, deferred + other.deferred, failed + other.failed, oldest);
+        }
+    }
+}
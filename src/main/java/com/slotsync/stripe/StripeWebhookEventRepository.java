@@ -0,0 +1,129 @@
+package com.slotsync.stripe;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Acceso JDBC a stripe_webhook_events.
+ * La partición de un evento es hash(partition_key) mod particiones, calculada en PostgreSQL para que todos los nodos
+ * la vean igual; cada partición se procesa bajo un advisory lock de transacción, así que un mismo payment intent
+ * nunca se aplica en dos sitios a la vez.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StripeWebhookEventRepository {
+
+    // Espacio de advisory locks de este repositorio ("STRP")
+    private static final int LOCK_NAMESPACE = 0x53545250;
+
+    private static final String PARTITION_EXPR = "((hashtext(partition_key) & 2147483647) % ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stripe_webhook_events (event_id, event_type, partition_key, stripe_created, payload) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (event_id) DO NOTHING " +
+            "RETURNING " + PARTITION_EXPR;
+
+    /*
+     * Eventos listos de la partición en orden de Stripe. Un evento aplazado (next_attempt_at futuro) retiene a los
+     * posteriores de su misma clave para no aplicarlos desordenados.
+     */
+    private static final String DUE_SQL =
+            "SELECT e.id, e.event_id, e.event_type, e.partition_key, e.payload, e.attempts, e.received_at " +
+            "FROM stripe_webhook_events e " +
+            "WHERE e.status = 'RECEIVED' AND e.next_attempt_at <= now() " +
+            "AND ((hashtext(e.partition_key) & 2147483647) % ?) = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM stripe_webhook_events d WHERE d.partition_key = e.partition_key " +
+            "  AND d.status = 'RECEIVED' AND d.next_attempt_at > now() " +
+            "  AND (d.stripe_created, d.id) < (e.stripe_created, e.id)) " +
+            "ORDER BY e.stripe_created, e.id LIMIT ?";
+
+    private static final RowMapper<StoredStripeEvent> EVENT_MAPPER = (rs, rowNum) -> new StoredStripeEvent(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getInt(6),
+            rs.getTimestamp(7).toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Guardar un evento recibido. Devuelve su partición, o vacío si ya existía (reintento de Stripe).
+     */
+    public OptionalInt insert(String eventId, String type, String partitionKey, Instant created, String payload,
+                              int partitions) {
+        List<Integer> partition = jdbcTemplate.queryForList(INSERT_SQL, Integer.class, eventId, type, partitionKey,
+                Timestamp.from(created), payload, partitions);
+        return partition.isEmpty() ? OptionalInt.empty() : OptionalInt.of(partition.get(0));
+    }
+
+    /**
+     * Bloquear la partición hasta el fin de la transacción en curso; false si otro nodo ya la tiene
+     */
+    public boolean tryLockPartition(int partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, ?)",
+                Boolean.class, LOCK_NAMESPACE, partition));
+    }
+
+    public List<StoredStripeEvent> findDue(int partition, int partitions, int limit) {
+        return jdbcTemplate.query(DUE_SQL, EVENT_MAPPER, partitions, partition, limit);
+    }
+
+    public int markProcessed(Collection<Long> ids) {
+        return finish(ids, "PROCESSED", null);
+    }
+
+    public int markIgnored(Collection<Long> ids) {
+        return finish(ids, "IGNORED", null);
+    }
+
+    public int markFailed(Collection<Long> ids, String error) {
+        return finish(ids, "FAILED", error);
+    }
+
+    /**
+     * Volver a intentarlo dentro de {@code delay} (p. ej. el pago aún no existe en nuestra base de datos)
+     */
+    public int defer(Collection<Long> ids, Duration delay, String reason) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE stripe_webhook_events SET attempts = attempts + 1, " +
+                        "next_attempt_at = now() + make_interval(secs => ?), last_error = ? WHERE id = ANY(?)",
+                ps -> {
+                    ps.setLong(1, delay.toSeconds());
+                    ps.setString(2, truncate(reason));
+                    ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+                });
+    }
+
+    /**
+     * Borrar los eventos resueltos recibidos hace más de {@code retention}. Los FAILED se conservan para revisarlos.
+     */
+    public int deleteFinishedOlderThan(Duration retention) {
+        return jdbcTemplate.update("DELETE FROM stripe_webhook_events WHERE status IN ('PROCESSED', 'IGNORED') " +
+                "AND received_at < now() - make_interval(secs => ?)", retention.toSeconds());
+    }
+
+    private int finish(Collection<Long> ids, String status, String error) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE stripe_webhook_events SET status = ?, last_error = ?, " +
+                        "processed_at = now() WHERE id = ANY(?)",
+                ps -> {
+                    ps.setString(1, status);
+                    ps.setString(2, truncate(error));
+                    ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+                });
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
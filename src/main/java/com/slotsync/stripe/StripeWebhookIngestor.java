@@ -0,0 +1,106 @@
+package com.slotsync.stripe;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slotsync.exception.InvalidRequestException;
+import com.slotsync.exception.InvalidWebhookSignatureException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.OptionalInt;
+
+/**
+ * Recepción de webhooks de Stripe: verifica la firma, guarda el evento en bruto y avisa a su partición.
+ * No toca pagos ni suscripciones, así que la respuesta a Stripe solo cuesta un INSERT; los reintentos
+ * del mismo evento chocan con el event_id único y se confirman sin volver a encolarse.
+ */
+@Service
+public class StripeWebhookIngestor {
+
+    private static final String METRIC_NAME = "slotsync.stripe.webhook.received";
+
+    private final StripeWebhookEventRepository eventRepository;
+    private final StripeWebhookProcessor processor;
+    private final ObjectMapper objectMapper;
+    private final String webhookSecret;
+    private final long toleranceSeconds;
+
+    private final Counter accepted;
+    private final Counter duplicates;
+    private final Counter rejected;
+
+    public StripeWebhookIngestor(StripeWebhookEventRepository eventRepository,
+                                 StripeWebhookProcessor processor,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.stripe.webhook-secret:}") String webhookSecret,
+                                 @Value("${app.stripe.webhook.tolerance-seconds:300}") long toleranceSeconds) {
+        this.eventRepository = eventRepository;
+        this.processor = processor;
+        this.objectMapper = objectMapper;
+        this.webhookSecret = webhookSecret;
+        this.toleranceSeconds = toleranceSeconds;
+        this.accepted = Counter.builder(METRIC_NAME).tag("result", "accepted").register(meterRegistry);
+        this.duplicates = Counter.builder(METRIC_NAME).tag("result", "duplicate").register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_NAME).tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Registrar un evento firmado. Devuelve false si ya se había recibido.
+     */
+    public boolean receive(String payload, String signature) {
+        if (webhookSecret.isBlank()) {
+            // Sin secreto no se puede validar nada: error 5xx para que Stripe lo reintente cuando esté configurado
+            throw new IllegalStateException("app.stripe.webhook-secret no está configurado");
+        }
+        try {
+            Webhook.Signature.verifyHeader(payload, signature, webhookSecret, toleranceSeconds);
+        } catch (SignatureVerificationException e) {
+            rejected.increment();
+            throw new InvalidWebhookSignatureException("Firma de Stripe no válida: " + e.getMessage());
+        }
+
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            rejected.increment();
+            throw new InvalidRequestException("Evento de Stripe no válido");
+        }
+        String eventId = event.path("id").asText("");
+        String type = event.path("type").asText("");
+        if (eventId.isEmpty() || type.isEmpty()) {
+            rejected.increment();
+            throw new InvalidRequestException("Evento de Stripe sin id o tipo");
+        }
+
+        OptionalInt partition = eventRepository.insert(eventId, type, partitionKey(event),
+                Instant.ofEpochSecond(event.path("created").asLong()), payload, processor.partitions());
+        if (partition.isEmpty()) {
+            duplicates.increment();
+            return false;
+        }
+        accepted.increment();
+        processor.signal(partition.getAsInt());
+        return true;
+    }
+
+    /**
+     * Objeto cuyo orden hay que respetar: los cargos y reembolsos van con su payment intent
+     */
+    static String partitionKey(JsonNode event) {
+        JsonNode object = event.path("data").path("object");
+        String paymentIntent = object.path("payment_intent").asText("");
+        if (!paymentIntent.isEmpty() && !"payment_intent".equals(object.path("object").asText())) {
+            return paymentIntent;
+        }
+        String id = object.path("id").asText("");
+        return id.isEmpty() ? event.path("id").asText() : id;
+    }
+}
@@ -0,0 +1,174 @@
+package com.slotsync.stripe;
+
+import com.slotsync.stripe.StripeEventApplier.BatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Procesa los eventos de Stripe con un worker por partición: dentro de una partición los eventos se aplican de uno
+ * en uno y en orden, y las particiones avanzan en paralelo (hilos virtuales). Cada webhook recibido despierta a su
+ * partición; el sondeo periódico recoge los aplazados y lo que haya quedado de otros nodos.
+ * Cada lote ocupa una conexión durante su transacción, así que los lotes simultáneos se limitan por debajo del
+ * tamaño del pool: el INSERT del webhook nunca se queda esperando conexión detrás del procesamiento.
+ */
+@Slf4j
+@Component
+public class StripeWebhookProcessor {
+
+    private static final String METRIC_PREFIX = "slotsync.stripe.webhook.";
+
+    private final StripeEventApplier applier;
+    private final StripeWebhookEventRepository eventRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+    private final Partition[] partitions;
+    private final Semaphore batchPermits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("stripe-webhook-", 0).factory());
+
+    private final Counter processed;
+    private final Counter ignored;
+    private final Counter deferred;
+    private final Counter failed;
+    private final Timer lag;
+
+    public StripeWebhookProcessor(StripeEventApplier applier,
+                                  StripeWebhookEventRepository eventRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.stripe.webhook.enabled:true}") boolean enabled,
+                                  @Value("${app.stripe.webhook.partitions:8}") int partitionCount,
+                                  @Value("${app.stripe.webhook.batch-size:200}") int batchSize,
+                                  @Value("${app.stripe.webhook.max-concurrent-batches:2}") int maxConcurrentBatches,
+                                  @Value("${app.stripe.webhook.retention-days:30}") int retentionDays) {
+        this.applier = applier;
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofDays(retentionDays);
+        this.batchPermits = new Semaphore(maxConcurrentBatches);
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+        }
+        this.processed = outcome(meterRegistry, "processed");
+        this.ignored = outcome(meterRegistry, "ignored");
+        this.deferred = outcome(meterRegistry, "deferred");
+        this.failed = outcome(meterRegistry, "failed");
+        this.lag = Timer.builder(METRIC_PREFIX + "lag")
+                .description("Tiempo entre la recepción del evento más antiguo de un lote y su aplicación")
+                .register(meterRegistry);
+    }
+
+    public int partitions() {
+        return partitions.length;
+    }
+
+    /**
+     * Hay eventos nuevos en la partición: arrancar su worker si no está ya en marcha
+     */
+    public void signal(int partition) {
+        if (!enabled) {
+            return;
+        }
+        Partition target = partitions[partition];
+        target.pending.set(true);
+        if (target.running.compareAndSet(false, true)) {
+            executor.execute(() -> drain(target));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stripe.webhook.poll-interval-ms:5000}")
+    public void poll() {
+        for (int i = 0; i < partitions.length; i++) {
+            signal(i);
+        }
+    }
+
+    @Scheduled(cron = "${app.stripe.webhook.cleanup-cron:0 30 4 * * *}")
+    public void purgeFinished() {
+        int deleted = eventRepository.deleteFinishedOlderThan(retention);
+        if (deleted > 0) {
+            log.info("Webhooks de Stripe: {} eventos resueltos eliminados", deleted);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+    private void drain(Partition partition) {
+        do {
+            try {
+                while (partition.pending.getAndSet(false)) {
+                    BatchResult result;
+                    do {
+                        result = processBatch(partition);
+                        record(result);
+                    } while (!result.locked() && result.claimed() == batchSize);
+                    if (result.locked()) {
+                        // Otro nodo la está procesando; el sondeo volverá a intentarlo
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Error procesando la partición {} de webhooks de Stripe", partition.index, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                partition.running.set(false);
+            }
+            // Una señal llegada entre la última comprobación y la liberación no debe perderse
+        } while (partition.pending.get() && partition.running.compareAndSet(false, true));
+    }
+
+    private BatchResult processBatch(Partition partition) throws InterruptedException {
+        batchPermits.acquire();
+        try {
+            return applier.processBatch(partition.index, partitions.length, batchSize);
+        } finally {
+            batchPermits.release();
+        }
+    }
+
+    private void record(BatchResult result) {
+        processed.increment(result.processed());
+        ignored.increment(result.ignored());
+        deferred.increment(result.deferred());
+        failed.increment(result.failed());
+        if (result.oldestReceivedAt() != null) {
+            lag.record(Duration.between(result.oldestReceivedAt(), LocalDateTime.now()));
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC_PREFIX + "events").tag("outcome", outcome)
+                .description("Eventos de Stripe resueltos por resultado").register(meterRegistry);
+    }
+
+    private static final class Partition {
+
+        private final int index;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicBoolean pending = new AtomicBoolean();
+
+        private Partition(int index) {
+            this.index = index;
+        }
+    }
+}
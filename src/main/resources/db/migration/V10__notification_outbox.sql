@@ -0,0 +1,31 @@
+-- Outbox de notificaciones: una fila por aviso y canal, escrita en la misma transacción que el cambio de la reserva
+-- (o que la reclamación del recordatorio) y entregada después por NotificationOutboxRelay.
+CREATE TABLE notification_outbox (
+    id              BIGSERIAL    PRIMARY KEY,
+    booking_id      BIGINT       NOT NULL REFERENCES bookings (id) ON DELETE CASCADE,
+    business_id     BIGINT       NOT NULL,
+    event_type      VARCHAR(30)  NOT NULL,
+    channel         VARCHAR(20)  NOT NULL,
+    -- reserva:evento:canal; agrupa los avisos duplicados mientras siguen pendientes
+    dedup_key       VARCHAR(100) NOT NULL,
+    status          VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    -- PENDING: próximo intento; PROCESSING: fin del plazo de la reclamación
+    next_attempt_at TIMESTAMP    NOT NULL DEFAULT now(),
+    last_error      VARCHAR(500),
+    created_at      TIMESTAMP    NOT NULL DEFAULT now(),
+    sent_at         TIMESTAMP,
+    CONSTRAINT ck_outbox_status CHECK (status IN ('PENDING', 'PROCESSING', 'SENT', 'FAILED', 'SUPERSEDED')),
+    CONSTRAINT ck_outbox_channel CHECK (channel IN ('EMAIL', 'SMS', 'PUSH', 'IN_APP'))
+);
+
+CREATE UNIQUE INDEX uk_outbox_dedup_active ON notification_outbox (dedup_key)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+CREATE INDEX idx_outbox_due ON notification_outbox (channel, next_attempt_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+CREATE INDEX idx_outbox_booking ON notification_outbox (booking_id);
+
+CREATE INDEX idx_outbox_finished ON notification_outbox (created_at)
+    WHERE status IN ('SENT', 'FAILED', 'SUPERSEDED');
@@ -0,0 +1,29 @@
+-- Eventos de webhook de Stripe tal como llegan. El webhook solo inserta (event_id único: los reintentos de Stripe
+-- no duplican nada) y responde; StripeWebhookProcessor los aplica después en orden por partition_key.
+CREATE TABLE stripe_webhook_events (
+    id              BIGSERIAL    PRIMARY KEY,
+    event_id        VARCHAR(255) NOT NULL,
+    event_type      VARCHAR(100) NOT NULL,
+    -- Objeto cuyo orden hay que respetar: payment intent (también para cargos y reembolsos) o suscripción
+    partition_key   VARCHAR(255) NOT NULL,
+    -- Campo created del evento: orden de los cambios en Stripe
+    stripe_created  TIMESTAMP    NOT NULL,
+    payload         TEXT         NOT NULL,
+    status          VARCHAR(20)  NOT NULL DEFAULT 'RECEIVED',
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL DEFAULT now(),
+    last_error      VARCHAR(500),
+    received_at     TIMESTAMP    NOT NULL DEFAULT now(),
+    processed_at    TIMESTAMP,
+    CONSTRAINT uk_stripe_event_id UNIQUE (event_id),
+    CONSTRAINT ck_stripe_event_status CHECK (status IN ('RECEIVED', 'PROCESSED', 'IGNORED', 'FAILED'))
+);
+
+CREATE INDEX idx_stripe_event_pending ON stripe_webhook_events (stripe_created, id)
+    WHERE status = 'RECEIVED';
+
+CREATE INDEX idx_stripe_event_key ON stripe_webhook_events (partition_key)
+    WHERE status = 'RECEIVED';
+
+CREATE INDEX idx_stripe_event_finished ON stripe_webhook_events (received_at)
+    WHERE status IN ('PROCESSED', 'IGNORED');
@@ -0,0 +1,4 @@
+-- Los avisos se escriben desde el @PostPersist de la reserva; con lotes JDBC (hibernate.jdbc.batch_size) el INSERT de
+-- la reserva suele ejecutarse después que el del aviso, así que la clave foránea se comprueba al confirmar.
+ALTER TABLE notification_outbox
+    ALTER CONSTRAINT notification_outbox_booking_id_fkey DEFERRABLE INITIALLY DEFERRED;
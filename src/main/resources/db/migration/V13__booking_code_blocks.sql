@@ -0,0 +1,9 @@
+-- Contador diario de códigos de reserva (BK + fecha + contador). Cada nodo reserva un bloque de contadores con un
+-- único UPSERT ... RETURNING y lo reparte en memoria: el bloque es solo suyo, así que no hay colisiones entre nodos
+-- y las altas no consultan la base de datos salvo al agotar el bloque.
+CREATE TABLE booking_code_blocks (
+    code_date  DATE      PRIMARY KEY,
+    -- Primer contador aún no reservado por ningún nodo
+    next_value BIGINT    NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT now()
+);
@@ -0,0 +1,4 @@
+-- Búsqueda de clientes por email sin distinguir mayúsculas (CustomerRepository.findIdsByEmails). Sin este índice
+-- cada bloque de la importación recorría la tabla entera, y la importación iba más lenta cuantos más clientes había.
+CREATE INDEX idx_customer_email_lower ON customers (LOWER(email))
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,6 @@
+-- Los índices parciales de V7 sobre (business_id, start_time) y (professional_id, start_time) repiten el prefijo de
+-- idx_booking_business_start e idx_booking_professional_start (V5), que ya sirven las consultas por rango de la
+-- agenda: el estado se filtra al leer. Cada índice de más es una escritura más en cada alta de reserva.
+-- idx_booking_business_completed_start se mantiene: es de cobertura y hace de la facturación un index-only scan.
+DROP INDEX idx_booking_business_active_start;
+DROP INDEX idx_booking_professional_active_start;
@@ -0,0 +1,305 @@
+-- Esquema inicial equivalente al generado por Hibernate (ddl-auto) hasta ahora.
+-- En bases de datos existentes no se ejecuta: baseline-on-migrate las marca en la versión 1.
+
+CREATE TABLE users (
+    id                            BIGSERIAL PRIMARY KEY,
+    first_name                    VARCHAR(100) NOT NULL,
+    last_name                     VARCHAR(100) NOT NULL,
+    email                         VARCHAR(255) NOT NULL UNIQUE,
+    password                      VARCHAR(255) NOT NULL,
+    phone_number                  VARCHAR(20),
+    role                          VARCHAR(20)  NOT NULL,
+    avatar_url                    VARCHAR(255),
+    email_verified                BOOLEAN,
+    phone_verified                BOOLEAN,
+    last_login_at                 TIMESTAMP(6),
+    password_reset_token          VARCHAR(255),
+    password_reset_expires_at     TIMESTAMP(6),
+    email_verification_token      VARCHAR(255),
+    email_verification_expires_at TIMESTAMP(6),
+    business_id                   BIGINT,
+    created_at                    TIMESTAMP(6) NOT NULL,
+    updated_at                    TIMESTAMP(6),
+    deleted_at                    TIMESTAMP(6),
+    is_active                     BOOLEAN,
+    CONSTRAINT ck_users_role CHECK (role IN ('SUPER_ADMIN', 'BUSINESS_OWNER', 'BUSINESS_ADMIN', 'PROFESSIONAL', 'CUSTOMER'))
+);
+
+CREATE TABLE businesses (
+    id                          BIGSERIAL PRIMARY KEY,
+    name                        VARCHAR(200) NOT NULL,
+    slug                        VARCHAR(100) NOT NULL UNIQUE,
+    description                 TEXT,
+    industry                    VARCHAR(100),
+    logo_url                    VARCHAR(255),
+    cover_image_url             VARCHAR(255),
+    phone_number                VARCHAR(20),
+    email                       VARCHAR(255),
+    website                     VARCHAR(500),
+    subscription_plan           VARCHAR(20)  NOT NULL,
+    stripe_customer_id          VARCHAR(255),
+    stripe_subscription_id      VARCHAR(255),
+    timezone                    VARCHAR(50),
+    currency                    VARCHAR(3),
+    locale                      VARCHAR(10),
+    primary_color               VARCHAR(7),
+    max_advance_booking_days    INTEGER,
+    min_advance_booking_hours   INTEGER,
+    default_slot_duration       INTEGER,
+    cancellation_hours          INTEGER,
+    allow_customer_cancellation BOOLEAN,
+    require_payment_upfront     BOOLEAN,
+    deposit_percentage          INTEGER,
+    send_email_notifications    BOOLEAN,
+    send_sms_notifications      BOOLEAN,
+    reminder_hours_before       INTEGER,
+    widget_enabled              BOOLEAN,
+    public_booking_enabled      BOOLEAN,
+    owner_id                    BIGINT       NOT NULL,
+    created_at                  TIMESTAMP(6) NOT NULL,
+    updated_at                  TIMESTAMP(6),
+    deleted_at                  TIMESTAMP(6),
+    is_active                   BOOLEAN,
+    CONSTRAINT ck_businesses_plan CHECK (subscription_plan IN ('STARTER', 'PROFESSIONAL', 'BUSINESS', 'ENTERPRISE'))
+);
+
+CREATE TABLE subscriptions (
+    id                     BIGSERIAL PRIMARY KEY,
+    plan                   VARCHAR(20)    NOT NULL,
+    stripe_subscription_id VARCHAR(255) UNIQUE,
+    stripe_customer_id     VARCHAR(255),
+    stripe_price_id        VARCHAR(255),
+    amount                 NUMERIC(10, 2) NOT NULL,
+    currency               VARCHAR(3),
+    billing_cycle          VARCHAR(20),
+    status                 VARCHAR(20),
+    trial_ends_at          TIMESTAMP(6),
+    current_period_start   TIMESTAMP(6),
+    current_period_end     TIMESTAMP(6),
+    cancel_at_period_end   BOOLEAN,
+    cancelled_at           TIMESTAMP(6),
+    business_id            BIGINT         NOT NULL UNIQUE,
+    created_at             TIMESTAMP(6)   NOT NULL,
+    updated_at             TIMESTAMP(6),
+    deleted_at             TIMESTAMP(6),
+    is_active              BOOLEAN,
+    CONSTRAINT ck_subscriptions_plan CHECK (plan IN ('STARTER', 'PROFESSIONAL', 'BUSINESS', 'ENTERPRISE'))
+);
+
+CREATE TABLE locations (
+    id            BIGSERIAL PRIMARY KEY,
+    name          VARCHAR(200) NOT NULL,
+    address       VARCHAR(255),
+    city          VARCHAR(100),
+    state         VARCHAR(100),
+    postal_code   VARCHAR(20),
+    country       VARCHAR(50),
+    latitude      FLOAT(53),
+    longitude     FLOAT(53),
+    phone_number  VARCHAR(20),
+    email         VARCHAR(255),
+    is_primary    BOOLEAN,
+    opening_hours TEXT,
+    business_id   BIGINT       NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6),
+    deleted_at    TIMESTAMP(6),
+    is_active     BOOLEAN
+);
+
+CREATE TABLE services (
+    id                      BIGSERIAL PRIMARY KEY,
+    name                    VARCHAR(200)   NOT NULL,
+    description             TEXT,
+    price                   NUMERIC(10, 2) NOT NULL,
+    duration                INTEGER        NOT NULL,
+    category                VARCHAR(100),
+    image_url               VARCHAR(255),
+    is_featured             BOOLEAN,
+    display_order           INTEGER,
+    color_hex               VARCHAR(7),
+    max_concurrent_bookings INTEGER,
+    buffer_time_before      INTEGER,
+    buffer_time_after       INTEGER,
+    requires_deposit        BOOLEAN,
+    deposit_amount          NUMERIC(10, 2),
+    business_id             BIGINT         NOT NULL,
+    created_at              TIMESTAMP(6)   NOT NULL,
+    updated_at              TIMESTAMP(6),
+    deleted_at              TIMESTAMP(6),
+    is_active               BOOLEAN
+);
+
+CREATE TABLE professionals (
+    id                      BIGSERIAL PRIMARY KEY,
+    bio                     TEXT,
+    title                   VARCHAR(100),
+    specialties             VARCHAR(500),
+    years_of_experience     INTEGER,
+    profile_image_url       VARCHAR(255),
+    display_order           INTEGER,
+    is_featured             BOOLEAN,
+    accepts_online_bookings BOOLEAN,
+    rating_average          FLOAT(53),
+    total_reviews           INTEGER,
+    working_hours           TEXT,
+    calendar_color          VARCHAR(7),
+    user_id                 BIGINT       NOT NULL UNIQUE,
+    business_id             BIGINT       NOT NULL,
+    created_at              TIMESTAMP(6) NOT NULL,
+    updated_at              TIMESTAMP(6),
+    deleted_at              TIMESTAMP(6),
+    is_active               BOOLEAN
+);
+
+CREATE TABLE professional_services (
+    professional_id BIGINT NOT NULL,
+    service_id      BIGINT NOT NULL
+);
+
+CREATE TABLE professional_availability (
+    id              BIGSERIAL PRIMARY KEY,
+    day_of_week     VARCHAR(10),
+    specific_date   DATE,
+    start_time      TIME(6)      NOT NULL,
+    end_time        TIME(6)      NOT NULL,
+    is_available    BOOLEAN,
+    is_recurring    BOOLEAN,
+    notes           TEXT,
+    professional_id BIGINT       NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6),
+    deleted_at      TIMESTAMP(6),
+    is_active       BOOLEAN,
+    CONSTRAINT ck_availability_day CHECK (day_of_week IN ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY'))
+);
+
+CREATE TABLE customers (
+    id                     BIGSERIAL PRIMARY KEY,
+    first_name             VARCHAR(100),
+    last_name              VARCHAR(100),
+    email                  VARCHAR(255) NOT NULL,
+    phone_number           VARCHAR(20),
+    date_of_birth          DATE,
+    gender                 VARCHAR(10),
+    notes                  TEXT,
+    preferences            TEXT,
+    total_bookings         INTEGER,
+    total_no_shows         INTEGER,
+    total_cancellations    INTEGER,
+    loyalty_points         INTEGER,
+    is_vip                 BOOLEAN,
+    allow_marketing_emails BOOLEAN,
+    allow_marketing_sms    BOOLEAN,
+    user_id                BIGINT UNIQUE,
+    created_at             TIMESTAMP(6) NOT NULL,
+    updated_at             TIMESTAMP(6),
+    deleted_at             TIMESTAMP(6),
+    is_active              BOOLEAN
+);
+
+CREATE TABLE bookings (
+    id                   BIGSERIAL PRIMARY KEY,
+    booking_code         VARCHAR(20)  NOT NULL UNIQUE,
+    start_time           TIMESTAMP(6) NOT NULL,
+    end_time             TIMESTAMP(6) NOT NULL,
+    status               VARCHAR(20)  NOT NULL,
+    price                NUMERIC(10, 2),
+    deposit_amount       NUMERIC(10, 2),
+    total_amount         NUMERIC(10, 2),
+    discount_amount      NUMERIC(10, 2),
+    discount_code        VARCHAR(50),
+    notes                TEXT,
+    internal_notes       TEXT,
+    cancellation_reason  TEXT,
+    cancelled_at         TIMESTAMP(6),
+    cancelled_by_user_id BIGINT,
+    confirmed_at         TIMESTAMP(6),
+    completed_at         TIMESTAMP(6),
+    reminder_sent_at     TIMESTAMP(6),
+    confirmation_sent_at TIMESTAMP(6),
+    client_showed_up     BOOLEAN,
+    rating               INTEGER,
+    review               TEXT,
+    reviewed_at          TIMESTAMP(6),
+    business_id          BIGINT       NOT NULL,
+    customer_id          BIGINT       NOT NULL,
+    professional_id      BIGINT       NOT NULL,
+    service_id           BIGINT       NOT NULL,
+    location_id          BIGINT,
+    created_at           TIMESTAMP(6) NOT NULL,
+    updated_at           TIMESTAMP(6),
+    deleted_at           TIMESTAMP(6),
+    is_active            BOOLEAN,
+    CONSTRAINT ck_bookings_status CHECK (status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED', 'NO_SHOW', 'RESCHEDULED'))
+);
+
+CREATE TABLE payments (
+    id                       BIGSERIAL PRIMARY KEY,
+    amount                   NUMERIC(10, 2) NOT NULL,
+    currency                 VARCHAR(3),
+    status                   VARCHAR(20)    NOT NULL,
+    payment_method           VARCHAR(50),
+    stripe_payment_intent_id VARCHAR(255),
+    stripe_charge_id         VARCHAR(255),
+    stripe_payment_method_id VARCHAR(255),
+    transaction_id           VARCHAR(255) UNIQUE,
+    paid_at                  TIMESTAMP(6),
+    refunded_at              TIMESTAMP(6),
+    refund_amount            NUMERIC(10, 2),
+    refund_reason            TEXT,
+    notes                    TEXT,
+    error_message            TEXT,
+    booking_id               BIGINT UNIQUE,
+    created_at               TIMESTAMP(6)   NOT NULL,
+    updated_at               TIMESTAMP(6),
+    deleted_at               TIMESTAMP(6),
+    is_active                BOOLEAN,
+    CONSTRAINT ck_payments_status CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED', 'REFUNDED', 'CANCELLED'))
+);
+
+-- Claves foráneas
+ALTER TABLE users ADD CONSTRAINT fk_users_business FOREIGN KEY (business_id) REFERENCES businesses (id);
+ALTER TABLE businesses ADD CONSTRAINT fk_businesses_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+ALTER TABLE subscriptions ADD CONSTRAINT fk_subscriptions_business FOREIGN KEY (business_id) REFERENCES businesses (id);
+ALTER TABLE locations ADD CONSTRAINT fk_locations_business FOREIGN KEY (business_id) REFERENCES businesses (id);
+ALTER TABLE services ADD CONSTRAINT fk_services_business FOREIGN KEY (business_id) REFERENCES businesses (id);
+ALTER TABLE professionals ADD CONSTRAINT fk_professionals_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE professionals ADD CONSTRAINT fk_professionals_business FOREIGN KEY (business_id) REFERENCES businesses (id);
+ALTER TABLE professional_services ADD CONSTRAINT fk_professional_services_professional FOREIGN KEY (professional_id) REFERENCES professionals (id);
+ALTER TABLE professional_services ADD CONSTRAINT fk_professional_services_service FOREIGN KEY (service_id) REFERENCES services (id);
+ALTER TABLE professional_availability ADD CONSTRAINT fk_availability_professional FOREIGN KEY (professional_id) REFERENCES professionals (id);
+ALTER TABLE customers ADD CONSTRAINT fk_customers_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_business FOREIGN KEY (business_id) REFERENCES businesses (id);
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_professional FOREIGN KEY (professional_id) REFERENCES professionals (id);
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_service FOREIGN KEY (service_id) REFERENCES services (id);
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_location FOREIGN KEY (location_id) REFERENCES locations (id);
+ALTER TABLE payments ADD CONSTRAINT fk_payments_booking FOREIGN KEY (booking_id) REFERENCES bookings (id);
+
+-- Índices
+CREATE INDEX idx_user_email ON users (email);
+CREATE INDEX idx_user_business ON users (business_id);
+CREATE INDEX idx_business_slug ON businesses (slug);
+CREATE INDEX idx_business_owner ON businesses (owner_id);
+CREATE INDEX idx_subscription_business ON subscriptions (business_id);
+CREATE INDEX idx_subscription_stripe ON subscriptions (stripe_subscription_id);
+CREATE INDEX idx_location_business ON locations (business_id);
+CREATE INDEX idx_service_business ON services (business_id);
+CREATE INDEX idx_service_category ON services (category);
+CREATE INDEX idx_professional_business ON professionals (business_id);
+CREATE INDEX idx_professional_user ON professionals (user_id);
+CREATE INDEX idx_availability_professional ON professional_availability (professional_id);
+CREATE INDEX idx_availability_date ON professional_availability (specific_date);
+CREATE INDEX idx_customer_email ON customers (email);
+CREATE INDEX idx_customer_phone ON customers (phone_number);
+CREATE INDEX idx_booking_business ON bookings (business_id);
+CREATE INDEX idx_booking_customer ON bookings (customer_id);
+CREATE INDEX idx_booking_professional ON bookings (professional_id);
+CREATE INDEX idx_booking_service ON bookings (service_id);
+CREATE INDEX idx_booking_date ON bookings (start_time);
+CREATE INDEX idx_booking_status ON bookings (status);
+CREATE INDEX idx_booking_code ON bookings (booking_code);
+CREATE INDEX idx_payment_booking ON payments (booking_id);
+CREATE INDEX idx_payment_stripe ON payments (stripe_payment_intent_id);
+CREATE INDEX idx_payment_status ON payments (status);
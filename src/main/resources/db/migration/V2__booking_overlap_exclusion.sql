@@ -0,0 +1,13 @@
+-- Impide en base de datos que un profesional tenga dos reservas activas solapadas.
+-- start_time/end_time son TIMESTAMP sin zona horaria, por eso se usa tsrange y no tstzrange.
+-- Falla si ya existen solapamientos: deben resolverse antes de aplicar la migración.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_booking_professional_overlap
+    EXCLUDE USING gist (
+        professional_id WITH =,
+        tsrange(start_time, end_time, '[)') WITH &&
+    )
+    WHERE (status NOT IN ('CANCELLED', 'NO_SHOW'));
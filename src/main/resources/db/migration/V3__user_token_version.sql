@@ -0,0 +1,2 @@
+-- Versión de tokens por usuario para revocar JWT sin consultar la base de datos en cada request
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
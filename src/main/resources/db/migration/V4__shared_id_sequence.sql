@@ -0,0 +1,30 @@
+-- Secuencia compartida para los IDs de todas las entidades (GenerationType.SEQUENCE, allocationSize 50).
+-- Con IDENTITY Hibernate no puede agrupar inserts en lotes; con bloques de 50 IDs sí.
+-- Empieza por encima del mayor ID existente y sustituye a las secuencias BIGSERIAL como valor por defecto,
+-- de modo que los inserts por SQL directo tampoco colisionan con los IDs reservados por Hibernate.
+
+CREATE SEQUENCE slotsync_id_seq INCREMENT BY 50 START WITH 1;
+
+SELECT setval('slotsync_id_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) FROM users),
+    (SELECT COALESCE(MAX(id), 0) FROM businesses),
+    (SELECT COALESCE(MAX(id), 0) FROM subscriptions),
+    (SELECT COALESCE(MAX(id), 0) FROM locations),
+    (SELECT COALESCE(MAX(id), 0) FROM services),
+    (SELECT COALESCE(MAX(id), 0) FROM professionals),
+    (SELECT COALESCE(MAX(id), 0) FROM professional_availability),
+    (SELECT COALESCE(MAX(id), 0) FROM customers),
+    (SELECT COALESCE(MAX(id), 0) FROM bookings),
+    (SELECT COALESCE(MAX(id), 0) FROM payments)
+) + 100);
+
+ALTER TABLE users                     ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE businesses                ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE subscriptions             ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE locations                 ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE services                  ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE professionals             ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE professional_availability ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE customers                 ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE bookings                  ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
+ALTER TABLE payments                  ALTER COLUMN id SET DEFAULT nextval('slotsync_id_seq');
@@ -0,0 +1,19 @@
+-- Índices compuestos para la paginación por clave (keyset) sobre (start_time, id) y (created_at, id).
+-- Sustituyen a los índices de una sola columna, que son prefijo de los nuevos.
+
+CREATE INDEX idx_booking_business_start ON bookings (business_id, start_time, id);
+CREATE INDEX idx_booking_business_created ON bookings (business_id, created_at, id);
+CREATE INDEX idx_booking_customer_start ON bookings (customer_id, start_time, id);
+CREATE INDEX idx_booking_professional_start ON bookings (professional_id, start_time, id);
+DROP INDEX idx_booking_business;
+DROP INDEX idx_booking_customer;
+DROP INDEX idx_booking_professional;
+
+CREATE INDEX idx_service_business_created ON services (business_id, created_at, id);
+DROP INDEX idx_service_business;
+
+CREATE INDEX idx_professional_business_created ON professionals (business_id, created_at, id);
+DROP INDEX idx_professional_business;
+
+CREATE INDEX idx_user_business_created ON users (business_id, created_at, id);
+DROP INDEX idx_user_business;
@@ -0,0 +1,20 @@
+-- Agregados diarios de reservas por negocio, día (fecha local de start_time) y estado.
+-- Se mantienen de forma incremental en la misma transacción que modifica la reserva.
+CREATE TABLE booking_daily_stats (
+    business_id     BIGINT         NOT NULL REFERENCES businesses (id),
+    stat_date       DATE           NOT NULL,
+    status          VARCHAR(20)    NOT NULL,
+    booking_count   INTEGER        NOT NULL DEFAULT 0,
+    total_amount    NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    discount_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    deposit_amount  NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP      NOT NULL DEFAULT now(),
+    PRIMARY KEY (business_id, stat_date, status)
+);
+
+INSERT INTO booking_daily_stats (business_id, stat_date, status, booking_count, total_amount, discount_amount, deposit_amount)
+SELECT business_id, CAST(start_time AS DATE), status, COUNT(*),
+       COALESCE(SUM(total_amount), 0), COALESCE(SUM(discount_amount), 0), COALESCE(SUM(deposit_amount), 0)
+FROM bookings
+WHERE deleted_at IS NULL
+GROUP BY business_id, CAST(start_time AS DATE), status;
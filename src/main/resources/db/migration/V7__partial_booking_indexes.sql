@@ -0,0 +1,14 @@
+-- Índices parciales para las consultas por rango de fechas [inicio, fin) en hora local del negocio.
+-- El predicado coincide literalmente con el de las consultas JPQL para que el planificador pueda usarlos.
+
+-- Agenda del día / rango del negocio (reservas activas)
+CREATE INDEX idx_booking_business_active_start ON bookings (business_id, start_time)
+    WHERE status NOT IN ('CANCELLED', 'NO_SHOW');
+
+-- Agenda de un profesional; end_time incluido para resolver los intervalos sin leer la tabla
+CREATE INDEX idx_booking_professional_active_start ON bookings (professional_id, start_time) INCLUDE (end_time)
+    WHERE status NOT IN ('CANCELLED', 'NO_SHOW');
+
+-- Facturación: índice de cobertura con el importe de las reservas completadas
+CREATE INDEX idx_booking_business_completed_start ON bookings (business_id, start_time) INCLUDE (total_amount)
+    WHERE status = 'COMPLETED';
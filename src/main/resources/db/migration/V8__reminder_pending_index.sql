@@ -0,0 +1,4 @@
+-- Reservas confirmadas pendientes de recordatorio. El predicado coincide con el de ReminderRepository:
+-- el índice solo contiene las filas que el planificador aún tiene que reclamar y se vacía a medida que se envían.
+CREATE INDEX idx_booking_reminder_pending ON bookings (start_time)
+    WHERE status = 'CONFIRMED' AND reminder_sent_at IS NULL AND deleted_at IS NULL;
@@ -0,0 +1,14 @@
+-- Índices parciales para cargar por ventanas los plazos del ciclo de vida (BookingDeadlineRepository).
+-- Solo contienen reservas que aún esperan una transición, así que no crecen con el histórico.
+
+-- Inicio de reservas confirmadas: CONFIRMED -> IN_PROGRESS
+CREATE INDEX idx_booking_confirmed_start ON bookings (start_time, id)
+    WHERE status = 'CONFIRMED' AND deleted_at IS NULL;
+
+-- Fin de reservas abiertas: -> COMPLETED / NO_SHOW
+CREATE INDEX idx_booking_open_end ON bookings (end_time, id)
+    WHERE status IN ('CONFIRMED', 'IN_PROGRESS') AND deleted_at IS NULL;
+
+-- Reservas pendientes de pago por antigüedad: caducidad de la retención
+CREATE INDEX idx_booking_pending_created ON bookings (created_at, id)
+    WHERE status = 'PENDING' AND deleted_at IS NULL;
@@ -0,0 +1,71 @@
+package com.slotsync.availability;
+
+import com.slotsync.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un día en memoria no ve las reservas hechas en otro nodo: pasado su TTL se vuelve a cargar de la base de datos.
+ */
+class BookingOccupancyIndexTest {
+
+    private static final long PROFESSIONAL_ID = 7L;
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final List<BookingInterval> table = new ArrayList<>();
+    private BookingRepository bookingRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findBookingIntervals(any(), any(), any())).thenAnswer(invocation -> List.copyOf(table));
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void warmDayIsServedFromMemoryUntilItExpires() throws InterruptedException {
+        BookingOccupancyIndex index = new BookingOccupancyIndex(
+                bookingRepository, transactionManager, new SimpleMeterRegistry(), 100, 1);
+        assertThat(bookings(index)).isEmpty();
+
+        // Alta en otro nodo: aquí no llega ningún evento
+        table.add(new BookingInterval(1L, PROFESSIONAL_ID, DAY.atTime(10, 0), DAY.atTime(10, 30)));
+        assertThat(bookings(index)).isEmpty();
+
+        Thread.sleep(1100);
+
+        assertThat(bookings(index)).extracting(BookingInterval::bookingId).containsExactly(1L);
+        verify(bookingRepository, times(2)).findBookingIntervals(any(), any(), any());
+    }
+
+    @Test
+    void withoutTtlWarmDaysAreNeverReloaded() {
+        BookingOccupancyIndex index = new BookingOccupancyIndex(
+                bookingRepository, transactionManager, new SimpleMeterRegistry(), 100, 0);
+        bookings(index);
+        table.add(new BookingInterval(1L, PROFESSIONAL_ID, DAY.atTime(12, 0), DAY.atTime(12, 30)));
+
+        assertThat(bookings(index)).isEmpty();
+        verify(bookingRepository, times(1)).findBookingIntervals(any(), any(), any());
+    }
+
+    private List<BookingInterval> bookings(BookingOccupancyIndex index) {
+        return index.getBookings(List.of(PROFESSIONAL_ID), DAY, DAY).get(PROFESSIONAL_ID);
+    }
+}
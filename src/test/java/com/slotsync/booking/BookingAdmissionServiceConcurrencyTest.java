@@ -0,0 +1,159 @@
+package com.slotsync.booking;
+
+import com.slotsync.entity.Booking;
+import com.slotsync.entity.Professional;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.exception.SlotUnavailableException;
+import com.slotsync.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Muchas altas simultáneas para el mismo hueco: solo una puede entrar y el resto debe recibir
+ * {@link SlotUnavailableException}. La tabla es una lista en memoria que hace de restricción de exclusión
+ * (rechaza al insertar si hay solapamiento), como ex_booking_professional_overlap en PostgreSQL.
+ */
+class BookingAdmissionServiceConcurrencyTest {
+
+    private static final int ATTEMPTS = 2000;
+    private static final long PROFESSIONAL_ID = 7L;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 4, 10, 0);
+    private static final LocalDateTime END = START.plusMinutes(30);
+
+    private final List<Booking> table = new ArrayList<>();
+    private final AtomicInteger constraintRejections = new AtomicInteger();
+    private BookingRepository bookingRepository;
+    private BookingCodeGenerator codeGenerator;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.existsOverlappingBooking(anyLong(), any(), any())).thenAnswer(invocation ->
+                overlaps(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation ->
+                insert(invocation.getArgument(0)));
+
+        AtomicInteger codes = new AtomicInteger();
+        codeGenerator = mock(BookingCodeGenerator.class);
+        when(codeGenerator.next()).thenAnswer(invocation -> "BK20300304" + codes.incrementAndGet());
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void oneNodeAdmitsExactlyOneBookingPerSlot() throws Exception {
+        BookingAdmissionService node = new BookingAdmissionService(
+                bookingRepository, codeGenerator, transactionManager, 256);
+
+        Outcome outcome = race(List.of(node));
+
+        assertThat(outcome.admitted()).isEqualTo(1);
+        assertThat(outcome.rejected()).isEqualTo(ATTEMPTS - 1);
+        assertThat(table).hasSize(1);
+        // Con un solo nodo el lock por profesional basta: la restricción no llega a saltar
+        assertThat(constraintRejections).hasValue(0);
+    }
+
+    @Test
+    void twoNodesAdmitExactlyOneBookingPerSlot() throws Exception {
+        // Cada instancia tiene sus propios locks, como dos nodos: solo la restricción los coordina
+        BookingAdmissionService first = new BookingAdmissionService(
+                bookingRepository, codeGenerator, transactionManager, 256);
+        BookingAdmissionService second = new BookingAdmissionService(
+                bookingRepository, codeGenerator, transactionManager, 256);
+
+        Outcome outcome = race(List.of(first, second));
+
+        assertThat(outcome.admitted()).isEqualTo(1);
+        assertThat(outcome.rejected()).isEqualTo(ATTEMPTS - 1);
+        assertThat(table).hasSize(1);
+    }
+
+    private Outcome race(List<BookingAdmissionService> nodes) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>(ATTEMPTS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                BookingAdmissionService node = nodes.get(i % nodes.size());
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        node.admit(newBooking());
+                        admitted.incrementAndGet();
+                    } catch (SlotUnavailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                try {
+                    attempt.get();
+                } catch (Exception e) {
+                    fail("Alta con un error distinto de SlotUnavailableException", e);
+                }
+            }
+        }
+        return new Outcome(admitted.get(), rejected.get());
+    }
+
+    private boolean overlaps(Long professionalId, LocalDateTime start, LocalDateTime end) {
+        synchronized (table) {
+            return table.stream().anyMatch(booking -> booking.getProfessional().getId().equals(professionalId)
+                    && booking.getStartTime().isBefore(end) && booking.getEndTime().isAfter(start));
+        }
+    }
+
+    private Booking insert(Booking booking) {
+        synchronized (table) {
+            if (overlaps(booking.getProfessional().getId(), booking.getStartTime(), booking.getEndTime())) {
+                constraintRejections.incrementAndGet();
+                throw new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ERROR: conflicting key value violates exclusion constraint \""
+                                + BookingAdmissionService.OVERLAP_CONSTRAINT + "\"", "23P01"));
+            }
+            booking.setId((long) table.size() + 1);
+            table.add(booking);
+            return booking;
+        }
+    }
+
+    private static Booking newBooking() {
+        Professional professional = new Professional();
+        professional.setId(PROFESSIONAL_ID);
+        return Booking.builder()
+                .professional(professional)
+                .startTime(START)
+                .endTime(END)
+                .status(BookingStatus.PENDING)
+                .build();
+    }
+
+    private record Outcome(int admitted, int rejected) {
+    }
+}
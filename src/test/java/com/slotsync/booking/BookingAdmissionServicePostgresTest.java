@@ -0,0 +1,195 @@
+package com.slotsync.booking;
+
+import com.slotsync.entity.Booking;
+import com.slotsync.entity.Business;
+import com.slotsync.entity.Customer;
+import com.slotsync.entity.Professional;
+import com.slotsync.entity.Service;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.exception.SlotUnavailableException;
+import com.slotsync.repository.BookingRepository;
+import com.slotsync.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Miles de altas simultáneas para el mismo hueco desde dos "nodos" (dos instancias del servicio, cada una con sus
+ * locks) contra PostgreSQL: la restricción ex_booking_professional_overlap debe dejar entrar solo una.
+ * Los bloques de códigos de reserva empiezan tras los códigos del día que ya estén en bookings.
+ */
+@PostgresTest
+class BookingAdmissionServicePostgresTest {
+
+    private static final int ATTEMPTS = 2000;
+    private static final LocalDateTime START = LocalDateTime.of(2099, 6, 1, 10, 0);
+    private static final LocalDate CODE_DATE = LocalDate.of(2099, 6, 1);
+
+    @Autowired
+    private BookingAdmissionService admissionService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingCodeGenerator bookingCodeGenerator;
+
+    @Autowired
+    private BookingCodeBlockRepository blockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+    private long businessId;
+    private long serviceId;
+    private long professionalId;
+    private long customerId;
+
+    @BeforeEach
+    void createFixture() {
+        userId = nextId();
+        businessId = nextId();
+        serviceId = nextId();
+        professionalId = nextId();
+        customerId = nextId();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, password, role, created_at, "
+                + "is_active) VALUES (?, 'Admission', 'Test', ?, 'x', 'BUSINESS_OWNER', now(), true)",
+                userId, "admission-" + userId + "@test.slotsync");
+        jdbcTemplate.update("INSERT INTO businesses (id, name, slug, subscription_plan, owner_id, created_at, "
+                + "is_active) VALUES (?, 'Admission test', ?, 'BUSINESS', ?, now(), true)",
+                businessId, "admission-test-" + businessId, userId);
+        jdbcTemplate.update("INSERT INTO services (id, name, price, duration, business_id, created_at, is_active) "
+                + "VALUES (?, 'Corte', 20, 30, ?, now(), true)", serviceId, businessId);
+        jdbcTemplate.update("INSERT INTO professionals (id, user_id, business_id, rating_average, total_reviews, "
+                + "created_at, is_active) VALUES (?, ?, ?, 0, 0, now(), true)", professionalId, userId, businessId);
+        jdbcTemplate.update("INSERT INTO customers (id, email, total_bookings, total_no_shows, total_cancellations, "
+                + "loyalty_points, created_at, is_active) VALUES (?, ?, 0, 0, 0, 0, now(), true)",
+                customerId, "customer-" + customerId + "@test.slotsync");
+    }
+
+    @AfterEach
+    void dropFixture() {
+        jdbcTemplate.update("DELETE FROM notification_outbox WHERE booking_id IN "
+                + "(SELECT id FROM bookings WHERE business_id = ?)", businessId);
+        jdbcTemplate.update("DELETE FROM booking_daily_stats WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM bookings WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customerId);
+        jdbcTemplate.update("DELETE FROM professionals WHERE id = ?", professionalId);
+        jdbcTemplate.update("DELETE FROM services WHERE id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM businesses WHERE id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        jdbcTemplate.update("DELETE FROM booking_code_blocks WHERE code_date = ?", CODE_DATE);
+    }
+
+    @Test
+    void twoNodesAdmitExactlyOneOfThousandsOfConcurrentBookings() throws Exception {
+        BookingAdmissionService otherNode = new BookingAdmissionService(
+                bookingRepository, bookingCodeGenerator, transactionManager, 256);
+        List<BookingAdmissionService> nodes = List.of(admissionService, otherNode);
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>(ATTEMPTS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                BookingAdmissionService node = nodes.get(i % nodes.size());
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        node.admit(newBooking());
+                        admitted.incrementAndGet();
+                    } catch (SlotUnavailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                try {
+                    attempt.get();
+                } catch (Exception e) {
+                    fail("Alta con un error distinto de SlotUnavailableException", e);
+                }
+            }
+        }
+
+        assertThat(admitted).hasValue(1);
+        assertThat(rejected).hasValue(ATTEMPTS - 1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE professional_id = ?", Integer.class, professionalId))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void codeBlocksStartAfterTheCodesAlreadyTakenThatDay() {
+        jdbcTemplate.update("DELETE FROM booking_code_blocks WHERE code_date = ?", CODE_DATE);
+        insertBooking("BK20990601042", 0);
+        // Otro día y un código que no sigue el formato: no cuentan
+        insertBooking("BK20990602999", 1);
+        insertBooking("BK20990601X77", 2);
+
+        assertThat(blockRepository.lease(CODE_DATE, 10)).isEqualTo(43);
+
+        // Importado con su propio código por delante del contador
+        insertBooking("BK20990601100", 3);
+
+        assertThat(blockRepository.lease(CODE_DATE, 10)).isEqualTo(101);
+        assertThat(blockRepository.lease(CODE_DATE, 10)).isEqualTo(111);
+    }
+
+    private void insertBooking(String code, int hour) {
+        LocalDateTime start = START.plusHours(hour);
+        jdbcTemplate.update("INSERT INTO bookings (id, booking_code, start_time, end_time, status, price, business_id, "
+                + "customer_id, professional_id, service_id, created_at, is_active) "
+                + "VALUES (?, ?, ?, ?, 'CONFIRMED', 20, ?, ?, ?, ?, now(), true)",
+                nextId(), code, start, start.plusMinutes(30), businessId, customerId, professionalId, serviceId);
+    }
+
+    private Booking newBooking() {
+        Business business = new Business();
+        business.setId(businessId);
+        Service service = new Service();
+        service.setId(serviceId);
+        Professional professional = new Professional();
+        professional.setId(professionalId);
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        return Booking.builder()
+                .business(business)
+                .service(service)
+                .professional(professional)
+                .customer(customer)
+                .startTime(START)
+                .endTime(START.plusMinutes(30))
+                .status(BookingStatus.PENDING)
+                .price(BigDecimal.valueOf(20))
+                .build();
+    }
+
+    private long nextId() {
+        return jdbcTemplate.queryForObject("SELECT nextval('slotsync_id_seq')", Long.class);
+    }
+}
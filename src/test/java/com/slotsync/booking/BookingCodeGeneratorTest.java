@@ -0,0 +1,132 @@
+package com.slotsync.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reparto de los bloques de códigos de reserva al cambiar de día, también cuando el reloj retrocede, y sin códigos
+ * repetidos entre hilos que agotan bloques a la vez.
+ */
+class BookingCodeGeneratorTest {
+
+    private static final Instant BEFORE_MIDNIGHT = Instant.parse("2030-03-04T23:59:59Z");
+    private static final int BLOCK_SIZE = 10;
+    private static final int THREADS = 16;
+    private static final int CODES_PER_THREAD = 500;
+
+    private final AtomicLong nextFirst = new AtomicLong(1);
+    private MutableClock clock;
+    private BookingCodeGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        BookingCodeBlockRepository blockRepository = mock(BookingCodeBlockRepository.class);
+        when(blockRepository.lease(any(LocalDate.class), anyInt()))
+                .thenAnswer(invocation -> nextFirst.getAndAdd(BLOCK_SIZE));
+        clock = new MutableClock(BEFORE_MIDNIGHT);
+        generator = new BookingCodeGenerator(blockRepository, clock, BLOCK_SIZE, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void newDayLeasesANewBlock() {
+        assertThat(generator.next()).isEqualTo("BK20300304001");
+
+        clock.advance(Duration.ofSeconds(2));
+
+        assertThat(generator.next()).isEqualTo("BK20300305011");
+    }
+
+    @Test
+    void clockGoingBackPastMidnightLeasesABlockForThatDay() {
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(generator.next()).isEqualTo("BK20300305001");
+
+        clock.advance(Duration.ofSeconds(-2));
+
+        String code = assertTimeoutPreemptively(Duration.ofSeconds(5), generator::next);
+        assertThat(code).isEqualTo("BK20300304011");
+    }
+
+    @Test
+    void concurrentCallersNeverGetTheSameCode() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<String> codes = new ArrayList<>(CODES_PER_THREAD);
+                    for (int j = 0; j < CODES_PER_THREAD; j++) {
+                        codes.add(generator.next());
+                    }
+                    return codes;
+                }));
+            }
+            start.countDown();
+
+            Set<String> unique = new HashSet<>();
+            for (Future<List<String>> result : results) {
+                unique.addAll(result.get(10, TimeUnit.SECONDS));
+            }
+            assertThat(unique).hasSize(THREADS * CODES_PER_THREAD);
+            // Ningún bloque arrendado se ha desperdiciado más allá del que queda a medias
+            assertThat(nextFirst.get() - 1).isLessThanOrEqualTo(THREADS * CODES_PER_THREAD + BLOCK_SIZE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.slotsync.controller;
+
+import com.slotsync.entity.Business;
+import com.slotsync.entity.User;
+import com.slotsync.enums.Role;
+import com.slotsync.security.UserPrincipal;
+import com.slotsync.support.SqlCapture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL de Hibernate por petición en los listados: una sentencia de más suele ser un N+1
+ * (una relación perezosa recorrida al serializar). El fixture tiene varias filas de cada tipo para que se note.
+ * Las páginas públicas se piden sin su caché en memoria: es el coste de reconstruirlas (negocio, servicios y
+ * profesionales).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.public-pages.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.slotsync.support.SqlCapture"
+})
+class ListingQueryBudgetTest {
+
+    private static final int ROWS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long businessId;
+    private String slug;
+    private long professionalId;
+    private long customerId;
+    private UserPrincipal owner;
+
+    @BeforeEach
+    void createFixture() {
+        long ownerId = nextId();
+        businessId = nextId();
+        slug = "budget-" + businessId;
+        insertUser(ownerId, Role.BUSINESS_OWNER);
+        jdbcTemplate.update("INSERT INTO businesses (id, name, slug, subscription_plan, owner_id, timezone, "
+                + "created_at, is_active) VALUES (?, 'Budget test', ?, 'BUSINESS', ?, 'Europe/Madrid', now(), true)",
+                businessId, slug, ownerId);
+        jdbcTemplate.update("UPDATE users SET business_id = ? WHERE id = ?", businessId, ownerId);
+
+        long[] services = new long[ROWS];
+        long[] professionals = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            services[i] = nextId();
+            jdbcTemplate.update("INSERT INTO services (id, name, price, duration, buffer_time_before, "
+                    + "buffer_time_after, business_id, created_at, is_active) "
+                    + "VALUES (?, ?, 20, 30, 0, 0, ?, now(), true)",
+                    services[i], "Servicio " + i, businessId);
+            long userId = nextId();
+            insertUser(userId, Role.PROFESSIONAL);
+            jdbcTemplate.update("UPDATE users SET business_id = ? WHERE id = ?", businessId, userId);
+            professionals[i] = nextId();
+            jdbcTemplate.update("INSERT INTO professionals (id, user_id, business_id, rating_average, total_reviews, "
+                    + "created_at, is_active) VALUES (?, ?, ?, 0, 0, now(), true)",
+                    professionals[i], userId, businessId);
+        }
+        for (long professional : professionals) {
+            for (long service : services) {
+                jdbcTemplate.update("INSERT INTO professional_services (professional_id, service_id) VALUES (?, ?)",
+                        professional, service);
+            }
+        }
+        professionalId = professionals[0];
+
+        customerId = nextId();
+        jdbcTemplate.update("INSERT INTO customers (id, email, total_bookings, total_no_shows, total_cancellations, "
+                + "loyalty_points, created_at, is_active) VALUES (?, ?, 0, 0, 0, 0, now(), true)",
+                customerId, "customer-" + customerId + "@test.slotsync");
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < ROWS * ROWS; i++) {
+            long bookingId = nextId();
+            jdbcTemplate.update("INSERT INTO bookings (id, booking_code, start_time, end_time, status, price, "
+                    + "business_id, customer_id, professional_id, service_id, created_at, is_active) "
+                    + "VALUES (?, ?, ?, ?, 'CONFIRMED', 20, ?, ?, ?, ?, now(), true)",
+                    bookingId, "BKBUDGET" + bookingId, start.plusMinutes(5L * i), start.plusMinutes(5L * i + 5),
+                    businessId, customerId, professionals[i % ROWS], services[i / ROWS]);
+        }
+
+        User user = User.builder().email("owner-" + ownerId + "@test.slotsync").password("x")
+                .role(Role.BUSINESS_OWNER).tokenVersion(0).build();
+        user.setId(ownerId);
+        Business business = new Business();
+        business.setId(businessId);
+        user.setBusiness(business);
+        owner = UserPrincipal.create(user);
+    }
+
+    @Test
+    void businessBookings() {
+        assertBudget(authenticated("/api/businesses/{businessId}/bookings", businessId), 1);
+    }
+
+    @Test
+    void todayBookings() {
+        // Ventana del día en la zona del negocio + reservas
+        assertBudget(authenticated("/api/businesses/{businessId}/bookings/today", businessId), 2);
+    }
+
+    @Test
+    void recentBookings() {
+        assertBudget(authenticated("/api/businesses/{businessId}/bookings/recent", businessId), 1);
+    }
+
+    @Test
+    void customerBookings() {
+        assertBudget(authenticated("/api/businesses/{businessId}/customers/{customerId}/bookings",
+                businessId, customerId), 1);
+    }
+
+    @Test
+    void professionalBookings() {
+        assertBudget(authenticated("/api/businesses/{businessId}/professionals/{professionalId}/bookings",
+                businessId, professionalId), 1);
+    }
+
+    @Test
+    void services() {
+        assertBudget(authenticated("/api/businesses/{businessId}/services", businessId), 1);
+    }
+
+    @Test
+    void professionals() {
+        assertBudget(authenticated("/api/businesses/{businessId}/professionals", businessId), 1);
+    }
+
+    @Test
+    void users() {
+        assertBudget(authenticated("/api/businesses/{businessId}/users", businessId), 1);
+    }
+
+    @Test
+    void publicPage() {
+        assertBudget(get("/api/businesses/{slug}/public", slug), 3);
+    }
+
+    @Test
+    void publicServices() {
+        assertBudget(get("/api/services/business/{slug}", slug), 3);
+    }
+
+    @Test
+    void publicProfessionals() {
+        assertBudget(get("/api/professionals/business/{slug}", slug), 3);
+    }
+
+    private MockHttpServletRequestBuilder authenticated(String uri, Object... variables) {
+        return get(uri, variables).with(user(owner));
+    }
+
+    private void assertBudget(MockHttpServletRequestBuilder request, int budget) {
+        List<String> statements = SqlCapture.during(() -> {
+            try {
+                mockMvc.perform(request).andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(statements).as("Sentencias SQL de la petición").hasSizeLessThanOrEqualTo(budget);
+    }
+
+    private void insertUser(long id, Role role) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, password, role, token_version, "
+                + "created_at, is_active) VALUES (?, 'Budget', 'Test', ?, 'x', ?, 0, now(), true)",
+                id, role.name().toLowerCase() + "-" + id + "@test.slotsync", role.name());
+    }
+
+    private long nextId() {
+        return jdbcTemplate.queryForObject("SELECT nextval('slotsync_id_seq')", Long.class);
+    }
+}
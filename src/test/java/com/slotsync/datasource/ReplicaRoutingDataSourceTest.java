@@ -0,0 +1,152 @@
+package com.slotsync.datasource;
+
+import com.slotsync.availability.BookingOccupancyIndex;
+import com.slotsync.entity.User;
+import com.slotsync.enums.Role;
+import com.slotsync.repository.BookingRepository;
+import com.slotsync.repository.UserRepository;
+import com.slotsync.security.CustomUserDetailsService;
+import com.slotsync.security.PrincipalCache;
+import com.slotsync.security.PrincipalCacheRedisTier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Destino de cada conexión con un primario y una réplica en H2: cada base tiene una fila que dice cuál es, así que
+ * leerla muestra a dónde ha ido la sentencia. La salud de la réplica la fija el test en lugar de
+ * {@link ReplicaLagMonitor}, cuya consulta es de PostgreSQL.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA = "replica-0";
+
+    private ReplicaLagMonitor lagMonitor;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.nextHealthy()).thenReturn(REPLICA);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor, new SimpleMeterRegistry());
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary, REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void clearReadYourWrites() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndTheRestToThePrimary() {
+        assertThat(inTransaction(true)).isEqualTo("replica");
+        assertThat(inTransaction(false)).isEqualTo("primary");
+        assertThat(target()).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToThePrimaryWithoutHealthyReplicas() {
+        when(lagMonitor.nextHealthy()).thenReturn(null);
+
+        assertThat(inTransaction(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToThePrimaryAfterAWriteInTheRequest() {
+        ReadYourWrites.activate();
+
+        assertThat(inTransaction(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void principalReloadReadsFromThePrimary() {
+        List<String> targets = new ArrayList<>();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> {
+            targets.add(target());
+            User user = User.builder().email("user@test.slotsync").password("x").role(Role.CUSTOMER).build();
+            user.setId(invocation.getArgument(0));
+            return Optional.of(user);
+        });
+        @SuppressWarnings("unchecked")
+        ObjectProvider<PrincipalCacheRedisTier> noSharedTier = mock(ObjectProvider.class);
+        PrincipalCache principalCache = new PrincipalCache(noSharedTier, new SimpleMeterRegistry(), true, 300, 100);
+        CustomUserDetailsService userDetailsService =
+                new CustomUserDetailsService(userRepository, principalCache, transactionManager);
+
+        userDetailsService.loadUserById(1L);
+
+        assertThat(targets).containsExactly("primary");
+    }
+
+    @Test
+    void occupancyLoadReadsFromThePrimaryInsideAReadOnlyTransaction() {
+        List<String> targets = new ArrayList<>();
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findBookingIntervals(any(), any(), any())).thenAnswer(invocation -> {
+            targets.add(target());
+            return List.of();
+        });
+        BookingOccupancyIndex occupancyIndex =
+                new BookingOccupancyIndex(bookingRepository, transactionManager, new SimpleMeterRegistry(), 100, 60);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            // La consulta de disponibilidad ya va por la réplica cuando el índice tiene que cargar
+            targets.add(target());
+            occupancyIndex.getBookings(List.of(7L), LocalDate.of(2030, 3, 4), LocalDate.of(2030, 3, 5));
+        });
+
+        assertThat(targets).containsExactly("replica", "primary");
+    }
+
+    private String inTransaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> target());
+    }
+
+    private String target() {
+        return jdbcTemplate.queryForObject("SELECT name FROM target", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE target (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO target (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,88 @@
+package com.slotsync.event;
+
+import com.slotsync.entity.User;
+import com.slotsync.enums.Role;
+import com.slotsync.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los tokens llevan el rol y el negocio en los claims: cambiarlos, o cambiar la contraseña, sube {@code tokenVersion}
+ * al guardar. El resto de cambios no revoca nada.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserTokenRevocationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = jdbcTemplate.queryForObject("SELECT nextval('slotsync_id_seq')", Long.class);
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, password, role, token_version, "
+                + "created_at, is_active) VALUES (?, 'Token', 'Test', ?, 'hash', 'PROFESSIONAL', 0, now(), true)",
+                userId, "token-" + userId + "@test.slotsync");
+    }
+
+    @Test
+    void roleChangeRevokesTokens() {
+        update(user -> user.setRole(Role.BUSINESS_ADMIN));
+
+        assertThat(tokenVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void passwordChangeRevokesTokens() {
+        update(user -> user.setPassword("new-hash"));
+
+        assertThat(tokenVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void explicitRevocationIsNotBumpedTwice() {
+        update(user -> {
+            user.setRole(Role.BUSINESS_ADMIN);
+            user.revokeTokens();
+        });
+
+        assertThat(tokenVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void otherChangesKeepTokens() {
+        update(user -> {
+            user.setFirstName("Renamed");
+            user.updateLastLogin();
+        });
+
+        assertThat(tokenVersion()).isZero();
+    }
+
+    private void update(Consumer<User> change) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                change.accept(userRepository.findById(userId).orElseThrow()));
+    }
+
+    private int tokenVersion() {
+        return jdbcTemplate.queryForObject("SELECT token_version FROM users WHERE id = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,151 @@
+package com.slotsync.notification;
+
+import com.slotsync.booking.BookingAdmissionService;
+import com.slotsync.bulkimport.BulkImportService;
+import com.slotsync.bulkimport.ImportFormat;
+import com.slotsync.dto.imports.ImportResultResponse;
+import com.slotsync.entity.Booking;
+import com.slotsync.entity.Business;
+import com.slotsync.entity.Customer;
+import com.slotsync.entity.Professional;
+import com.slotsync.entity.Service;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Qué altas de reservas confirmadas encolan aviso: las de la admisión normal sí; las importadas y las que ya han
+ * empezado no.
+ */
+@PostgresTest
+class BookingOutboxListenerPostgresTest {
+
+    private static final LocalDateTime FUTURE = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS);
+    private static final LocalDateTime PAST = LocalDateTime.now().minusDays(30).truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private BookingAdmissionService admissionService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+    private long businessId;
+    private long serviceId;
+    private long professionalId;
+    private long customerId;
+
+    @BeforeEach
+    void createFixture() {
+        userId = nextId();
+        businessId = nextId();
+        serviceId = nextId();
+        professionalId = nextId();
+        customerId = nextId();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, password, role, created_at, "
+                + "is_active) VALUES (?, 'Outbox', 'Test', ?, 'x', 'BUSINESS_OWNER', now(), true)",
+                userId, "outbox-" + userId + "@test.slotsync");
+        jdbcTemplate.update("INSERT INTO businesses (id, name, slug, subscription_plan, owner_id, created_at, "
+                + "is_active) VALUES (?, 'Outbox test', ?, 'BUSINESS', ?, now(), true)",
+                businessId, "outbox-test-" + businessId, userId);
+        jdbcTemplate.update("INSERT INTO services (id, name, price, duration, business_id, created_at, is_active) "
+                + "VALUES (?, 'Corte', 20, 30, ?, now(), true)", serviceId, businessId);
+        jdbcTemplate.update("INSERT INTO professionals (id, user_id, business_id, rating_average, total_reviews, "
+                + "created_at, is_active) VALUES (?, ?, ?, 0, 0, now(), true)", professionalId, userId, businessId);
+        jdbcTemplate.update("INSERT INTO customers (id, email, total_bookings, total_no_shows, total_cancellations, "
+                + "loyalty_points, created_at, is_active) VALUES (?, ?, 0, 0, 0, 0, now(), true)",
+                customerId, customerEmail());
+    }
+
+    @AfterEach
+    void dropFixture() {
+        jdbcTemplate.update("DELETE FROM notification_outbox WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM booking_daily_stats WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM bookings WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customerId);
+        jdbcTemplate.update("DELETE FROM professionals WHERE id = ?", professionalId);
+        jdbcTemplate.update("DELETE FROM services WHERE id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM businesses WHERE id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void confirmedBookingFromAdmissionIsNotified() {
+        admissionService.admit(newBooking(FUTURE));
+
+        assertThat(outboxRows()).isEqualTo(1);
+    }
+
+    @Test
+    void confirmedBookingThatAlreadyStartedIsNotNotified() {
+        admissionService.admit(newBooking(PAST));
+
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void importedConfirmedBookingsAreNotNotified() {
+        String csv = "customerEmail,professionalId,serviceId,startTime,endTime,status\n"
+                + row(FUTURE) + row(FUTURE.plusHours(1)) + row(PAST);
+
+        ImportResultResponse result = bulkImportService.importBookings(businessId,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(outboxRows()).isZero();
+    }
+
+    private String row(LocalDateTime start) {
+        return customerEmail() + "," + professionalId + "," + serviceId + "," + start + "," + start.plusMinutes(30)
+                + ",CONFIRMED\n";
+    }
+
+    private Booking newBooking(LocalDateTime start) {
+        Business business = new Business();
+        business.setId(businessId);
+        Service service = new Service();
+        service.setId(serviceId);
+        Professional professional = new Professional();
+        professional.setId(professionalId);
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        return Booking.builder()
+                .business(business)
+                .service(service)
+                .professional(professional)
+                .customer(customer)
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .status(BookingStatus.CONFIRMED)
+                .price(BigDecimal.valueOf(20))
+                .build();
+    }
+
+    private int outboxRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox WHERE business_id = ?",
+                Integer.class, businessId);
+    }
+
+    private String customerEmail() {
+        return "customer-" + customerId + "@test.slotsync";
+    }
+
+    private long nextId() {
+        return jdbcTemplate.queryForObject("SELECT nextval('slotsync_id_seq')", Long.class);
+    }
+}
@@ -0,0 +1,141 @@
+package com.slotsync.publicpage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slotsync.entity.Business;
+import com.slotsync.event.BusinessCatalogChangedEvent;
+import com.slotsync.repository.BusinessRepository;
+import com.slotsync.repository.ProfessionalRepository;
+import com.slotsync.repository.ServiceRepository;
+import com.slotsync.support.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un cambio de catálogo confirmado en un nodo descarta la página pública también en los demás, por Redis pub/sub
+ * (embebido). Dos instancias de {@link PublicPageCache} hacen de dos nodos.
+ */
+class PublicPageCacheTest {
+
+    private static final long BUSINESS_ID = 11L;
+    private static final String SLUG = "peluqueria-centro";
+
+    private static EmbeddedRedis redis;
+
+    private final List<PublicPageInvalidationBroadcast> broadcasts = new ArrayList<>();
+    private BusinessRepository businessRepository;
+    private ServiceRepository serviceRepository;
+    private ProfessionalRepository professionalRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Business business = new Business();
+        business.setId(BUSINESS_ID);
+        business.setSlug(SLUG);
+        business.setIsActive(true);
+        businessRepository = mock(BusinessRepository.class);
+        when(businessRepository.findBySlug(SLUG)).thenReturn(Optional.of(business));
+        serviceRepository = mock(ServiceRepository.class);
+        when(serviceRepository.findPublicByBusinessId(anyLong())).thenReturn(List.of());
+        professionalRepository = mock(ProfessionalRepository.class);
+        when(professionalRepository.findPublicByBusinessId(anyLong())).thenReturn(List.of());
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @AfterEach
+    void closeBroadcasts() throws Exception {
+        for (PublicPageInvalidationBroadcast broadcast : broadcasts) {
+            broadcast.close();
+        }
+    }
+
+    @Test
+    void catalogChangeReachesTheOtherNode() {
+        PublicPageCache nodeA = node(true);
+        PublicPageCache nodeB = node(true);
+        nodeA.get(SLUG);
+        nodeB.get(SLUG);
+        assertThat(builds()).isEqualTo(2);
+
+        nodeA.onCatalogChanged(new BusinessCatalogChangedEvent(BUSINESS_ID));
+
+        // Hasta que llega el mensaje, el nodo B sigue sirviendo su copia
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            nodeB.get(SLUG);
+            return builds() == 3;
+        });
+        nodeA.get(SLUG);
+        assertThat(builds()).isEqualTo(4);
+    }
+
+    @Test
+    void withoutRedisOnlyTheLocalNodeIsInvalidated() {
+        PublicPageCache nodeA = node(false);
+        PublicPageCache nodeB = node(false);
+        nodeA.get(SLUG);
+        nodeB.get(SLUG);
+
+        nodeA.onCatalogChanged(new BusinessCatalogChangedEvent(BUSINESS_ID));
+        nodeA.get(SLUG);
+        nodeB.get(SLUG);
+
+        assertThat(builds()).isEqualTo(3);
+    }
+
+    private PublicPageCache node(boolean withRedis) {
+        PublicPageInvalidationBroadcast broadcast = null;
+        if (withRedis) {
+            broadcast = new PublicPageInvalidationBroadcast(redis.connectionFactory(),
+                    "slotsync:public-pages:invalidate");
+            broadcasts.add(broadcast);
+        }
+        @SuppressWarnings("unchecked")
+        ObjectProvider<PublicPageInvalidationBroadcast> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(broadcast);
+        PublicPageCache cache = new PublicPageCache(businessRepository, serviceRepository, professionalRepository,
+                new ObjectMapper().findAndRegisterModules(), transactionManager, provider, new SimpleMeterRegistry(),
+                true, 600, 100);
+        if (broadcast != null) {
+            broadcast.ensureSubscribed();
+        }
+        return cache;
+    }
+
+    private long builds() {
+        return mockingDetails(businessRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findBySlug"))
+                .count();
+    }
+}
@@ -0,0 +1,127 @@
+package com.slotsync.repository;
+
+import com.slotsync.calendar.DayWindow;
+import com.slotsync.enums.BookingStatus;
+import com.slotsync.support.PostgresTest;
+import com.slotsync.support.SqlCapture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las consultas por rango de fechas deben recorrer un índice por rango de start_time, no leer la tabla entera ni
+ * filtrar el rango después: un CAST(start_time AS DATE) o un YEAR()/MONTH() en la consulta rompería estos tests.
+ * Qué índice elige (el del negocio o profesional, o idx_booking_date) depende de las estadísticas de la tabla.
+ * Se examina el plan genérico (plan_cache_mode = force_generic_plan) del SQL que genera Hibernate, con los barridos
+ * secuenciales desactivados para que el resultado no dependa de cuántas filas tenga la base de datos.
+ */
+@PostgresTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.slotsync.support.SqlCapture"
+})
+class BookingRepositoryPlanTest {
+
+    private static final LocalDateTime FROM = LocalDate.of(2099, 6, 1).atStartOfDay();
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void businessAgendaScansAnIndexByRange() {
+        String plan = plan(() -> bookingRepository.findTodayBookingsByBusiness(1L, DayWindow.ofDay(FROM.toLocalDate())));
+
+        assertRangeInIndexCond(plan);
+    }
+
+    @Test
+    void professionalAgendaScansAnIndexByRange() {
+        String plan = plan(() -> bookingRepository.findProfessionalBookingsInRange(1L, FROM, TO));
+
+        assertRangeInIndexCond(plan);
+    }
+
+    @Test
+    void monthlyRevenueIsAnIndexOnlyScan() {
+        String plan = plan(() -> bookingRepository.calculateMonthlyRevenue(1L, YearMonth.of(2099, 6)));
+
+        assertThat(plan).contains("Index Only Scan using idx_booking_business_completed_start");
+        assertRangeInIndexCond(plan);
+    }
+
+    @Test
+    void statusCountScansAnIndexByRange() {
+        String plan = plan(() -> bookingRepository.countByBusinessStatusAndStartRange(
+                1L, BookingStatus.NO_SHOW, FROM, TO));
+
+        assertRangeInIndexCond(plan);
+    }
+
+    /**
+     * Plan genérico de la consulta a bookings que hace la acción
+     */
+    private String plan(Runnable action) {
+        List<String> bookingQueries = SqlCapture.during(action).stream()
+                .filter(sql -> sql.contains(" bookings "))
+                .toList();
+        assertThat(bookingQueries).hasSize(1);
+        String sql = bookingQueries.get(0);
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            jdbcTemplate.execute("PREPARE booking_plan_test AS " + numberParameters(sql));
+            try {
+                // Con el plan genérico los valores no cuentan: el plan muestra $1, $2...
+                String nulls = String.join(", ", Collections.nCopies(parameters, "NULL"));
+                return String.join("\n", jdbcTemplate.queryForList(
+                        "EXPLAIN EXECUTE booking_plan_test(" + nulls + ")", String.class));
+            } finally {
+                jdbcTemplate.execute("DEALLOCATE booking_plan_test");
+            }
+        });
+    }
+
+    /**
+     * El rango de start_time tiene que ser condición del índice, no un filtro sobre lo leído
+     */
+    private static void assertRangeInIndexCond(String plan) {
+        assertThat(plan).doesNotContain("Seq Scan on bookings");
+        assertThat(plan.lines().filter(line -> line.contains("Index Cond:")))
+                .anySatisfy(line -> assertThat(line).contains("start_time >= $").contains("start_time < $"));
+    }
+
+    /**
+     * PREPARE espera parámetros $1, $2... en lugar de los ? de JDBC
+     */
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.slotsync.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slotsync.support.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Caché de principales solo con el nivel local y con el nivel compartido en un Redis embebido: dos instancias de
+ * {@link PrincipalCache} hacen de dos nodos.
+ */
+class PrincipalCacheTest {
+
+    private static final long USER_ID = 42L;
+    private static final String EMAIL = "owner@test.slotsync";
+    private static final String PASSWORD_HASH = "$2a$10$abcdefghijklmnopqrstuv";
+
+    private static EmbeddedRedis redis;
+
+    private final List<PrincipalCacheRedisTier> tiers = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile int tokenVersion;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.stop();
+    }
+
+    @AfterEach
+    void closeTiers() throws Exception {
+        for (PrincipalCacheRedisTier tier : tiers) {
+            tier.close();
+        }
+        redis.flushAll();
+    }
+
+    @Test
+    void localTierCachesUntilEvicted() {
+        PrincipalCache cache = node(null);
+
+        cache.getById(USER_ID, this::load);
+        assertThat(cache.getById(USER_ID, this::load).getPassword()).isEqualTo(PASSWORD_HASH);
+        assertThat(loads).hasValue(1);
+
+        cache.evict(USER_ID);
+        cache.getById(USER_ID, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void sharedTierHoldsJsonWithoutThePassword() {
+        PrincipalCache nodeA = node(sharedTier());
+        PrincipalCache nodeB = node(sharedTier());
+
+        nodeA.getById(USER_ID, this::load);
+        UserPrincipal shared = nodeB.getById(USER_ID, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(shared.getPassword()).isNull();
+        assertThat(shared.getBusinessId()).isEqualTo(7L);
+        assertThat(shared.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_BUSINESS_OWNER");
+        assertThat(redisKeys()).allMatch(key -> key.startsWith("slotsync:principal:v2:"));
+        assertThat(redis.template().opsForValue().get("slotsync:principal:v2:id:" + USER_ID))
+                .startsWith("{").doesNotContain(PASSWORD_HASH);
+
+        // El login necesita la contraseña: el principal compartido no sirve y se carga de la base de datos
+        assertThat(nodeB.getByEmail(EMAIL, email -> load(USER_ID)).getPassword()).isEqualTo(PASSWORD_HASH);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictionReachesTheOtherNodeOverPubSub() {
+        PrincipalCache nodeA = node(sharedTier());
+        PrincipalCache nodeB = node(sharedTier());
+        nodeB.getById(USER_ID, this::load);
+
+        tokenVersion = 1;
+        nodeA.evict(USER_ID);
+
+        // Hasta que llega el mensaje, el nodo B sigue sirviendo su copia local
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> nodeB.getById(USER_ID, this::load).getTokenVersion() == 1);
+    }
+
+    @Test
+    void unreadableSharedEntryIsACacheMiss() {
+        PrincipalCache cache = node(sharedTier());
+        redis.template().opsForValue().set("slotsync:principal:v2:id:" + USER_ID, "¬í\u0000\u0005sr");
+
+        assertThat(cache.getById(USER_ID, this::load).getId()).isEqualTo(USER_ID);
+        assertThat(loads).hasValue(1);
+    }
+
+    private PrincipalCache node(PrincipalCacheRedisTier sharedTier) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<PrincipalCacheRedisTier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(sharedTier);
+        PrincipalCache cache = new PrincipalCache(provider, new SimpleMeterRegistry(), true, 300, 100);
+        if (sharedTier != null) {
+            sharedTier.ensureSubscribed();
+        }
+        return cache;
+    }
+
+    private PrincipalCacheRedisTier sharedTier() {
+        PrincipalCacheRedisTier tier = new PrincipalCacheRedisTier(redis.connectionFactory(), new ObjectMapper(),
+                "slotsync:principal:invalidate", 900);
+        tiers.add(tier);
+        return tier;
+    }
+
+    private UserPrincipal load(Long userId) {
+        loads.incrementAndGet();
+        return new UserPrincipal(userId, EMAIL, PASSWORD_HASH, "BUSINESS_OWNER", 7L, tokenVersion,
+                Set.of(new SimpleGrantedAuthority("ROLE_BUSINESS_OWNER")));
+    }
+
+    private Set<String> redisKeys() {
+        return redis.template().keys("*");
+    }
+}
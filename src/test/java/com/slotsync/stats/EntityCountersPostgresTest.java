@@ -0,0 +1,145 @@
+package com.slotsync.stats;
+
+import com.slotsync.event.BusinessCatalogChangedEvent;
+import com.slotsync.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * La reconciliación recorre los ids reales por páginas y corrige los contadores derivados de bookings; los puntos
+ * de fidelidad se escriben al concederlos y la reconciliación no los toca. Las valoraciones vaciadas por JDBC
+ * avisan del cambio de catálogo del negocio, cuya página pública las muestra.
+ */
+@PostgresTest
+@RecordApplicationEvents
+// Sin vaciados programados: los eventos se registran solo en el hilo del test
+@TestPropertySource(properties = {
+        "app.stats.counters.reconcile-chunk-size=1000",
+        "app.stats.counters.flush-interval-ms=3600000"
+})
+class EntityCountersPostgresTest {
+
+    @Autowired
+    private EntityCounters counters;
+
+    @Autowired
+    private EntityCountersReconciliationJob reconciliationJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private long userId;
+    private long businessId;
+    private long serviceId;
+    private long professionalId;
+    private long firstCustomerId;
+    private long secondCustomerId;
+
+    @BeforeEach
+    void createFixture() {
+        userId = nextId();
+        businessId = nextId();
+        serviceId = nextId();
+        professionalId = nextId();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, password, role, created_at, "
+                + "is_active) VALUES (?, 'Counters', 'Test', ?, 'x', 'BUSINESS_OWNER', now(), true)",
+                userId, "counters-" + userId + "@test.slotsync");
+        jdbcTemplate.update("INSERT INTO businesses (id, name, slug, subscription_plan, owner_id, created_at, "
+                + "is_active) VALUES (?, 'Counters test', ?, 'BUSINESS', ?, now(), true)",
+                businessId, "counters-test-" + businessId, userId);
+        jdbcTemplate.update("INSERT INTO services (id, name, price, duration, business_id, created_at, is_active) "
+                + "VALUES (?, 'Corte', 20, 30, ?, now(), true)", serviceId, businessId);
+        jdbcTemplate.update("INSERT INTO professionals (id, user_id, business_id, rating_average, total_reviews, "
+                + "created_at, is_active) VALUES (?, ?, ?, 0, 0, now(), true)", professionalId, userId, businessId);
+        firstCustomerId = insertCustomer();
+        // Ids no consecutivos, como los de la secuencia compartida
+        nextId();
+        secondCustomerId = insertCustomer();
+        insertBooking(firstCustomerId, 1, "COMPLETED");
+        insertBooking(secondCustomerId, 2, "NO_SHOW");
+        insertBooking(secondCustomerId, 3, "CANCELLED");
+    }
+
+    @AfterEach
+    void dropFixture() {
+        jdbcTemplate.update("DELETE FROM booking_daily_stats WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM bookings WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id IN (?, ?)", firstCustomerId, secondCustomerId);
+        jdbcTemplate.update("DELETE FROM professionals WHERE id = ?", professionalId);
+        jdbcTemplate.update("DELETE FROM services WHERE id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM businesses WHERE id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void reconciliationCorrectsEveryCustomerAndKeepsLoyaltyPoints() {
+        jdbcTemplate.update("UPDATE customers SET total_bookings = 9, total_no_shows = 9, total_cancellations = 9, "
+                + "loyalty_points = 40 WHERE id IN (?, ?)", firstCustomerId, secondCustomerId);
+
+        reconciliationJob.reconcileAll();
+
+        assertThat(customer(firstCustomerId)).containsEntry("total_bookings", 1).containsEntry("total_no_shows", 0)
+                .containsEntry("total_cancellations", 0).containsEntry("loyalty_points", 40);
+        assertThat(customer(secondCustomerId)).containsEntry("total_bookings", 2).containsEntry("total_no_shows", 1)
+                .containsEntry("total_cancellations", 1).containsEntry("loyalty_points", 40);
+    }
+
+    @Test
+    void loyaltyPointsAreWrittenWithoutWaitingForAFlush() {
+        counters.addLoyaltyPoints(firstCustomerId, 15);
+        counters.addLoyaltyPoints(firstCustomerId, -5);
+
+        assertThat(customer(firstCustomerId)).containsEntry("loyalty_points", 10);
+    }
+
+    @Test
+    void flushedRatingsInvalidateTheBusinessCatalog() {
+        counters.recordRating(professionalId, 4, 1);
+        counters.recordRating(professionalId, 5, 1);
+
+        counters.flush();
+
+        assertThat(jdbcTemplate.queryForMap("SELECT rating_average, total_reviews FROM professionals WHERE id = ?",
+                professionalId)).containsEntry("total_reviews", 2);
+        assertThat(events.stream(BusinessCatalogChangedEvent.class))
+                .contains(new BusinessCatalogChangedEvent(businessId));
+    }
+
+    private Map<String, Object> customer(long id) {
+        return jdbcTemplate.queryForMap("SELECT total_bookings, total_no_shows, total_cancellations, loyalty_points "
+                + "FROM customers WHERE id = ?", id);
+    }
+
+    private long insertCustomer() {
+        long id = nextId();
+        jdbcTemplate.update("INSERT INTO customers (id, email, total_bookings, total_no_shows, total_cancellations, "
+                + "loyalty_points, created_at, is_active) VALUES (?, ?, 0, 0, 0, 0, now(), true)",
+                id, "customer-" + id + "@test.slotsync");
+        return id;
+    }
+
+    private void insertBooking(long customerId, int day, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (id, booking_code, start_time, end_time, status, price, business_id, "
+                + "customer_id, professional_id, service_id, created_at, is_active) VALUES (?, ?, "
+                + "TIMESTAMP '2099-01-01 10:00' + make_interval(days => ?), "
+                + "TIMESTAMP '2099-01-01 10:30' + make_interval(days => ?), ?, 20, ?, ?, ?, ?, now(), true)",
+                nextId(), "BKCOUNTERS" + nextId(), day, day, status, businessId, customerId, professionalId, serviceId);
+    }
+
+    private long nextId() {
+        return jdbcTemplate.queryForObject("SELECT nextval('slotsync_id_seq')", Long.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.slotsync.stripe;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slotsync.repository.PaymentRepository;
+import com.slotsync.repository.SubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un lote que no se puede confirmar se repite evento a evento: el que vuelve a fallar queda FAILED y los demás se
+ * aplican, en vez de reintentar el lote entero para siempre.
+ */
+class StripeEventApplierTest {
+
+    private static final LocalDateTime RECEIVED_AT = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    private final StoredStripeEvent poison = event(1L, "evt_poison");
+    private final StoredStripeEvent healthy = event(2L, "evt_healthy");
+
+    private StripeWebhookEventRepository eventRepository;
+    private PlatformTransactionManager transactionManager;
+    private StripeEventApplier applier;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(StripeWebhookEventRepository.class);
+        when(eventRepository.tryLockPartition(anyInt())).thenReturn(true);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        applier = new StripeEventApplier(eventRepository, mock(PaymentRepository.class),
+                mock(SubscriptionRepository.class), new ObjectMapper(), transactionManager, 10, 30);
+    }
+
+    @Test
+    void batchThatFailsToCommitIsRetriedOneEventPerTransaction() {
+        when(eventRepository.findDue(0, 4, 10)).thenReturn(List.of(poison, healthy));
+        when(eventRepository.findDue(0, 4, 1)).thenReturn(List.of(poison), List.of(healthy), List.of());
+        // El lote y el evento envenenado fallan al confirmar; el resto de transacciones confirman
+        doThrow(new DataIntegrityViolationException("violates check constraint"))
+                .doThrow(new DataIntegrityViolationException("violates check constraint"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        StripeEventApplier.BatchResult result = applier.processBatch(0, 4, 10);
+
+        assertThat(result.claimed()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.ignored()).isEqualTo(1);
+        assertThat(result.oldestReceivedAt()).isEqualTo(RECEIVED_AT);
+        verify(eventRepository).markFailed(eq(List.of(1L)), anyString());
+        verify(eventRepository, never()).markFailed(eq(List.of(2L)), anyString());
+    }
+
+    @Test
+    void batchThatCommitsIsNotRetried() {
+        when(eventRepository.findDue(0, 4, 10)).thenReturn(List.of(poison, healthy));
+        doNothing().when(transactionManager).commit(any());
+
+        StripeEventApplier.BatchResult result = applier.processBatch(0, 4, 10);
+
+        assertThat(result.ignored()).isEqualTo(2);
+        verify(eventRepository, never()).findDue(0, 4, 1);
+        verify(eventRepository, never()).markFailed(any(), anyString());
+    }
+
+    private static StoredStripeEvent event(long id, String eventId) {
+        return new StoredStripeEvent(id, eventId, "invoice.paid", "in_" + id, "{\"data\":{\"object\":{}}}", 0,
+                RECEIVED_AT);
+    }
+}
@@ -0,0 +1,57 @@
+package com.slotsync.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * Redis embebido en un puerto libre para los tests de invalidación entre nodos (pub/sub).
+ * Se arranca en un @BeforeAll y se para en un @AfterAll; {@link #flushAll()} entre tests.
+ */
+public final class EmbeddedRedis {
+
+    private final RedisServer server;
+    private final LettuceConnectionFactory connectionFactory;
+
+    private EmbeddedRedis(RedisServer server, LettuceConnectionFactory connectionFactory) {
+        this.server = server;
+        this.connectionFactory = connectionFactory;
+    }
+
+    public static EmbeddedRedis start() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        RedisServer server = new RedisServer(port);
+        server.start();
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        return new EmbeddedRedis(server, connectionFactory);
+    }
+
+    public LettuceConnectionFactory connectionFactory() {
+        return connectionFactory;
+    }
+
+    public StringRedisTemplate template() {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    public void flushAll() {
+        template().execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    public void stop() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+}
@@ -0,0 +1,38 @@
+package com.slotsync.support;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test de integración contra PostgreSQL real (restricciones de exclusión, planes de ejecución...).
+ * Solo se ejecuta si está definida SLOTSYNC_TEST_DB_URL; Flyway aplica las migraciones al arrancar.
+ * <pre>
+ * SLOTSYNC_TEST_DB_URL=jdbc:postgresql://localhost:5432/slotsync_test SLOTSYNC_TEST_DB_USERNAME=slotsync \
+ *   SLOTSYNC_TEST_DB_PASSWORD=... mvn test
+ * </pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "SLOTSYNC_TEST_DB_URL", matches = ".+")
+@TestPropertySource(properties = {
+        "spring.datasource.url=${SLOTSYNC_TEST_DB_URL}",
+        "spring.datasource.username=${SLOTSYNC_TEST_DB_USERNAME:postgres}",
+        "spring.datasource.password=${SLOTSYNC_TEST_DB_PASSWORD:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+public @interface PostgresTest {
+}
@@ -0,0 +1,38 @@
+package com.slotsync.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda el SQL que Hibernate prepara en el hilo actual, para examinar en los tests lo que de verdad se ejecuta.
+ * Se activa con spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * SQL preparado mientras se ejecuta la acción
+     */
+    public static List<String> during(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+}